@@ -0,0 +1,110 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import ibm.security.internal.spec.CCMParameterSpec;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decrypts records of the AEAD ciphers that all fail the tag check, as an
+ * endpoint flooded with forged records does, against decrypting the same
+ * records unmodified.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AEADTagFailureBenchmark {
+
+    @Param({"AES/GCM/NoPadding", "AES/CCM/NoPadding", "ChaCha20-Poly1305"})
+    String transformation;
+
+    @Param({"16", "1024", "16384"})
+    int payloadSize;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Cipher decrypter;
+    private SecretKeySpec key;
+    private AlgorithmParameterSpec parameters;
+    private byte[] cipherText;
+    private byte[] forgedText;
+    private byte[] output;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider p = BenchmarkProviders.get(provider, "Cipher", transformation);
+        Cipher encrypter = Cipher.getInstance(transformation, p);
+        decrypter = Cipher.getInstance(transformation, p);
+
+        SecureRandom random = new SecureRandom();
+        byte[] keyBytes = new byte[32];
+        random.nextBytes(keyBytes);
+        key = new SecretKeySpec(keyBytes, transformation.startsWith("AES") ? "AES" : "ChaCha20");
+        byte[] iv = new byte[12];
+        random.nextBytes(iv);
+        if (transformation.contains("/GCM/")) {
+            parameters = new GCMParameterSpec(128, iv);
+        } else if (transformation.contains("/CCM/")) {
+            parameters = new CCMParameterSpec(128, iv);
+        } else {
+            parameters = new IvParameterSpec(iv);
+        }
+
+        byte[] plainText = new byte[payloadSize];
+        random.nextBytes(plainText);
+        encrypter.init(Cipher.ENCRYPT_MODE, key, parameters);
+        cipherText = encrypter.doFinal(plainText);
+
+        // A forged record differs from the genuine one in the last byte of
+        // the tag.
+        //
+        forgedText = cipherText.clone();
+        forgedText[forgedText.length - 1] ^= 1;
+        output = new byte[cipherText.length];
+    }
+
+    @Benchmark
+    public int decryptForged() throws Exception {
+        decrypter.init(Cipher.DECRYPT_MODE, key, parameters);
+        try {
+            return decrypter.doFinal(forgedText, 0, forgedText.length, output, 0);
+        } catch (AEADBadTagException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int decryptGenuine() throws Exception {
+        decrypter.init(Cipher.DECRYPT_MODE, key, parameters);
+        return decrypter.doFinal(cipherText, 0, cipherText.length, output, 0);
+    }
+}
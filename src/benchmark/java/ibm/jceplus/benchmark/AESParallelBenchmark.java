@@ -0,0 +1,97 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encrypts a 64 MB buffer in one doFinal with AES/CTR and AES/ECB of
+ * OpenJCEPlus, sequentially and split over 2 to 8 threads. A parallelism
+ * of 1 leaves the parallel threshold unset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AESParallelBenchmark {
+
+    private static final String PARALLEL_THRESHOLD = "com.ibm.crypto.provider.AESParallelThreshold";
+    private static final String PARALLELISM = "com.ibm.crypto.provider.AESParallelism";
+
+    @Param({"AES/CTR/NoPadding", "AES/ECB/NoPadding"})
+    String transformation;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    private Cipher cipher;
+    private SecretKeySpec key;
+    private IvParameterSpec iv;
+    private byte[] input;
+    private byte[] output;
+
+    @Setup
+    public void setup() throws Exception {
+        if (parallelism > 1) {
+            System.setProperty(PARALLEL_THRESHOLD, "0");
+            System.setProperty(PARALLELISM, Integer.toString(parallelism));
+        } else {
+            System.clearProperty(PARALLEL_THRESHOLD);
+            System.clearProperty(PARALLELISM);
+        }
+
+        SecureRandom random = new SecureRandom();
+        byte[] keyBytes = new byte[32];
+        byte[] counter = new byte[16];
+        random.nextBytes(keyBytes);
+        random.nextBytes(counter);
+        key = new SecretKeySpec(keyBytes, "AES");
+        iv = new IvParameterSpec(counter);
+        input = new byte[64 * 1024 * 1024];
+        random.nextBytes(input);
+        output = new byte[input.length];
+
+        cipher = Cipher.getInstance(transformation,
+                BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS, "Cipher", transformation));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(PARALLEL_THRESHOLD);
+        System.clearProperty(PARALLELISM);
+    }
+
+    @Benchmark
+    public int encrypt() throws Exception {
+        if (transformation.contains("ECB")) {
+            cipher.init(Cipher.ENCRYPT_MODE, key);
+        } else {
+            cipher.init(Cipher.ENCRYPT_MODE, key, iv);
+        }
+        return cipher.doFinal(input, 0, input.length, output, 0);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import com.ibm.crypto.plus.provider.BatchMessageDigest;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Digests a batch of independent messages with BatchMessageDigest, on the
+ * calling thread and on the common pool, against a loop over a
+ * MessageDigest of OpenJCEPlus and of the JDK. Every benchmark returns the
+ * digests of the whole batch in one array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchMessageDigestBenchmark {
+
+    @Param({"SHA-256", "SHA-512"})
+    String algorithm;
+
+    @Param({"32", "128", "1024", "65536"})
+    int payloadSize;
+
+    @Param({"16", "1024"})
+    int batchSize;
+
+    private BatchMessageDigest batchDigest;
+    private MessageDigest digest;
+    private MessageDigest jdkDigest;
+    private byte[][] messages;
+
+    @Setup
+    public void setup() throws Exception {
+        batchDigest = BatchMessageDigest.getInstance(algorithm,
+                BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS, "MessageDigest", algorithm));
+        digest = MessageDigest.getInstance(algorithm,
+                BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS, "MessageDigest", algorithm));
+        jdkDigest = MessageDigest.getInstance(algorithm,
+                BenchmarkProviders.get(BenchmarkProviders.JDK, "MessageDigest", algorithm));
+
+        SecureRandom random = new SecureRandom();
+        messages = new byte[batchSize][payloadSize];
+        for (byte[] message : messages) {
+            random.nextBytes(message);
+        }
+    }
+
+    @Benchmark
+    public byte[] batch() throws Exception {
+        return batchDigest.digest(messages);
+    }
+
+    @Benchmark
+    public byte[] batchCommonPool() throws Exception {
+        return batchDigest.digest(messages, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public byte[] messageDigestLoop() throws Exception {
+        return loop(digest);
+    }
+
+    @Benchmark
+    public byte[] jdkMessageDigestLoop() throws Exception {
+        return loop(jdkDigest);
+    }
+
+    private byte[] loop(MessageDigest md) throws Exception {
+        int length = md.getDigestLength();
+        byte[] output = new byte[messages.length * length];
+        for (int i = 0; i < messages.length; i++) {
+            md.update(messages[i]);
+            md.digest(output, i * length, length);
+        }
+        return output;
+    }
+}
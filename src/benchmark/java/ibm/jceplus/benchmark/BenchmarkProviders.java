@@ -0,0 +1,63 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import com.ibm.crypto.plus.provider.OpenJCEPlus;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+
+/**
+ * Resolves the provider a benchmark runs against. Every benchmark has a
+ * {@code provider} parameter that is either {@value #OPENJCEPLUS} or
+ * {@value #JDK}, the latter meaning the most preferred provider of the JDK
+ * that offers the same algorithm, such as SunJCE, SunEC or SUN, as the
+ * baseline. For an algorithm the JDK lacks, such as AES/CCM, the setup of
+ * the baseline fails and JMH continues with the next benchmark.
+ */
+final class BenchmarkProviders {
+
+    static final String OPENJCEPLUS = "OpenJCEPlus";
+
+    static final String JDK = "JDK";
+
+    private BenchmarkProviders() {}
+
+    /**
+     * Returns the provider to benchmark the algorithm of the service type
+     * with, loading OpenJCEPlus if it is not installed.
+     */
+    static synchronized Provider get(String provider, String type, String algorithm)
+            throws NoSuchAlgorithmException {
+        if (Security.getProvider(OPENJCEPLUS) == null) {
+            Security.addProvider(new OpenJCEPlus());
+        }
+
+        if (OPENJCEPLUS.equals(provider)) {
+            return Security.getProvider(OPENJCEPLUS);
+        } else if (!JDK.equals(provider)) {
+            throw new IllegalArgumentException("Unknown provider parameter " + provider);
+        }
+
+        // A cipher transformation is usually registered by its algorithm
+        // only, with the modes and paddings as attributes.
+        //
+        String baseAlgorithm = algorithm.split("/")[0];
+        for (Provider candidate : Security.getProviders()) {
+            if (candidate.getName().startsWith(OPENJCEPLUS)) {
+                continue;
+            }
+            if ((candidate.getService(type, algorithm) != null)
+                    || ("Cipher".equals(type) && (candidate.getService(type, baseAlgorithm) != null))) {
+                return candidate;
+            }
+        }
+        throw new NoSuchAlgorithmException("No JDK provider for " + type + "." + algorithm);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.io.File;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once for every thread count in the system property
+ * {@code benchmark.threads}, a comma separated list that defaults to 1 and
+ * the number of available processors. Allocation is measured with the JMH
+ * GC profiler. The results of each thread count are written as JSON to
+ * {@code jmh-<threads>-threads.json} in the directory given by
+ * {@code benchmark.output}, {@code target/benchmarks} by default.
+ *
+ * <p>The arguments are JMH command line options, for example a regular
+ * expression selecting the benchmarks to run or {@code -p provider=OpenJCEPlus}
+ * to skip the JDK baseline.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Options commandLine = new CommandLineOptions(args);
+        String threads = System.getProperty("benchmark.threads", "");
+        if (threads.isBlank()) {
+            threads = "1," + Runtime.getRuntime().availableProcessors();
+        }
+        File output = new File(System.getProperty("benchmark.output", "target/benchmarks"));
+        output.mkdirs();
+
+        for (String count : threads.split(",")) {
+            int threadCount = Integer.parseInt(count.trim());
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(output, "jmh-" + threadCount + "-threads.json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import ibm.security.internal.spec.CCMParameterSpec;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.ChaCha20ParameterSpec;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encrypts and decrypts complete messages with the symmetric ciphers, by
+ * mode and payload size. Every operation initializes the cipher, with a new
+ * IV for encryption, as a protocol does for each record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CipherBenchmark {
+
+    @Param({"AES/GCM/NoPadding", "AES/CCM/NoPadding", "AES/CBC/PKCS5Padding",
+            "AES/CBC/NoPadding", "AES/CTR/NoPadding", "AES/ECB/NoPadding", "AES/CFB/NoPadding",
+            "AES/OFB/NoPadding", "ChaCha20", "ChaCha20-Poly1305", "DESede/CBC/PKCS5Padding"})
+    String transformation;
+
+    @Param({"16", "1024", "16384", "1048576"})
+    int payloadSize;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Cipher encrypter;
+    private Cipher decrypter;
+    private SecretKeySpec key;
+    private byte[] iv;
+    private long counter;
+    private AlgorithmParameterSpec decryptParameters;
+    private byte[] plainText;
+    private byte[] cipherText;
+    private byte[] output;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider p = BenchmarkProviders.get(provider, "Cipher", transformation);
+        encrypter = Cipher.getInstance(transformation, p);
+        decrypter = Cipher.getInstance(transformation, p);
+
+        SecureRandom random = new SecureRandom();
+        String algorithm = transformation.split("/")[0];
+        byte[] keyBytes = new byte[algorithm.equals("DESede") ? 24 : 32];
+        random.nextBytes(keyBytes);
+        key = new SecretKeySpec(keyBytes, algorithm);
+        iv = new byte[algorithm.equals("DESede") ? 8 : (transformation.contains("/GCM/")
+                || transformation.contains("/CCM/") || algorithm.startsWith("ChaCha20")) ? 12
+                        : 16];
+        random.nextBytes(iv);
+
+        // Block modes without padding need whole blocks.
+        //
+        int blockSize = transformation.contains("NoPadding") && !transformation.contains("/GCM/")
+                && !transformation.contains("/CCM/") && !transformation.contains("/CTR/") ? 16 : 1;
+        plainText = new byte[(payloadSize / blockSize) * blockSize];
+        random.nextBytes(plainText);
+
+        AlgorithmParameterSpec parameters = parameters();
+        if (parameters == null) {
+            encrypter.init(Cipher.ENCRYPT_MODE, key);
+        } else {
+            encrypter.init(Cipher.ENCRYPT_MODE, key, parameters);
+        }
+        cipherText = encrypter.doFinal(plainText);
+        decryptParameters = parameters;
+        output = new byte[plainText.length + 64];
+    }
+
+    @Benchmark
+    public int encrypt() throws Exception {
+        AlgorithmParameterSpec parameters = nextParameters();
+        if (parameters == null) {
+            encrypter.init(Cipher.ENCRYPT_MODE, key);
+        } else {
+            encrypter.init(Cipher.ENCRYPT_MODE, key, parameters);
+        }
+        return encrypter.doFinal(plainText, 0, plainText.length, output, 0);
+    }
+
+    @Benchmark
+    public int decrypt() throws Exception {
+        if (decryptParameters == null) {
+            decrypter.init(Cipher.DECRYPT_MODE, key);
+        } else {
+            decrypter.init(Cipher.DECRYPT_MODE, key, decryptParameters);
+        }
+        return decrypter.doFinal(cipherText, 0, cipherText.length, output, 0);
+    }
+
+    // AEAD ciphers and ChaCha20 refuse to encrypt twice with the same key
+    // and IV, so the IV is advanced for every encryption.
+    //
+    private AlgorithmParameterSpec nextParameters() {
+        counter++;
+        for (int i = 0; i < 8; i++) {
+            iv[iv.length - 1 - i] = (byte) (counter >>> (8 * i));
+        }
+        return parameters();
+    }
+
+    private AlgorithmParameterSpec parameters() {
+        if (transformation.contains("/GCM/")) {
+            return new GCMParameterSpec(128, iv.clone());
+        } else if (transformation.contains("/CCM/")) {
+            return new CCMParameterSpec(128, iv.clone());
+        } else if (transformation.equals("ChaCha20")) {
+            return new ChaCha20ParameterSpec(iv.clone(), 1);
+        } else if (transformation.contains("/ECB/")) {
+            return null;
+        }
+        return new IvParameterSpec(iv.clone());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs short operations of OpenJCEPlus on many threads at once, with the
+ * provider using a single OCK context and with the threads striped over 16
+ * contexts. Every thread creates its own engine, so that it uses the context
+ * of its stripe. The thread count can be changed with the -t option of JMH.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+public class ContextShardingBenchmark {
+
+    @Param({"SHA-256", "HmacSHA256", "AES/GCM/NoPadding", "SHA256withECDSA"})
+    String algorithm;
+
+    private MessageDigest digest;
+    private Mac mac;
+    private Cipher cipher;
+    private SecretKeySpec key;
+    private GCMParameterSpec parameters;
+    private Signature signature;
+    private PrivateKey privateKey;
+    private byte[] message;
+    private byte[] cipherText;
+    private byte[] output;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider provider = BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS,
+                "MessageDigest", "SHA-256");
+        SecureRandom random = new SecureRandom();
+        message = new byte[256];
+        random.nextBytes(message);
+        byte[] keyBytes = new byte[32];
+        random.nextBytes(keyBytes);
+
+        switch (algorithm) {
+            case "SHA-256":
+                digest = MessageDigest.getInstance(algorithm, provider);
+                break;
+            case "HmacSHA256":
+                mac = Mac.getInstance(algorithm, provider);
+                mac.init(new SecretKeySpec(keyBytes, algorithm));
+                break;
+            case "AES/GCM/NoPadding":
+                // Decryption may repeat the IV, so the same record is
+                // decrypted over and over.
+                //
+                cipher = Cipher.getInstance(algorithm, provider);
+                key = new SecretKeySpec(keyBytes, "AES");
+                byte[] iv = new byte[12];
+                random.nextBytes(iv);
+                parameters = new GCMParameterSpec(128, iv);
+                cipher.init(Cipher.ENCRYPT_MODE, key, parameters);
+                cipherText = cipher.doFinal(message);
+                output = new byte[message.length];
+                break;
+            default:
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", provider);
+                generator.initialize(256);
+                privateKey = generator.generateKeyPair().getPrivate();
+                signature = Signature.getInstance(algorithm, provider);
+                break;
+        }
+    }
+
+    private Object operation() throws Exception {
+        switch (algorithm) {
+            case "SHA-256":
+                return digest.digest(message);
+            case "HmacSHA256":
+                return mac.doFinal(message);
+            case "AES/GCM/NoPadding":
+                cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+                return cipher.doFinal(cipherText, 0, cipherText.length, output, 0);
+            default:
+                signature.initSign(privateKey);
+                signature.update(message);
+                return signature.sign();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dcom.ibm.crypto.provider.OCKContextShards=1")
+    public Object singleContext() throws Exception {
+        return operation();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dcom.ibm.crypto.provider.OCKContextShards=16")
+    public Object shardedContexts() throws Exception {
+        return operation();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.spec.NamedParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.KeyAgreement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generates Diffie-Hellman key pairs the way a TLS server does for every
+ * handshake, with a new generator for a size without precomputed
+ * parameters and for the ffdhe2048 group, and agrees on a secret with a
+ * peer key imported from its encoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DHBenchmark {
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Provider keyPairGeneratorProvider;
+    private KeyFactory keyFactory;
+    private KeyAgreement agreement;
+    private KeyPair keyPair;
+    private X509EncodedKeySpec peerKeySpec;
+
+    @Setup
+    public void setup() throws Exception {
+        keyPairGeneratorProvider = BenchmarkProviders.get(provider, "KeyPairGenerator", "DH");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("DH", keyPairGeneratorProvider);
+        generator.initialize(new NamedParameterSpec("ffdhe2048"));
+        keyPair = generator.generateKeyPair();
+        peerKeySpec = new X509EncodedKeySpec(generator.generateKeyPair().getPublic().getEncoded());
+
+        keyFactory = KeyFactory.getInstance("DH",
+                BenchmarkProviders.get(provider, "KeyFactory", "DH"));
+        agreement = KeyAgreement.getInstance("DH",
+                BenchmarkProviders.get(provider, "KeyAgreement", "DH"));
+    }
+
+    @Benchmark
+    public KeyPair generateKeyPairGeneratedParameters() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("DH", keyPairGeneratorProvider);
+        generator.initialize(576);
+        return generator.generateKeyPair();
+    }
+
+    @Benchmark
+    public KeyPair generateKeyPairNamedGroup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("DH", keyPairGeneratorProvider);
+        generator.initialize(new NamedParameterSpec("ffdhe2048"));
+        return generator.generateKeyPair();
+    }
+
+    @Benchmark
+    public byte[] generateSecretImportedPeerKey() throws Exception {
+        agreement.init(keyPair.getPrivate());
+        agreement.doPhase(keyFactory.generatePublic(peerKeySpec), true);
+        return agreement.generateSecret();
+    }
+}
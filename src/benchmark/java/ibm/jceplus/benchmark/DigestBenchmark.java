@@ -0,0 +1,81 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hashes messages of several sizes with every message digest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DigestBenchmark {
+
+    @Param({"MD5", "SHA-1", "SHA-224", "SHA-256", "SHA-384", "SHA-512", "SHA-512/224",
+            "SHA-512/256", "SHA3-224", "SHA3-256", "SHA3-384", "SHA3-512"})
+    String algorithm;
+
+    @Param({"16", "1024", "16384", "1048576"})
+    int payloadSize;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private MessageDigest digest;
+    private MessageDigest transcript;
+    private byte[] message;
+
+    @Setup
+    public void setup() throws Exception {
+        digest = MessageDigest.getInstance(algorithm,
+                BenchmarkProviders.get(provider, "MessageDigest", algorithm));
+        message = new byte[payloadSize];
+        new SecureRandom().nextBytes(message);
+        transcript = (MessageDigest) digest.clone();
+        transcript.update(message);
+    }
+
+    @Benchmark
+    public byte[] digest() {
+        return digest.digest(message);
+    }
+
+    // A new instance for every message, as code that does not keep digests
+    // around does, which includes the cost of the native context.
+    //
+    @Benchmark
+    public byte[] newInstanceDigest() throws Exception {
+        return MessageDigest.getInstance(algorithm, digest.getProvider()).digest(message);
+    }
+
+    // The digest of a running digest without ending it, as a TLS handshake
+    // takes of its transcript, which includes the cost of the clone.
+    //
+    @Benchmark
+    public byte[] cloneDigest() throws Exception {
+        return ((MessageDigest) transcript.clone()).digest();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import com.ibm.crypto.plus.provider.ECDSABatchVerifier;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Verifies a batch of ECDSA P-256 signatures of short records, made with a
+ * few keys, with ECDSABatchVerifier on the calling thread and on the common
+ * pool, against a loop over Signature.verify. Every benchmark verifies the
+ * whole batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ECDSABatchVerifyBenchmark {
+
+    @Param({"SHA256withECDSA"})
+    String algorithm;
+
+    @Param({"64", "4096"})
+    int batchSize;
+
+    private ECDSABatchVerifier batchVerifier;
+    private Signature verifier;
+    private PublicKey[] publicKeys;
+    private byte[][] messages;
+    private byte[][] signatures;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider provider = BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS,
+                "Signature", algorithm);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", provider);
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair[] keyPairs = new KeyPair[8];
+        for (int i = 0; i < keyPairs.length; i++) {
+            keyPairs[i] = generator.generateKeyPair();
+        }
+
+        Signature signer = Signature.getInstance(algorithm, provider);
+        publicKeys = new PublicKey[batchSize];
+        messages = new byte[batchSize][];
+        signatures = new byte[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            KeyPair keyPair = keyPairs[i % keyPairs.length];
+            publicKeys[i] = keyPair.getPublic();
+            messages[i] = ("2024-06-01T00:00:00Z host" + (i % 97) + " record " + i).getBytes();
+            signer.initSign(keyPair.getPrivate());
+            signer.update(messages[i]);
+            signatures[i] = signer.sign();
+        }
+
+        batchVerifier = ECDSABatchVerifier.getInstance(algorithm, provider);
+        verifier = Signature.getInstance(algorithm, provider);
+    }
+
+    @Benchmark
+    public BitSet batch() throws Exception {
+        return verifyBatch(null);
+    }
+
+    @Benchmark
+    public BitSet batchCommonPool() throws Exception {
+        return verifyBatch(ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public BitSet signatureLoop() throws Exception {
+        BitSet results = new BitSet(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            verifier.initVerify(publicKeys[i]);
+            verifier.update(messages[i]);
+            results.set(i, verifier.verify(signatures[i]));
+        }
+        return results;
+    }
+
+    private BitSet verifyBatch(ForkJoinPool pool) throws Exception {
+        for (int i = 0; i < batchSize; i++) {
+            batchVerifier.add(publicKeys[i], messages[i], signatures[i]);
+        }
+        return batchVerifier.verify(pool);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Imports EC keys on a named curve, from their encodings alone and from
+ * their key specs followed by the first use of the key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ECKeyImportBenchmark {
+
+    @Param({"secp256r1", "secp384r1"})
+    String curve;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private KeyFactory keyFactory;
+    private Signature signer;
+    private Signature verifier;
+    private X509EncodedKeySpec publicKeyEncoding;
+    private PKCS8EncodedKeySpec privateKeyEncoding;
+    private ECPublicKeySpec publicKeySpec;
+    private ECPrivateKeySpec privateKeySpec;
+    private byte[] message;
+    private byte[] signature;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC",
+                BenchmarkProviders.get(provider, "KeyPairGenerator", "EC"));
+        generator.initialize(new ECGenParameterSpec(curve));
+        KeyPair keyPair = generator.generateKeyPair();
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+        ECPrivateKey privateKey = (ECPrivateKey) keyPair.getPrivate();
+        publicKeyEncoding = new X509EncodedKeySpec(publicKey.getEncoded());
+        privateKeyEncoding = new PKCS8EncodedKeySpec(privateKey.getEncoded());
+        publicKeySpec = new ECPublicKeySpec(publicKey.getW(), publicKey.getParams());
+        privateKeySpec = new ECPrivateKeySpec(privateKey.getS(), privateKey.getParams());
+
+        keyFactory = KeyFactory.getInstance("EC",
+                BenchmarkProviders.get(provider, "KeyFactory", "EC"));
+        signer = Signature.getInstance("SHA256withECDSA",
+                BenchmarkProviders.get(provider, "Signature", "SHA256withECDSA"));
+        verifier = Signature.getInstance("SHA256withECDSA",
+                BenchmarkProviders.get(provider, "Signature", "SHA256withECDSA"));
+
+        message = "Hello World".getBytes();
+        signer.initSign(privateKey);
+        signer.update(message);
+        signature = signer.sign();
+    }
+
+    @Benchmark
+    public PublicKey importPublicKeyEncoding() throws Exception {
+        return keyFactory.generatePublic(publicKeyEncoding);
+    }
+
+    @Benchmark
+    public PrivateKey importPrivateKeyEncoding() throws Exception {
+        return keyFactory.generatePrivate(privateKeyEncoding);
+    }
+
+    @Benchmark
+    public boolean importPublicKeyAndVerify() throws Exception {
+        verifier.initVerify(keyFactory.generatePublic(publicKeySpec));
+        verifier.update(message);
+        return verifier.verify(signature);
+    }
+
+    @Benchmark
+    public byte[] importPrivateKeyAndSign() throws Exception {
+        signer.initSign(keyFactory.generatePrivate(privateKeySpec));
+        signer.update(message);
+        return signer.sign();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import com.ibm.crypto.plus.provider.EdDSABatchVerifier;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.Signature;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Verifies Ed25519 signatures of OpenJCEPlus: a 10 MB artifact given in one
+ * update and in 64 KB updates, and a batch of short records with
+ * EdDSABatchVerifier against a loop over Signature.verify.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EdDSAVerifyBenchmark {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Param({"4096"})
+    int batchSize;
+
+    private EdDSABatchVerifier batchVerifier;
+    private Signature verifier;
+    private KeyPair keyPair;
+    private byte[] artifact;
+    private byte[] artifactSignature;
+    private byte[][] records;
+    private byte[][] recordSignatures;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider provider = BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS,
+                "Signature", "Ed25519");
+        keyPair = KeyPairGenerator.getInstance("Ed25519", provider).generateKeyPair();
+
+        Signature signer = Signature.getInstance("Ed25519", provider);
+        signer.initSign(keyPair.getPrivate());
+        artifact = new byte[10 * 1024 * 1024];
+        signer.update(artifact);
+        artifactSignature = signer.sign();
+
+        records = new byte[batchSize][];
+        recordSignatures = new byte[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            records[i] = ("record " + i).getBytes();
+            signer.update(records[i]);
+            recordSignatures[i] = signer.sign();
+        }
+
+        batchVerifier = EdDSABatchVerifier.getInstance("Ed25519", provider);
+        verifier = Signature.getInstance("Ed25519", provider);
+    }
+
+    @Benchmark
+    public boolean artifactOneUpdate() throws Exception {
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(artifact);
+        return verifier.verify(artifactSignature);
+    }
+
+    @Benchmark
+    public boolean artifactChunked() throws Exception {
+        verifier.initVerify(keyPair.getPublic());
+        for (int offset = 0; offset < artifact.length; offset += CHUNK_SIZE) {
+            verifier.update(artifact, offset, Math.min(CHUNK_SIZE, artifact.length - offset));
+        }
+        return verifier.verify(artifactSignature);
+    }
+
+    @Benchmark
+    public BitSet recordsBatch() throws Exception {
+        for (int i = 0; i < batchSize; i++) {
+            batchVerifier.add(keyPair.getPublic(), records[i], recordSignatures[i]);
+        }
+        return batchVerifier.verify();
+    }
+
+    @Benchmark
+    public BitSet recordsSignatureLoop() throws Exception {
+        BitSet results = new BitSet(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            verifier.initVerify(keyPair.getPublic());
+            verifier.update(records[i]);
+            results.set(i, verifier.verify(recordSignatures[i]));
+        }
+        return results;
+    }
+}
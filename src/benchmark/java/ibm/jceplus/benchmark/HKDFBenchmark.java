@@ -0,0 +1,78 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import ibm.security.internal.spec.HKDFExpandParameterSpec;
+import ibm.security.internal.spec.HKDFExtractParameterSpec;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Derives keys with the HKDF key generators. The JDK has no equivalent
+ * KeyGenerator service, so only OpenJCEPlus is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HKDFBenchmark {
+
+    @Param({"kda-hkdf-with-sha1", "kda-hkdf-with-sha224", "kda-hkdf-with-sha256",
+            "kda-hkdf-with-sha384", "kda-hkdf-with-sha512"})
+    String algorithm;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS})
+    String provider;
+
+    private KeyGenerator extract;
+    private KeyGenerator expand;
+    private byte[] inputKeyMaterial = new byte[32];
+    private byte[] salt = new byte[32];
+    private byte[] info = new byte[16];
+    private byte[] pseudoRandomKey;
+
+    @Setup
+    public void setup() throws Exception {
+        extract = KeyGenerator.getInstance(algorithm,
+                BenchmarkProviders.get(provider, "KeyGenerator", algorithm));
+        expand = KeyGenerator.getInstance(algorithm, extract.getProvider());
+        SecureRandom random = new SecureRandom();
+        random.nextBytes(inputKeyMaterial);
+        random.nextBytes(salt);
+        random.nextBytes(info);
+        pseudoRandomKey = extract().getEncoded();
+    }
+
+    @Benchmark
+    public SecretKey extract() throws Exception {
+        extract.init(new HKDFExtractParameterSpec(inputKeyMaterial, salt, "HKDF-PRK"));
+        return extract.generateKey();
+    }
+
+    @Benchmark
+    public SecretKey expand() throws Exception {
+        expand.init(new HKDFExpandParameterSpec(pseudoRandomKey, info, 32, "AES"));
+        return expand.generateKey();
+    }
+}
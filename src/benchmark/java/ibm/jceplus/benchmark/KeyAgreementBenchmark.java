@@ -0,0 +1,71 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.KeyAgreement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Computes a shared secret with every key agreement algorithm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyAgreementBenchmark {
+
+    @Param({"DiffieHellman", "ECDH", "X25519", "X448"})
+    String algorithm;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private KeyAgreement agreement;
+    private KeyPair keyPair;
+    private PublicKey peerKey;
+
+    @Setup
+    public void setup() throws Exception {
+        String keyAlgorithm = algorithm.equals("ECDH") ? "EC" : algorithm;
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm,
+                BenchmarkProviders.get(provider, "KeyPairGenerator", keyAlgorithm));
+        if (algorithm.equals("DiffieHellman")) {
+            generator.initialize(2048);
+        } else if (algorithm.equals("ECDH")) {
+            generator.initialize(256);
+        }
+        keyPair = generator.generateKeyPair();
+        peerKey = generator.generateKeyPair().getPublic();
+        agreement = KeyAgreement.getInstance(algorithm,
+                BenchmarkProviders.get(provider, "KeyAgreement", algorithm));
+    }
+
+    @Benchmark
+    public byte[] generateSecret() throws Exception {
+        agreement.init(keyPair.getPrivate());
+        agreement.doPhase(peerKey, true);
+        return agreement.generateSecret();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generates key pairs with every key pair generator, RSA and finite field
+ * sizes at 2048 bits and EC on P-256.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyPairGeneratorBenchmark {
+
+    @Param({"DiffieHellman", "DSA", "EC", "X25519", "X448", "Ed25519", "Ed448", "RSA",
+            "RSASSA-PSS"})
+    String algorithm;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private KeyPairGenerator generator;
+
+    @Setup
+    public void setup() throws Exception {
+        generator = KeyPairGenerator.getInstance(algorithm,
+                BenchmarkProviders.get(provider, "KeyPairGenerator", algorithm));
+        if (algorithm.equals("EC")) {
+            generator.initialize(256);
+        } else if (algorithm.equals("DiffieHellman") || algorithm.equals("DSA")
+                || algorithm.startsWith("RSA")) {
+            generator.initialize(2048);
+        }
+    }
+
+    @Benchmark
+    public KeyPair generateKeyPair() {
+        return generator.generateKeyPair();
+    }
+}
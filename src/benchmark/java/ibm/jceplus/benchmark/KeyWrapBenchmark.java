@@ -0,0 +1,77 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.Key;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Wraps and unwraps AES keys with the AES key wrap ciphers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyWrapBenchmark {
+
+    @Param({"AES/KW/NoPadding", "AES/KWP/NoPadding"})
+    String transformation;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Cipher wrapper;
+    private Cipher unwrapper;
+    private SecretKeySpec key;
+    private byte[] wrappedKey;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider p = BenchmarkProviders.get(provider, "Cipher", transformation);
+        SecureRandom random = new SecureRandom();
+        byte[] kek = new byte[32];
+        byte[] keyBytes = new byte[32];
+        random.nextBytes(kek);
+        random.nextBytes(keyBytes);
+        key = new SecretKeySpec(keyBytes, "AES");
+
+        wrapper = Cipher.getInstance(transformation, p);
+        wrapper.init(Cipher.WRAP_MODE, new SecretKeySpec(kek, "AES"));
+        unwrapper = Cipher.getInstance(transformation, p);
+        unwrapper.init(Cipher.UNWRAP_MODE, new SecretKeySpec(kek, "AES"));
+        wrappedKey = wrapper.wrap(key);
+    }
+
+    @Benchmark
+    public byte[] wrap() throws Exception {
+        return wrapper.wrap(key);
+    }
+
+    @Benchmark
+    public Key unwrap() throws Exception {
+        return unwrapper.unwrap(wrappedKey, "AES", Cipher.SECRET_KEY);
+    }
+}
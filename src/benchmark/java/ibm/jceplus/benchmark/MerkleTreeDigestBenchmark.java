@@ -0,0 +1,117 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import com.ibm.crypto.plus.provider.MerkleTreeDigest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Computes a SHA-256 hash tree over a large direct buffer and over a file
+ * with MerkleTreeDigest, on the calling thread and on the common pool,
+ * against hashing the same leaves one after the other with a MessageDigest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MerkleTreeDigestBenchmark {
+
+    @Param({"67108864", "536870912"})
+    int dataSize;
+
+    @Param({"65536", "1048576"})
+    int leafSize;
+
+    private MerkleTreeDigest tree;
+    private MessageDigest digest;
+    private ByteBuffer data;
+    private Path file;
+    private FileChannel channel;
+
+    @Setup
+    public void setup() throws Exception {
+        tree = MerkleTreeDigest.getInstance("SHA-256",
+                BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS, "MessageDigest", "SHA-256"),
+                leafSize, MerkleTreeDigest.DEFAULT_FAN_OUT, new byte[] {0x00}, new byte[] {0x01});
+        digest = MessageDigest.getInstance("SHA-256",
+                BenchmarkProviders.get(BenchmarkProviders.OPENJCEPLUS, "MessageDigest", "SHA-256"));
+
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(42).nextBytes(chunk);
+        data = ByteBuffer.allocateDirect(dataSize);
+        while (data.hasRemaining()) {
+            data.put(chunk, 0, Math.min(chunk.length, data.remaining()));
+        }
+        data.flip();
+
+        file = Files.createTempFile("merkle", ".bin");
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            out.write(data.duplicate());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        channel.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public byte[] leafLoop() throws Exception {
+        // The leaves alone, one after the other, a lower bound on the work of
+        // a sequential tree.
+        byte[] last = null;
+        ByteBuffer input = data.duplicate();
+        for (int offset = 0; offset < dataSize; offset += leafSize) {
+            input.limit(Math.min(offset + leafSize, dataSize)).position(offset);
+            digest.update((byte) 0x00);
+            digest.update(input);
+            last = digest.digest();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public byte[] treeCallingThread() throws Exception {
+        return tree.digest(data.duplicate(), null);
+    }
+
+    @Benchmark
+    public byte[] treeCommonPool() throws Exception {
+        return tree.digest(data.duplicate(), ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public byte[] treeFileCommonPool() throws Exception {
+        return tree.digest(channel, ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import com.ibm.crypto.plus.provider.OpenJCEPlus;
+import java.security.Security;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures, once in each of many new JVMs, the time from installing the
+ * provider as the most preferred one to getting the first Cipher, and to
+ * encrypting the first block with it, which loads the native library of
+ * OpenJCEPlus. The baseline gets the Cipher of the JDK without installing a
+ * provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ProviderStartupBenchmark {
+
+    @Param({"AES/GCM/NoPadding", "AES/CBC/PKCS5Padding"})
+    String transformation;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Cipher firstCipher() throws Exception {
+        if (BenchmarkProviders.OPENJCEPLUS.equals(provider)) {
+            Security.insertProviderAt(new OpenJCEPlus(), 1);
+        }
+        return Cipher.getInstance(transformation);
+    }
+
+    @Benchmark
+    public Cipher getInstance() throws Exception {
+        return firstCipher();
+    }
+
+    @Benchmark
+    public byte[] firstEncryption() throws Exception {
+        Cipher cipher = firstCipher();
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(new byte[16], "AES"));
+        return cipher.doFinal(new byte[16]);
+    }
+}
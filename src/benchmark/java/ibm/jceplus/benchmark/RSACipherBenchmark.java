@@ -0,0 +1,79 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encrypts and decrypts a 32 byte secret with RSA.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RSACipherBenchmark {
+
+    @Param({"RSA/ECB/PKCS1Padding", "RSA/ECB/OAEPPadding"})
+    String transformation;
+
+    @Param({"2048", "4096"})
+    int keySize;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Cipher encrypter;
+    private Cipher decrypter;
+    private byte[] secret = new byte[32];
+    private byte[] cipherText;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider p = BenchmarkProviders.get(provider, "Cipher", transformation);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA",
+                BenchmarkProviders.get(provider, "KeyPairGenerator", "RSA"));
+        generator.initialize(keySize);
+        KeyPair keyPair = generator.generateKeyPair();
+        new SecureRandom().nextBytes(secret);
+
+        encrypter = Cipher.getInstance(transformation, p);
+        encrypter.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+        decrypter = Cipher.getInstance(transformation, p);
+        decrypter.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+        cipherText = encrypter.doFinal(secret);
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws Exception {
+        return encrypter.doFinal(secret);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws Exception {
+        return decrypter.doFinal(cipherText);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Signs and verifies a 1 KB message with every signature algorithm. The
+ * NONEwith algorithms sign a message of the length of a digest instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureBenchmark {
+
+    @Param({"NONEwithDSA", "SHA1withDSA", "SHA224withDSA", "SHA256withDSA", "SHA3-224withDSA",
+            "SHA3-256withDSA", "SHA3-384withDSA", "SHA3-512withDSA", "NONEwithECDSA",
+            "SHA1withECDSA", "SHA224withECDSA", "SHA256withECDSA", "SHA384withECDSA",
+            "SHA512withECDSA", "SHA3-224withECDSA", "SHA3-256withECDSA", "SHA3-384withECDSA",
+            "SHA3-512withECDSA", "NONEwithRSA", "SHA1withRSA", "SHA224withRSA", "SHA256withRSA",
+            "SHA384withRSA", "SHA512withRSA", "SHA3-224withRSA", "SHA3-256withRSA",
+            "SHA3-384withRSA", "SHA3-512withRSA", "RSASSA-PSS", "EdDSA", "Ed25519", "Ed448"})
+    String algorithm;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private Signature signer;
+    private Signature verifier;
+    private byte[] message;
+    private byte[] signature;
+
+    @Setup
+    public void setup() throws Exception {
+        Provider p = BenchmarkProviders.get(provider, "Signature", algorithm);
+        String keyAlgorithm;
+        int keySize;
+        if (algorithm.endsWith("ECDSA")) {
+            keyAlgorithm = "EC";
+            keySize = algorithm.contains("512") ? 521 : algorithm.contains("384") ? 384 : 256;
+        } else if (algorithm.endsWith("DSA") && !algorithm.startsWith("Ed")) {
+            keyAlgorithm = "DSA";
+            keySize = (algorithm.startsWith("SHA1") || algorithm.startsWith("NONE")) ? 1024
+                    : 2048;
+        } else if (algorithm.endsWith("RSA") || algorithm.equals("RSASSA-PSS")) {
+            keyAlgorithm = "RSA";
+            keySize = 2048;
+        } else {
+            keyAlgorithm = algorithm.equals("EdDSA") ? "Ed25519" : algorithm;
+            keySize = 0;
+        }
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm,
+                BenchmarkProviders.get(provider, "KeyPairGenerator", keyAlgorithm));
+        if (keySize != 0) {
+            generator.initialize(keySize);
+        }
+        KeyPair keyPair = generator.generateKeyPair();
+
+        signer = Signature.getInstance(algorithm, p);
+        verifier = Signature.getInstance(algorithm, p);
+        if (algorithm.equals("RSASSA-PSS")) {
+            PSSParameterSpec pss = new PSSParameterSpec("SHA-256", "MGF1",
+                    MGF1ParameterSpec.SHA256, 32, 1);
+            signer.setParameter(pss);
+            verifier.setParameter(pss);
+        }
+        signer.initSign(keyPair.getPrivate());
+        verifier.initVerify(keyPair.getPublic());
+
+        message = new byte[algorithm.equals("NONEwithDSA") ? 20
+                : algorithm.startsWith("NONE") ? 32 : 1024];
+        new SecureRandom().nextBytes(message);
+        signature = sign();
+    }
+
+    @Benchmark
+    public byte[] sign() throws Exception {
+        signer.update(message);
+        return signer.sign();
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        verifier.update(message);
+        return verifier.verify(signature);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Signs a 1 KB message with a new Signature for every message, as a server
+ * that creates one per request does, against signing with one Signature that
+ * is kept. The difference is the cost of creating, initializing and
+ * releasing the signature and its native contexts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignaturePerRequestBenchmark {
+
+    @Param({"SHA256withECDSA", "SHA3-256withECDSA", "SHA256withRSA", "RSASSA-PSS"})
+    String algorithm;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private static final PSSParameterSpec PSS_PARAMETERS = new PSSParameterSpec("SHA-256",
+            "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+
+    private Provider signatureProvider;
+    private KeyPair keyPair;
+    private Signature signer;
+    private byte[] message;
+
+    @Setup
+    public void setup() throws Exception {
+        signatureProvider = BenchmarkProviders.get(provider, "Signature", algorithm);
+        String keyAlgorithm = algorithm.endsWith("ECDSA") ? "EC" : "RSA";
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm,
+                BenchmarkProviders.get(provider, "KeyPairGenerator", keyAlgorithm));
+        generator.initialize(keyAlgorithm.equals("EC") ? 256 : 2048);
+        keyPair = generator.generateKeyPair();
+
+        signer = newSigner();
+        message = new byte[1024];
+        new SecureRandom().nextBytes(message);
+    }
+
+    private Signature newSigner() throws Exception {
+        Signature signature = Signature.getInstance(algorithm, signatureProvider);
+        if (algorithm.equals("RSASSA-PSS")) {
+            signature.setParameter(PSS_PARAMETERS);
+        }
+        signature.initSign(keyPair.getPrivate());
+        return signature;
+    }
+
+    @Benchmark
+    public byte[] signPerRequest() throws Exception {
+        Signature signature = newSigner();
+        signature.update(message);
+        return signature.sign();
+    }
+
+    @Benchmark
+    public byte[] signReused() throws Exception {
+        signer.update(message);
+        return signer.sign();
+    }
+}
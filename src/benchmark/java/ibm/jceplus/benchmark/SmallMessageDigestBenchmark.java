@@ -0,0 +1,80 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.benchmark;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of hashing single messages of 16 bytes to 4 KB, as
+ * done when hashing the nodes of a Merkle tree or content addressing, where
+ * the cost of crossing into native code outweighs hashing itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmallMessageDigestBenchmark {
+
+    @Param({"SHA-1", "SHA-256", "SHA-512", "SHA3-256"})
+    String algorithm;
+
+    @Param({"16", "32", "64", "128", "256", "512", "1024", "4096"})
+    int payloadSize;
+
+    @Param({BenchmarkProviders.OPENJCEPLUS, BenchmarkProviders.JDK})
+    String provider;
+
+    private MessageDigest digest;
+    private byte[] message;
+    private byte[] output;
+
+    @Setup
+    public void setup() throws Exception {
+        digest = MessageDigest.getInstance(algorithm,
+                BenchmarkProviders.get(provider, "MessageDigest", algorithm));
+        message = new byte[payloadSize];
+        new SecureRandom().nextBytes(message);
+        output = new byte[digest.getDigestLength()];
+    }
+
+    @Benchmark
+    public byte[] digest() {
+        return digest.digest(message);
+    }
+
+    @Benchmark
+    public byte[] updateAndDigest() {
+        digest.update(message);
+        return digest.digest();
+    }
+
+    // Writes the digest to a buffer of the caller, which allocates nothing.
+    //
+    @Benchmark
+    public byte[] digestIntoBuffer() throws Exception {
+        digest.update(message);
+        digest.digest(output, 0, output.length);
+        return output;
+    }
+}
@@ -9,6 +9,7 @@
 package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.CCMCipher;
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.OCKContext;
 import ibm.security.internal.spec.CCMParameterSpec;
 import java.math.BigInteger;
@@ -37,6 +38,7 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
     String debPrefix = "AESCCMCipher ";
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private OCKContext ockContext = null;
     private boolean encrypting = true;
     private boolean initialized = false;
@@ -97,6 +99,23 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
     private byte[] lastEncKey = null;
     private byte[] lastEncIv = null;
 
+    /*
+     * variables used when the CCMParameterSpec carries the payload length,
+     * which allows update() to be used. Encryption then runs through a
+     * native CCM stream without buffering the message. Decryption collects
+     * the ciphertext and decrypts it in doFinal(), so that no plaintext is
+     * released before the tag has been verified.
+     *
+     * The native stream is built from AES-CBC and AES-CTR rather than on the
+     * CCM mode of ICC. In FIPS mode encryption therefore collects the
+     * plaintext as well and is done by ICC in doFinal().
+     */
+    private final boolean streamEncryption;
+    private long payloadLen = -1;
+    private long processed = 0;
+    private CCMCipher ccmStream = null;
+    private byte[] collectBuffer = null;
+
 
     public AESCCMCipher(OpenJCEPlusProvider provider) {
 
@@ -105,11 +124,13 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
         }
 
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
         try {
-            ockContext = provider.getOCKContext();
+            ockContext = provider.getThreadOCKContext();
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize cipher context", e);
         }
+        streamEncryption = !ockContext.isFIPS();
         buffer = new byte[AES_BLOCK_SIZE * 2];
     }
 
@@ -127,10 +148,11 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
         try {
             byte[] output;
 
+            // including any input collected by update()
             if (encrypting) {
-                output = new byte[inputLen + tagLenInBytes];
+                output = new byte[collectedLen() + inputLen + tagLenInBytes];
             } else { // decrypting
-                output = new byte[inputLen - tagLenInBytes];
+                output = new byte[collectedLen() + inputLen - tagLenInBytes];
             }
 
             int outputLen = engineDoFinal(input, inputOffset, inputLen, output, 0);
@@ -188,10 +210,13 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
         try {
             byte[] output = null;
 
+            // including any input collected by update()
             if (encrypting) {
-                output = new byte[inputByteBuffer.array().length + tagLenInBytes];
+                output = new byte[collectedLen() + inputByteBuffer.array().length
+                        + tagLenInBytes];
             } else { // decrypting
-                output = new byte[inputByteBuffer.array().length - tagLenInBytes];
+                output = new byte[collectedLen() + inputByteBuffer.array().length
+                        - tagLenInBytes];
             }
 
             byte[] input = inputByteBuffer.array();
@@ -228,8 +253,23 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
     protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, Key, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
         //final String methodName = "engineDoFinal";
 
+        if (payloadLen >= 0) {
+            return streamingDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        }
+
         // Force the doFinal caller to call getOutputSize( ) and add the length of the doFinal data to it.
         if (encrypting) {
             if ((output.length - outputOffset) < (input.length + tagLenInBytes)) {
@@ -299,12 +339,12 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
                 return ret;
             }
         } catch (AEADBadTagException e) {
-            AEADBadTagException abte = new AEADBadTagException(e.getMessage());
+            AEADBadTagException abte = FailureExceptions.tagMismatch(e.getMessage());
             provider.setOCKExceptionCause(abte, e);
             requireReinit = true;
             throw abte;
         } catch (BadPaddingException ock_bpe) {
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             requireReinit = true;
             throw bpe;
@@ -379,10 +419,12 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
 
     @Override
     protected int engineGetOutputSize(int inputLen) {
+        // account for input collected by update()
         if (encrypting) {
-            return inputLen + tagLenInBytes;
+            return collectedLen() + inputLen + tagLenInBytes;
         } else {
-            return (inputLen < tagLenInBytes) ? 0 : inputLen - tagLenInBytes;
+            long totalLen = collectedLen() + inputLen;
+            return (totalLen < tagLenInBytes) ? 0 : (int) (totalLen - tagLenInBytes);
         }
     }
 
@@ -499,6 +541,7 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
                         // ibuffer = null;
                         // minBytes = 0;
                         internalInit(opmode, key, newIV);
+                        payloadLen = ((CCMParameterSpec) params).getPayloadLen();
                     } else {
                         /* Decryption requires explicit algorithm parameters */
                         throw new InvalidAlgorithmParameterException(
@@ -525,6 +568,7 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
                     }
 
                     internalInit(opmode, key, ((CCMParameterSpec) params).getIV().clone());
+                    payloadLen = ((CCMParameterSpec) params).getPayloadLen();
                 }
             } else {
                 throw new InvalidAlgorithmParameterException(
@@ -618,6 +662,8 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
             this.updateCalled = false;
             this.buffered = 0;
             Arrays.fill(buffer, (byte) 0x0);
+            this.payloadLen = -1;
+            resetStream();
         } catch (Exception e) {
             throw provider.providerException("Failed to init cipher", e);
         }
@@ -741,6 +787,10 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
         //final String methodName = "finalize";
         // OCKDebug.Msg (debPrefix, methodName, "finalize called");
         try {
+            if (ccmStream != null) {
+                ccmStream.close();
+                ccmStream = null;
+            }
             if (ockContext != null) {
                 CCMCipher.doCCM_cleanup(ockContext);
             }
@@ -763,34 +813,249 @@ public final class AESCCMCipher extends CipherSpi implements AESConstants, CCMCo
 
 
     protected final byte[] engineUpdate(byte[] input) {
-        throw new ProviderException(
-                "engineUpdate is not supported for AESCCM.  Only engineDoFinal is supported.");
+        return engineUpdate(input, 0, (input == null) ? 0 : input.length);
     }
 
 
+    @Override
     protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen) {
-        throw new ProviderException(
-                "engineUpdate is not supported for AESCCM.  Only engineDoFinal is supported.");
+        checkUpdateSupported();
+
+        byte[] output = new byte[(encrypting && streamEncryption) ? inputLen : 0];
+        try {
+            engineUpdate(input, inputOffset, inputLen, output, 0);
+        } catch (ShortBufferException e) {
+            // should never happen, the output buffer is allocated here
+            throw provider.providerException("Failure in engineUpdate", e);
+        }
+        return output;
     }
 
 
     protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output)
             throws ShortBufferException {
-        throw new ProviderException(
-                "engineUpdate is not supported for AESCCM.  Only engineDoFinal is supported.");
+        return engineUpdate(input, inputOffset, inputLen, output, 0);
     }
 
 
+    @Override
     protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset) throws ShortBufferException {
-        throw new ProviderException(
-                "engineUpdate is not supported for AESCCM.  Only engineDoFinal is supported.");
+        checkUpdateSupported();
+        if (!initialized) {
+            throw new IllegalStateException("Cipher has not been initialized");
+        }
+        checkReinit();
+
+        if (inputLen < 0) {
+            throw new IllegalArgumentException("Input length is negative");
+        }
+        if (processed + inputLen > payloadLen + (encrypting ? 0 : tagLenInBytes)) {
+            throw new IllegalStateException(
+                    "Input exceeds the payload length given in the CCMParameterSpec");
+        }
+
+        // No more AAD once the payload started
+        updateCalled = true;
+        if (inputLen == 0) {
+            return 0;
+        }
+        if (encrypting && (processed == 0)) {
+            switchToNewIV();
+        }
+
+        if (!encrypting || !streamEncryption) {
+            if (collectBuffer == null) {
+                long collectLen = payloadLen + (encrypting ? 0 : tagLenInBytes);
+                if (collectLen > Integer.MAX_VALUE) {
+                    throw new IllegalStateException(
+                            "The payload length given in the CCMParameterSpec is too large to be buffered");
+                }
+                collectBuffer = new byte[(int) collectLen];
+            }
+            System.arraycopy(input, inputOffset, collectBuffer, (int) processed, inputLen);
+            processed += inputLen;
+            return 0;
+        }
+
+        try {
+            if (ccmStream == null) {
+                ccmStream = CCMCipher.createStream(ockContext, Key, IV, tagLenInBytes,
+                        authData, payloadLen);
+            }
+            int outputLen = ccmStream.update(input, inputOffset, inputLen, output, outputOffset);
+            processed += outputLen;
+            return outputLen;
+        } catch (ShortBufferException sbe) {
+            throw sbe;
+        } catch (Exception e) {
+            requireReinit = true;
+            resetStream();
+            throw provider.providerException("Failure in engineUpdate", e);
+        }
     }
 
 
+    @Override
     protected int engineUpdate(ByteBuffer input, ByteBuffer output) throws ShortBufferException {
-        throw new ProviderException(
-                "engineUpdate is not supported for AESCCM.  Only engineDoFinal is supported.");
+        checkUpdateSupported();
+        return super.engineUpdate(input, output);
+    }
+
+
+    /*
+     * Finishes an operation for which the payload length was given in the
+     * CCMParameterSpec. A message passed in a single doFinal() call takes the
+     * regular one-shot path.
+     */
+    private int streamingDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, AEADBadTagException {
+        if (!initialized) {
+            throw new IllegalStateException("Cipher has not been initialized");
+        }
+        checkReinit();
+
+        if (input == null) {
+            inputOffset = 0;
+            inputLen = 0;
+        }
+        long totalLen = processed + inputLen;
+        if (totalLen != payloadLen + (encrypting ? 0 : tagLenInBytes)) {
+            if (encrypting && (ccmStream != null) && (processed > 0)) {
+                /*
+                 * update() already returned ciphertext under this key and IV,
+                 * which must not be used to encrypt again
+                 */
+                if (generateIV) {
+                    newIV = generateInternalIV().clone();
+                } else {
+                    requireReinit = true;
+                }
+            }
+            resetStream();
+            throw new IllegalBlockSizeException(
+                    "Input length does not match the payload length given in the CCMParameterSpec");
+        }
+        int outputLen = encrypting ? collectedLen() + inputLen + tagLenInBytes
+                : (int) payloadLen;
+        if ((output == null) || ((output.length - outputOffset) < outputLen)) {
+            throw new ShortBufferException("Output buffer must be (at least) " + outputLen
+                    + " bytes long");
+        }
+
+        try {
+            if (encrypting) {
+                if (processed == 0) {
+                    switchToNewIV();
+                }
+                int ret;
+                if (collectBuffer != null) {
+                    if (inputLen > 0) {
+                        System.arraycopy(input, inputOffset, collectBuffer, (int) processed,
+                                inputLen);
+                    }
+                    ret = CCMCipher.doCCMFinal_Encrypt(ockContext, Key, IV, tagLenInBytes,
+                            collectBuffer, 0, collectBuffer.length, output, outputOffset,
+                            authData);
+                } else if (processed == 0) {
+                    ret = CCMCipher.doCCMFinal_Encrypt(ockContext, Key, IV, tagLenInBytes,
+                            input, inputOffset, inputLen, output, outputOffset, authData);
+                } else {
+                    int len = ccmStream.update(input, inputOffset, inputLen, output,
+                            outputOffset);
+                    ccmStream.doFinal(output, outputOffset + len);
+                    ret = len + tagLenInBytes;
+                }
+
+                if (generateIV) {
+                    /*
+                     * Generate the next internal AES-CCM initialization vector
+                     */
+                    newIV = generateInternalIV().clone();
+                } else {
+                    /*
+                     * The IV was given by the caller, who has to give a new one
+                     * before encrypting again
+                     */
+                    requireReinit = true;
+                }
+                return ret;
+            } else {
+                if (collectBuffer == null) {
+                    return CCMCipher.doCCMFinal_Decrypt(ockContext, Key, IV, tagLenInBytes,
+                            input, inputOffset, inputLen, output, outputOffset, authData);
+                }
+                if (inputLen > 0) {
+                    System.arraycopy(input, inputOffset, collectBuffer, (int) processed,
+                            inputLen);
+                }
+                return CCMCipher.doCCMFinal_Decrypt(ockContext, Key, IV, tagLenInBytes,
+                        collectBuffer, 0, collectBuffer.length, output, outputOffset, authData);
+            }
+        } catch (AEADBadTagException e) {
+            // Already created without a stack trace by FailureExceptions.
+            requireReinit = true;
+            throw e;
+        } catch (com.ibm.crypto.plus.provider.ock.OCKException ock_excp) {
+            if (!encrypting) {
+                AEADBadTagException tagexcp = FailureExceptions.tagMismatch(ock_excp.getMessage());
+                provider.setOCKExceptionCause(tagexcp, ock_excp);
+                requireReinit = true;
+                throw tagexcp;
+            }
+            requireReinit = true;
+            throw provider.providerException("Failure in engineDoFinal", ock_excp);
+        } catch (Exception e) {
+            requireReinit = true;
+            throw provider.providerException("Failure in engineDoFinal", e);
+        } finally {
+            authData = null; // Before returning from doFinal(), restore AAD to uninitialized state
+            resetStream();
+        }
+    }
+
+
+    private void checkUpdateSupported() {
+        if (payloadLen < 0) {
+            throw new ProviderException(
+                    "engineUpdate is not supported for AESCCM unless the payload length is given in the CCMParameterSpec.  Otherwise only engineDoFinal is supported.");
+        }
+    }
+
+
+    /*
+     * switch to the newly generated IV only when the next encryption starts,
+     * since getIV() might be called up to this point
+     */
+    private void switchToNewIV() {
+        if (generateIV && newIV != null) {
+            IV = newIV.clone();
+            newIV = null;
+        }
+    }
+
+
+    private int collectedLen() {
+        return (collectBuffer == null) ? 0 : (int) processed;
+    }
+
+
+    private void resetStream() {
+        processed = 0;
+        if (collectBuffer != null) {
+            Arrays.fill(collectBuffer, (byte) 0x00);
+            collectBuffer = null;
+        }
+        updateCalled = false;
+        if (ccmStream != null) {
+            try {
+                ccmStream.close();
+            } catch (Exception e) {
+                // the native state is gone either way
+            }
+            ccmStream = null;
+        }
     }
 
 } // End of class
@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.Padding;
 import com.ibm.crypto.plus.provider.ock.SymmetricCipher;
 import java.security.AlgorithmParameters;
@@ -31,6 +32,7 @@ import javax.crypto.spec.IvParameterSpec;
 public final class AESCipher extends CipherSpi implements AESConstants {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private SymmetricCipher symmetricCipher = null;
     private String mode = "ECB";
     private Padding padding = Padding.PKCS5Padding;
@@ -41,6 +43,9 @@ public final class AESCipher extends CipherSpi implements AESConstants {
     private byte[] buffer = null;
     private boolean use_z_fast_command;
     private static int isHardwareSupport = 0;
+    private byte[] keyBytes = null;
+    private boolean updated = false;
+    private AESParallelCipher parallelCipher = null;
 
     public AESCipher(OpenJCEPlusProvider provider) {
         if (!OpenJCEPlusProvider.verifySelfIntegrity(this)) {
@@ -48,6 +53,7 @@ public final class AESCipher extends CipherSpi implements AESConstants {
         }
         buffer = new byte[engineGetBlockSize() * 3];
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
     }
 
     @Override
@@ -69,7 +75,7 @@ public final class AESCipher extends CipherSpi implements AESConstants {
                 return output;
             }
         } catch (BadPaddingException ock_bpe) {
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -85,6 +91,17 @@ public final class AESCipher extends CipherSpi implements AESConstants {
     protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, keyBytes, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
         checkCipherInitialized();
 
         try {
@@ -141,10 +158,25 @@ public final class AESCipher extends CipherSpi implements AESConstants {
                 encryptedData += totalLen;
                 return encryptedData;
             } else {
-                return symmetricCipher.doFinal(input, inputOffset, inputLen, output, outputOffset);
+                int parallelism = canProcessInParallel(inputLen)
+                        ? AESParallelCipher.getParallelism(inputLen)
+                        : 1;
+                int outputLen;
+                if (parallelism > 1) {
+                    if (parallelCipher == null) {
+                        parallelCipher = new AESParallelCipher(provider);
+                    }
+                    outputLen = parallelCipher.doFinal(mode, encrypting, keyBytes, iv, input,
+                            inputOffset, inputLen, output, outputOffset, parallelism);
+                } else {
+                    outputLen = symmetricCipher.doFinal(input, inputOffset, inputLen, output,
+                            outputOffset);
+                }
+                updated = false;
+                return outputLen;
             }
         } catch (BadPaddingException ock_bpe) {
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -296,7 +328,7 @@ public final class AESCipher extends CipherSpi implements AESConstants {
 
         try {
             if ((symmetricCipher == null) || (symmetricCipher.getKeyLength() != rawKey.length)) {
-                symmetricCipher = SymmetricCipher.getInstanceAES(provider.getOCKContext(), mode,
+                symmetricCipher = SymmetricCipher.getInstanceAES(provider.getThreadOCKContext(), mode,
                         padding, rawKey.length);
                 // Check whether used algorithm is CBC and whether hardware supports is available
                 use_z_fast_command = symmetricCipher.getHardwareSupportStatus();
@@ -309,6 +341,11 @@ public final class AESCipher extends CipherSpi implements AESConstants {
                 symmetricCipher.initCipherDecrypt(rawKey, iv);
             }
 
+            if ((this.keyBytes != null) && (this.keyBytes != rawKey)) {
+                Arrays.fill(this.keyBytes, (byte) 0x00);
+            }
+            this.keyBytes = rawKey;
+            this.updated = false;
             this.iv = iv;
             this.encrypting = isEncrypt;
             this.initialized = true;
@@ -345,6 +382,7 @@ public final class AESCipher extends CipherSpi implements AESConstants {
     @Override
     protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen) {
         checkCipherInitialized();
+        updated |= (inputLen > 0);
 
         try {
             byte[] output = null;
@@ -374,6 +412,7 @@ public final class AESCipher extends CipherSpi implements AESConstants {
     protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset) throws ShortBufferException {
         checkCipherInitialized();
+        updated |= (inputLen > 0);
 
         try {
             if (use_z_fast_command) {
@@ -503,6 +542,15 @@ public final class AESCipher extends CipherSpi implements AESConstants {
         }
     }
 
+    // A complete CTR or unpadded ECB message, with nothing passed to update
+    // since init, can be split into independent segments.
+    //
+    private boolean canProcessInParallel(int inputLen) {
+        return !updated && (padding == Padding.NoPadding)
+                && ("CTR".equals(mode)
+                        || ("ECB".equals(mode) && (inputLen % AES_BLOCK_SIZE == 0)));
+    }
+
     private void checkCipherInitialized() throws IllegalStateException {
         if (!this.initialized) {
             throw new IllegalStateException("Cipher has not been initialized");
@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.GCMCipher;
 import com.ibm.crypto.plus.provider.ock.OCKContext;
 import com.ibm.crypto.plus.provider.ock.OCKException;
@@ -38,6 +39,7 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
 
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private OCKContext ockContext = null;
     private boolean encrypting = true;
     private boolean initialized = false;
@@ -142,8 +144,9 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
         }
 
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
         try {
-            ockContext = provider.getOCKContext();
+            ockContext = provider.getThreadOCKContext();
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize cipher context", e);
         }
@@ -154,6 +157,16 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
     @Override
     protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
             throws IllegalBlockSizeException, BadPaddingException, AEADBadTagException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen);
+        } finally {
+            event.finish(doFinalOperation, Key, inputLen);
+        }
+    }
+
+    private byte[] internalDoFinal(byte[] input, int inputOffset, int inputLen)
+            throws IllegalBlockSizeException, BadPaddingException, AEADBadTagException {
         //final String methodName = "byte[] enginedoFinal";
 
         if (!initialized) {
@@ -183,6 +196,9 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
             } catch (IllegalStateException e) {
                 resetVars(true);
 
+                throw e;
+            } catch (AEADBadTagException e) {
+                resetVars(true);
                 throw e;
             } catch (OCKException e) {
                 // OCKDebug.Msg(debPrefix, methodName, "OCKException encountered = " +
@@ -219,7 +235,7 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
                 }
             }
 
-            int outputLen = engineDoFinal(input, inputOffset, inputLen, output, 0);
+            int outputLen = internalDoFinal(input, inputOffset, inputLen, output, 0);
             resetVars(false);
             if (outputLen < output.length) {
                 byte[] out = Arrays.copyOfRange(output, 0, outputLen);
@@ -260,6 +276,17 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
     protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, Key, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
         //final String methodName = "engineDoFinal";
         if (!initialized) {
             throw new IllegalStateException("Cipher has not been initialized");
@@ -289,6 +316,9 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
                 //                    updateCalled = false;
                 //                    requireReinit = true;
 
+                throw e;
+            } catch (AEADBadTagException e) {
+                resetVars(true);
                 throw e;
             } catch (OCKException e) {
 
@@ -366,12 +396,12 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
             }
         } catch (AEADBadTagException e) {
             resetVars(true);
-            AEADBadTagException abte = new AEADBadTagException(e.getMessage());
+            AEADBadTagException abte = FailureExceptions.tagMismatch(e.getMessage());
             provider.setOCKExceptionCause(abte, e);
             throw abte;
         } catch (BadPaddingException ock_bpe) {
             resetVars(true);
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -1140,12 +1170,12 @@ public final class AESGCMCipher extends CipherSpi implements AESConstants, GCMCo
             throw illse;
         } catch (AEADBadTagException e) {
             sbeInLastUpdateEncrypt = false;
-            AEADBadTagException abte = new AEADBadTagException(e.getMessage());
+            AEADBadTagException abte = FailureExceptions.tagMismatch(e.getMessage());
             provider.setOCKExceptionCause(abte, e);
             throw abte;
         } catch (BadPaddingException ock_bpe) {
             sbeInLastUpdateEncrypt = false;
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
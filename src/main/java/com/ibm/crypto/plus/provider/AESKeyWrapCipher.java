@@ -0,0 +1,426 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.Padding;
+import com.ibm.crypto.plus.provider.ock.SymmetricCipher;
+import java.security.AlgorithmParameters;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.InvalidParameterSpecException;
+import java.util.Arrays;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.CipherSpi;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+
+/**
+ * AES key wrap (KW, RFC 3394 / NIST SP 800-38F) and AES key wrap with
+ * padding (KWP, RFC 5649). A whole wrap or unwrap is a single native call
+ * over an AES/ECB cipher.
+ *
+ * <p>In ENCRYPT_MODE and DECRYPT_MODE the input passed to update is buffered
+ * until doFinal. The integrity check value defaults to the one of the RFC
+ * and can be set with an IvParameterSpec of 8 bytes for KW and 4 bytes for
+ * KWP.
+ */
+abstract class AESKeyWrapCipher extends CipherSpi implements AESConstants {
+
+    private static final int SEMIBLOCK_SIZE = 8;
+
+    private static final byte[] KW_DEFAULT_ICV = {(byte) 0xA6, (byte) 0xA6, (byte) 0xA6,
+            (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6};
+
+    private static final byte[] KWP_DEFAULT_ICV = {(byte) 0xA6, (byte) 0x59, (byte) 0x59,
+            (byte) 0xA6};
+
+    private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
+    private final boolean padded;
+    private SymmetricCipher symmetricCipher = null;
+    private byte[] keyBytes = null;
+    private byte[] iv = null;
+    private boolean wrapping = true;
+    private int opmode = 0;
+    private boolean initialized = false;
+    private byte[] buffer = new byte[0];
+    private int buffered = 0;
+
+    AESKeyWrapCipher(OpenJCEPlusProvider provider, boolean padded) {
+        if (!OpenJCEPlusProvider.verifySelfIntegrity(this)) {
+            throw new SecurityException("Integrity check failed for: " + provider.getName());
+        }
+        this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
+        this.padded = padded;
+    }
+
+    @Override
+    protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
+            throws IllegalBlockSizeException, BadPaddingException {
+        checkCipherInitialized();
+
+        try {
+            byte[] output = new byte[engineGetOutputSize(inputLen)];
+            int outputLen = engineDoFinal(input, inputOffset, inputLen, output, 0);
+
+            if (outputLen < output.length) {
+                byte[] out = Arrays.copyOfRange(output, 0, outputLen);
+                Arrays.fill(output, 0, outputLen, (byte) 0x00);
+                return out;
+            } else {
+                return output;
+            }
+        } catch (ShortBufferException e) {
+            // should not occur, the output is sized by engineGetOutputSize
+            throw provider.providerException("Failure in engineDoFinal", e);
+        }
+    }
+
+    @Override
+    protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, keyBytes, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        checkCipherInitialized();
+        checkInputRange(input, inputOffset, inputLen);
+
+        int totalLen = Math.addExact(buffered, inputLen);
+        try {
+            checkInputLength(totalLen);
+        } catch (IllegalBlockSizeException e) {
+            clearBuffer();
+            throw e;
+        }
+
+        int outLen = getOutputSize(totalLen);
+        if ((output == null) || (outputOffset < 0) || (output.length - outputOffset < outLen)) {
+            throw new ShortBufferException(
+                    "Output buffer must be (at least) " + outLen + " bytes long");
+        }
+
+        byte[] in = input;
+        int inOffset = inputOffset;
+        if (buffered > 0) {
+            appendToBuffer(input, inputOffset, inputLen);
+            in = buffer;
+            inOffset = 0;
+        }
+
+        try {
+            if (wrapping) {
+                return symmetricCipher.wrapKey(padded, keyBytes, getICV(), in, inOffset, totalLen,
+                        output, outputOffset);
+            } else {
+                return symmetricCipher.unwrapKey(padded, keyBytes, getICV(), in, inOffset,
+                        totalLen, output, outputOffset);
+            }
+        } catch (BadPaddingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw provider.providerException("Failure in engineDoFinal", e);
+        } finally {
+            clearBuffer();
+        }
+    }
+
+    @Override
+    protected int engineGetBlockSize() {
+        return SEMIBLOCK_SIZE;
+    }
+
+    @Override
+    protected byte[] engineGetIV() {
+        return (this.iv == null) ? null : this.iv.clone();
+    }
+
+    @Override
+    protected int engineGetKeySize(Key key) throws InvalidKeyException {
+        if (key == null) {
+            throw new InvalidKeyException("Key missing");
+        }
+
+        byte[] encoded = key.getEncoded();
+        if (!AESUtils.isKeySizeValid(encoded.length)) {
+            throw new InvalidKeyException("Invalid AES key length: " + encoded.length + " bytes");
+        }
+        return encoded.length << 3;
+    }
+
+    @Override
+    protected int engineGetOutputSize(int inputLen) {
+        return getOutputSize(Math.addExact(buffered, Math.max(inputLen, 0)));
+    }
+
+    @Override
+    protected AlgorithmParameters engineGetParameters() {
+        // The integrity check value is shorter than an AES IV and cannot be
+        // expressed as AES parameters.
+        return null;
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, SecureRandom random) throws InvalidKeyException {
+        internalInit(opmode, key, null);
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, AlgorithmParameterSpec params,
+            SecureRandom random) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        if (params == null) {
+            internalInit(opmode, key, null);
+        } else if (params instanceof IvParameterSpec) {
+            byte[] iv = ((IvParameterSpec) params).getIV();
+            int icvLength = padded ? KWP_DEFAULT_ICV.length : KW_DEFAULT_ICV.length;
+            if (iv.length != icvLength) {
+                throw new InvalidAlgorithmParameterException(
+                        "IV must be " + icvLength + " bytes");
+            }
+            internalInit(opmode, key, iv);
+        } else {
+            throw new InvalidAlgorithmParameterException("Wrong parameter type: IV expected");
+        }
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, AlgorithmParameters params, SecureRandom random)
+            throws InvalidKeyException, InvalidAlgorithmParameterException {
+        IvParameterSpec ivSpec = null;
+
+        if (params != null) {
+            try {
+                ivSpec = params.getParameterSpec(IvParameterSpec.class);
+            } catch (InvalidParameterSpecException ipse) {
+                throw new InvalidAlgorithmParameterException("Wrong parameter type: IV expected");
+            }
+        }
+
+        engineInit(opmode, key, ivSpec, random);
+    }
+
+    private void internalInit(int opmode, Key key, byte[] iv) throws InvalidKeyException {
+        if (key == null) {
+            throw new InvalidKeyException("Key missing");
+        }
+
+        if (!(key.getAlgorithm().equalsIgnoreCase("AES"))) {
+            throw new InvalidKeyException("Wrong algorithm: AES required");
+        }
+
+        if (!(key.getFormat().equalsIgnoreCase("RAW"))) {
+            throw new InvalidKeyException("Wrong format: RAW bytes needed");
+        }
+
+        byte[] rawKey = key.getEncoded();
+        if (rawKey == null) {
+            throw new InvalidKeyException("RAW bytes missing");
+        }
+
+        if (!AESUtils.isKeySizeValid(rawKey.length)) {
+            throw new InvalidKeyException("Invalid AES key length: " + rawKey.length + " bytes");
+        }
+
+        try {
+            if ((symmetricCipher == null) || (symmetricCipher.getKeyLength() != rawKey.length)) {
+                symmetricCipher = SymmetricCipher.getInstanceAES(provider.getThreadOCKContext(), "ECB",
+                        Padding.NoPadding, rawKey.length);
+            }
+        } catch (Exception e) {
+            throw provider.providerException("Failed to init cipher", e);
+        }
+
+        if ((this.keyBytes != null) && (this.keyBytes != rawKey)) {
+            Arrays.fill(this.keyBytes, (byte) 0x00);
+        }
+        clearBuffer();
+        this.keyBytes = rawKey;
+        this.iv = (iv == null) ? null : iv.clone();
+        this.opmode = opmode;
+        this.wrapping = (opmode == Cipher.ENCRYPT_MODE) || (opmode == Cipher.WRAP_MODE);
+        this.initialized = true;
+    }
+
+    @Override
+    protected void engineSetMode(String mode) throws NoSuchAlgorithmException {
+        if (!mode.equalsIgnoreCase(padded ? "KWP" : "KW")) {
+            throw new NoSuchAlgorithmException("Cipher mode: " + mode + " not found");
+        }
+    }
+
+    @Override
+    protected void engineSetPadding(String padding) throws NoSuchPaddingException {
+        if (!padding.equalsIgnoreCase("NoPadding")) {
+            throw new NoSuchPaddingException("Padding: " + padding + " not implemented");
+        }
+    }
+
+    @Override
+    protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen) {
+        checkUpdateAllowed();
+        checkInputRange(input, inputOffset, inputLen);
+        appendToBuffer(input, inputOffset, inputLen);
+        return new byte[0];
+    }
+
+    @Override
+    protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset) throws ShortBufferException {
+        checkUpdateAllowed();
+        checkInputRange(input, inputOffset, inputLen);
+        appendToBuffer(input, inputOffset, inputLen);
+        return 0;
+    }
+
+    // see JCE spec
+    protected byte[] engineWrap(Key key) throws InvalidKeyException, IllegalBlockSizeException {
+        checkCipherInitialized();
+
+        byte[] encoded = key.getEncoded();
+        if ((encoded == null) || (encoded.length == 0)) {
+            throw new InvalidKeyException("Could not obtain encoded key");
+        }
+
+        try {
+            return engineDoFinal(encoded, 0, encoded.length);
+        } catch (BadPaddingException e) {
+            // should not occur
+            throw new InvalidKeyException("Wrapping failed", e);
+        } finally {
+            Arrays.fill(encoded, (byte) 0x00);
+        }
+    }
+
+    // see JCE spec
+    protected Key engineUnwrap(byte[] wrappedKey, String algorithm, int type)
+            throws InvalidKeyException, NoSuchAlgorithmException {
+        checkCipherInitialized();
+
+        byte[] encoded = null;
+        try {
+            encoded = engineDoFinal(wrappedKey, 0, wrappedKey.length);
+            return ConstructKeys.constructKey(provider, encoded, algorithm, type);
+        } catch (BadPaddingException e) {
+            throw new InvalidKeyException("Unwrapping failed", e);
+        } catch (IllegalBlockSizeException e) {
+            throw new InvalidKeyException("Unwrapping failed", e);
+        } finally {
+            if (encoded != null) {
+                Arrays.fill(encoded, (byte) 0x00);
+            }
+        }
+    }
+
+    // Returns the output length for a complete input of the given length,
+    // for unwrapping the upper bound since KWP strips the padding.
+    //
+    private int getOutputSize(int totalLen) {
+        if (wrapping) {
+            int semiblocks = (totalLen + SEMIBLOCK_SIZE - 1) / SEMIBLOCK_SIZE;
+            return Math.addExact(Math.multiplyExact(semiblocks, SEMIBLOCK_SIZE), SEMIBLOCK_SIZE);
+        }
+        return Math.max(totalLen - SEMIBLOCK_SIZE, 0);
+    }
+
+    private void checkInputLength(int inputLen) throws IllegalBlockSizeException {
+        if (wrapping) {
+            if (padded) {
+                if (inputLen < 1) {
+                    throw new IllegalBlockSizeException("Input must be at least 1 byte");
+                }
+            } else if ((inputLen < 2 * SEMIBLOCK_SIZE) || (inputLen % SEMIBLOCK_SIZE != 0)) {
+                throw new IllegalBlockSizeException(
+                        "Input length must be a multiple of 8 bytes and at least 16 bytes");
+            }
+        } else {
+            int minLen = (padded ? 2 : 3) * SEMIBLOCK_SIZE;
+            if ((inputLen < minLen) || (inputLen % SEMIBLOCK_SIZE != 0)) {
+                throw new IllegalBlockSizeException("Input length must be a multiple of 8 bytes"
+                        + " and at least " + minLen + " bytes");
+            }
+        }
+    }
+
+    private static void checkInputRange(byte[] input, int inputOffset, int inputLen) {
+        if ((inputLen != 0) && ((input == null) || (inputLen < 0) || (inputOffset < 0)
+                || (inputOffset > input.length - inputLen))) {
+            throw new IllegalArgumentException("Input range is invalid");
+        }
+    }
+
+    private void appendToBuffer(byte[] input, int inputOffset, int inputLen) {
+        if (inputLen <= 0) {
+            return;
+        }
+        if (buffer.length - buffered < inputLen) {
+            byte[] newBuffer = Arrays.copyOf(buffer,
+                    Math.max(Math.addExact(buffered, inputLen), buffer.length << 1));
+            Arrays.fill(buffer, (byte) 0x00);
+            buffer = newBuffer;
+        }
+        System.arraycopy(input, inputOffset, buffer, buffered, inputLen);
+        buffered += inputLen;
+    }
+
+    private void clearBuffer() {
+        if (buffered > 0) {
+            Arrays.fill(buffer, 0, buffered, (byte) 0x00);
+            buffered = 0;
+        }
+    }
+
+    private byte[] getICV() {
+        if (this.iv != null) {
+            return this.iv;
+        }
+        return padded ? KWP_DEFAULT_ICV : KW_DEFAULT_ICV;
+    }
+
+    private void checkUpdateAllowed() {
+        checkCipherInitialized();
+        if ((opmode == Cipher.WRAP_MODE) || (opmode == Cipher.UNWRAP_MODE)) {
+            throw new IllegalStateException("Cipher is initialized for key wrapping, use "
+                    + (wrapping ? "wrap" : "unwrap"));
+        }
+    }
+
+    private void checkCipherInitialized() throws IllegalStateException {
+        if (!this.initialized) {
+            throw new IllegalStateException("Cipher has not been initialized");
+        }
+    }
+
+    public static final class KW extends AESKeyWrapCipher {
+        public KW(OpenJCEPlusProvider provider) {
+            super(provider, false);
+        }
+    }
+
+    public static final class KWP extends AESKeyWrapCipher {
+        public KWP(OpenJCEPlusProvider provider) {
+            super(provider, true);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.Padding;
+import com.ibm.crypto.plus.provider.ock.SymmetricCipher;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.crypto.ShortBufferException;
+
+/**
+ * Processes a complete AES/CTR or AES/ECB message in segments on several
+ * threads. Every segment starts on a block boundary and has its own native
+ * cipher context, for CTR initialized with the counter advanced to the first
+ * block of the segment, so the output is identical to sequential processing.
+ *
+ * <p>Parallel processing is off unless enabled with the system property
+ * {@value #PARALLEL_THRESHOLD}, the smallest message size in bytes to split.
+ * {@value #PARALLELISM} sets the number of threads, by default the number of
+ * available processors. Both are read when a message of at least two
+ * segments of {@link #MIN_SEGMENT_SIZE} bytes is processed, smaller messages
+ * are never split.
+ */
+@SuppressWarnings({"removal", "deprecation"})
+final class AESParallelCipher {
+
+    static final String PARALLEL_THRESHOLD = "com.ibm.crypto.provider.AESParallelThreshold";
+    static final String PARALLELISM = "com.ibm.crypto.provider.AESParallelism";
+
+    // Segments smaller than this are not worth a thread hand off.
+    //
+    static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final int AES_BLOCK_SIZE = 16;
+
+    private static final ConcurrentHashMap<Integer, ForkJoinPool> pools = new ConcurrentHashMap<Integer, ForkJoinPool>();
+
+    private final OpenJCEPlusProvider provider;
+    private SymmetricCipher[] segmentCiphers = new SymmetricCipher[0];
+    private String segmentCipherName = null;
+
+    AESParallelCipher(OpenJCEPlusProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Returns the number of threads to process a message of the given length
+     * on, 1 if it should be processed sequentially.
+     */
+    static int getParallelism(int inputLen) {
+        if (inputLen < 2 * MIN_SEGMENT_SIZE) {
+            return 1;
+        }
+
+        String[] settings = AccessController.doPrivileged(new PrivilegedAction<String[]>() {
+            public String[] run() {
+                return new String[] {System.getProperty(PARALLEL_THRESHOLD),
+                        System.getProperty(PARALLELISM)};
+            }
+        });
+
+        try {
+            if ((settings[0] == null) || (inputLen < Long.parseLong(settings[0].trim()))) {
+                return 1;
+            }
+            int parallelism = (settings[1] == null) ? Runtime.getRuntime().availableProcessors()
+                    : Integer.parseInt(settings[1].trim());
+            return Math.max(1, parallelism);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Encrypts or decrypts a complete message on up to parallelism threads.
+     * The mode must be CTR or ECB without padding, for ECB the input length
+     * must be a multiple of the block size.
+     */
+    int doFinal(String mode, boolean encrypting, byte[] key, byte[] iv, byte[] input,
+            int inputOffset, int inputLen, byte[] output, int outputOffset, int parallelism)
+            throws Exception {
+        if ((output == null) || (outputOffset < 0) || (output.length - outputOffset < inputLen)) {
+            throw new ShortBufferException(
+                    "Output buffer must be (at least) " + inputLen + " bytes long");
+        }
+
+        // Segments write their output while others still read their input, so
+        // an overlapping input area is copied first.
+        //
+        if ((input == output) && (inputOffset != outputOffset)
+                && (inputOffset < outputOffset + inputLen)
+                && (outputOffset < inputOffset + inputLen)) {
+            input = Arrays.copyOfRange(input, inputOffset, inputOffset + inputLen);
+            inputOffset = 0;
+        }
+
+        int segments = Math.max(1, Math.min(parallelism, inputLen / MIN_SEGMENT_SIZE));
+        prepareSegmentCiphers(mode, key.length, segments);
+
+        int blocks = (inputLen + AES_BLOCK_SIZE - 1) / AES_BLOCK_SIZE;
+        int segmentLen = ((blocks + segments - 1) / segments) * AES_BLOCK_SIZE;
+        ForkJoinPool pool = pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>(segments);
+
+        for (int i = 0, start = 0; start < inputLen; i++, start += segmentLen) {
+            SymmetricCipher cipher = segmentCiphers[i];
+            byte[] segmentIV = "CTR".equals(mode) ? addToCounter(iv, start / AES_BLOCK_SIZE) : null;
+            byte[] in = input;
+            int inOffset = inputOffset + start;
+            int outOffset = outputOffset + start;
+            int len = Math.min(segmentLen, inputLen - start);
+            tasks.add(pool.submit(() -> {
+                if (encrypting) {
+                    cipher.initCipherEncrypt(key, segmentIV);
+                } else {
+                    cipher.initCipherDecrypt(key, segmentIV);
+                }
+                return cipher.doFinal(in, inOffset, len, output, outOffset);
+            }));
+        }
+
+        // Wait for every segment, even after a failure, since the segment
+        // ciphers are reused by the next message.
+        //
+        int outLen = 0;
+        Exception failure = null;
+        for (ForkJoinTask<Integer> task : tasks) {
+            try {
+                outLen += task.get().intValue();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return outLen;
+    }
+
+    private void prepareSegmentCiphers(String mode, int keyLen, int segments) throws Exception {
+        String cipherName = mode + keyLen;
+        if (!cipherName.equals(segmentCipherName)) {
+            segmentCiphers = new SymmetricCipher[0];
+            segmentCipherName = cipherName;
+        }
+        if (segmentCiphers.length < segments) {
+            int existing = segmentCiphers.length;
+            segmentCiphers = Arrays.copyOf(segmentCiphers, segments);
+            for (int i = existing; i < segments; i++) {
+                segmentCiphers[i] = SymmetricCipher.getInstanceAES(provider.getThreadOCKContext(), mode,
+                        Padding.NoPadding, keyLen);
+            }
+        }
+    }
+
+    // Returns the 128-bit big endian counter block advanced by the given
+    // number of blocks, wrapping around like the native CTR implementation.
+    //
+    static byte[] addToCounter(byte[] counter, long blocks) {
+        byte[] result = counter.clone();
+        long carry = blocks;
+        for (int i = result.length - 1; (i >= 0) && (carry != 0); i--) {
+            long sum = (result[i] & 0xFF) + (carry & 0xFF);
+            result[i] = (byte) sum;
+            carry = (carry >>> 8) + (sum >>> 8);
+        }
+        return result;
+    }
+}
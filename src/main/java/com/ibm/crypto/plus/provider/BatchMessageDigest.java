@@ -0,0 +1,323 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.Digest;
+import com.ibm.crypto.plus.provider.ock.OCKException;
+import java.security.DigestException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Digests many independent messages at once.
+ *
+ * <p>{@link #digest(byte[][], int[], int[], byte[], int)} digests a batch of
+ * slices, message {@code i} being {@code lengths[i]} bytes of
+ * {@code buffers[i]} from {@code offsets[i]}, in a single native call instead
+ * of one {@code java.security.MessageDigest} update/digest sequence per
+ * message. The digests are written one after the other to one output array,
+ * the digest of message {@code i} at {@code outputOffset + i * getDigestLength()}.
+ * The variants taking a {@link ForkJoinPool} additionally split large batches
+ * across the threads of the pool.
+ *
+ * <p>Instances are thread safe.
+ *
+ * <pre>
+ * BatchMessageDigest digest = BatchMessageDigest.getInstance("SHA-256",
+ *         Security.getProvider("OpenJCEPlus"));
+ * byte[] fingerprints = digest.digest(chunks);
+ * </pre>
+ */
+public final class BatchMessageDigest {
+
+    // Batches with fewer messages or bytes per chunk than these are digested
+    // on the calling thread even if a pool is supplied, handing them off costs
+    // more than it saves.
+    //
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+    private static final long MIN_PARALLEL_CHUNK_BYTES = 256 * 1024;
+
+    private static final Map<String, String> digestAlgorithms = new HashMap<String, String>();
+
+    static {
+        digestAlgorithms.put("MD5", "MD5");
+        digestAlgorithms.put("SHA-1", "SHA1");
+        digestAlgorithms.put("SHA-224", "SHA224");
+        digestAlgorithms.put("SHA-256", "SHA256");
+        digestAlgorithms.put("SHA-384", "SHA384");
+        digestAlgorithms.put("SHA-512", "SHA512");
+        digestAlgorithms.put("SHA-512/224", "SHA512-224");
+        digestAlgorithms.put("SHA-512/256", "SHA512-256");
+        digestAlgorithms.put("SHA3-224", "SHA3-224");
+        digestAlgorithms.put("SHA3-256", "SHA3-256");
+        digestAlgorithms.put("SHA3-384", "SHA3-384");
+        digestAlgorithms.put("SHA3-512", "SHA3-512");
+    }
+
+    private final OpenJCEPlusProvider provider;
+    private final String algorithm;
+    private final String digestAlgo;
+    private final int digestLength;
+
+    // Native digest contexts are not safe to use from several threads at
+    // once, every batch or chunk takes one from here and returns it after.
+    //
+    private final ConcurrentLinkedQueue<Digest> digests = new ConcurrentLinkedQueue<Digest>();
+
+    private BatchMessageDigest(OpenJCEPlusProvider provider, String algorithm, String digestAlgo)
+            throws Exception {
+        this.provider = provider;
+        this.algorithm = algorithm;
+        this.digestAlgo = digestAlgo;
+
+        Digest digest = Digest.getInstance(provider.getThreadOCKContext(), digestAlgo);
+        this.digestLength = digest.getDigestLength();
+        this.digests.add(digest);
+    }
+
+    /**
+     * Returns a batch digest for the given message digest algorithm, for
+     * example "SHA-256".
+     *
+     * @param algorithm the message digest algorithm
+     * @param provider an OpenJCEPlus or OpenJCEPlusFIPS provider instance
+     * @throws NoSuchAlgorithmException if the algorithm is not a message
+     *         digest supported by the provider
+     */
+    public static BatchMessageDigest getInstance(String algorithm, Provider provider)
+            throws NoSuchAlgorithmException {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm is null");
+        }
+        if (!(provider instanceof OpenJCEPlusProvider)) {
+            throw new IllegalArgumentException("provider is not an OpenJCEPlus provider");
+        }
+
+        // Resolves aliases such as SHA256 to the standard name.
+        Provider.Service service = provider.getService("MessageDigest", algorithm);
+        String digestAlgo = (service == null) ? null : getDigestAlgo(service.getAlgorithm());
+        if (digestAlgo == null) {
+            throw new NoSuchAlgorithmException(
+                    algorithm + " batch digest not available from " + provider.getName());
+        }
+
+        try {
+            return new BatchMessageDigest((OpenJCEPlusProvider) provider, service.getAlgorithm(),
+                    digestAlgo);
+        } catch (Exception e) {
+            throw ((OpenJCEPlusProvider) provider).providerException("Failure in BatchMessageDigest",
+                    e);
+        }
+    }
+
+    // Returns the OCK name of a message digest given by its standard name.
+    static String getDigestAlgo(String algorithm) {
+        return (algorithm == null) ? null : digestAlgorithms.get(algorithm);
+    }
+
+    /**
+     * Returns the message digest algorithm of this batch digest.
+     */
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Returns the length in bytes of one digest.
+     */
+    public int getDigestLength() {
+        return this.digestLength;
+    }
+
+    /**
+     * Digests each of the messages on the calling thread.
+     *
+     * @return the digests, one after the other
+     * @throws DigestException if the batch could not be processed
+     */
+    public byte[] digest(byte[][] messages) throws DigestException {
+        return digest(messages, null);
+    }
+
+    /**
+     * Digests each of the messages, splitting large batches across the
+     * threads of the given pool.
+     *
+     * @param pool the pool to run chunks on, or null to digest on the calling
+     *        thread
+     * @return the digests, one after the other
+     * @throws DigestException if the batch could not be processed
+     */
+    public byte[] digest(byte[][] messages, ForkJoinPool pool) throws DigestException {
+        if (messages == null) {
+            throw new NullPointerException("messages is null");
+        }
+
+        int[] offsets = new int[messages.length];
+        int[] lengths = new int[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            if (messages[i] == null) {
+                throw new NullPointerException("message " + i + " is null");
+            }
+            lengths[i] = messages[i].length;
+        }
+        byte[] output = new byte[messages.length * digestLength];
+        digest(messages, offsets, lengths, output, 0, pool);
+        return output;
+    }
+
+    /**
+     * Digests each of the slices on the calling thread.
+     *
+     * @param buffers the arrays holding the messages, an array may be given
+     *        several times
+     * @param offsets the offset of each message in its array
+     * @param lengths the length of each message
+     * @param output the array to write the digests to
+     * @param outputOffset the offset in the output of the first digest
+     * @throws IllegalArgumentException if the arrays differ in length, a slice
+     *         lies outside its array or the output is too short
+     * @throws DigestException if the batch could not be processed
+     */
+    public void digest(byte[][] buffers, int[] offsets, int[] lengths, byte[] output,
+            int outputOffset) throws DigestException {
+        digest(buffers, offsets, lengths, output, outputOffset, null);
+    }
+
+    /**
+     * Digests each of the slices, splitting large batches across the threads
+     * of the given pool.
+     *
+     * @param buffers the arrays holding the messages, an array may be given
+     *        several times
+     * @param offsets the offset of each message in its array
+     * @param lengths the length of each message
+     * @param output the array to write the digests to
+     * @param outputOffset the offset in the output of the first digest
+     * @param pool the pool to run chunks on, or null to digest on the calling
+     *        thread
+     * @throws IllegalArgumentException if the arrays differ in length, a slice
+     *         lies outside its array or the output is too short
+     * @throws DigestException if the batch could not be processed
+     */
+    public void digest(byte[][] buffers, int[] offsets, int[] lengths, byte[] output,
+            int outputOffset, ForkJoinPool pool) throws DigestException {
+        if ((buffers == null) || (offsets == null) || (lengths == null) || (output == null)) {
+            throw new NullPointerException("buffers, offsets, lengths and output must not be null");
+        }
+        int count = buffers.length;
+        if ((offsets.length != count) || (lengths.length != count)) {
+            throw new IllegalArgumentException("buffers, offsets and lengths differ in length");
+        }
+        if ((outputOffset < 0)
+                || (((long) count * digestLength) > (output.length - (long) outputOffset))) {
+            throw new IllegalArgumentException("output too short for " + count + " digests");
+        }
+
+        long totalBytes = 0;
+        for (int i = 0; i < count; i++) {
+            if ((buffers[i] == null) || (offsets[i] < 0) || (lengths[i] < 0)
+                    || (lengths[i] > (buffers[i].length - offsets[i]))) {
+                throw new IllegalArgumentException("slice " + i + " is invalid");
+            }
+            totalBytes += lengths[i];
+        }
+
+        try {
+            long chunks = (pool == null) ? 1
+                    : Math.min(Math.min(pool.getParallelism(), count), Math.max(
+                            count / MIN_PARALLEL_CHUNK_SIZE, totalBytes / MIN_PARALLEL_CHUNK_BYTES));
+            if (chunks <= 1) {
+                digestChunk(buffers, offsets, lengths, output, outputOffset);
+            } else {
+                digestInChunks(buffers, offsets, lengths, output, outputOffset, pool, (int) chunks);
+            }
+        } catch (Exception e) {
+            DigestException de = new DigestException("Failed to digest " + algorithm + " batch");
+            provider.setOCKExceptionCause(de, e);
+            throw de;
+        }
+    }
+
+    private void digestInChunks(byte[][] buffers, int[] offsets, int[] lengths, byte[] output,
+            int outputOffset, ForkJoinPool pool, int chunks) throws Exception {
+        int count = buffers.length;
+        int chunkSize = (count + chunks - 1) / chunks;
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(chunks);
+        for (int start = 0; start < count; start += chunkSize) {
+            int end = Math.min(start + chunkSize, count);
+            byte[][] chunkBuffers = Arrays.copyOfRange(buffers, start, end);
+            int[] chunkOffsets = Arrays.copyOfRange(offsets, start, end);
+            int[] chunkLengths = Arrays.copyOfRange(lengths, start, end);
+            int chunkOutputOffset = outputOffset + start * digestLength;
+
+            tasks.add(pool.submit(() -> {
+                digestChunk(chunkBuffers, chunkOffsets, chunkLengths, output, chunkOutputOffset);
+                return null;
+            }));
+        }
+
+        // Wait for every chunk, even after a failure, so that the output of
+        // the batch is no longer written to once this returns.
+        //
+        Exception failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void digestChunk(byte[][] buffers, int[] offsets, int[] lengths, byte[] output,
+            int outputOffset) throws Exception {
+        Digest digest = digests.poll();
+        if (digest == null) {
+            digest = Digest.getInstance(provider.getThreadOCKContext(), digestAlgo);
+        }
+        boolean completed = false;
+        try {
+            digest.digestBatch(buffers, offsets, lengths, output, outputOffset);
+            completed = true;
+        } finally {
+            returnDigest(digest, completed);
+        }
+    }
+
+    // Returns a borrowed digest to the pool. After a failure it is reset
+    // first, so that no partial message is carried into the next use, and a
+    // digest that cannot be reset is left to be released by its finalizer.
+    //
+    private void returnDigest(Digest digest, boolean completed) {
+        if (!completed) {
+            try {
+                digest.reset();
+            } catch (OCKException e) {
+                return;
+            }
+        }
+        digests.add(digest);
+    }
+}
@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.Padding;
 import com.ibm.crypto.plus.provider.ock.SymmetricCipher;
 import java.nio.ByteBuffer;
@@ -31,6 +32,7 @@ import javax.crypto.spec.ChaCha20ParameterSpec;
 public final class ChaCha20Cipher extends CipherSpi implements ChaCha20Constants {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private SymmetricCipher symmetricCipher = null;
     private Padding padding = Padding.NoPadding;
     private byte[] ivBytes = null;
@@ -66,11 +68,22 @@ public final class ChaCha20Cipher extends CipherSpi implements ChaCha20Constants
             throw new SecurityException("Integrity check failed for: " + provider.getName());
         }
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
     }
 
     @Override
     protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
             throws IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen);
+        } finally {
+            event.finish(doFinalOperation, keyBytes, inputLen);
+        }
+    }
+
+    private byte[] internalDoFinal(byte[] input, int inputOffset, int inputLen)
+            throws IllegalBlockSizeException, BadPaddingException {
 
         checkCipherInitialized();
 
@@ -109,7 +122,7 @@ public final class ChaCha20Cipher extends CipherSpi implements ChaCha20Constants
             }
         } catch (BadPaddingException ock_bpe) {
             resetVarsAfterException();
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -132,6 +145,17 @@ public final class ChaCha20Cipher extends CipherSpi implements ChaCha20Constants
     protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, keyBytes, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
 
         checkCipherInitialized();
 
@@ -160,7 +184,7 @@ public final class ChaCha20Cipher extends CipherSpi implements ChaCha20Constants
             return ret;
         } catch (BadPaddingException ock_bpe) {
             resetVarsAfterException();
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -321,7 +345,7 @@ public final class ChaCha20Cipher extends CipherSpi implements ChaCha20Constants
 
         try {
             if (symmetricCipher == null) {
-                symmetricCipher = SymmetricCipher.getInstanceChaCha20(provider.getOCKContext(),
+                symmetricCipher = SymmetricCipher.getInstanceChaCha20(provider.getThreadOCKContext(),
                         padding);
             }
 
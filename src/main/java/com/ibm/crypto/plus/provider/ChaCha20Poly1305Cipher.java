@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.OCKException;
 import com.ibm.crypto.plus.provider.ock.Padding;
 import com.ibm.crypto.plus.provider.ock.Poly1305Cipher;
@@ -40,6 +41,7 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
     private Poly1305Cipher poly1305Cipher = null;
     private static final byte[] emptyAAD = new byte[0];
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private Padding padding = Padding.NoPadding;
     private byte[] keyBytes = null;
     private byte[] nonceBytes = null;
@@ -77,11 +79,22 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
             throw new SecurityException("Integrity check failed for: " + provider.getName());
         }
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
     }
 
     @Override
     protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
             throws IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen);
+        } finally {
+            event.finish(doFinalOperation, keyBytes, inputLen);
+        }
+    }
+
+    private byte[] internalDoFinal(byte[] input, int inputOffset, int inputLen)
+            throws IllegalBlockSizeException, BadPaddingException {
         //final String methodName = "engineDoFinal ";
 
         checkCipherInitialized();
@@ -126,9 +139,13 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
                 sbeInLastFinalEncrypt = false;
                 return output;
             }
+        } catch (AEADBadTagException ock_abte) {
+            // Already created without a stack trace by FailureExceptions.
+            resetVarsAfterException();
+            throw ock_abte;
         } catch (BadPaddingException ock_bpe) {
             resetVarsAfterException();
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -144,7 +161,7 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
         } catch (OCKException ockException) {
             resetVarsAfterException();
             if (!encrypting) {
-                throw new AEADBadTagException("Tag mismatch");
+                throw FailureExceptions.tagMismatch("Tag mismatch");
             } else {
                 throw provider.providerException("Failure in engineDoFinal", ockException);
             }
@@ -163,6 +180,17 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
     protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, keyBytes, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
         //final String methodName = "engineDoFinal ";
 
         checkCipherInitialized();
@@ -196,9 +224,13 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
             this.initCalledInEncSeq = false;
             return retvalue;
 
+        } catch (AEADBadTagException ock_abte) {
+            // Already created without a stack trace by FailureExceptions.
+            resetVarsAfterException();
+            throw ock_abte;
         } catch (BadPaddingException ock_bpe) {
             resetVarsAfterException();
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
 
@@ -224,7 +256,7 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
 
             resetVarsAfterException();
             if (!encrypting) {
-                throw new AEADBadTagException("Tag mismatch");
+                throw FailureExceptions.tagMismatch("Tag mismatch");
             } else {
                 throw provider.providerException("Failure in engineDoFinal", ockException);
             }
@@ -437,7 +469,7 @@ public final class ChaCha20Poly1305Cipher extends CipherSpi
 
         try {
             if (poly1305Cipher == null) {
-                poly1305Cipher = Poly1305Cipher.getInstance(provider.getOCKContext(),
+                poly1305Cipher = Poly1305Cipher.getInstance(provider.getThreadOCKContext(),
                         OCK_CHACHA20_POLY1305, padding);
             }
 
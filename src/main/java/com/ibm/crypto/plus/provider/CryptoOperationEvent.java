@@ -0,0 +1,121 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.OperationTrace;
+import java.security.interfaces.DSAKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import javax.crypto.interfaces.DHKey;
+
+/**
+ * Counts and reports the operations that complete a computation of an
+ * engine, as a {@link CryptoOperationJFREvent} while that event is enabled.
+ *
+ * <p>While the event is disabled, or the runtime has no {@code jdk.jfr}
+ * module, an operation costs a check of the event's enabled state and the
+ * increment of its count, and nothing is allocated. Only the outermost
+ * operation on a thread is reported, so an engine method can call another
+ * instrumented method without a second event.
+ *
+ * <p>An engine looks up each operation it completes once, when it is
+ * created, and wraps the operation as follows:
+ * <pre>
+ * doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
+ * ...
+ * CryptoOperationEvent event = CryptoOperationEvent.start();
+ * try {
+ *     return doFinal(...);
+ * } finally {
+ *     event.finish(doFinalOperation, keyBytes, inputLen);
+ * }
+ * </pre>
+ */
+final class CryptoOperationEvent {
+
+    // Returned by start while the event is disabled.
+    //
+    private static final CryptoOperationEvent NOT_RECORDED = new CryptoOperationEvent(null);
+
+    private final CryptoOperationJFREvent event;
+
+    private CryptoOperationEvent(CryptoOperationJFREvent event) {
+        this.event = event;
+    }
+
+    /**
+     * Returns an event timing an operation, the operation must be followed
+     * by a call to one of the finish methods.
+     */
+    static CryptoOperationEvent start() {
+        if (!OperationTrace.JFR_AVAILABLE || !CryptoOperationJFREvent.enabled()
+                || !OperationTrace.begin()) {
+            return NOT_RECORDED;
+        }
+        CryptoOperationJFREvent event = new CryptoOperationJFREvent();
+        event.begin();
+        return new CryptoOperationEvent(event);
+    }
+
+    /**
+     * Completes the event of an operation with a key given as its encoding,
+     * as a {@link java.security.Key} or as {@code null} if unknown. The
+     * operation is counted in the provider's statistics whether or not the
+     * event is enabled.
+     */
+    void finish(ProviderStatistics.Operation operation, Object key, long inputBytes) {
+        operation.count();
+        if (event != null) {
+            commit(operation, keySize(key), inputBytes);
+        }
+    }
+
+    /**
+     * Completes the event of an operation with a key size in bits.
+     */
+    void finish(ProviderStatistics.Operation operation, int keySize, long inputBytes) {
+        operation.count();
+        if (event != null) {
+            commit(operation, keySize, inputBytes);
+        }
+    }
+
+    private void commit(ProviderStatistics.Operation operation, int keySize, long inputBytes) {
+        event.end();
+        int paths = OperationTrace.end();
+        if (event.shouldCommit()) {
+            event.provider = operation.provider.getName();
+            event.service = operation.service;
+            event.operation = operation.name;
+            event.algorithm = ProviderStatistics.getAlgorithm(operation.provider,
+                    operation.service, operation.engineClass);
+            event.keySize = keySize;
+            event.inputBytes = inputBytes;
+            event.fastPath = (paths & OperationTrace.FAST_PATH) != 0;
+            event.hardwarePath = (paths & OperationTrace.HARDWARE_PATH) != 0;
+            event.contextCacheHit = (paths & OperationTrace.CONTEXT_CACHE_HIT) != 0;
+            event.commit();
+        }
+    }
+
+    private static int keySize(Object key) {
+        if (key instanceof byte[]) {
+            return ((byte[]) key).length * 8;
+        } else if (key instanceof RSAKey) {
+            return ((RSAKey) key).getModulus().bitLength();
+        } else if ((key instanceof ECKey) && (((ECKey) key).getParams() != null)) {
+            return ((ECKey) key).getParams().getOrder().bitLength();
+        } else if ((key instanceof DSAKey) && (((DSAKey) key).getParams() != null)) {
+            return ((DSAKey) key).getParams().getP().bitLength();
+        } else if ((key instanceof DHKey) && (((DHKey) key).getParams() != null)) {
+            return ((DHKey) key).getParams().getP().bitLength();
+        }
+        return 0;
+    }
+}
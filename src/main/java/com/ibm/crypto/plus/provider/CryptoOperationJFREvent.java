@@ -0,0 +1,82 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for an operation that completes a computation of an engine: a
+ * Cipher doFinal, MessageDigest digest, Mac doFinal, Signature sign or
+ * verify, KeyAgreement generateSecret or KeyPairGenerator generateKeyPair.
+ *
+ * <p>The event is disabled by default and is enabled in a recording by its
+ * name, for example with
+ * {@code recording.enable("com.ibm.crypto.plus.CryptoOperation")}. Engines
+ * do not use this class, which needs the {@code jdk.jfr} module, but
+ * {@link CryptoOperationEvent}.
+ */
+@Name("com.ibm.crypto.plus.CryptoOperation")
+@Label("Crypto Operation")
+@Category({"Security", "OpenJCEPlus"})
+@Description("Completion of an OpenJCEPlus cipher, digest, MAC, signature, key agreement or key pair generation")
+@Enabled(false)
+@StackTrace(false)
+final class CryptoOperationJFREvent extends Event {
+
+    // Checks whether the event is enabled without creating an event, the
+    // enabled state is that of the event class rather than of an instance.
+    //
+    private static final CryptoOperationJFREvent PROBE = new CryptoOperationJFREvent();
+
+    @Label("Provider")
+    String provider;
+
+    @Label("Service")
+    @Description("The service type, such as Cipher or Signature")
+    String service;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Key Size")
+    @Description("The key size in bits, 0 if the engine has no key or does not keep it")
+    @DataAmount(DataAmount.BITS)
+    int keySize;
+
+    @Label("Input Size")
+    @Description("The input of the completing call, for MessageDigest and Mac all input since the previous digest or reset")
+    @DataAmount(DataAmount.BYTES)
+    long inputBytes;
+
+    @Label("Fast Path")
+    @Description("Input and output were copied through direct FastJNI buffers")
+    boolean fastPath;
+
+    @Label("Hardware Path")
+    @Description("A hardware accelerated native function was used")
+    boolean hardwarePath;
+
+    @Label("Context Cache Hit")
+    @Description("A cached native context was reused")
+    boolean contextCacheHit;
+
+    static boolean enabled() {
+        return PROBE.isEnabled();
+    }
+}
@@ -35,6 +35,7 @@ class CurveDB {
     private static final Map<String, NamedCurve> oidMap = new LinkedHashMap<String, NamedCurve>();
     private static final Map<String, NamedCurve> nameMap = new HashMap<String, NamedCurve>();
     private static final Map<Integer, NamedCurve> lengthMap = new HashMap<Integer, NamedCurve>();
+    private static final Map<ParametersKey, NamedCurve> paramsMap = new HashMap<ParametersKey, NamedCurve>();
 
     private static Collection<? extends NamedCurve> specCollection;
 
@@ -80,31 +81,58 @@ class CurveDB {
         // curves using the short form, not explicitly. If it did that, then
         // the SunJSSE TLS ECC extensions are wrong, which could lead to
         // interoperability problems.
-        int fieldSize = params.getCurve().getField().getFieldSize();
-        for (NamedCurve namedCurve : specCollection) {
-            // ECParameterSpec does not define equals, so check all the
-            // components ourselves.
-            // Quick field size check first
-            if (namedCurve.getCurve().getField().getFieldSize() != fieldSize) {
-                continue;
-            }
-            if (namedCurve.getCurve().equals(params.getCurve()) == false) {
-                continue;
-            }
-            if (namedCurve.getGenerator().equals(params.getGenerator()) == false) {
-                continue;
-            }
-            if (namedCurve.getOrder().equals(params.getOrder()) == false) {
-                continue;
+        return paramsMap.get(new ParametersKey(params));
+    }
+
+    /**
+     * Value-based fingerprint of the (field, a, b, G, n, h) tuple of an
+     * ECParameterSpec. ECParameterSpec does not define equals, so this is used
+     * to index the known curves by their parameters rather than scanning them.
+     */
+    static final class ParametersKey {
+        private final ECField field;
+        private final BigInteger a;
+        private final BigInteger b;
+        private final ECPoint generator;
+        private final BigInteger order;
+        private final int cofactor;
+        private final int hash;
+
+        ParametersKey(ECParameterSpec params) {
+            EllipticCurve curve = params.getCurve();
+            this.field = curve.getField();
+            this.a = curve.getA();
+            this.b = curve.getB();
+            this.generator = params.getGenerator();
+            this.order = params.getOrder();
+            this.cofactor = params.getCofactor();
+
+            int h = field.hashCode();
+            h = 31 * h + a.hashCode();
+            h = 31 * h + b.hashCode();
+            h = 31 * h + generator.hashCode();
+            h = 31 * h + order.hashCode();
+            this.hash = 31 * h + cofactor;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
             }
-            if (namedCurve.getCofactor() != params.getCofactor()) {
-                continue;
+            if (!(obj instanceof ParametersKey)) {
+                return false;
             }
-            // everything matches our named curve, return it
-            return namedCurve;
+            ParametersKey other = (ParametersKey) obj;
+            return (hash == other.hash) && (cofactor == other.cofactor)
+                    && field.equals(other.field) && a.equals(other.a) && b.equals(other.b)
+                    && generator.equals(other.generator) && order.equals(other.order);
         }
-        // no match found
-        return null;
     }
 
     private static BigInteger bi(String s) {
@@ -130,6 +158,9 @@ class CurveDB {
         if (oidMap.put(soid, params) != null) {
             throw new RuntimeException("Duplication oid: " + soid);
         }
+        // keep the first curve registered for a given set of parameters,
+        // as the previous linear scan over specCollection did
+        paramsMap.putIfAbsent(new ParametersKey(params), params);
 
         String[] commonNames = nameSplitPattern.split(name);
         for (String commonName : commonNames) {
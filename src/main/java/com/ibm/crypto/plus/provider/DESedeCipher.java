@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.Padding;
 import com.ibm.crypto.plus.provider.ock.SymmetricCipher;
 import java.security.AlgorithmParameters;
@@ -31,6 +32,7 @@ import javax.crypto.spec.IvParameterSpec;
 public final class DESedeCipher extends CipherSpi implements DESConstants {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private SymmetricCipher symmetricCipher = null;
     private String mode = "ECB";
     private Padding padding = Padding.PKCS5Padding;
@@ -45,11 +47,22 @@ public final class DESedeCipher extends CipherSpi implements DESConstants {
         }
 
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
     }
 
     @Override
     protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
             throws IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen);
+        } finally {
+            event.finish(doFinalOperation, null, inputLen);
+        }
+    }
+
+    private byte[] internalDoFinal(byte[] input, int inputOffset, int inputLen)
+            throws IllegalBlockSizeException, BadPaddingException {
         checkCipherInitialized();
 
         try {
@@ -66,7 +79,7 @@ public final class DESedeCipher extends CipherSpi implements DESConstants {
                 return output;
             }
         } catch (BadPaddingException ock_bpe) {
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -82,12 +95,23 @@ public final class DESedeCipher extends CipherSpi implements DESConstants {
     protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
             int outputOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inputOffset, inputLen, output, outputOffset);
+        } finally {
+            event.finish(doFinalOperation, null, inputLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
         checkCipherInitialized();
 
         try {
             return symmetricCipher.doFinal(input, inputOffset, inputLen, output, outputOffset);
         } catch (BadPaddingException ock_bpe) {
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (IllegalBlockSizeException ock_ibse) {
@@ -241,7 +265,7 @@ public final class DESedeCipher extends CipherSpi implements DESConstants {
 
         try {
             if (symmetricCipher == null) {
-                symmetricCipher = SymmetricCipher.getInstanceDESede(provider.getOCKContext(), mode,
+                symmetricCipher = SymmetricCipher.getInstanceDESede(provider.getThreadOCKContext(), mode,
                         padding);
             }
 
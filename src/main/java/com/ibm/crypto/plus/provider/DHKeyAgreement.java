@@ -28,6 +28,7 @@ import sun.security.util.KeyUtil;
 public final class DHKeyAgreement extends KeyAgreementSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateSecretOperation = null;
     private boolean generateSecret = false;
     private BigInteger init_p = null;
     private BigInteger init_g = null;
@@ -56,6 +57,8 @@ public final class DHKeyAgreement extends KeyAgreementSpi {
         }
 
         this.provider = provider;
+        generateSecretOperation = provider.getStatistics().operation(this, "KeyAgreement",
+                "generateSecret");
     }
 
     @Override
@@ -97,7 +100,14 @@ public final class DHKeyAgreement extends KeyAgreementSpi {
             }
 
         } else {
-            dhPublicKey = new DHPublicKey(provider, dhPubKey.getEncoded());
+            DHKey ockKey = ((DHPublicKey) dhPubKey).getOCKKey();
+            if ((ockKey != null) && (ockKey.getOCKContext() == provider.getOCKContext())) {
+                // Our own key already holds a native key of the same OCK
+                // context, no need to re-encode
+                dhPublicKey = (DHPublicKey) dhPubKey;
+            } else {
+                dhPublicKey = new DHPublicKey(provider, dhPubKey.getEncoded());
+            }
         }
         ockDHKeyPub = dhPublicKey.getOCKKey();
 
@@ -119,6 +129,15 @@ public final class DHKeyAgreement extends KeyAgreementSpi {
     // The method DHKey.computeDHSecret should NOT be synchronized for performance as that would create a global lock.
     @Override
     protected byte[] engineGenerateSecret() throws IllegalStateException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateSecret();
+        } finally {
+            event.finish(generateSecretOperation, dhPrivateKey, 0);
+        }
+    }
+
+    private byte[] internalGenerateSecret() throws IllegalStateException {
         if (generateSecret == false) {
             throw new IllegalStateException("Wrong state");
         }
@@ -9,7 +9,6 @@
 package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.DHKey;
-import java.security.AlgorithmParameterGenerator;
 import java.security.AlgorithmParameters;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidParameterException;
@@ -17,11 +16,13 @@ import java.security.KeyPair;
 import java.security.KeyPairGeneratorSpi;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.NamedParameterSpec;
 import javax.crypto.spec.DHParameterSpec;
 
 public final class DHKeyPairGenerator extends KeyPairGeneratorSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateKeyPairOperation = null;
     private int keySize = 2048;
     private DHParameterSpec params;
 
@@ -33,6 +34,8 @@ public final class DHKeyPairGenerator extends KeyPairGeneratorSpi {
         }
 
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
         initialize(2048, null);
 
     }
@@ -105,6 +108,16 @@ public final class DHKeyPairGenerator extends KeyPairGeneratorSpi {
     @Override
     public void initialize(AlgorithmParameterSpec params, SecureRandom random)
             throws InvalidAlgorithmParameterException, InvalidParameterException {
+        if (params instanceof NamedParameterSpec) {
+            // RFC 7919 and RFC 3526 groups, e.g. "ffdhe2048"
+            DHParameterSpec groupParams = DHParameterCache
+                    .getNamedGroup(((NamedParameterSpec) params).getName());
+            if (groupParams == null) {
+                throw new InvalidAlgorithmParameterException("Unsupported DH group: "
+                        + ((NamedParameterSpec) params).getName());
+            }
+            params = groupParams;
+        }
         if (params instanceof DHParameterSpec == false) {
             throw new InvalidAlgorithmParameterException("Inappropriate parameter");
         }
@@ -128,6 +141,15 @@ public final class DHKeyPairGenerator extends KeyPairGeneratorSpi {
 
     @Override
     public KeyPair generateKeyPair() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateKeyPair();
+        } finally {
+            event.finish(generateKeyPairOperation, keySize, 0);
+        }
+    }
+
+    private KeyPair internalGenerateKeyPair() {
         try {
             DHKey dhKey;
 
@@ -146,20 +168,15 @@ public final class DHKeyPairGenerator extends KeyPairGeneratorSpi {
                                     + "from 512 to 1024 (inclusive), or 2048, 3072 or 4096 or 6144 or 8192 "
                                     + "The specific key size " + keySize + " is not supported");
                 }
-                AlgorithmParameterGenerator algParmGen = AlgorithmParameterGenerator
-                        .getInstance("DH", provider);
-                algParmGen.init(this.keySize);
-                AlgorithmParameters algParams = algParmGen.generateParameters();
-                this.params = algParams.getParameterSpec(DHParameterSpec.class);
-
-                dhKey = DHKey.generateKeyPair(provider.getOCKContext(), algParams.getEncoded());
-            } else {
-                AlgorithmParameters algParams = AlgorithmParameters.getInstance("DH", provider);
-                algParams.init(params);
-
-                dhKey = DHKey.generateKeyPair(provider.getOCKContext(), algParams.getEncoded());
+                // Parameters generated for this size are shared provider wide
+                this.params = DHParameterCache.getParameters(provider, this.keySize);
             }
 
+            AlgorithmParameters algParams = AlgorithmParameters.getInstance("DH", provider);
+            algParams.init(params);
+
+            dhKey = DHKey.generateKeyPair(provider.getOCKContext(), algParams.getEncoded());
+
             javax.crypto.interfaces.DHPrivateKey privKey = new DHPrivateKey(provider, dhKey);
             javax.crypto.interfaces.DHPublicKey pubKey = new DHPublicKey(provider, dhKey);
             return new KeyPair(pubKey, privKey);
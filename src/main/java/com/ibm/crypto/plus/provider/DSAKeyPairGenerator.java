@@ -28,12 +28,15 @@ import java.security.spec.DSAParameterSpec;
 public final class DSAKeyPairGenerator extends KeyPairGenerator
         implements java.security.interfaces.DSAKeyPairGenerator {
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateKeyPairOperation = null;
     private int keySize = 2048;
     private DSAParameterSpec params;
 
     public DSAKeyPairGenerator(OpenJCEPlusProvider provider) {
         super("DSA");
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
         initialize(2048, null);
     }
 
@@ -131,6 +134,15 @@ public final class DSAKeyPairGenerator extends KeyPairGenerator
     }
 
     public KeyPair generateKeyPair() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateKeyPair();
+        } finally {
+            event.finish(generateKeyPairOperation, keySize, 0);
+        }
+    }
+
+    private KeyPair internalGenerateKeyPair() {
         try {
             DSAKey dsaKey;
 
@@ -22,11 +22,15 @@ import java.security.spec.AlgorithmParameterSpec;
 abstract class DSASignature extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private Signature signature = null;
 
     DSASignature(OpenJCEPlusProvider provider, String ockDigestAlgo) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.signature = Signature.getInstance(provider.getOCKContext(), ockDigestAlgo);
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize DSA signature", e);
@@ -83,6 +87,15 @@ abstract class DSASignature extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         try {
             return this.signature.sign();
         } catch (Exception e) {
@@ -94,6 +107,15 @@ abstract class DSASignature extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         try {
             return this.signature.verify(sigBytes);
         } catch (Exception e) {
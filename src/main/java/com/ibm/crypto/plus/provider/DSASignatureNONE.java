@@ -19,6 +19,8 @@ import java.security.SignatureSpi;
 public final class DSASignatureNONE extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private SignatureDSANONE signature = null;
     private byte[] digestBuffer = new byte[20];
     private int ofs = 0;
@@ -26,6 +28,8 @@ public final class DSASignatureNONE extends SignatureSpi {
     public DSASignatureNONE(OpenJCEPlusProvider provider) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.signature = SignatureDSANONE.getInstance(provider.getOCKContext());
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize DSA signature", e);
@@ -79,6 +83,15 @@ public final class DSASignatureNONE extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         if (this.ofs != digestBuffer.length) {
             throw new SignatureException("Data must be exactly 20 bytes long");
         }
@@ -97,6 +110,15 @@ public final class DSASignatureNONE extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         if (this.ofs != digestBuffer.length) {
             throw new SignatureException("Data must be exactly 20 bytes long");
         }
@@ -29,6 +29,8 @@ public final class DatawithECDSA extends SignatureSpi {
     static private final int ARRAY_SIZE_INC = 256;
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private byte data[] = new byte[ARRAY_SIZE_INC];
     private int dataSize = 0;
     private int maxDigestLength = 0;
@@ -37,6 +39,8 @@ public final class DatawithECDSA extends SignatureSpi {
     public DatawithECDSA(OpenJCEPlusProvider provider)
             throws NoSuchAlgorithmException, NoSuchProviderException {
         this.provider = provider;
+        signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+        verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
     }
 
     @Deprecated
@@ -89,6 +93,15 @@ public final class DatawithECDSA extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         try {
             if (dataSize > maxDigestLength) {
                 throw new SignatureException(
@@ -160,6 +173,15 @@ public final class DatawithECDSA extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         try {
             return ECKey.verifyDatawithECDSA(provider.getOCKContext(), this.data, this.dataSize,
                     sigBytes, sigBytes.length, this.ecKey);
@@ -31,6 +31,7 @@ public final class ECDHKeyAgreement extends KeyAgreementSpi { // implements
                                                               // AlgorithmStatus
                                                               // {
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateSecretOperation = null;
     private boolean generateSecret = false;
     // private ECParameterSpec params;
     private EllipticCurve init_ec = null;
@@ -52,6 +53,8 @@ public final class ECDHKeyAgreement extends KeyAgreementSpi { // implements
 
         // System.out.println ("In ECDHKeyAgreement");
         this.provider = provider;
+        generateSecretOperation = provider.getStatistics().operation(this, "KeyAgreement",
+                "generateSecret");
     }
 
     /**
@@ -161,6 +164,15 @@ public final class ECDHKeyAgreement extends KeyAgreementSpi { // implements
     // The method ECKey.computeDHSecret should NOT be synchronized for performance as that would create a global lock.
     @Override
     protected byte[] engineGenerateSecret() throws IllegalStateException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateSecret();
+        } finally {
+            event.finish(generateSecretOperation, ecPrivateKey, 0);
+        }
+    }
+
+    private byte[] internalGenerateSecret() throws IllegalStateException {
         if (generateSecret == false) {
             throw new IllegalStateException("Wrong state");
         }
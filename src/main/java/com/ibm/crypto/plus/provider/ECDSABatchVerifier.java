@@ -0,0 +1,266 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.ECKey;
+import com.ibm.crypto.plus.provider.ock.OCKContext;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Verifies many ECDSA signatures at once.
+ *
+ * <p>Entries are collected with {@link #add(PublicKey, byte[], byte[])} and
+ * verified with {@link #verify()}, which digests and verifies the whole batch
+ * in a single native call instead of one {@code java.security.Signature}
+ * initVerify/update/verify sequence per entry. {@link #verify(ForkJoinPool)}
+ * additionally splits large batches across the threads of a pool.
+ *
+ * <p>The result is a bitmap in which bit {@code i} is set if the signature of
+ * the {@code i}-th added entry verified. A malformed signature only clears its
+ * own bit. Instances are not thread safe.
+ *
+ * <pre>
+ * ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance("SHA256withECDSA",
+ *         Security.getProvider("OpenJCEPlus"));
+ * for (Record r : records) {
+ *     verifier.add(r.publicKey(), r.data(), r.signature());
+ * }
+ * BitSet verified = verifier.verify();
+ * </pre>
+ */
+public final class ECDSABatchVerifier {
+
+    // Batches smaller than this are verified on the calling thread even if a
+    // pool is supplied, handing them off costs more than it saves.
+    //
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+
+    private static final Map<String, String> digestAlgorithms = new HashMap<String, String>();
+
+    static {
+        digestAlgorithms.put("NONEWITHECDSA", null);
+        digestAlgorithms.put("SHA1WITHECDSA", "SHA1");
+        digestAlgorithms.put("SHA224WITHECDSA", "SHA224");
+        digestAlgorithms.put("SHA256WITHECDSA", "SHA256");
+        digestAlgorithms.put("SHA384WITHECDSA", "SHA384");
+        digestAlgorithms.put("SHA512WITHECDSA", "SHA512");
+        digestAlgorithms.put("SHA3-224WITHECDSA", "SHA3-224");
+        digestAlgorithms.put("SHA3-256WITHECDSA", "SHA3-256");
+        digestAlgorithms.put("SHA3-384WITHECDSA", "SHA3-384");
+        digestAlgorithms.put("SHA3-512WITHECDSA", "SHA3-512");
+    }
+
+    private final OpenJCEPlusProvider provider;
+    private final String algorithm;
+    private final String digestAlgo;
+
+    private ECKey[] keys = new ECKey[16];
+    private byte[][] data = new byte[16][];
+    private byte[][] signatures = new byte[16][];
+    private int size = 0;
+
+    private ECDSABatchVerifier(OpenJCEPlusProvider provider, String algorithm,
+            String digestAlgo) {
+        this.provider = provider;
+        this.algorithm = algorithm;
+        this.digestAlgo = digestAlgo;
+    }
+
+    /**
+     * Returns a batch verifier for the given ECDSA signature algorithm, for
+     * example "SHA256withECDSA". For "NONEwithECDSA" the data of each entry
+     * must be the message digest.
+     *
+     * @param algorithm the ECDSA signature algorithm
+     * @param provider an OpenJCEPlus or OpenJCEPlusFIPS provider instance
+     * @throws NoSuchAlgorithmException if the algorithm is not an ECDSA
+     *         signature algorithm supported by the provider
+     */
+    public static ECDSABatchVerifier getInstance(String algorithm, Provider provider)
+            throws NoSuchAlgorithmException {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm is null");
+        }
+        if (!(provider instanceof OpenJCEPlusProvider)) {
+            throw new IllegalArgumentException("provider is not an OpenJCEPlus provider");
+        }
+        if ((provider.getService("Signature", algorithm) == null)
+                || !digestAlgorithms.containsKey(algorithm.toUpperCase())) {
+            throw new NoSuchAlgorithmException(
+                    algorithm + " batch verification not available from " + provider.getName());
+        }
+
+        return new ECDSABatchVerifier((OpenJCEPlusProvider) provider, algorithm,
+                digestAlgorithms.get(algorithm.toUpperCase()));
+    }
+
+    /**
+     * Returns the signature algorithm of this verifier.
+     */
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Adds an entry to the batch. The arrays are referenced, not copied, and
+     * must not be modified until the batch has been verified.
+     *
+     * @param publicKey the EC public key to verify the signature with
+     * @param data the signed data, or the digest for NONEwithECDSA
+     * @param signature the DER encoded ECDSA signature
+     * @throws InvalidKeyException if the key is not a valid EC public key
+     */
+    public void add(PublicKey publicKey, byte[] data, byte[] signature)
+            throws InvalidKeyException {
+        if ((data == null) || (signature == null)) {
+            throw new NullPointerException("data and signature must not be null");
+        }
+
+        ECPublicKey ecPublic = (ECPublicKey) ECKeyFactory.toECKey(provider, publicKey);
+        ECKey ockKey = ecPublic.getOCKKey();
+
+        if (size == keys.length) {
+            int newLength = size << 1;
+            keys = Arrays.copyOf(keys, newLength);
+            this.data = Arrays.copyOf(this.data, newLength);
+            signatures = Arrays.copyOf(signatures, newLength);
+        }
+        keys[size] = ockKey;
+        this.data[size] = data;
+        signatures[size] = signature;
+        size++;
+    }
+
+    /**
+     * Returns the number of entries added since the last verification.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries from the batch.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(data, 0, size, null);
+        Arrays.fill(signatures, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Verifies all entries on the calling thread and clears the batch.
+     *
+     * @return a bitmap with bit {@code i} set if entry {@code i} verified
+     * @throws SignatureException if the batch could not be processed
+     */
+    public BitSet verify() throws SignatureException {
+        return verify(null);
+    }
+
+    /**
+     * Verifies all entries and clears the batch. Batches large enough to be
+     * worth splitting are verified in chunks on the threads of the given pool.
+     *
+     * @param pool the pool to run chunks on, or null to verify on the calling
+     *        thread
+     * @return a bitmap with bit {@code i} set if entry {@code i} verified
+     * @throws SignatureException if the batch could not be processed
+     */
+    public BitSet verify(ForkJoinPool pool) throws SignatureException {
+        try {
+            int chunks = (pool == null) ? 1
+                    : Math.min(pool.getParallelism(), size / MIN_PARALLEL_CHUNK_SIZE);
+            if (chunks <= 1) {
+                return BitSet.valueOf(ECKey.verifyBatchWithECDSA(provider.getOCKContext(),
+                        digestAlgo, Arrays.copyOf(keys, size), Arrays.copyOf(data, size),
+                        Arrays.copyOf(signatures, size)));
+            }
+            return verifyInChunks(pool, chunks);
+        } catch (SignatureException e) {
+            throw e;
+        } catch (Exception e) {
+            SignatureException se = new SignatureException("Failed to verify ECDSA batch");
+            provider.setOCKExceptionCause(se, e);
+            throw se;
+        } finally {
+            clear();
+        }
+    }
+
+    private BitSet verifyInChunks(ForkJoinPool pool, int chunks) throws Exception {
+        // Each native EC key is locked while a chunk uses it, so chunks
+        // sharing a key would run one after the other. A key used by more
+        // than one chunk is therefore used by the first of those chunks only,
+        // the others get their own copy. The copies are made here, before any
+        // chunk starts running.
+        //
+        int chunkSize = (size + chunks - 1) / chunks;
+        IdentityHashMap<ECKey, Integer> firstChunk = new IdentityHashMap<ECKey, Integer>();
+        for (int i = 0; i < size; i++) {
+            firstChunk.putIfAbsent(keys[i], i / chunkSize);
+        }
+
+        OCKContext ockContext = provider.getOCKContext();
+        List<ForkJoinTask<long[]>> tasks = new ArrayList<ForkJoinTask<long[]>>(chunks);
+        for (int start = 0; start < size; start += chunkSize) {
+            int chunk = start / chunkSize;
+            int end = Math.min(start + chunkSize, size);
+
+            ECKey[] chunkKeys = Arrays.copyOfRange(keys, start, end);
+            IdentityHashMap<ECKey, ECKey> copies = new IdentityHashMap<ECKey, ECKey>();
+            for (int i = 0; i < chunkKeys.length; i++) {
+                ECKey key = chunkKeys[i];
+                if (firstChunk.get(key).intValue() != chunk) {
+                    ECKey copy = copies.get(key);
+                    if (copy == null) {
+                        copy = ECKey.createPublicKey(ockContext, key.getPublicKeyBytes(),
+                                key.getParameters());
+                        copies.put(key, copy);
+                    }
+                    chunkKeys[i] = copy;
+                }
+            }
+            byte[][] chunkData = Arrays.copyOfRange(data, start, end);
+            byte[][] chunkSignatures = Arrays.copyOfRange(signatures, start, end);
+
+            tasks.add(pool.submit(() -> ECKey.verifyBatchWithECDSA(ockContext, digestAlgo,
+                    chunkKeys, chunkData, chunkSignatures)));
+        }
+
+        BitSet results = new BitSet(size);
+        for (int chunk = 0; chunk < tasks.size(); chunk++) {
+            BitSet chunkResults;
+            try {
+                chunkResults = BitSet.valueOf(tasks.get(chunk).get());
+            } catch (ExecutionException e) {
+                throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+            }
+            int offset = chunk * chunkSize;
+            for (int i = chunkResults.nextSetBit(0); i >= 0; i = chunkResults.nextSetBit(i + 1)) {
+                results.set(offset + i);
+            }
+        }
+        return results;
+    }
+}
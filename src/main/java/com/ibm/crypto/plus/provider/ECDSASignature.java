@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.ECKey;
 import com.ibm.crypto.plus.provider.ock.Signature;
 import java.security.AlgorithmParameters;
 import java.security.InvalidKeyException;
@@ -22,11 +23,15 @@ import sun.security.util.ObjectIdentifier;
 abstract class ECDSASignature extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private Signature signature = null;
 
     ECDSASignature(OpenJCEPlusProvider provider, String ockDigestAlgo) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.signature = Signature.getInstance(provider.getOCKContext(), ockDigestAlgo);
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize ECDSA signature", e);
@@ -36,9 +41,10 @@ abstract class ECDSASignature extends SignatureSpi {
     @Override
     protected void engineInitVerify(PublicKey publicKey) throws InvalidKeyException {
         ECPublicKey ecPublic = (ECPublicKey) ECKeyFactory.toECKey(provider, publicKey);
+        ECKey ockKey = ecPublic.getOCKKey();
 
         try {
-            this.signature.initialize(ecPublic.getOCKKey(), false);
+            this.signature.initialize(ockKey, false);
         } catch (Exception e) {
             throw provider.providerException("Failure in engineInitVerify", e);
         }
@@ -63,8 +69,10 @@ abstract class ECDSASignature extends SignatureSpi {
             }
         }
 
+        ECKey ockKey = ecPrivate.getOCKKey();
+
         try {
-            this.signature.initialize(ecPrivate.getOCKKey(), false);
+            this.signature.initialize(ockKey, false);
         } catch (Exception e) {
             throw provider.providerException("Failure in engineInitSign", e);
         }
@@ -89,6 +97,15 @@ abstract class ECDSASignature extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         try {
             return this.signature.sign();
         } catch (Exception e) {
@@ -100,6 +117,15 @@ abstract class ECDSASignature extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         try {
             return this.signature.verify(sigBytes);
         } catch (Exception e) {
@@ -22,6 +22,7 @@ import sun.security.util.ObjectIdentifier;
 public final class ECKeyPairGenerator extends KeyPairGeneratorSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateKeyPairOperation = null;
     private int keysize = 256;
     SecureRandom random = null;
     ECParameterSpec ecSpec;
@@ -29,6 +30,8 @@ public final class ECKeyPairGenerator extends KeyPairGeneratorSpi {
 
     public ECKeyPairGenerator(OpenJCEPlusProvider provider) {
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
     }
 
     @Override
@@ -96,6 +99,15 @@ public final class ECKeyPairGenerator extends KeyPairGeneratorSpi {
 
     @Override
     public KeyPair generateKeyPair() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateKeyPair();
+        } finally {
+            event.finish(generateKeyPairOperation, keysize, 0);
+        }
+    }
+
+    private KeyPair internalGenerateKeyPair() {
 
         ECKey ecKey = null;
         // set random if initialize() method has been skipped
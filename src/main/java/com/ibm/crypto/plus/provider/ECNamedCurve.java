@@ -160,12 +160,19 @@ final class ECNamedCurve extends ECGenParameterSpec implements AlgorithmParamete
         return nameMap;
     }
 
+    // Return the ECNamedCurve whose field, coefficients, generator, order and
+    // cofactor match the given parameters, or null if there is none.
+    static ECNamedCurve getNamedCurve(ECParameterSpec params) {
+        return paramsMap.get(new CurveDB.ParametersKey(params));
+    }
+
     // private static final Map<String, String> oidToNameMap = new
     // HashMap<String, String>();
     private static final Map<String, String> nameToOIDMap = new HashMap<String, String>();
     private static final Map<String, Boolean> OIDtoFIPSMap = new HashMap<String, Boolean>();
     private static final Map<String, ECParameterSpec> oidMap = new LinkedHashMap<String, ECParameterSpec>();
     private static final Map<String, ECParameterSpec> nameMap = new HashMap<String, ECParameterSpec>();
+    private static final Map<CurveDB.ParametersKey, ECNamedCurve> paramsMap = new HashMap<CurveDB.ParametersKey, ECNamedCurve>();
 
     // private static final Map<Integer, ECParameterSpec> lengthMap = new
     // HashMap<Integer, ECParameterSpec>();
@@ -444,6 +451,16 @@ final class ECNamedCurve extends ECGenParameterSpec implements AlgorithmParamete
                 "AADD9DB8DBE9C48B3FD4E6AE33C9FC07CB308DB3B3C9D20ED6639CCA70330870553E5C414CA92619418661197FAC10471DB1D381085DDADDB58796829CA90069",
                 1, false);
         SPLIT_PATTERN = null;
+
+        // Index the curves by their parameters. The nameMap is walked in the
+        // same order that ECParameters.getNamedCurve used to scan it, so the
+        // same name is chosen when several names share one set of parameters.
+        for (Map.Entry<String, ECParameterSpec> entry : nameMap.entrySet()) {
+            CurveDB.ParametersKey key = new CurveDB.ParametersKey(entry.getValue());
+            if (!paramsMap.containsKey(key)) {
+                paramsMap.put(key, new ECNamedCurve(entry.getKey()));
+            }
+        }
     }
 
     public String getName() {
@@ -458,4 +475,8 @@ final class ECNamedCurve extends ECGenParameterSpec implements AlgorithmParamete
         return encoded.clone();
     }
 
+    String getObjectId() {
+        return oid.toString();
+    }
+
 }
@@ -23,10 +23,6 @@ import java.security.spec.ECParameterSpec;
 import java.security.spec.ECPoint;
 import java.security.spec.EllipticCurve;
 import java.security.spec.InvalidParameterSpecException;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 import sun.security.util.DerInputStream;
 import sun.security.util.DerOutputStream;
 import sun.security.util.DerValue;
@@ -659,99 +655,14 @@ public final class ECParameters extends AlgorithmParametersSpi {
     static ECNamedCurve getNamedCurve(ECParameterSpec params) {
 
         try {
-
-            // Get a copy of the nameMap from ECNamedCurve.
-            // The nameMap is a LinkedHashMap where the Key is a ECNamedCurve
-            // name string,
-            // and
-            // the value is an ECParameterSpec of the associated ECNamedCurve
-            Map<String, ECParameterSpec> nameMap = ECNamedCurve.getNameMap();
-            Set<Entry<String, ECParameterSpec>> myEntrySet = nameMap.entrySet();
-
-            // Scan the entries of the nameMap for an ECParameterSpec value that
-            // matches the
-            // one passed in.
-            for (Iterator<Entry<String, ECParameterSpec>> myIter = myEntrySet.iterator(); myIter.hasNext();) {
-                Entry<String, ECParameterSpec> myMapEntry = myIter.next();
-                String curveNameFromNameMap = myMapEntry.getKey();
-                ECParameterSpec ecParameterSpecFromNameMap = myMapEntry
-                        .getValue();
-
-                // Does ecParameterSpecFromNameMap match the one passed in?
-                // The ECParameterSpec class does not define equals, so I'll
-                // need to check all
-                // the
-                // components here.
-
-                // Compare the EllipticCurve components
-                BigInteger A1 = ecParameterSpecFromNameMap.getCurve().getA();
-                BigInteger A2 = params.getCurve().getA();
-
-                BigInteger B1 = ecParameterSpecFromNameMap.getCurve().getB();
-                BigInteger B2 = params.getCurve().getB();
-
-                int fieldSize1 = ecParameterSpecFromNameMap.getCurve().getField().getFieldSize();
-                int fieldSize2 = params.getCurve().getField().getFieldSize();
-
-                byte[] seedValue1 = ecParameterSpecFromNameMap.getCurve().getSeed();
-                byte[] seedValue2 = params.getCurve().getSeed();
-
-                if ((A1.equals(A2) == false) || (B1.equals(B2) == false)
-                        || (fieldSize1 != fieldSize2)) {
-                    continue;
-                }
-
-                // Compare the seed values from the EllipticCurve object
-                // separately, since they
-                // require a
-                // bit more logic.
-                // if seedValue1 == null and seedValue2 is null this looks good, do nothing.
-                if ((seedValue1 == null) && (seedValue2 != null)) {
-                    continue; // skip this named curve
-                } else if ((seedValue1 != null) && (seedValue2 == null)) {
-                    continue; // skip this named curve
-                } else if ((seedValue1 != null) && (seedValue2 != null)) {
-                    if (seedValue1.length != seedValue2.length) {
-                        continue; // skip this named curve
-                    } else {
-                        // Compare the two seed values
-                        boolean doTheyMatch = true;
-                        for (int i = 0; i < seedValue1.length; i++) {
-                            if (seedValue1[i] != seedValue2[i]) {
-                                doTheyMatch = false;
-                                break;
-                            }
-                        }
-                        if (doTheyMatch == false) {
-                            continue; // skip this named curve
-                        }
-                    }
-                }
-
-                if (ecParameterSpecFromNameMap.getGenerator()
-                        .equals(params.getGenerator()) == false) {
-                    continue;
-                }
-
-                if (ecParameterSpecFromNameMap.getOrder().equals(params.getOrder()) == false) {
-                    continue;
-                }
-
-                if (ecParameterSpecFromNameMap.getCofactor() != params.getCofactor()) {
-                    continue;
-                }
-
-                // ecParameterSpecFromNameMap MATCHES! Therefore, I also have
-                // the associated
-                // ECNamedCurve name string.
-                // Create an instance of that ECNamedCurve and return it.
-                ECNamedCurve myECNamedCurve = new ECNamedCurve(curveNameFromNameMap);
-                return myECNamedCurve;
-
+            // The well known named curves are indexed by their field,
+            // coefficients, generator, order and cofactor. None of them carry
+            // a seed, so a curve with a seed never matches.
+            if (params.getCurve().getSeed() != null) {
+                return null;
             }
 
-            // No match was found in the nameMap. Return null.
-            return null;
+            return ECNamedCurve.getNamedCurve(params);
 
         } catch (Exception e) {
             return null; // Adding this statement to satisfy the compiler
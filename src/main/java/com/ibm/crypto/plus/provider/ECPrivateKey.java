@@ -46,7 +46,7 @@ final class ECPrivateKey extends PKCS8Key implements java.security.interfaces.EC
     private static final byte TAG_PUBLIC_KEY_ATTRS = 0x01;
 
     private transient boolean destroyed = false;
-    private transient ECKey ecKey = null;
+    private transient volatile ECKey ecKey = null;
     private static final String MSG_VERSION1 = "The encoded byte array sequence must have version number 1";
     private static final String MSG_SEQ = "The next structure in encoded byte array must be a sequence";
 
@@ -97,14 +97,7 @@ final class ECPrivateKey extends PKCS8Key implements java.security.interfaces.EC
         // }
 
 
-        byte[] sArr = s.toByteArray();
-        // convert to fixed-length array
-        int numOctets = (params.getOrder().bitLength() + 7) / 8;
-        byte[] sOctets = new byte[numOctets];
-        int inPos = Math.max(sArr.length - sOctets.length, 0);
-        int outPos = Math.max(sOctets.length - sArr.length, 0);
-        int length = Math.min(sArr.length, sOctets.length);
-        System.arraycopy(sArr, inPos, sOctets, outPos, length);
+        byte[] sOctets = getScalarOctets();
         DerOutputStream out = new DerOutputStream();
         // PKCS8Key contains the decoding logic for all instances of
         // PrivateKeys.
@@ -114,28 +107,11 @@ final class ECPrivateKey extends PKCS8Key implements java.security.interfaces.EC
         out.putOctetString(sOctets);
         DerValue val = new DerValue(DerValue.tag_Sequence, out.toByteArray());
         key = val.toByteArray();
+        Arrays.fill(sOctets, (byte) 0x00);
 
-        try {
-            this.publicKeyBytes = null;
-            byte[] privateKeyBytes = buildOCKPrivateKeyBytes();
-            // System.out.println("ECPrivateKey(s, paramSpec) privateKeyBytes="
-            // +
-            // ECUtils.bytesToHex(privateKeyBytes));
-            byte[] paramBytes = ECParameters.encodeECParameters(this.params);
-            this.ecKey = ECKey.createPrivateKey(provider.getOCKContext(), privateKeyBytes,
-                    paramBytes);
-            // System.out.println("ECPrivateKey(s, paramSpec) This.eckey private
-            // bytes="
-            // + ECUtils.bytesToHex(ecKey.getPrivateKeyBytes()));
-            // System.out.println("ECPrivateKey(s, paramSpec) This.eckey public
-            // bytes="
-            // + ECUtils.bytesToHex(ecKey.getPublicKeyBytes()));
-        } catch (Exception exception) {
-            InvalidKeyException ike = new InvalidKeyException("Failed to create EC private key");
-            provider.setOCKExceptionCause(ike, exception);
-            throw ike;
-        }
-
+        // The OCK key is created the first time it is needed, see getOCKKey().
+        this.publicKeyBytes = null;
+        checkScalar();
     }
 
     /**
@@ -162,25 +138,9 @@ final class ECPrivateKey extends PKCS8Key implements java.security.interfaces.EC
         }
         // System.out.println("After decoding this.publicKey=" +
         // this.publicKey);
-        try {
-            byte[] privateKeyBytes = privateKeyBytesEncoded; // buildOCKPrivateKeyBytes();
-            // System.out.println("ECPrivateKey(byte[]encoded) privateKeyBytes="
-            // +
-            // ECUtils.bytesToHex(privateKeyBytes));
-            byte[] paramBytes = ECParameters.encodeECParameters(params);
-            this.ecKey = ECKey.createPrivateKey(provider.getOCKContext(), privateKeyBytes,
-                    paramBytes);
-            // System.out.println("ECPrivateKey(bytes[] encoded) This.eckey
-            // private bytes="
-            // + ECUtils.bytesToHex(ecKey.getPrivateKeyBytes()));
-            // System.out.println("ECPrivateKey(bytes [] encoded) This.eckey
-            // public bytes="
-            // + ECUtils.bytesToHex(ecKey.getPublicKeyBytes()));
-        } catch (Exception exception) {
-            InvalidKeyException ike = new InvalidKeyException("Failed to create EC private key");
-            provider.setOCKExceptionCause(ike, exception);
-            throw ike;
-        }
+
+        // The OCK key is created the first time it is needed, see getOCKKey().
+        checkScalar();
     }
 
     ECPrivateKey(OpenJCEPlusProvider provider, ECKey ecKey) throws InvalidKeyException {
@@ -567,10 +527,79 @@ final class ECPrivateKey extends PKCS8Key implements java.security.interfaces.EC
         return super.getFormat();
     }
 
-    ECKey getOCKKey() {
+    /**
+     * Rejects a private value that is not between 1 and the order of the
+     * curve minus 1, so that such a key fails when it is imported rather
+     * than when the OCK key is created.
+     */
+    private void checkScalar() throws InvalidKeyException {
+        if ((this.s.signum() <= 0) || (this.s.compareTo(this.params.getOrder()) >= 0)) {
+            throw new InvalidKeyException("Private value is out of range");
+        }
+    }
+
+    ECKey getOCKKey() throws InvalidKeyException {
+        ECKey ecKey = this.ecKey;
+        if (ecKey == null) {
+            ecKey = obtainOCKKey();
+        }
+        return ecKey;
+    }
+
+    private synchronized ECKey obtainOCKKey() throws InvalidKeyException {
+        // Leave this duplicate check in here. If two threads are both trying
+        // to getOCKKey at the same time, we only want to create the native
+        // key one time.
+        //
+        if (this.ecKey == null) {
+            if (destroyed) {
+                throw new InvalidKeyException("This key is no longer valid");
+            }
+
+            try {
+                ECNamedCurve namedCurve = ECParameters.getNamedCurve(this.params);
+                if (namedCurve != null) {
+                    // Well known curve, hand the private scalar straight to
+                    // OCK instead of building a DER encoded ECPrivateKey.
+                    byte[] sOctets = getScalarOctets();
+                    try {
+                        this.ecKey = ECKey.createPrivateKeyFromScalar(provider.getOCKContext(),
+                                namedCurve.getObjectId(), sOctets);
+                    } finally {
+                        Arrays.fill(sOctets, (byte) 0x00);
+                    }
+                } else {
+                    byte[] privateKeyBytes = (this.privateKeyBytesEncoded != null)
+                            ? this.privateKeyBytesEncoded
+                            : buildOCKPrivateKeyBytes();
+                    byte[] paramBytes = ECParameters.encodeECParameters(this.params);
+                    this.ecKey = ECKey.createPrivateKey(provider.getOCKContext(), privateKeyBytes,
+                            paramBytes);
+                }
+            } catch (Exception exception) {
+                InvalidKeyException ike = new InvalidKeyException(
+                        "Failed to create EC private key");
+                provider.setOCKExceptionCause(ike, exception);
+                throw ike;
+            }
+        }
         return this.ecKey;
     }
 
+    // Return the private value as a big-endian octet string whose length is
+    // that of the order of the curve.
+    private byte[] getScalarOctets() {
+        byte[] sArr = s.toByteArray();
+        int numOctets = (params.getOrder().bitLength() + 7) / 8;
+        byte[] sOctets = new byte[numOctets];
+        int inPos = Math.max(sArr.length - sOctets.length, 0);
+        int outPos = Math.max(sOctets.length - sArr.length, 0);
+        int length = Math.min(sArr.length, sOctets.length);
+        System.arraycopy(sArr, inPos, sOctets, outPos, length);
+        Arrays.fill(sArr, (byte) 0x00);
+        return sOctets;
+    }
+
     /**
      * Parse the key. Called by PKCS8Key. "key" is a byte array containing the
      * Der-encoded key which resides within the parent class PKCS8Key. The
@@ -10,12 +10,14 @@ package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.ECKey;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.security.AlgorithmParameters;
 import java.security.InvalidKeyException;
-import java.security.InvalidParameterException;
 import java.security.KeyRep;
+import java.security.spec.ECFieldFp;
 import java.security.spec.ECParameterSpec;
 import java.security.spec.ECPoint;
+import java.security.spec.EllipticCurve;
 import java.security.spec.InvalidParameterSpecException;
 import javax.security.auth.DestroyFailedException;
 import javax.security.auth.Destroyable;
@@ -38,7 +40,7 @@ final class ECPublicKey extends X509Key
     protected byte[] publicKeyBytes;
 
     private transient boolean destroyed = false;
-    private transient ECKey ecKey = null;
+    private transient volatile ECKey ecKey = null;
 
     /**
      * Make a EC public key from its components
@@ -59,20 +61,8 @@ final class ECPublicKey extends X509Key
         byte[] keyArray = ECParameters.encodePoint(w, this.params.getCurve());
         setKey(new BitArray(keyArray.length * 8, keyArray));
 
-        try {
-            byte[] parameterBytes = ECParameters.encodeECParameters(ecParams);
-            byte[] publicKeyBytes = buildOCKPublicKeyBytes();
-            // System.out.println ("publicKeyBytes.length=" +
-            // publicKeyBytes.length);
-            // this.ecKey = ECKey.createPublicKey(IBMJCEPlus.getOCKContext(), w,
-            // ecParams);
-            this.ecKey = ECKey.createPublicKey(provider.getOCKContext(), publicKeyBytes,
-                    parameterBytes);
-        } catch (Exception exception) {
-            InvalidKeyException ike = new InvalidKeyException("Failed to create EC public key");
-            provider.setOCKExceptionCause(ike, exception);
-            throw ike;
-        }
+        // The OCK key is created the first time it is needed, see getOCKKey().
+        checkPoint();
     }
 
     /**
@@ -86,17 +76,8 @@ final class ECPublicKey extends X509Key
 
         decode(encoded);
 
-        try {
-            byte[] publicKeyBytes = buildOCKPublicKeyBytes();
-            byte[] parameterBytes = ECParameters.encodeECParameters(this.params);
-            // System.out.println ("Calling ECKey createPublicKey");
-            this.ecKey = ECKey.createPublicKey(provider.getOCKContext(), publicKeyBytes,
-                    parameterBytes);
-        } catch (Exception exception) {
-            InvalidKeyException ike = new InvalidKeyException("Failed to create EC public key");
-            provider.setOCKExceptionCause(ike, exception);
-            throw ike;
-        }
+        // The OCK key is created the first time it is needed, see getOCKKey().
+        checkPoint();
     }
 
     ECPublicKey(OpenJCEPlusProvider provider, ECKey ecKey) throws InvalidKeyException {
@@ -137,25 +118,9 @@ final class ECPublicKey extends X509Key
     }
 
     private byte[] buildOCKPublicKeyBytes() throws IOException {
-        // System.out.println ("In buildOCKPublicKeyBytes");
-        ECParameterSpec ecParams = this.params;
-        ECPoint w = this.w;
-
-        ECParameters ecp = new ECParameters();
-        try {
-            ecp.engineInit(ecParams);
-        } catch (InvalidParameterSpecException e) {
-            throw new InvalidParameterException(
-                    "Invalid Parameter Specification " + e.getMessage());
-
-        }
-        byte[] encodedECPoint = ECParameters.encodePoint(w, ecParams.getCurve());
-        // System.out.println ("Encoded end ECPoint length " +
-        // encodedECPoint.length);
-
-        // System.out.println ("Back from buildOCKPublicKeyBytes");
-        return encodedECPoint;
-
+        // The key bits already hold the encoded point, both when built from
+        // (w, params) and when decoded from an X.509 encoding.
+        return getKey().toByteArray();
     }
 
     /**
@@ -177,7 +142,75 @@ final class ECPublicKey extends X509Key
         }
     }
 
-    ECKey getOCKKey() {
+    /**
+     * Rejects a point that is not on the curve, as OCK did when the key was
+     * created together with the OCK key. For curves over a binary field the
+     * OCK key is created here, so that OCK checks the point.
+     */
+    private void checkPoint() throws InvalidKeyException {
+        EllipticCurve curve = this.params.getCurve();
+        if (!(curve.getField() instanceof ECFieldFp)) {
+            getOCKKey();
+            return;
+        }
+
+        if (ECPoint.POINT_INFINITY.equals(this.w)) {
+            throw new InvalidKeyException("Public point is the point at infinity");
+        }
+        BigInteger p = ((ECFieldFp) curve.getField()).getP();
+        BigInteger x = this.w.getAffineX();
+        BigInteger y = this.w.getAffineY();
+        if ((x.signum() < 0) || (x.compareTo(p) >= 0) || (y.signum() < 0)
+                || (y.compareTo(p) >= 0)) {
+            throw new InvalidKeyException("Public point coordinates are out of range");
+        }
+
+        // y^2 = x^3 + ax + b (mod p)
+        BigInteger left = y.multiply(y).mod(p);
+        BigInteger right = x.multiply(x).add(curve.getA()).multiply(x).add(curve.getB()).mod(p);
+        if (!left.equals(right)) {
+            throw new InvalidKeyException("Public point is not on the curve");
+        }
+    }
+
+    ECKey getOCKKey() throws InvalidKeyException {
+        ECKey ecKey = this.ecKey;
+        if (ecKey == null) {
+            ecKey = obtainOCKKey();
+        }
+        return ecKey;
+    }
+
+    private synchronized ECKey obtainOCKKey() throws InvalidKeyException {
+        // Leave this duplicate check in here. If two threads are both trying
+        // to getOCKKey at the same time, we only want to create the native
+        // key one time.
+        //
+        if (this.ecKey == null) {
+            if (destroyed) {
+                throw new InvalidKeyException("This key is no longer valid");
+            }
+
+            try {
+                byte[] publicKeyBytes = buildOCKPublicKeyBytes();
+                ECNamedCurve namedCurve = ECParameters.getNamedCurve(this.params);
+                if (namedCurve != null) {
+                    // Well known curve, hand the encoded point straight to
+                    // OCK instead of DER encoding the curve parameters.
+                    this.ecKey = ECKey.createPublicKeyFromPoint(provider.getOCKContext(),
+                            namedCurve.getObjectId(), publicKeyBytes);
+                } else {
+                    byte[] parameterBytes = ECParameters.encodeECParameters(this.params);
+                    this.ecKey = ECKey.createPublicKey(provider.getOCKContext(), publicKeyBytes,
+                            parameterBytes);
+                }
+            } catch (Exception exception) {
+                InvalidKeyException ike = new InvalidKeyException(
+                        "Failed to create EC public key");
+                provider.setOCKExceptionCause(ike, exception);
+                throw ike;
+            }
+        }
         return this.ecKey;
     }
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.AsymmetricKey;
+import com.ibm.crypto.plus.provider.ock.SignatureEdDSA;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Verifies many EdDSA signatures at once.
+ *
+ * <p>Entries are collected with {@link #add(PublicKey, byte[], byte[])} and
+ * verified with {@link #verify()} in a single native call instead of one
+ * {@code java.security.Signature} initVerify/update/verify sequence per
+ * entry. The result is a bitmap in which bit {@code i} is set if the
+ * signature of the {@code i}-th added entry verified. Instances are not
+ * thread safe.
+ */
+public final class EdDSABatchVerifier {
+
+    private final OpenJCEPlusProvider provider;
+    private final String algorithm;
+
+    private AsymmetricKey[] keys = new AsymmetricKey[16];
+    private byte[][] messages = new byte[16][];
+    private byte[][] signatures = new byte[16][];
+    private int size = 0;
+
+    private EdDSABatchVerifier(OpenJCEPlusProvider provider, String algorithm) {
+        this.provider = provider;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns a batch verifier for "Ed25519", "Ed448" or "EdDSA". An "EdDSA"
+     * verifier accepts keys of both curves.
+     *
+     * @param algorithm the EdDSA signature algorithm
+     * @param provider an OpenJCEPlus provider instance
+     * @throws NoSuchAlgorithmException if the algorithm is not an EdDSA
+     *         signature algorithm supported by the provider
+     */
+    public static EdDSABatchVerifier getInstance(String algorithm, Provider provider)
+            throws NoSuchAlgorithmException {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm is null");
+        }
+        if (!(provider instanceof OpenJCEPlusProvider)) {
+            throw new IllegalArgumentException("provider is not an OpenJCEPlus provider");
+        }
+        Provider.Service service = provider.getService("Signature", algorithm);
+        if ((service == null) || !(service.getAlgorithm().equalsIgnoreCase("EdDSA")
+                || service.getAlgorithm().equalsIgnoreCase("Ed25519")
+                || service.getAlgorithm().equalsIgnoreCase("Ed448"))) {
+            throw new NoSuchAlgorithmException(
+                    algorithm + " batch verification not available from " + provider.getName());
+        }
+
+        return new EdDSABatchVerifier((OpenJCEPlusProvider) provider, service.getAlgorithm());
+    }
+
+    /**
+     * Returns the signature algorithm of this verifier.
+     */
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Adds an entry to the batch. The arrays are referenced, not copied, and
+     * must not be modified until the batch has been verified.
+     *
+     * @param publicKey the EdDSA public key to verify the signature with
+     * @param message the signed message
+     * @param signature the signature
+     * @throws InvalidKeyException if the key is not a valid public key for
+     *         the algorithm of this verifier
+     */
+    public void add(PublicKey publicKey, byte[] message, byte[] signature)
+            throws InvalidKeyException {
+        if ((message == null) || (signature == null)) {
+            throw new NullPointerException("message and signature must not be null");
+        }
+
+        EdDSAPublicKeyImpl edDSAPublic = null;
+        try {
+            edDSAPublic = (EdDSAPublicKeyImpl) new EdDSAKeyFactory(provider)
+                    .engineTranslateKey(publicKey);
+        } catch (Exception e) {
+            throw new InvalidKeyException("Unsupported key type: " + e.getMessage());
+        }
+        if (!"EdDSA".equalsIgnoreCase(this.algorithm)
+                && !edDSAPublic.getParams().getName().equalsIgnoreCase(this.algorithm)) {
+            throw new InvalidKeyException("Key must be of algorithm " + this.algorithm);
+        }
+
+        if (size == keys.length) {
+            int newLength = size << 1;
+            keys = Arrays.copyOf(keys, newLength);
+            messages = Arrays.copyOf(messages, newLength);
+            signatures = Arrays.copyOf(signatures, newLength);
+        }
+        keys[size] = edDSAPublic.getOCKKey();
+        messages[size] = message;
+        signatures[size] = signature;
+        size++;
+    }
+
+    /**
+     * Returns the number of entries added since the last verification.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries from the batch.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(messages, 0, size, null);
+        Arrays.fill(signatures, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Verifies all entries and clears the batch.
+     *
+     * @return a bitmap with bit {@code i} set if entry {@code i} verified
+     * @throws SignatureException if the batch could not be processed
+     */
+    public BitSet verify() throws SignatureException {
+        try {
+            return BitSet.valueOf(SignatureEdDSA.verifyBatch(provider.getOCKContext(),
+                    Arrays.copyOf(keys, size), Arrays.copyOf(signatures, size),
+                    Arrays.copyOf(messages, size)));
+        } catch (Exception e) {
+            SignatureException se = new SignatureException("Failed to verify EdDSA batch");
+            provider.setOCKExceptionCause(se, e);
+            throw se;
+        } finally {
+            clear();
+        }
+    }
+}
@@ -29,11 +29,14 @@ abstract class EdDSAKeyPairGenerator extends KeyPairGeneratorSpi {
     private NamedParameterSpec namedSpec;
     private CURVE curve;
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateKeyPairOperation = null;
 
     private String alg = null;
 
     private EdDSAKeyPairGenerator(OpenJCEPlusProvider provider) {
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
         try {
             initialize(DEFAULT_PARAM_SPEC);
         } catch (Exception e) {
@@ -44,6 +47,8 @@ abstract class EdDSAKeyPairGenerator extends KeyPairGeneratorSpi {
 
     private EdDSAKeyPairGenerator(OpenJCEPlusProvider provider, String Alg) {
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
         this.alg = Alg;
         try {
             initialize(new NamedParameterSpec(Alg), null);
@@ -100,6 +105,15 @@ abstract class EdDSAKeyPairGenerator extends KeyPairGeneratorSpi {
 
     @Override
     public KeyPair generateKeyPair() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateKeyPair();
+        } finally {
+            event.finish(generateKeyPairOperation, 0, 0);
+        }
+    }
+
+    private KeyPair internalGenerateKeyPair() {
         try {
             int keySize = CurveUtil.getCurveSize(curve);
             XECKey xecKey = XECKey.generateKeyPair(provider.getOCKContext(),
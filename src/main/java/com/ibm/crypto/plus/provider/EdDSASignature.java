@@ -9,7 +9,6 @@
 package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.SignatureEdDSA;
-import java.io.ByteArrayOutputStream;
 import java.security.AlgorithmParameters;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -20,12 +19,22 @@ import java.security.SignatureException;
 import java.security.SignatureSpi;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.EdDSAParameterSpec;
+import java.util.Arrays;
 
 abstract class EdDSASignature extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private SignatureEdDSA signature = null;
-    private ByteArrayOutputStream message = null;
+
+    // EdDSA signs the whole message at once, so updates are collected here
+    // and handed to OCK in place. The buffer is cleared after each operation
+    // and reused by later ones unless it grew beyond MAX_RETAINED_BUFFER_SIZE.
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private byte[] message = null;
+    private int messageLen = 0;
+    private boolean messageStarted = false;
     private String alg = null;
     private boolean privateKeyInit = false;
     private boolean publicKeyInit = false;
@@ -33,6 +42,8 @@ abstract class EdDSASignature extends SignatureSpi {
     EdDSASignature(OpenJCEPlusProvider provider) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.signature = SignatureEdDSA.getInstance(provider.getOCKContext());
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize EdDSA signature", e);
@@ -42,6 +53,8 @@ abstract class EdDSASignature extends SignatureSpi {
     EdDSASignature(OpenJCEPlusProvider provider, String Alg) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.signature = SignatureEdDSA.getInstance(provider.getOCKContext());
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize EdDSA signature", e);
@@ -72,7 +85,7 @@ abstract class EdDSASignature extends SignatureSpi {
         // This edDSA singature is using default mode (Ed25519 or Ed448)
         // for edDSAParameterSpec (context = null, prehash = false)
         if (params instanceof EdDSAParameterSpec) {
-            if (message != null) {
+            if (messageStarted) {
                 // Sign/Verify is in progress
                 throw new InvalidParameterException(
                         "Cannot change signature parameters during operation");
@@ -88,11 +101,23 @@ abstract class EdDSASignature extends SignatureSpi {
     }
 
     private void ensureMessageInit() throws SignatureException {
-        if (message == null) {
+        if (!messageStarted) {
             if (this.signature == null) {
                 throw new SignatureException("Not initialized");
             }
-            message = new ByteArrayOutputStream();
+            messageStarted = true;
+            messageLen = 0;
+        }
+    }
+
+    private void resetMessage() {
+        if (message != null) {
+            Arrays.fill(message, 0, messageLen, (byte) 0);
+        }
+        messageStarted = false;
+        messageLen = 0;
+        if ((message != null) && (message.length > MAX_RETAINED_BUFFER_SIZE)) {
+            message = null;
         }
     }
 
@@ -119,7 +144,7 @@ abstract class EdDSASignature extends SignatureSpi {
         // Set to sign mode and reset message
         this.privateKeyInit = true;
         this.publicKeyInit = false;
-        this.message = null;
+        resetMessage();
     }
 
     @Override
@@ -144,23 +169,33 @@ abstract class EdDSASignature extends SignatureSpi {
         // Set to verify mode and reset message
         this.privateKeyInit = false;
         this.publicKeyInit = true;
-        this.message = null;
+        resetMessage();
     }
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         if (!privateKeyInit) {
             throw new SignatureException("Missing private key");
         }
         ensureMessageInit();
         try {
-            byte[] dataBytes = message.toByteArray();
-            message = null;
-            return this.signature.sign(dataBytes);
+            byte[] dataBytes = (message == null) ? new byte[0] : message;
+            return this.signature.sign(dataBytes, 0, messageLen);
         } catch (Exception e) {
             SignatureException signatureException = new SignatureException("Could not sign data");
             provider.setOCKExceptionCause(signatureException, e);
             throw signatureException;
+        } finally {
+            resetMessage();
         }
     }
 
@@ -175,25 +210,53 @@ abstract class EdDSASignature extends SignatureSpi {
     protected void engineUpdate(byte[] b, int off, int len) throws SignatureException {
         ensureMessageInit();
         // update can be called several times, as this is required by JCK 569 to maintain interop with Sun
-        message.write(b, off, len);
+        if ((b == null) || (off < 0) || (len < 0) || (off > b.length - len)) {
+            throw new SignatureException("Bad input parameters to EdDSA update");
+        }
+        if ((message == null) || ((messageLen == 0) && (message.length < len))) {
+            // Size the buffer for the first update exactly, a message given
+            // in one update is then copied only once.
+            message = new byte[len];
+        } else if (message.length - messageLen < len) {
+            int minLength = messageLen + len;
+            if (minLength < 0) {
+                throw new SignatureException("Message too large");
+            }
+            int newLength = Math.max(minLength, Math.min(message.length << 1, Integer.MAX_VALUE - 8));
+            byte[] grown = Arrays.copyOf(message, newLength);
+            Arrays.fill(message, 0, messageLen, (byte) 0);
+            message = grown;
+        }
+        System.arraycopy(b, off, message, messageLen, len);
+        messageLen += len;
     }
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         if (!publicKeyInit) {
             throw new SignatureException("Missing public key");
         }
-        if (message == null) {
+        if (!messageStarted) {
             return false;
         }
 
         try {
-            byte[] messageBytes = message.toByteArray();
-            message = null;
-            return this.signature.verify(sigBytes, messageBytes);
+            byte[] messageBytes = (message == null) ? new byte[0] : message;
+            return this.signature.verify(sigBytes, messageBytes, 0, messageLen);
         } catch (Exception e) {
             // return false rather than throwing exception
             return false;
+        } finally {
+            resetMessage();
         }
     }
 
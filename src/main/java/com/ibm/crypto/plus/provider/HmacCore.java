@@ -20,8 +20,14 @@ import javax.crypto.SecretKey;
 abstract class HmacCore extends MacSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private HMAC hmac = null;
 
+    // Key size and bytes processed since the last doFinal or reset, reported
+    // by CryptoOperationEvent.
+    private int keySize = 0;
+    private long inputBytes = 0;
+
     HmacCore(OpenJCEPlusProvider provider, String ockDigestAlgo, int blockLength) {
 
         if (!OpenJCEPlusProvider.verifySelfIntegrity(this)) {
@@ -30,7 +36,8 @@ abstract class HmacCore extends MacSpi {
 
         try {
             this.provider = provider;
-            this.hmac = HMAC.getInstance(provider.getOCKContext(), ockDigestAlgo);
+            doFinalOperation = provider.getStatistics().operation(this, "Mac", "doFinal");
+            this.hmac = HMAC.getInstance(provider.getThreadOCKContext(), ockDigestAlgo);
         } catch (Exception e) {
             throw provider.providerException("Failure in HmacCore", e);
         }
@@ -38,10 +45,14 @@ abstract class HmacCore extends MacSpi {
 
     @Override
     protected byte[] engineDoFinal() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
         try {
             return hmac.doFinal();
         } catch (Exception e) {
             throw provider.providerException("Failure in engineDoFinal", e);
+        } finally {
+            event.finish(doFinalOperation, keySize, inputBytes);
+            inputBytes = 0;
         }
     }
 
@@ -72,6 +83,8 @@ abstract class HmacCore extends MacSpi {
 
         try {
             hmac.initialize(secret);
+            keySize = secret.length * 8;
+            inputBytes = 0;
         } catch (Exception e) {
             throw provider.providerException("Failure in engineInit", e);
         } finally {
@@ -83,6 +96,7 @@ abstract class HmacCore extends MacSpi {
     protected void engineReset() {
         try {
             hmac.reset();
+            inputBytes = 0;
         } catch (Exception e) {
             throw provider.providerException("Failure in engineDoFinal", e);
         }
@@ -99,6 +113,7 @@ abstract class HmacCore extends MacSpi {
     protected void engineUpdate(byte[] input, int offset, int length) {
         try {
             this.hmac.update(input, offset, length);
+            this.inputBytes += length;
         } catch (Exception e) {
             throw provider.providerException("Failure in engineUpdate", e);
         }
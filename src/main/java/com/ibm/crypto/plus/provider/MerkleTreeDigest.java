@@ -0,0 +1,433 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.Digest;
+import com.ibm.crypto.plus.provider.ock.OCKException;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Computes the root of a hash tree over large inputs, hashing the leaves in
+ * parallel.
+ *
+ * <p>The input is split into leaves of {@code leafSize} bytes, the last leaf
+ * holding the rest, and an empty input into a single empty leaf. The hash of
+ * a leaf is {@code H(leafPrefix || leaf)}. The nodes of a level are grouped
+ * into runs of {@code fanOut} nodes, the last run possibly shorter, and the
+ * hash of the parent of a run is {@code H(nodePrefix || child_1 || ... ||
+ * child_n)}. A last run of one node is carried up to the next level unchanged.
+ * This repeats until a single node, the root, is left. With the defaults, a
+ * leaf size of 1 MiB, a fan-out of 2 and the prefixes 0x00 and 0x01, the root
+ * is the Merkle tree hash of RFC 6962 over the leaves, except for an empty
+ * input.
+ *
+ * <p>Files and direct buffers are hashed where they are, a file through
+ * read-only mappings, without copying them to the Java heap. The leaves are
+ * hashed in chunks on the threads of a pool, each with its own native digest
+ * context, so hashing scales with the number of threads as long as the
+ * input is read fast enough. Instances are thread safe.
+ *
+ * <pre>
+ * MerkleTreeDigest tree = MerkleTreeDigest.getInstance("SHA-256",
+ *         Security.getProvider("OpenJCEPlus"));
+ * try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+ *     byte[] root = tree.digest(channel);
+ * }
+ * </pre>
+ */
+public final class MerkleTreeDigest {
+
+    /** The default leaf size, 1 MiB. */
+    public static final int DEFAULT_LEAF_SIZE = 1024 * 1024;
+
+    /** The default fan-out, a binary tree. */
+    public static final int DEFAULT_FAN_OUT = 2;
+
+    // Largest part of the input that is mapped or sliced at once, a
+    // ByteBuffer cannot be larger than 2 GiB.
+    //
+    private static final int MAX_REGION_SIZE = 1 << 30;
+
+    // Chunks are made small enough that every thread of the pool gets several
+    // of them, which evens out threads that are slowed down by page faults,
+    // but not smaller than these, handing them off costs more than it saves.
+    //
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MIN_PARALLEL_CHUNK_BYTES = 256 * 1024;
+    private static final int MIN_PARALLEL_CHUNK_NODES = 1024;
+
+    private final OpenJCEPlusProvider provider;
+    private final String algorithm;
+    private final String digestAlgo;
+    private final int digestLength;
+    private final int leafSize;
+    private final int fanOut;
+    private final byte[] leafPrefix;
+    private final byte[] nodePrefix;
+
+    // Native digest contexts are not safe to use from several threads at
+    // once, every chunk takes one from here and returns it after.
+    //
+    private final ConcurrentLinkedQueue<Digest> digests = new ConcurrentLinkedQueue<Digest>();
+
+    private MerkleTreeDigest(OpenJCEPlusProvider provider, String algorithm, String digestAlgo,
+            int leafSize, int fanOut, byte[] leafPrefix, byte[] nodePrefix) throws Exception {
+        this.provider = provider;
+        this.algorithm = algorithm;
+        this.digestAlgo = digestAlgo;
+        this.leafSize = leafSize;
+        this.fanOut = fanOut;
+        this.leafPrefix = leafPrefix.clone();
+        this.nodePrefix = nodePrefix.clone();
+
+        Digest digest = Digest.getInstance(provider.getThreadOCKContext(), digestAlgo);
+        this.digestLength = digest.getDigestLength();
+        this.digests.add(digest);
+    }
+
+    /**
+     * Returns a tree digest for the given message digest algorithm, for
+     * example "SHA-256", with the default leaf size, fan-out and prefixes.
+     *
+     * @param algorithm the message digest algorithm
+     * @param provider an OpenJCEPlus or OpenJCEPlusFIPS provider instance
+     * @throws NoSuchAlgorithmException if the algorithm is not a SHA-2 or
+     *         SHA-3 message digest supported by the provider
+     */
+    public static MerkleTreeDigest getInstance(String algorithm, Provider provider)
+            throws NoSuchAlgorithmException {
+        return getInstance(algorithm, provider, DEFAULT_LEAF_SIZE, DEFAULT_FAN_OUT,
+                new byte[] {0x00}, new byte[] {0x01});
+    }
+
+    /**
+     * Returns a tree digest for the given message digest algorithm, for
+     * example "SHA-256", with the given tree shape and domain separation.
+     *
+     * @param algorithm the message digest algorithm
+     * @param provider an OpenJCEPlus or OpenJCEPlusFIPS provider instance
+     * @param leafSize the size of a leaf in bytes, at most 1 GiB
+     * @param fanOut the number of children of an interior node, at least 2
+     * @param leafPrefix the bytes hashed before every leaf, may be empty
+     * @param nodePrefix the bytes hashed before the children of every interior
+     *        node, may be empty
+     * @throws NoSuchAlgorithmException if the algorithm is not a SHA-2 or
+     *         SHA-3 message digest supported by the provider
+     */
+    public static MerkleTreeDigest getInstance(String algorithm, Provider provider, int leafSize,
+            int fanOut, byte[] leafPrefix, byte[] nodePrefix) throws NoSuchAlgorithmException {
+        if ((algorithm == null) || (leafPrefix == null) || (nodePrefix == null)) {
+            throw new NullPointerException("algorithm and prefixes must not be null");
+        }
+        if (!(provider instanceof OpenJCEPlusProvider)) {
+            throw new IllegalArgumentException("provider is not an OpenJCEPlus provider");
+        }
+        if ((leafSize <= 0) || (leafSize > MAX_REGION_SIZE)) {
+            throw new IllegalArgumentException("leafSize must be between 1 and " + MAX_REGION_SIZE);
+        }
+        if (fanOut < 2) {
+            throw new IllegalArgumentException("fanOut must be at least 2");
+        }
+
+        // Resolves aliases such as SHA256 to the standard name.
+        Provider.Service service = provider.getService("MessageDigest", algorithm);
+        String name = (service == null) ? null : service.getAlgorithm();
+        String digestAlgo = BatchMessageDigest.getDigestAlgo(name);
+        if ((digestAlgo == null) || "MD5".equals(name) || "SHA-1".equals(name)) {
+            throw new NoSuchAlgorithmException(
+                    algorithm + " tree digest not available from " + provider.getName());
+        }
+
+        try {
+            return new MerkleTreeDigest((OpenJCEPlusProvider) provider, name, digestAlgo,
+                    leafSize, fanOut, leafPrefix, nodePrefix);
+        } catch (Exception e) {
+            throw ((OpenJCEPlusProvider) provider).providerException("Failure in MerkleTreeDigest",
+                    e);
+        }
+    }
+
+    /**
+     * Returns the message digest algorithm of this tree digest.
+     */
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Returns the length in bytes of the root and of every node.
+     */
+    public int getDigestLength() {
+        return this.digestLength;
+    }
+
+    public int getLeafSize() {
+        return this.leafSize;
+    }
+
+    public int getFanOut() {
+        return this.fanOut;
+    }
+
+    /**
+     * Returns the root over the remaining bytes of the buffer, hashing on the
+     * common pool. The position of the buffer is moved to its limit.
+     *
+     * @throws DigestException if the input could not be hashed
+     */
+    public byte[] digest(ByteBuffer data) throws DigestException {
+        return digest(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the root over the remaining bytes of the buffer. The position of
+     * the buffer is moved to its limit.
+     *
+     * @param pool the pool to hash chunks on, or null to hash on the calling
+     *        thread
+     * @throws DigestException if the input could not be hashed
+     */
+    public byte[] digest(ByteBuffer data, ForkJoinPool pool) throws DigestException {
+        ByteBuffer input = data.slice();
+        try {
+            byte[] root = digest(input.remaining(),
+                    (offset, length) -> input.slice((int) offset, length), pool);
+            data.position(data.limit());
+            return root;
+        } catch (IOException e) {
+            // Not thrown by buffers.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the root over the whole file, from its start to its current
+     * size, hashing on the common pool. The position of the channel is not
+     * changed.
+     *
+     * @throws IOException if the file could not be mapped
+     * @throws DigestException if the input could not be hashed
+     */
+    public byte[] digest(FileChannel channel) throws IOException, DigestException {
+        return digest(channel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the root over the whole file, from its start to its current
+     * size. The position of the channel is not changed.
+     *
+     * @param pool the pool to hash chunks on, or null to hash on the calling
+     *        thread
+     * @throws IOException if the file could not be mapped
+     * @throws DigestException if the input could not be hashed
+     */
+    public byte[] digest(FileChannel channel, ForkJoinPool pool)
+            throws IOException, DigestException {
+        return digest(channel.size(),
+                (offset, length) -> channel.map(FileChannel.MapMode.READ_ONLY, offset, length),
+                pool);
+    }
+
+    /**
+     * Returns the root over the whole segment, hashing on the common pool.
+     *
+     * @throws DigestException if the input could not be hashed
+     */
+    public byte[] digest(MemorySegment segment) throws DigestException {
+        return digest(segment, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the root over the whole segment.
+     *
+     * @param pool the pool to hash chunks on, or null to hash on the calling
+     *        thread
+     * @throws DigestException if the input could not be hashed
+     */
+    public byte[] digest(MemorySegment segment, ForkJoinPool pool) throws DigestException {
+        try {
+            return digest(segment.byteSize(),
+                    (offset, length) -> segment.asSlice(offset, length).asByteBuffer(), pool);
+        } catch (IOException e) {
+            // Not thrown by segments.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns a part of the input of at most MAX_REGION_SIZE bytes.
+    private interface Source {
+        ByteBuffer region(long offset, int length) throws IOException;
+    }
+
+    // Hashes the nodes from one index up to another of a level.
+    private interface Chunk {
+        void hash(Digest digest, int from, int to) throws Exception;
+    }
+
+    private byte[] digest(long size, Source source, ForkJoinPool pool)
+            throws IOException, DigestException {
+        long leafCount = Math.max(1, (size + leafSize - 1) / leafSize);
+        if ((leafCount * digestLength) > (Integer.MAX_VALUE - 8)) {
+            throw new IllegalArgumentException("Too many leaves, the leaf size is too small");
+        }
+        int leaves = (int) leafCount;
+        int threads = (pool == null) ? 1 : pool.getParallelism() * CHUNKS_PER_THREAD;
+
+        try {
+            // No chunk spans more than one region of the input.
+            int leavesPerChunk = Math.max(1, MAX_REGION_SIZE / leafSize);
+            if (threads > 1) {
+                long minLeaves = (MIN_PARALLEL_CHUNK_BYTES + leafSize - 1) / leafSize;
+                leavesPerChunk = (int) Math.min(leavesPerChunk,
+                        Math.max(minLeaves, (leaves + threads - 1) / threads));
+            }
+            byte[] level = new byte[leaves * digestLength];
+            byte[] leafHashes = level;
+            hash(pool, leaves, leavesPerChunk,
+                    (digest, from, to) -> hashLeaves(digest, source, size, from, to, leafHashes));
+
+            for (int count = leaves; count > 1;) {
+                int parents = (count + fanOut - 1) / fanOut;
+                int parentsPerChunk = (threads > 1)
+                        ? Math.max(MIN_PARALLEL_CHUNK_NODES, (parents + threads - 1) / threads)
+                        : parents;
+                byte[] children = level;
+                int childCount = count;
+                byte[] next = new byte[parents * digestLength];
+                Chunk nodes = (digest, from, to) -> hashNodes(digest, children, childCount, from,
+                        to, next);
+                hash(pool, parents, parentsPerChunk, nodes);
+                level = next;
+                count = parents;
+            }
+            return Arrays.copyOf(level, digestLength);
+        } catch (IOException | DigestException e) {
+            throw e;
+        } catch (Exception e) {
+            DigestException de = new DigestException("Failed to digest " + algorithm + " tree");
+            provider.setOCKExceptionCause(de, e);
+            throw de;
+        }
+    }
+
+    // Hashes count nodes in chunks of perChunk nodes, on the calling thread
+    // or on the pool.
+    private void hash(ForkJoinPool pool, int count, int perChunk, Chunk chunk) throws Exception {
+        if ((pool == null) || (perChunk >= count)) {
+            for (int from = 0; from < count; from += perChunk) {
+                hashChunk(chunk, from, Math.min(count, from + perChunk));
+            }
+            return;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+        for (int start = 0; start < count; start += perChunk) {
+            int from = start;
+            int to = Math.min(count, start + perChunk);
+            tasks.add(pool.submit(() -> {
+                hashChunk(chunk, from, to);
+                return null;
+            }));
+        }
+
+        // Wait for every chunk, even after a failure, so that neither the
+        // source nor the levels of the tree are used once this returns.
+        //
+        Exception failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void hashChunk(Chunk chunk, int from, int to) throws Exception {
+        Digest digest = digests.poll();
+        if (digest == null) {
+            digest = Digest.getInstance(provider.getThreadOCKContext(), digestAlgo);
+        }
+        boolean completed = false;
+        try {
+            chunk.hash(digest, from, to);
+            completed = true;
+        } finally {
+            returnDigest(digest, completed);
+        }
+    }
+
+    private void hashLeaves(Digest digest, Source source, long size, int from, int to,
+            byte[] output) throws Exception {
+        long start = (long) from * leafSize;
+        long end = Math.min((long) to * leafSize, size);
+        ByteBuffer region = source.region(start, (int) (end - start));
+
+        for (int leaf = from; leaf < to; leaf++) {
+            int leafStart = (leaf - from) * leafSize;
+            int leafLength = Math.min(leafSize, region.capacity() - leafStart);
+            if (leafPrefix.length != 0) {
+                digest.update(leafPrefix, 0, leafPrefix.length);
+            }
+            digest.update(region.slice(leafStart, leafLength));
+            digest.digest(output, leaf * digestLength);
+        }
+    }
+
+    private void hashNodes(Digest digest, byte[] children, int childCount, int from, int to,
+            byte[] output) throws Exception {
+        for (int parent = from; parent < to; parent++) {
+            int first = parent * fanOut;
+            int runLength = Math.min(fanOut, childCount - first);
+            if (runLength == 1) {
+                System.arraycopy(children, first * digestLength, output, parent * digestLength,
+                        digestLength);
+                continue;
+            }
+            if (nodePrefix.length != 0) {
+                digest.update(nodePrefix, 0, nodePrefix.length);
+            }
+            digest.update(children, first * digestLength, runLength * digestLength);
+            digest.digest(output, parent * digestLength);
+        }
+    }
+
+    // Returns a borrowed digest to the pool. After a failure it is reset
+    // first, so that no partial node is carried into the next use, and a
+    // digest that cannot be reset is left to be released by its finalizer.
+    //
+    private void returnDigest(Digest digest, boolean completed) {
+        if (!completed) {
+            try {
+                digest.reset();
+            } catch (OCKException e) {
+                return;
+            }
+        }
+        digests.add(digest);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright IBM Corp. 2023
+ * Copyright IBM Corp. 2023, 2024
  *
  * Licensed under the Apache License 2.0 (the "License").  You may not use
  * this file except in compliance with the License.  You can obtain a copy
@@ -9,17 +9,25 @@
 package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.Digest;
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigestSpi;
 
 abstract class MessageDigest extends MessageDigestSpi implements Cloneable {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation digestOperation = null;
     private Digest digest = null;
 
+    // Bytes processed since the last digest or reset, reported by
+    // CryptoOperationEvent.
+    private long inputBytes = 0;
+
     MessageDigest(OpenJCEPlusProvider provider, String ockDigestAlgo) {
         try {
             this.provider = provider;
-            this.digest = Digest.getInstance(provider.getOCKContext(), ockDigestAlgo);
+            digestOperation = provider.getStatistics().operation(this, "MessageDigest", "digest");
+            this.digest = Digest.getInstance(provider.getThreadOCKContext(), ockDigestAlgo);
         } catch (Exception e) {
             throw provider.providerException("Failure in MessageDigest", e);
         }
@@ -45,6 +53,18 @@ abstract class MessageDigest extends MessageDigestSpi implements Cloneable {
         }
         try {
             this.digest.update(input, offset, length);
+            this.inputBytes += length;
+        } catch (Exception e) {
+            throw provider.providerException("Failure in engineUpdate", e);
+        }
+    }
+
+    @Override
+    protected void engineUpdate(ByteBuffer input) {
+        int length = input.remaining();
+        try {
+            this.digest.update(input);
+            this.inputBytes += length;
         } catch (Exception e) {
             throw provider.providerException("Failure in engineUpdate", e);
         }
@@ -52,10 +72,35 @@ abstract class MessageDigest extends MessageDigestSpi implements Cloneable {
 
     @Override
     protected byte[] engineDigest() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
         try {
             return this.digest.digest();
         } catch (Exception e) {
             throw provider.providerException("Failure in engineDigest", e);
+        } finally {
+            event.finish(digestOperation, 0, inputBytes);
+            inputBytes = 0;
+        }
+    }
+
+    @Override
+    protected int engineDigest(byte[] buf, int offset, int len) throws DigestException {
+        int digestLength = engineGetDigestLength();
+        if (len < digestLength) {
+            throw new DigestException("partial digests not returned");
+        }
+        if (buf.length - offset < digestLength) {
+            throw new DigestException("insufficient space in the output buffer to store the digest");
+        }
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            this.digest.digest(buf, offset);
+            return digestLength;
+        } catch (Exception e) {
+            throw provider.providerException("Failure in engineDigest", e);
+        } finally {
+            event.finish(digestOperation, 0, inputBytes);
+            inputBytes = 0;
         }
     }
 
@@ -104,6 +149,7 @@ abstract class MessageDigest extends MessageDigestSpi implements Cloneable {
     protected void engineReset() {
         try {
             this.digest.reset();
+            this.inputBytes = 0;
         } catch (Exception e) {
             throw provider.providerException("Failure in engineReset", e);
         }
@@ -10,12 +10,14 @@ package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.OCKContext;
 import com.ibm.crypto.plus.provider.ock.OCKException;
+import com.ibm.crypto.plus.provider.ock.TransferCalibration;
 import java.lang.reflect.Constructor;
 import java.security.AccessController;
 import java.security.InvalidParameterException;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
+import java.security.PrivilegedAction;
 import java.security.Provider;
 import java.security.ProviderException;
 import java.security.PublicKey;
@@ -65,8 +67,9 @@ public final class OpenJCEPlusFIPS extends OpenJCEPlusProvider {
     // User enabled debugging
     private static Debug debug = Debug.getInstance(DEBUG_VALUE);
 
-    private static boolean ockInitialized = false;
+    private static volatile boolean ockInitialized = false;
     private static OCKContext ockContext;
+    private static OCKContext[] ockContexts;
 
     private static final boolean isPlatformSupported;
     private static final Map<String, List<String>> supportedPlatforms = new HashMap<>();
@@ -99,7 +102,6 @@ public final class OpenJCEPlusFIPS extends OpenJCEPlusProvider {
         isPlatformSupported = isOsSupported && isArchSupported;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public OpenJCEPlusFIPS() {
         super("OpenJCEPlusFIPS", info);
         if (debug != null) {
@@ -111,24 +113,10 @@ public final class OpenJCEPlusFIPS extends OpenJCEPlusProvider {
                         "OpenJCEPlusFIPS is not supported on this non FIPS " + osName + " " + osArch + " platform");
         }
 
-        final OpenJCEPlusProvider jce = this;
-
-        AccessController.doPrivileged(new java.security.PrivilegedAction() {
-            public Object run() {
-
-                // Do java OCK initialization which includes loading native code
-                // Don't do this in the static initializer because it might
-                // be necessary for an applet running in a browser to grant
-                // access rights beforehand.
-                if (!ockInitialized) {
-                    initializeContext();
-                }
-
-                registerAlgorithms(jce);
-
-                return null;
-            }
-        });
+        // The default SecureRandom is found among the services put in the
+        // provider, the other services are put when first looked up.
+        //
+        putServices("SecureRandom");
 
         if (instance == null) {
             instance = this;
@@ -136,493 +124,310 @@ public final class OpenJCEPlusFIPS extends OpenJCEPlusProvider {
 
         if (debug != null) {
             debug.println("OpenJCEPlusFIPS Build-Level: " + getDebugDate(this.getClass().getName()));
-            debug.println("OpenJCEPlusFIPS library build date: " + OCKContext.getLibraryBuildDate());
-            try {
-                debug.println("OpenJCEPlusFIPS dependent library version: " + ockContext.getOCKVersion());
-                debug.println("OpenJCEPlusFIPS dependent library path: " + ockContext.getOCKInstallPath());
-            } catch (Throwable t) {
-                t.printStackTrace(System.out);
-            }
         }
-    }
-
-    private void registerAlgorithms(Provider jce) {
 
-        String[] aliases = null;
+        ProviderWarmUp.warmUpOnCreation(this);
+    }
 
+    // Services of the provider, a row for each with the type, the algorithm,
+    // the class name and any aliases of the service.
+    //
+    private static final String[][] SERVICES = {
         /* =======================================================================
          * Algorithm Parameter engines
          * =======================================================================
          */
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "AES",
-                "com.ibm.crypto.plus.provider.AESParameters", aliases));
-
-        aliases = new String[] {"DH", "OID." + OID_PKCS3, OID_PKCS3};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "DiffieHellman",
-                "com.ibm.crypto.plus.provider.DHParameters", aliases));
-        aliases = new String[] {"OID.1.2.840.10040.4.1", "1.2.840.10040.4.1", "OID.1.3.14.3.2.12",
-                "1.3.14.3.2.12"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "DSA",
-                "com.ibm.crypto.plus.provider.DSAParameters", aliases));
-
-
-        aliases = new String[] {"EllipticCurve", "OID.1.2.840.10045.2.1", "1.2.840.10045.2.1"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "EC",
-                "com.ibm.crypto.plus.provider.ECParameters", aliases));
-
-        aliases = new String[] {"AESGCM"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "GCM",
-                "com.ibm.crypto.plus.provider.GCMParameters", aliases));
-
-        aliases = new String[] {"AESCCM"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "CCM",
-                "com.ibm.crypto.plus.provider.CCMParameters", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "OAEP",
-                "com.ibm.crypto.plus.provider.OAEPParameters", aliases));
-        //ChaCha20 and ChaCha20-Poly1305 not supported in FIPS mode 
+        {"AlgorithmParameters", "AES", "com.ibm.crypto.plus.provider.AESParameters"},
+        {"AlgorithmParameters", "DiffieHellman", "com.ibm.crypto.plus.provider.DHParameters", "DH",
+                "OID." + OID_PKCS3, OID_PKCS3},
+        {"AlgorithmParameters", "DSA", "com.ibm.crypto.plus.provider.DSAParameters",
+                "OID.1.2.840.10040.4.1", "1.2.840.10040.4.1", "OID.1.3.14.3.2.12", "1.3.14.3.2.12"},
+        {"AlgorithmParameters", "EC", "com.ibm.crypto.plus.provider.ECParameters", "EllipticCurve",
+                "OID.1.2.840.10045.2.1", "1.2.840.10045.2.1"},
+        {"AlgorithmParameters", "GCM", "com.ibm.crypto.plus.provider.GCMParameters", "AESGCM"},
+        {"AlgorithmParameters", "CCM", "com.ibm.crypto.plus.provider.CCMParameters", "AESCCM"},
+        {"AlgorithmParameters", "OAEP", "com.ibm.crypto.plus.provider.OAEPParameters"},
+        //ChaCha20 and ChaCha20-Poly1305 not supported in FIPS mode
 
         /* =======================================================================
          * Algorithm parameter generation engines
          * =======================================================================
          */
-        aliases = new String[] {"DH", "OID." + OID_PKCS3, OID_PKCS3};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameterGenerator", "DiffieHellman",
-                "com.ibm.crypto.plus.provider.DHParameterGenerator", aliases));
-
-        aliases = new String[] {"RSA-PSS", "RSASSA-PSS", "RSASA-PSS"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameters", "RSAPSS",
-                "com.ibm.crypto.plus.provider.PSSParameters", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameterGenerator", "EC",
-                "com.ibm.crypto.plus.provider.ECParameterGenerator", aliases));
-
-        aliases = new String[] {"AESGCM"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameterGenerator", "GCM",
-                "com.ibm.crypto.plus.provider.GCMParameterGenerator", aliases));
-
-        aliases = new String[] {"AESCCM"};
-        putService(new OpenJCEPlusService(jce, "AlgorithmParameterGenerator", "CCM",
-                "com.ibm.crypto.plus.provider.CCMParameterGenerator", aliases));
+        {"AlgorithmParameterGenerator", "DiffieHellman",
+                "com.ibm.crypto.plus.provider.DHParameterGenerator", "DH", "OID." + OID_PKCS3,
+                OID_PKCS3},
+        {"AlgorithmParameters", "RSAPSS", "com.ibm.crypto.plus.provider.PSSParameters", "RSA-PSS",
+                "RSASSA-PSS", "RSASA-PSS"},
+        {"AlgorithmParameterGenerator", "EC", "com.ibm.crypto.plus.provider.ECParameterGenerator"},
+        {"AlgorithmParameterGenerator", "GCM", "com.ibm.crypto.plus.provider.GCMParameterGenerator",
+                "AESGCM"},
+        {"AlgorithmParameterGenerator", "CCM", "com.ibm.crypto.plus.provider.CCMParameterGenerator",
+                "AESCCM"},
 
         /* =======================================================================
          * Cipher engines
          * =======================================================================
          */
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "Cipher", "AES/GCM/NoPadding",
-                "com.ibm.crypto.plus.provider.AESGCMCipher", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "Cipher", "AES/CCM/NoPadding",
-                "com.ibm.crypto.plus.provider.AESCCMCipher", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "Cipher", "AES",
-                "com.ibm.crypto.plus.provider.AESCipher", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "Cipher", "RSA", "com.ibm.crypto.plus.provider.RSA",
-                aliases));
+        {"Cipher", "AES/GCM/NoPadding", "com.ibm.crypto.plus.provider.AESGCMCipher"},
+        {"Cipher", "AES/CCM/NoPadding", "com.ibm.crypto.plus.provider.AESCCMCipher"},
+        {"Cipher", "AES", "com.ibm.crypto.plus.provider.AESCipher"},
+        {"Cipher", "RSA", "com.ibm.crypto.plus.provider.RSA"},
 
         /* =======================================================================
          * Key agreement
          * =======================================================================
          */
-        aliases = new String[] {"DH", "OID." + OID_PKCS3, OID_PKCS3};
-        putService(new OpenJCEPlusService(jce, "KeyAgreement", "DiffieHellman",
-                "com.ibm.crypto.plus.provider.DHKeyAgreement", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "KeyAgreement", "ECDH",
-                "com.ibm.crypto.plus.provider.ECDHKeyAgreement", aliases));
+        {"KeyAgreement", "DiffieHellman", "com.ibm.crypto.plus.provider.DHKeyAgreement", "DH",
+                "OID." + OID_PKCS3, OID_PKCS3},
+        {"KeyAgreement", "ECDH", "com.ibm.crypto.plus.provider.ECDHKeyAgreement"},
 
         /* =======================================================================
          * Key factories
          * =======================================================================
          */
-        aliases = new String[] {"DH", "OID." + OID_PKCS3, OID_PKCS3};
-        putService(new OpenJCEPlusService(jce, "KeyFactory", "DiffieHellman",
-                "com.ibm.crypto.plus.provider.DHKeyFactory", aliases));
-
-        aliases = new String[] {"OID.1.2.840.10040.4.1", "1.2.840.10040.4.1", "OID.1.3.14.3.2.12",
-                "1.3.14.3.2.12", "DSAKeyFactory"};
-        putService(new OpenJCEPlusService(jce, "KeyFactory", "DSA",
-                "com.ibm.crypto.plus.provider.DSAKeyFactory", aliases));
-
-        aliases = new String[] {"OID.1.2.840.10045.2.1", "1.2.840.10045.2.1", "EllipticCurve"};
-        putService(new OpenJCEPlusService(jce, "KeyFactory", "EC",
-                "com.ibm.crypto.plus.provider.ECKeyFactory", aliases));
-
-        aliases = new String[] {"OID.1.2.5.8.1.1", "1.2.5.8.1.1", "OID.1.2.840.113549.1.1.1",
-                "1.2.840.113549.1.1.1", "OID.1.2.840.113549.1.1", "1.2.840.113549.1.1"};
-        putService(new OpenJCEPlusService(jce, "KeyFactory", "RSA",
-                "com.ibm.crypto.plus.provider.RSAKeyFactory$Legacy", aliases));
-
-        aliases = new String[] {"RSA-PSS", "RSASSA-PSS", "RSASA-PSS", "OID.1.2.840.113549.1.1.10",
-                "1.2.840.113549.1.1.10"};
-
-        putService(new OpenJCEPlusService(jce, "KeyFactory", "RSAPSS",
-                "com.ibm.crypto.plus.provider.RSAKeyFactory$PSS", aliases));
+        {"KeyFactory", "DiffieHellman", "com.ibm.crypto.plus.provider.DHKeyFactory", "DH",
+                "OID." + OID_PKCS3, OID_PKCS3},
+        {"KeyFactory", "DSA", "com.ibm.crypto.plus.provider.DSAKeyFactory", "OID.1.2.840.10040.4.1",
+                "1.2.840.10040.4.1", "OID.1.3.14.3.2.12", "1.3.14.3.2.12", "DSAKeyFactory"},
+        {"KeyFactory", "EC", "com.ibm.crypto.plus.provider.ECKeyFactory", "OID.1.2.840.10045.2.1",
+                "1.2.840.10045.2.1", "EllipticCurve"},
+        {"KeyFactory", "RSA", "com.ibm.crypto.plus.provider.RSAKeyFactory$Legacy",
+                "OID.1.2.5.8.1.1", "1.2.5.8.1.1", "OID.1.2.840.113549.1.1.1",
+                "1.2.840.113549.1.1.1", "OID.1.2.840.113549.1.1", "1.2.840.113549.1.1"},
+        {"KeyFactory", "RSAPSS", "com.ibm.crypto.plus.provider.RSAKeyFactory$PSS", "RSA-PSS",
+                "RSASSA-PSS", "RSASA-PSS", "OID.1.2.840.113549.1.1.10", "1.2.840.113549.1.1.10"},
 
         /* =======================================================================
          * Key Generator engines
          * =======================================================================
          */
-        aliases = new String[] {"2.16.840.1.101.3.4.1", "OID.2.16.840.1.101.3.4.1"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "AES",
-                "com.ibm.crypto.plus.provider.AESKeyGenerator", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.8", "1.2.840.113549.2.8", "HMACwithSHA224",
-                "HMACwithSHA-224", "HmacSHA-224"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA224",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA224", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.9", "1.2.840.113549.2.9", "HMACwithSHA256",
-                "HMACwithSHA-256", "HmacSHA-256"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA256",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA256", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.10", "1.2.840.113549.2.10", "HMACwithSHA384",
-                "HMACwithSHA-384", "HmacSHA-384"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA384",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA384", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.11", "1.2.840.113549.2.11", "HMACwithSHA512",
-                "HMACwithSHA-512", "HmacSHA-512"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA512",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA512", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.13", "2.16.840.1.101.3.4.2.13",
-                "HMACwithSHA3-224", "HmacSHA3-224"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA3-224",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_224", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.14", "2.16.840.1.101.3.4.2.14",
-                "HMACwithSHA3-256", "HmacSHA3-256"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA3-256",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_256", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.15", "2.16.840.1.101.3.4.2.15",
-                "HMACwithSHA3-384", "HmacSHA3-384"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA3-384",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_384", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.16", "2.16.840.1.101.3.4.2.16",
-                "HMACwithSHA3-512", "HmacSHA3-512"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "HmacSHA3-512",
-                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_512", aliases));
-
-        aliases = new String[] {"TlsPrf"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTlsPrf",
-                "com.ibm.crypto.plus.provider.TlsPrfGenerator$V10", aliases));
-
-        aliases = new String[] {"Tls12Prf"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTls12Prf",
-                "com.ibm.crypto.plus.provider.TlsPrfGenerator$V12", aliases));
-
-        aliases = new String[] {"TlsRsaPremasterSecret"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTlsRsaPremasterSecret",
-                "com.ibm.crypto.plus.provider.TlsRsaPremasterSecretGenerator", aliases));
-
-        aliases = new String[] {"Tls12RsaPremasterSecret"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTls12RsaPremasterSecret",
-                "com.ibm.crypto.plus.provider.TlsRsaPremasterSecretGenerator", aliases));
-
-        aliases = new String[] {"TlsMasterSecret", "TlsExtendedMasterSecret",
-                "SunTlsExtendedMasterSecret"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTlsMasterSecret",
-                "com.ibm.crypto.plus.provider.TlsMasterSecretGenerator", aliases));
-
-        aliases = new String[] {"Tls12MasterSecret"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTls12MasterSecret",
-                "com.ibm.crypto.plus.provider.TlsMasterSecretGenerator", aliases));
-
-        aliases = new String[] {"TlsKeyMaterial"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTlsKeyMaterial",
-                "com.ibm.crypto.plus.provider.TlsKeyMaterialGenerator", aliases));
-
-        aliases = new String[] {"Tls12KeyMaterial"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "SunTls12KeyMaterial",
-                "com.ibm.crypto.plus.provider.TlsKeyMaterialGenerator", aliases));
+        {"KeyGenerator", "AES", "com.ibm.crypto.plus.provider.AESKeyGenerator",
+                "2.16.840.1.101.3.4.1", "OID.2.16.840.1.101.3.4.1"},
+        {"KeyGenerator", "HmacSHA224", "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA224",
+                "OID.1.2.840.113549.2.8", "1.2.840.113549.2.8", "HMACwithSHA224", "HMACwithSHA-224",
+                "HmacSHA-224"},
+        {"KeyGenerator", "HmacSHA256", "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA256",
+                "OID.1.2.840.113549.2.9", "1.2.840.113549.2.9", "HMACwithSHA256", "HMACwithSHA-256",
+                "HmacSHA-256"},
+        {"KeyGenerator", "HmacSHA384", "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA384",
+                "OID.1.2.840.113549.2.10", "1.2.840.113549.2.10", "HMACwithSHA384",
+                "HMACwithSHA-384", "HmacSHA-384"},
+        {"KeyGenerator", "HmacSHA512", "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA512",
+                "OID.1.2.840.113549.2.11", "1.2.840.113549.2.11", "HMACwithSHA512",
+                "HMACwithSHA-512", "HmacSHA-512"},
+        {"KeyGenerator", "HmacSHA3-224",
+                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_224",
+                "OID.2.16.840.1.101.3.4.2.13", "2.16.840.1.101.3.4.2.13", "HMACwithSHA3-224",
+                "HmacSHA3-224"},
+        {"KeyGenerator", "HmacSHA3-256",
+                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_256",
+                "OID.2.16.840.1.101.3.4.2.14", "2.16.840.1.101.3.4.2.14", "HMACwithSHA3-256",
+                "HmacSHA3-256"},
+        {"KeyGenerator", "HmacSHA3-384",
+                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_384",
+                "OID.2.16.840.1.101.3.4.2.15", "2.16.840.1.101.3.4.2.15", "HMACwithSHA3-384",
+                "HmacSHA3-384"},
+        {"KeyGenerator", "HmacSHA3-512",
+                "com.ibm.crypto.plus.provider.HmacKeyGenerator$HmacSHA3_512",
+                "OID.2.16.840.1.101.3.4.2.16", "2.16.840.1.101.3.4.2.16", "HMACwithSHA3-512",
+                "HmacSHA3-512"},
+        {"KeyGenerator", "SunTlsPrf", "com.ibm.crypto.plus.provider.TlsPrfGenerator$V10", "TlsPrf"},
+        {"KeyGenerator", "SunTls12Prf", "com.ibm.crypto.plus.provider.TlsPrfGenerator$V12",
+                "Tls12Prf"},
+        {"KeyGenerator", "SunTlsRsaPremasterSecret",
+                "com.ibm.crypto.plus.provider.TlsRsaPremasterSecretGenerator",
+                "TlsRsaPremasterSecret"},
+        {"KeyGenerator", "SunTls12RsaPremasterSecret",
+                "com.ibm.crypto.plus.provider.TlsRsaPremasterSecretGenerator",
+                "Tls12RsaPremasterSecret"},
+        {"KeyGenerator", "SunTlsMasterSecret",
+                "com.ibm.crypto.plus.provider.TlsMasterSecretGenerator", "TlsMasterSecret",
+                "TlsExtendedMasterSecret", "SunTlsExtendedMasterSecret"},
+        {"KeyGenerator", "SunTls12MasterSecret",
+                "com.ibm.crypto.plus.provider.TlsMasterSecretGenerator", "Tls12MasterSecret"},
+        {"KeyGenerator", "SunTlsKeyMaterial",
+                "com.ibm.crypto.plus.provider.TlsKeyMaterialGenerator", "TlsKeyMaterial"},
+        {"KeyGenerator", "SunTls12KeyMaterial",
+                "com.ibm.crypto.plus.provider.TlsKeyMaterialGenerator", "Tls12KeyMaterial"},
         // Not supported in FIPS mode yet - Used for both ChaCha20 and ChaCha20-Poly1305 ciphers
 
         /* =======================================================================
          * Keypair Generator engines
          * =======================================================================
          */
-        aliases = new String[] {"DH", "OID." + OID_PKCS3, OID_PKCS3};
-        putService(new OpenJCEPlusService(jce, "KeyPairGenerator", "DiffieHellman",
-                "com.ibm.crypto.plus.provider.DHKeyPairGenerator", aliases));
-
-
-        aliases = new String[] {"OID.1.2.840.10045.2.1", "1.2.840.10045.2.1", "EllipticCurve"};
-        putService(new OpenJCEPlusService(jce, "KeyPairGenerator", "EC",
-                "com.ibm.crypto.plus.provider.ECKeyPairGenerator", aliases));
-
-        aliases = new String[] {"OID.1.2.5.8.1.1", "1.2.5.8.1.1", "OID.1.2.840.113549.1.1",
-                "1.2.840.113549.1.1"};
-        putService(new OpenJCEPlusService(jce, "KeyPairGenerator", "RSA",
-                "com.ibm.crypto.plus.provider.RSAKeyPairGenerator$Legacy", aliases));
-
-        aliases = new String[] {"RSA-PSS", "RSASSA-PSS", "RSASA-PSS"};
-
-        putService(new OpenJCEPlusService(jce, "KeyPairGenerator", "RSAPSS",
-                "com.ibm.crypto.plus.provider.RSAKeyPairGenerator$PSS", aliases));
+        {"KeyPairGenerator", "DiffieHellman", "com.ibm.crypto.plus.provider.DHKeyPairGenerator",
+                "DH", "OID." + OID_PKCS3, OID_PKCS3},
+        {"KeyPairGenerator", "EC", "com.ibm.crypto.plus.provider.ECKeyPairGenerator",
+                "OID.1.2.840.10045.2.1", "1.2.840.10045.2.1", "EllipticCurve"},
+        {"KeyPairGenerator", "RSA", "com.ibm.crypto.plus.provider.RSAKeyPairGenerator$Legacy",
+                "OID.1.2.5.8.1.1", "1.2.5.8.1.1", "OID.1.2.840.113549.1.1", "1.2.840.113549.1.1"},
+        {"KeyPairGenerator", "RSAPSS", "com.ibm.crypto.plus.provider.RSAKeyPairGenerator$PSS",
+                "RSA-PSS", "RSASSA-PSS", "RSASA-PSS"},
 
         /* =======================================================================
          * Message authentication engines
          * =======================================================================
          */
-
-        aliases = new String[] {"OID.1.2.840.113549.2.8", "1.2.840.113549.2.8", "HMACwithSHA224",
-                "HMACwithSHA-224", "HmacSHA-224"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA224",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA224", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.9", "1.2.840.113549.2.9", "HMACwithSHA256",
-                "HMACwithSHA-256", "HmacSHA-256"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA256",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA256", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.10", "1.2.840.113549.2.10", "HMACwithSHA384",
-                "HMACwithSHA-384", "HmacSHA-384"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA384",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA384", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.2.11", "1.2.840.113549.2.11", "HMACwithSHA512",
-                "HMACwithSHA-512", "HmacSHA-512"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA512",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA512", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.13", "2.16.840.1.101.3.4.2.13",
-                "HMACwithSHA3-224", "HmacSHA3-224"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA3-224",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_224", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.14", "2.16.840.1.101.3.4.2.14",
-                "HMACwithSHA3-256", "HmacSHA3-256"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA3-256",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_256", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.15", "2.16.840.1.101.3.4.2.15",
-                "HMACwithSHA3-384", "HmacSHA3-384"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA3-384",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_384", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.16", "2.16.840.1.101.3.4.2.16",
-                "HMACwithSHA3-512", "HmacSHA3-512"};
-        putService(new OpenJCEPlusService(jce, "MAC", "HmacSHA3-512",
-                "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_512", aliases));
+        {"Mac", "HmacSHA224", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA224",
+                "OID.1.2.840.113549.2.8", "1.2.840.113549.2.8", "HMACwithSHA224", "HMACwithSHA-224",
+                "HmacSHA-224"},
+        {"Mac", "HmacSHA256", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA256",
+                "OID.1.2.840.113549.2.9", "1.2.840.113549.2.9", "HMACwithSHA256", "HMACwithSHA-256",
+                "HmacSHA-256"},
+        {"Mac", "HmacSHA384", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA384",
+                "OID.1.2.840.113549.2.10", "1.2.840.113549.2.10", "HMACwithSHA384",
+                "HMACwithSHA-384", "HmacSHA-384"},
+        {"Mac", "HmacSHA512", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA512",
+                "OID.1.2.840.113549.2.11", "1.2.840.113549.2.11", "HMACwithSHA512",
+                "HMACwithSHA-512", "HmacSHA-512"},
+        {"Mac", "HmacSHA3-224", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_224",
+                "OID.2.16.840.1.101.3.4.2.13", "2.16.840.1.101.3.4.2.13", "HMACwithSHA3-224",
+                "HmacSHA3-224"},
+        {"Mac", "HmacSHA3-256", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_256",
+                "OID.2.16.840.1.101.3.4.2.14", "2.16.840.1.101.3.4.2.14", "HMACwithSHA3-256",
+                "HmacSHA3-256"},
+        {"Mac", "HmacSHA3-384", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_384",
+                "OID.2.16.840.1.101.3.4.2.15", "2.16.840.1.101.3.4.2.15", "HMACwithSHA3-384",
+                "HmacSHA3-384"},
+        {"Mac", "HmacSHA3-512", "com.ibm.crypto.plus.provider.HmacCore$HmacSHA3_512",
+                "OID.2.16.840.1.101.3.4.2.16", "2.16.840.1.101.3.4.2.16", "HMACwithSHA3-512",
+                "HmacSHA3-512"},
 
         /* =======================================================================
-         * HKDF Algorithms use key generator spis - OIDs are not finalized 
+         * HKDF Algorithms use key generator spis - OIDs are not finalized
          * Oracle does not go through provider. Directly calls HKDF. Not supported till
          * Next GSkit Crypto FIPS certification.
          * =======================================================================
          */
-
-        aliases = new String[] {"kda-hkdf-with-sha-224"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "kda-hkdf-with-sha224",
-                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA224", aliases));
-
-        aliases = new String[] {"kda-hkdf-with-sha-256"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "kda-hkdf-with-sha256",
-                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA256", aliases));
-        aliases = new String[] {"kda-hkdf-with-sha-384"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "kda-hkdf-with-sha384",
-                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA384", aliases));
-        aliases = new String[] {"kda-hkdf-with-sha-512"};
-        putService(new OpenJCEPlusService(jce, "KeyGenerator", "kda-hkdf-with-sha512",
-                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA512", aliases));
-
+        {"KeyGenerator", "kda-hkdf-with-sha224",
+                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA224",
+                "kda-hkdf-with-sha-224"},
+        {"KeyGenerator", "kda-hkdf-with-sha256",
+                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA256",
+                "kda-hkdf-with-sha-256"},
+        {"KeyGenerator", "kda-hkdf-with-sha384",
+                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA384",
+                "kda-hkdf-with-sha-384"},
+        {"KeyGenerator", "kda-hkdf-with-sha512",
+                "com.ibm.crypto.plus.provider.HKDFGenerator$HKDFwithSHA512",
+                "kda-hkdf-with-sha-512"},
 
         /* =======================================================================
          * MessageDigest engines
          * =======================================================================
          */
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "MD5",
-                "com.ibm.crypto.plus.provider.MessageDigest$MD5", aliases));
-
-        aliases = new String[] {"SHA", "SHA1", "OID.1.3.14.3.2.26", "1.3.14.3.2.26"};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-1",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA1", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.4", "2.16.840.1.101.3.4.2.4", "SHA224"};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-224",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA224", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.1", "2.16.840.1.101.3.4.2.1", "SHA2",
-                "SHA-2", "SHA256"};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-256",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA256", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.2", "2.16.840.1.101.3.4.2.2", "SHA3",
-                "SHA-3", "SHA384"};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-384",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA384", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.2.3", "2.16.840.1.101.3.4.2.3", "SHA5",
-                "SHA-5", "SHA512"};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-512",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA512", aliases));
-
-
+        {"MessageDigest", "MD5", "com.ibm.crypto.plus.provider.MessageDigest$MD5"},
+        {"MessageDigest", "SHA-1", "com.ibm.crypto.plus.provider.MessageDigest$SHA1", "SHA", "SHA1",
+                "OID.1.3.14.3.2.26", "1.3.14.3.2.26"},
+        {"MessageDigest", "SHA-224", "com.ibm.crypto.plus.provider.MessageDigest$SHA224",
+                "OID.2.16.840.1.101.3.4.2.4", "2.16.840.1.101.3.4.2.4", "SHA224"},
+        {"MessageDigest", "SHA-256", "com.ibm.crypto.plus.provider.MessageDigest$SHA256",
+                "OID.2.16.840.1.101.3.4.2.1", "2.16.840.1.101.3.4.2.1", "SHA2", "SHA-2", "SHA256"},
+        {"MessageDigest", "SHA-384", "com.ibm.crypto.plus.provider.MessageDigest$SHA384",
+                "OID.2.16.840.1.101.3.4.2.2", "2.16.840.1.101.3.4.2.2", "SHA3", "SHA-3", "SHA384"},
+        {"MessageDigest", "SHA-512", "com.ibm.crypto.plus.provider.MessageDigest$SHA512",
+                "OID.2.16.840.1.101.3.4.2.3", "2.16.840.1.101.3.4.2.3", "SHA5", "SHA-5", "SHA512"},
         // SHA512-224
-        aliases = new String[] {"SHA512/224", "OID.2.16.840.1.101.3.4.2.5",
-                "2.16.840.1.101.3.4.2.5",};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-512/224",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA512_224", aliases));
-
+        {"MessageDigest", "SHA-512/224", "com.ibm.crypto.plus.provider.MessageDigest$SHA512_224",
+                "SHA512/224", "OID.2.16.840.1.101.3.4.2.5", "2.16.840.1.101.3.4.2.5"},
         // SHA512-256
-
-        aliases = new String[] {"SHA512/256", "OID.2.16.840.1.101.3.4.2.6",
-                "2.16.840.1.101.3.4.2.6",};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA-512/256",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA512_256", aliases));
-
+        {"MessageDigest", "SHA-512/256", "com.ibm.crypto.plus.provider.MessageDigest$SHA512_256",
+                "SHA512/256", "OID.2.16.840.1.101.3.4.2.6", "2.16.840.1.101.3.4.2.6"},
         //SHA3 Hashes
-        aliases = new String[] {"SHA3-224", "OID.2.16.840.1.101.3.4.2.7",
-                "2.16.840.1.101.3.4.2.7",};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA3-224",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA3_224", aliases));
-        aliases = new String[] {"SHA3-256", "OID.2.16.840.1.101.3.4.2.8",
-                "2.16.840.1.101.3.4.2.8",};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA3-256",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA3_256", aliases));
-        aliases = new String[] {"SHA3-384", "OID.2.16.840.1.101.3.4.2.9",
-                "2.16.840.1.101.3.4.2.9",};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA3-384",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA3_384", aliases));
-        aliases = new String[] {"SHA3-512", "OID.2.16.840.1.101.3.4.2.10",
-                "2.16.840.1.101.3.4.2.10",};
-        putService(new OpenJCEPlusService(jce, "MessageDigest", "SHA3-512",
-                "com.ibm.crypto.plus.provider.MessageDigest$SHA3_512", aliases));
+        {"MessageDigest", "SHA3-224", "com.ibm.crypto.plus.provider.MessageDigest$SHA3_224",
+                "SHA3-224", "OID.2.16.840.1.101.3.4.2.7", "2.16.840.1.101.3.4.2.7"},
+        {"MessageDigest", "SHA3-256", "com.ibm.crypto.plus.provider.MessageDigest$SHA3_256",
+                "SHA3-256", "OID.2.16.840.1.101.3.4.2.8", "2.16.840.1.101.3.4.2.8"},
+        {"MessageDigest", "SHA3-384", "com.ibm.crypto.plus.provider.MessageDigest$SHA3_384",
+                "SHA3-384", "OID.2.16.840.1.101.3.4.2.9", "2.16.840.1.101.3.4.2.9"},
+        {"MessageDigest", "SHA3-512", "com.ibm.crypto.plus.provider.MessageDigest$SHA3_512",
+                "SHA3-512", "OID.2.16.840.1.101.3.4.2.10", "2.16.840.1.101.3.4.2.10"},
+
         /* =======================================================================
          * Secret key factories
          * =======================================================================
          */
-        aliases = new String[] {"2.16.840.1.101.3.4.1", "OID.2.16.840.1.101.3.4.1"};
-        putService(new OpenJCEPlusService(jce, "SecretKeyFactory", "AES",
-                "com.ibm.crypto.plus.provider.AESKeyFactory", aliases));
-
-
-        /* Not yet supported in FIPS mode 
-         * aliases = null;
-        putService(new OpenJCEPlusService(jce, 
-        "SecretKeyFactory", 
-        "ChaCha20", 
-        "com.ibm.crypto.plus.provider.ChaCha20KeyFactory",
-        aliases));*/
-
+        {"SecretKeyFactory", "AES", "com.ibm.crypto.plus.provider.AESKeyFactory",
+                "2.16.840.1.101.3.4.1", "OID.2.16.840.1.101.3.4.1"},
+        // Not yet supported in FIPS mode
+        // {"SecretKeyFactory", "ChaCha20",
+        //         "com.ibm.crypto.plus.provider.ChaCha20KeyFactory"},
 
         /* =======================================================================
          * SecureRandom
          * =======================================================================
          */
-        aliases = new String[] {"HASHDRBG", "SHA2DRBG"};
-        putService(new OpenJCEPlusService(jce, "SecureRandom", "SHA256DRBG",
-                "com.ibm.crypto.plus.provider.HASHDRBG$SHA256DRBG", aliases));
-
-        aliases = new String[] {"SHA5DRBG"};
-        putService(new OpenJCEPlusService(jce, "SecureRandom", "SHA512DRBG",
-                "com.ibm.crypto.plus.provider.HASHDRBG$SHA512DRBG", aliases));
+        {"SecureRandom", "SHA256DRBG", "com.ibm.crypto.plus.provider.HASHDRBG$SHA256DRBG",
+                "HASHDRBG", "SHA2DRBG"},
+        {"SecureRandom", "SHA512DRBG", "com.ibm.crypto.plus.provider.HASHDRBG$SHA512DRBG",
+                "SHA5DRBG"},
 
         /* =======================================================================
          * Signature engines
          * =======================================================================
          */
-        aliases = new String[] {"DSAforSSL"};
-        putService(new OpenJCEPlusService(jce, "Signature", "NONEwithDSA",
-                "com.ibm.crypto.plus.provider.DSASignatureNONE", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "Signature", "NONEwithRSA",
-                "com.ibm.crypto.plus.provider.RSASignatureNONE", aliases));
-
-        aliases = null;
-        putService(new OpenJCEPlusService(jce, "Signature", "RSAforSSL",
-                "com.ibm.crypto.plus.provider.RSASignatureSSL", aliases));
-
-        aliases = new String[] {"ECDSAforSSL"};
-
-
-        putService(new OpenJCEPlusService(jce, "Signature", "NONEwithECDSA",
-                "com.ibm.crypto.plus.provider.DatawithECDSA", aliases));
-
-
-        aliases = new String[] {"ECDSAforSSL"};
-        putService(new OpenJCEPlusService(jce, "Signature", "NONEwithECDSA",
-                "com.ibm.crypto.plus.provider.DatawithECDSA", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.3.1", "2.16.840.1.101.3.4.3.1",
-                "SHA-224withDSA", "SHA224/DSA", "SHA-224/DSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA224withDSA",
-                "com.ibm.crypto.plus.provider.DSASignature$SHA224withDSA", aliases));
-
-        aliases = new String[] {"OID.2.16.840.1.101.3.4.3.2", "2.16.840.1.101.3.4.3.2",
-                "SHA2withDSA", "SHA-2withDSA", "SHA-256withDSA", "SHA2/DSA", "SHA-2/DSA",
-                "SHA-256/DSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA256withDSA",
-                "com.ibm.crypto.plus.provider.DSASignature$SHA256withDSA", aliases));
-
-
-        aliases = new String[] {"OID.1.2.840.10045.4.3.1", "1.2.840.10045.4.3.1", "SHA224/ECDSA",
-                "SHA-224/ECDSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA224withECDSA",
-                "com.ibm.crypto.plus.provider.ECDSASignature$SHA224withECDSA", aliases));
-
-        aliases = new String[] {"OID.1.2.840.10045.4.3.2", "1.2.840.10045.4.3.2", "SHA2withECDSA",
-                "SHA2/ECDSA", "SHA-256/ECDSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA256withECDSA",
-                "com.ibm.crypto.plus.provider.ECDSASignature$SHA256withECDSA", aliases));
-
-        aliases = new String[] {"OID.1.2.840.10045.4.3.3", "1.2.840.10045.4.3.3", "SHA3withECDSA",
-                "SHA3/ECDSA", "SHA-384/ECDSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA384withECDSA",
-                "com.ibm.crypto.plus.provider.ECDSASignature$SHA384withECDSA", aliases));
-
-        aliases = new String[] {"OID.1.2.840.10045.4.3.4", "1.2.840.10045.4.3.4", "SHA5withECDSA",
-                "SHA5/ECDSA", "SHA-512/ECDSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA512withECDSA",
-                "com.ibm.crypto.plus.provider.ECDSASignature$SHA512withECDSA", aliases));
-
-
-        aliases = new String[] {"OID.1.2.840.113549.1.1.5", "1.2.840.113549.1.1.5",
-                "OID.1.3.14.3.2.29", "1.3.14.3.2.29", "OID.1.3.14.3.2.26", "1.3.14.3.2.26",
-                "SHA-1withRSA", "SHAwithRSA", "SHA-1/RSA", "SHA1/RSA", "SHA/RSA", "RSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA1withRSA",
-                "com.ibm.crypto.plus.provider.RSASignature$SHA1withRSA", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.1.1.14", "1.2.840.113549.1.1.14", "SHA-224/RSA",
-                "SHA224/RSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA224withRSA",
-                "com.ibm.crypto.plus.provider.RSASignature$SHA224withRSA", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.1.1.11", "1.2.840.113549.1.1.11", "SHA-256/RSA",
-                "SHA2withRSA", "SHA2/RSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA256withRSA",
-                "com.ibm.crypto.plus.provider.RSASignature$SHA256withRSA", aliases));
-
-        aliases = new String[] {"OID.1.2.840.113549.1.1.12", "1.2.840.113549.1.1.12", "SHA-384/RSA",
-                "SHA3withRSA", "SHA3/RSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA384withRSA",
-                "com.ibm.crypto.plus.provider.RSASignature$SHA384withRSA", aliases));
+        {"Signature", "NONEwithDSA", "com.ibm.crypto.plus.provider.DSASignatureNONE", "DSAforSSL"},
+        {"Signature", "NONEwithRSA", "com.ibm.crypto.plus.provider.RSASignatureNONE"},
+        {"Signature", "RSAforSSL", "com.ibm.crypto.plus.provider.RSASignatureSSL"},
+        {"Signature", "NONEwithECDSA", "com.ibm.crypto.plus.provider.DatawithECDSA", "ECDSAforSSL"},
+        {"Signature", "NONEwithECDSA", "com.ibm.crypto.plus.provider.DatawithECDSA", "ECDSAforSSL"},
+        {"Signature", "SHA224withDSA", "com.ibm.crypto.plus.provider.DSASignature$SHA224withDSA",
+                "OID.2.16.840.1.101.3.4.3.1", "2.16.840.1.101.3.4.3.1", "SHA-224withDSA",
+                "SHA224/DSA", "SHA-224/DSA"},
+        {"Signature", "SHA256withDSA", "com.ibm.crypto.plus.provider.DSASignature$SHA256withDSA",
+                "OID.2.16.840.1.101.3.4.3.2", "2.16.840.1.101.3.4.3.2", "SHA2withDSA",
+                "SHA-2withDSA", "SHA-256withDSA", "SHA2/DSA", "SHA-2/DSA", "SHA-256/DSA"},
+        {"Signature", "SHA224withECDSA",
+                "com.ibm.crypto.plus.provider.ECDSASignature$SHA224withECDSA",
+                "OID.1.2.840.10045.4.3.1", "1.2.840.10045.4.3.1", "SHA224/ECDSA", "SHA-224/ECDSA"},
+        {"Signature", "SHA256withECDSA",
+                "com.ibm.crypto.plus.provider.ECDSASignature$SHA256withECDSA",
+                "OID.1.2.840.10045.4.3.2", "1.2.840.10045.4.3.2", "SHA2withECDSA", "SHA2/ECDSA",
+                "SHA-256/ECDSA"},
+        {"Signature", "SHA384withECDSA",
+                "com.ibm.crypto.plus.provider.ECDSASignature$SHA384withECDSA",
+                "OID.1.2.840.10045.4.3.3", "1.2.840.10045.4.3.3", "SHA3withECDSA", "SHA3/ECDSA",
+                "SHA-384/ECDSA"},
+        {"Signature", "SHA512withECDSA",
+                "com.ibm.crypto.plus.provider.ECDSASignature$SHA512withECDSA",
+                "OID.1.2.840.10045.4.3.4", "1.2.840.10045.4.3.4", "SHA5withECDSA", "SHA5/ECDSA",
+                "SHA-512/ECDSA"},
+        {"Signature", "SHA1withRSA", "com.ibm.crypto.plus.provider.RSASignature$SHA1withRSA",
+                "OID.1.2.840.113549.1.1.5", "1.2.840.113549.1.1.5", "OID.1.3.14.3.2.29",
+                "1.3.14.3.2.29", "OID.1.3.14.3.2.26", "1.3.14.3.2.26", "SHA-1withRSA", "SHAwithRSA",
+                "SHA-1/RSA", "SHA1/RSA", "SHA/RSA", "RSA"},
+        {"Signature", "SHA224withRSA", "com.ibm.crypto.plus.provider.RSASignature$SHA224withRSA",
+                "OID.1.2.840.113549.1.1.14", "1.2.840.113549.1.1.14", "SHA-224/RSA", "SHA224/RSA"},
+        {"Signature", "SHA256withRSA", "com.ibm.crypto.plus.provider.RSASignature$SHA256withRSA",
+                "OID.1.2.840.113549.1.1.11", "1.2.840.113549.1.1.11", "SHA-256/RSA", "SHA2withRSA",
+                "SHA2/RSA"},
+        {"Signature", "SHA384withRSA", "com.ibm.crypto.plus.provider.RSASignature$SHA384withRSA",
+                "OID.1.2.840.113549.1.1.12", "1.2.840.113549.1.1.12", "SHA-384/RSA", "SHA3withRSA",
+                "SHA3/RSA"},
+        {"Signature", "SHA512withRSA", "com.ibm.crypto.plus.provider.RSASignature$SHA512withRSA",
+                "OID.1.2.840.113549.1.1.13", "1.2.840.113549.1.1.13", "SHA-512/RSA", "SHA5withRSA",
+                "SHA5/RSA"},
+        {"Signature", "RSAPSS", "com.ibm.crypto.plus.provider.RSAPSSSignature", "RSA-PSS",
+                "RSASSA-PSS", "RSASA-PSS", "OID.1.2.840.113549.1.1.10", "1.2.840.113549.1.1.10"},
+    };
+
+    // Built the first time a service is looked up, see getServiceIndex().
+    //
+    private static final class ServiceIndexHolder {
+        static final Map<String, String[]> INDEX = indexServices(SERVICES);
+    }
 
-        aliases = new String[] {"OID.1.2.840.113549.1.1.13", "1.2.840.113549.1.1.13", "SHA-512/RSA",
-                "SHA5withRSA", "SHA5/RSA"};
-        putService(new OpenJCEPlusService(jce, "Signature", "SHA512withRSA",
-                "com.ibm.crypto.plus.provider.RSASignature$SHA512withRSA", aliases));
+    String[][] getServiceTable() {
+        return SERVICES;
+    }
 
-        aliases = new String[] {"RSA-PSS", "RSASSA-PSS", "RSASA-PSS", "OID.1.2.840.113549.1.1.10",
-                "1.2.840.113549.1.1.10"};
-        putService(new OpenJCEPlusService(jce, "Signature", "RSAPSS",
-                "com.ibm.crypto.plus.provider.RSAPSSSignature", aliases));
+    Map<String, String[]> getServiceIndex() {
+        return ServiceIndexHolder.INDEX;
+    }
 
+    Service newService(String[] entry) {
+        String[] aliases = (entry.length > 3) ? Arrays.copyOfRange(entry, 3, entry.length) : null;
+        return new OpenJCEPlusService(this, entry[0], entry[1], entry[2], aliases);
     }
 
     private static class OpenJCEPlusService extends Service {
@@ -772,66 +577,94 @@ public final class OpenJCEPlusFIPS extends OpenJCEPlusProvider {
 
     // Initialize OCK context(s)
     //
-    private synchronized void initializeContext() {
-        // Leave this duplicate check in here. If two threads are both trying
-        // to instantiate an OpenJCEPlusFIPS provider at the same time, we need
-        // to ensure that the initialization only happens one time. We have
-        // made the method synchronizaed to ensure only one thread can execute
-        // the method at a time.
+    private void initializeContext() {
+        // The first crypto operations of several threads, or of several
+        // instances of the provider, may get here at the same time. The
+        // class is locked and the check repeated to ensure that the
+        // initialization only happens one time.
         //
-        if (ockInitialized) {
-            return;
-        }
+        synchronized (OpenJCEPlusFIPS.class) {
+            if (ockInitialized) {
+                return;
+            }
 
-        try {
-            boolean useFIPSMode = true;
-
-            ockContext = OCKContext.createContext(useFIPSMode);
-            ockInitialized = true;
-        } catch (OCKException e) {
-            throw providerException("Failed to initialize OpenJCEPlusFIPS provider", e);
-        } catch (Throwable t) {
-            ProviderException exceptionToThrow = providerException(
-                    "Failed to initialize OpenJCEPlusFIPS provider", t);
-
-            if (exceptionToThrow.getCause() == null) {
-                // We are not including the full stack trace back to the point
-                // of origin. Try and obtain the message for the underlying
-                // cause of the exception.
+            try {
+                boolean useFIPSMode = true;
+
+                ockContexts = OCKContext.createContexts(useFIPSMode);
+                ockContext = ockContexts[0];
+
+                // Choose the transfer thresholds before any cipher or
+                // digest reads them, so that it always happens here.
                 //
-                // If an ExceptionInInitializerError or NoClassDefFoundError is
-                // thrown, we want to get the message from the cause of that
-                // exception.
+                TransferCalibration.calibrate();
+                ockInitialized = true;
+
+                // The statistics MBean is registered here rather than by
+                // the constructor, so that creating the provider does not
+                // load the management classes.
                 //
-                if ((t instanceof java.lang.ExceptionInInitializerError)
-                        || (t instanceof java.lang.NoClassDefFoundError)) {
-                    Throwable cause = t.getCause();
-                    if (cause != null) {
-                        t = cause;
+                getStatistics().register();
+
+                if (debug != null) {
+                    debug.println("OpenJCEPlusFIPS library build date: "
+                            + OCKContext.getLibraryBuildDate());
+                    try {
+                        debug.println("OpenJCEPlusFIPS dependent library version: "
+                                + ockContext.getOCKVersion());
+                        debug.println("OpenJCEPlusFIPS dependent library path: "
+                                + ockContext.getOCKInstallPath());
+                    } catch (Throwable t) {
+                        t.printStackTrace(System.out);
                     }
                 }
+            } catch (OCKException e) {
+                throw providerException("Failed to initialize OpenJCEPlusFIPS provider", e);
+            } catch (Throwable t) {
+                ProviderException exceptionToThrow = providerException(
+                        "Failed to initialize OpenJCEPlusFIPS provider", t);
 
-                // In the case that the JNI library could not be loaded.
-                //
-                String message = t.getMessage();
-                if ((message != null) && (message.length() > 0)) {
-                    // We want to see the message for the underlying cause even
-                    // if not showing the stack trace all the way back to the
-                    // point of origin.
+                if (exceptionToThrow.getCause() == null) {
+                    // We are not including the full stack trace back to the point
+                    // of origin. Try and obtain the message for the underlying
+                    // cause of the exception.
+                    //
+                    // If an ExceptionInInitializerError or NoClassDefFoundError is
+                    // thrown, we want to get the message from the cause of that
+                    // exception.
+                    //
+                    if ((t instanceof java.lang.ExceptionInInitializerError)
+                            || (t instanceof java.lang.NoClassDefFoundError)) {
+                        Throwable cause = t.getCause();
+                        if (cause != null) {
+                            t = cause;
+                        }
+                    }
+
+                    // In the case that the JNI library could not be loaded.
                     //
-                    exceptionToThrow.initCause(new ProviderException(t.getMessage()));
+                    String message = t.getMessage();
+                    if ((message != null) && (message.length() > 0)) {
+                        // We want to see the message for the underlying cause even
+                        // if not showing the stack trace all the way back to the
+                        // point of origin.
+                        //
+                        exceptionToThrow.initCause(new ProviderException(t.getMessage()));
+                    }
                 }
-            }
 
-            if (debug != null) {
-                exceptionToThrow.printStackTrace(System.out);
-            }
+                if (debug != null) {
+                    exceptionToThrow.printStackTrace(System.out);
+                }
 
-            throw exceptionToThrow;
+                throw exceptionToThrow;
+            }
         }
     }
 
-    // Get OCK context for crypto operations
+    // Get OCK context for crypto operations. Keys and the engines that use
+    // them are always on this context, so that objects that are used
+    // together share one context.
     //
     OCKContext getOCKContext() {
         // May need to initialize OCK here in the case that a serialized
@@ -839,13 +672,32 @@ public final class OpenJCEPlusFIPS extends OpenJCEPlusProvider {
         // deserialized in a JVM that has not instantiated the 
         // OpenJCEPlusFIPS provider yet.
         //
+        // OCK is also initialized here, which includes loading native code,
+        // by the first crypto operation rather than when the provider is
+        // created, so that creating the provider and looking up its services
+        // cost little.
+        //
         if (!ockInitialized) {
-            initializeContext();
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    initializeContext();
+                    return null;
+                }
+            });
         }
 
         return ockContext;
     }
 
+    // Get OCK context of the current thread, if there are several, for
+    // engines that use no key and whose native objects are never combined
+    // with objects of other engines
+    //
+    OCKContext getThreadOCKContext() {
+        getOCKContext();
+        return OCKContext.select(ockContexts);
+    }
+
     ProviderException providerException(String message, Throwable ockException) {
         ProviderException providerException = new ProviderException(message, ockException);
         setOCKExceptionCause(providerException, ockException);
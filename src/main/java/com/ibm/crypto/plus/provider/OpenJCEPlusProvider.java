@@ -9,7 +9,17 @@
 package com.ibm.crypto.plus.provider;
 
 import com.ibm.crypto.plus.provider.ock.OCKContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.security.ProviderException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 // Internal interface for OpenJCEPlus and OpenJCEPlus implementation classes.
 // Implemented as an abstract class rather than an interface so that 
@@ -17,6 +27,7 @@ import java.security.ProviderException;
 // Code is not implemented in this class to ensure that any thread call
 // stacks show it originating in the specific provider class.
 //
+@SuppressWarnings({"removal", "deprecation"})
 public abstract class OpenJCEPlusProvider extends java.security.Provider {
     private static final long serialVersionUID = 1L;
 
@@ -29,6 +40,13 @@ public abstract class OpenJCEPlusProvider extends java.security.Provider {
     //    private static boolean verifiedSelfIntegrity = false;
     private static boolean verifiedSelfIntegrity = true;
 
+    private final transient ProviderStatistics statistics = ProviderStatistics.forProvider(this);
+
+    // Whether all services of the table of services have been put in the
+    // provider.
+    //
+    private transient volatile boolean allServicesPut;
+
     OpenJCEPlusProvider(String name, String info) {
         super(name, PROVIDER_VER, info);
     }
@@ -49,6 +67,10 @@ public abstract class OpenJCEPlusProvider extends java.security.Provider {
     //
     abstract OCKContext getOCKContext();
 
+    // Get OCK context of the current thread for engines that use no key
+    //
+    abstract OCKContext getThreadOCKContext();
+
     // Get the context associated with the provider. The context is used in
     // serialization to be able to keep track of the associated provider.
     //
@@ -68,6 +90,172 @@ public abstract class OpenJCEPlusProvider extends java.security.Provider {
         return getOCKContext().isFIPS();
     }
 
+    // Return the operation counts and MBean of the provider, shared by all
+    // instances with the same name.
+    //
+    ProviderStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Get the table of services of the provider. The table holds only
+    // strings, a row for each service with its type, its algorithm, its
+    // class name and then any aliases, so that it costs little to load. A
+    // service is created and put in the provider the first time that it is
+    // looked up, and all of them are once the set of services or any of the
+    // properties of the provider are asked for.
+    //
+    abstract String[][] getServiceTable();
+
+    // Get the index of the table of services, built by indexServices() and
+    // shared by all instances of the provider.
+    //
+    abstract Map<String, String[]> getServiceIndex();
+
+    // Create the service of a row of the table of services.
+    //
+    abstract Service newService(String[] entry);
+
+    // Put the services of a type in the provider. The default SecureRandom
+    // of a provider is the first one put in it, so the provider puts those
+    // when it is created.
+    //
+    final void putServices(String type) {
+        for (String[] entry : getServiceTable()) {
+            if (entry[0].equals(type)) {
+                putEntry(entry);
+            }
+        }
+    }
+
+    @Override
+    public Service getService(String type, String algorithm) {
+        Service service = super.getService(type, algorithm);
+        if ((service == null) && !allServicesPut) {
+            String[] entry = getServiceIndex().get(indexKey(type, algorithm));
+            if (entry != null) {
+                synchronized (this) {
+                    putEntry(entry);
+                }
+                service = super.getService(type, algorithm);
+            }
+        }
+        return service;
+    }
+
+    @Override
+    public Set<Service> getServices() {
+        putAllServices();
+        return super.getServices();
+    }
+
+    @Override
+    public String getProperty(String key) {
+        putAllServices();
+        return super.getProperty(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        putAllServices();
+        return super.get(key);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        putAllServices();
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        putAllServices();
+        return super.containsKey(key);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Object, ? super Object> action) {
+        putAllServices();
+        super.forEach(action);
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        putAllServices();
+        return super.keySet();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        putAllServices();
+        return super.entrySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        putAllServices();
+        return super.values();
+    }
+
+    @Override
+    public Enumeration<Object> keys() {
+        putAllServices();
+        return super.keys();
+    }
+
+    @Override
+    public Enumeration<Object> elements() {
+        putAllServices();
+        return super.elements();
+    }
+
+    // Index the rows of a table of services by their type and by their
+    // algorithm and each of its aliases, so that looking up a service the
+    // provider does not have takes neither a lock nor a scan of the table.
+    //
+    static Map<String, String[]> indexServices(String[][] table) {
+        Map<String, String[]> index = new HashMap<String, String[]>();
+        for (String[] entry : table) {
+            index.putIfAbsent(indexKey(entry[0], entry[1]), entry);
+            for (int i = 3; i < entry.length; i++) {
+                index.putIfAbsent(indexKey(entry[0], entry[i]), entry);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static String indexKey(String type, String algorithm) {
+        return type + '.' + algorithm.toUpperCase(Locale.ENGLISH);
+    }
+
+    private void putAllServices() {
+        if (allServicesPut) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!allServicesPut) {
+                for (String[] entry : getServiceTable()) {
+                    putEntry(entry);
+                }
+                allServicesPut = true;
+            }
+        }
+    }
+
+    private void putEntry(String[] entry) {
+        if (super.getService(entry[0], entry[1]) != null) {
+            return;
+        }
+
+        final Service service = newService(entry);
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                putService(service);
+                return null;
+            }
+        });
+    }
+
     // Return the Java version.
     //
     String getJavaVersionStr() {
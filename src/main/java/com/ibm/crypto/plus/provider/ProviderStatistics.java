@@ -0,0 +1,279 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import com.ibm.crypto.plus.provider.ock.NativeStatistics;
+import java.lang.management.ManagementFactory;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import sun.security.util.Debug;
+
+/**
+ * Statistics of a provider, shared by all of its instances with the same
+ * name. They are registered as a platform MBean when the provider creates
+ * its OCK context, not by the provider's constructor, so that creating the
+ * provider does not load the management classes. The MBean is registered
+ * once per provider name, unless the system property
+ * {@value #DISABLE_STATISTICS_MBEAN} is {@code true} or the runtime has no
+ * {@code java.management} module. Operations are counted whether or not the
+ * MBean is registered, in a {@link LongAdder} per engine class and
+ * operation that an engine looks up once, when it is created.
+ */
+@SuppressWarnings({"removal", "deprecation"})
+final class ProviderStatistics implements ProviderStatisticsMXBean {
+
+    static final String DISABLE_STATISTICS_MBEAN = "com.ibm.crypto.provider.DisableStatisticsMBean";
+
+    static final String DOMAIN = "com.ibm.crypto.plus";
+
+    private static final Debug debug = Debug.getInstance(OpenJCEPlusProvider.DEBUG_VALUE);
+
+    // Algorithm names of the engine classes, looked up in the provider's
+    // table of services the first time an operation of the class completes.
+    //
+    private static final ConcurrentHashMap<Class<?>, String> algorithms = new ConcurrentHashMap<Class<?>, String>();
+
+    // The statistics of each provider name, held for the life of the JVM
+    // as is the MBean they are registered as.
+    //
+    private static final ConcurrentHashMap<String, ProviderStatistics> byName = new ConcurrentHashMap<String, ProviderStatistics>();
+
+    private final OpenJCEPlusProvider provider;
+
+    private final AtomicBoolean registered = new AtomicBoolean();
+
+    private volatile long warmUpMillis = -1;
+
+    private final ConcurrentHashMap<Class<?>, EngineOperations> operations = new ConcurrentHashMap<Class<?>, EngineOperations>();
+
+    private static final class EngineOperations {
+        final String service;
+        final ConcurrentHashMap<String, Operation> counts = new ConcurrentHashMap<String, Operation>();
+
+        EngineOperations(String service) {
+            this.service = service;
+        }
+    }
+
+    /**
+     * An operation of an engine class, such as Cipher doFinal, with the
+     * count of its completions. Engines keep the ones they complete, so
+     * that counting an operation is only an increment.
+     */
+    static final class Operation {
+        final OpenJCEPlusProvider provider;
+        final Class<?> engineClass;
+        final String service;
+        final String name;
+        private final LongAdder count = new LongAdder();
+
+        private Operation(OpenJCEPlusProvider provider, Class<?> engineClass, String service,
+                String name) {
+            this.provider = provider;
+            this.engineClass = engineClass;
+            this.service = service;
+            this.name = name;
+        }
+
+        void count() {
+            count.increment();
+        }
+    }
+
+    private ProviderStatistics(OpenJCEPlusProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Returns the statistics of the provider's name, created for the first
+     * instance of the provider with that name.
+     */
+    static ProviderStatistics forProvider(OpenJCEPlusProvider provider) {
+        return byName.computeIfAbsent(provider.getName(), n -> new ProviderStatistics(provider));
+    }
+
+    /**
+     * Returns the operation of the given name of an engine's class, for the
+     * engine to pass to {@link CryptoOperationEvent#finish} each time the
+     * operation completes.
+     */
+    Operation operation(Object engine, String service, String name) {
+        Class<?> engineClass = engine.getClass();
+        EngineOperations engineOperations = operations.computeIfAbsent(engineClass,
+                c -> new EngineOperations(service));
+        return engineOperations.counts.computeIfAbsent(name,
+                n -> new Operation(provider, engineClass, service, n));
+    }
+
+    /**
+     * Records how long the last warm-up of the provider took.
+     */
+    void setWarmUpTime(Duration time) {
+        warmUpMillis = time.toMillis();
+    }
+
+    /**
+     * Registers this object with the platform MBean server, only the first
+     * time that it is called. The management classes are only loaded if the
+     * runtime has the {@code java.management} module. Failures are reported
+     * in the debug output only, as the provider works without it.
+     */
+    void register() {
+        if (registered.get() || !registered.compareAndSet(false, true)) {
+            return;
+        }
+
+        Boolean disabled = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            public Boolean run() {
+                return Boolean.getBoolean(DISABLE_STATISTICS_MBEAN);
+            }
+        });
+        if (disabled || !ModuleLayer.boot().findModule("java.management").isPresent()) {
+            return;
+        }
+
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                try {
+                    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                    ObjectName objectName = new ObjectName(
+                            DOMAIN + ":type=ProviderStatistics,name=" + provider.getName());
+                    server.registerMBean(ProviderStatistics.this, objectName);
+                    if (debug != null) {
+                        debug.println("Registered " + objectName);
+                    }
+                } catch (Exception | LinkageError e) {
+                    if (debug != null) {
+                        debug.println("Unable to register the statistics MBean: " + e);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Returns the algorithm of the service of the given type implemented by
+     * an engine class, or the simple class name if the provider has none.
+     */
+    static String getAlgorithm(OpenJCEPlusProvider provider, String type, Class<?> engineClass) {
+        return algorithms.computeIfAbsent(engineClass,
+                c -> lookupAlgorithm(provider, type, c));
+    }
+
+    // Reads the provider's table of services rather than its Service
+    // objects, so that no service is created and put just to be named.
+    //
+    private static String lookupAlgorithm(OpenJCEPlusProvider provider, String type,
+            Class<?> engineClass) {
+        String className = engineClass.getName();
+        for (String[] entry : provider.getServiceTable()) {
+            if (entry[0].equals(type) && entry[2].equals(className)) {
+                return entry[1];
+            }
+        }
+        return engineClass.getSimpleName();
+    }
+
+    @Override
+    public String getProviderName() {
+        return provider.getName();
+    }
+
+    @Override
+    public boolean isFIPS() {
+        return provider.isFIPS();
+    }
+
+    @Override
+    public Map<String, Long> getLiveHandles() {
+        NativeStatistics statistics = nativeStatistics();
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for (NativeStatistics.Handle handle : NativeStatistics.Handle.values()) {
+            values.put(handle.name(), statistics.getLive(handle));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getHandleHighWaterMarks() {
+        NativeStatistics statistics = nativeStatistics();
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for (NativeStatistics.Handle handle : NativeStatistics.Handle.values()) {
+            values.put(handle.name(), statistics.getHighWater(handle));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getCreatedHandles() {
+        NativeStatistics statistics = nativeStatistics();
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for (NativeStatistics.Handle handle : NativeStatistics.Handle.values()) {
+            values.put(handle.name(), statistics.getCreated(handle));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        NativeStatistics statistics = nativeStatistics();
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for (NativeStatistics.Counter counter : NativeStatistics.Counter.values()) {
+            values.put(counter.name(), statistics.getCount(counter));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Boolean> getHardwareCapabilities() {
+        return provider.getOCKContext().getHardwareCapabilities().toMap();
+    }
+
+    @Override
+    public long getDigestCacheIdle() {
+        return NativeStatistics.getDigestCacheSizes()[0];
+    }
+
+    @Override
+    public long getDigestCacheSize() {
+        return NativeStatistics.getDigestCacheSizes()[1];
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for (Map.Entry<Class<?>, EngineOperations> entry : operations.entrySet()) {
+            EngineOperations engineOperations = entry.getValue();
+            String prefix = engineOperations.service + "."
+                    + getAlgorithm(provider, engineOperations.service, entry.getKey()) + ".";
+            for (Map.Entry<String, Operation> count : engineOperations.counts.entrySet()) {
+                values.merge(prefix + count.getKey(), count.getValue().count.sum(), Long::sum);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public long getWarmUpMillis() {
+        return warmUpMillis;
+    }
+
+    private NativeStatistics nativeStatistics() {
+        return provider.getOCKContext().getStatistics();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import java.util.Map;
+
+/**
+ * Management interface of the native resource and cache statistics of the
+ * OpenJCEPlus or OpenJCEPlusFIPS provider. It is registered with the
+ * platform MBean server once per provider name, under the name
+ * {@code com.ibm.crypto.plus:type=ProviderStatistics,name=<provider name>},
+ * when the provider first creates its OCK context.
+ *
+ * <p>The native handle counts and the cache and path counters belong to the
+ * OCK context of the provider, and the operation counts are those of all
+ * instances of the provider, so that every instance of the same provider
+ * class reports the same values.
+ */
+public interface ProviderStatisticsMXBean {
+
+    /**
+     * Returns the name of the provider.
+     */
+    String getProviderName();
+
+    /**
+     * Returns whether the provider uses an OCK context in FIPS mode.
+     */
+    boolean isFIPS();
+
+    /**
+     * Returns the number of native handles of each type that were created
+     * and not freed yet, keyed by handle type such as {@code DIGEST} or
+     * {@code RSA_KEY}. Handles owned by keys and most contexts are freed when
+     * their owner is finalized.
+     */
+    Map<String, Long> getLiveHandles();
+
+    /**
+     * Returns the largest number of native handles of each type that were
+     * live at the same time so far.
+     */
+    Map<String, Long> getHandleHighWaterMarks();
+
+    /**
+     * Returns the number of native handles of each type created so far.
+     */
+    Map<String, Long> getCreatedHandles();
+
+    /**
+     * Returns the cache hit and miss counts and the number of GCM and CCM
+     * operations that took the hardware, FastJNI or slow path, keyed by
+     * counter name such as {@code GCM_FAST_PATH}.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Returns the hardware acceleration found when the OCK context of the
+     * provider was created, keyed by name such as {@code AES_GCM}.
+     */
+    Map<String, Boolean> getHardwareCapabilities();
+
+    /**
+     * Returns the number of cached SHA digest contexts that are idle.
+     */
+    long getDigestCacheIdle();
+
+    /**
+     * Returns the number of SHA digest contexts held by the cache, whether
+     * idle or in use.
+     */
+    long getDigestCacheSize();
+
+    /**
+     * Returns the number of completed operations keyed by service type,
+     * algorithm and operation, such as {@code Cipher.AES/GCM/NoPadding.doFinal}.
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Returns how long the last warm-up of the provider by
+     * {@link ProviderWarmUp} took, in milliseconds, or -1 if it was not
+     * warmed up.
+     */
+    long getWarmUpMillis();
+}
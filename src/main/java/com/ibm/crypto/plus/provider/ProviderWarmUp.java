@@ -0,0 +1,365 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider;
+
+import java.security.AccessController;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import sun.security.util.Debug;
+
+/**
+ * Warms up an OpenJCEPlus or OpenJCEPlusFIPS provider before it takes
+ * traffic, so that the first operations do not pay for initializing OCK,
+ * probing the hardware, filling the native context caches and compiling the
+ * engine code.
+ *
+ * <p>{@link #warmUp(Provider, int, String...)} runs operations of each of the
+ * given algorithms on the calling thread and returns how long that took,
+ * which the statistics MBean of the provider also reports. The algorithms
+ * are message digests, MACs, cipher transformations, signatures and key
+ * agreements of the provider. An algorithm stops after the given number of
+ * operations or after one second, whichever comes first.
+ *
+ * <pre>
+ * Duration time = ProviderWarmUp.warmUp(Security.getProvider("OpenJCEPlus"));
+ * </pre>
+ *
+ * <p>Setting the system property {@value #WARM_UP} to a comma separated list
+ * of algorithms, or to {@code true} for {@link #DEFAULT_ALGORITHMS}, warms up
+ * every new provider instance on a daemon thread, with
+ * {@value #DEFAULT_ITERATIONS} operations per algorithm unless the property
+ * {@value #WARM_UP_ITERATIONS} gives another number.
+ *
+ * <p>Native contexts kept per thread, such as those of AES/GCM, are only
+ * created for the warming thread.
+ */
+@SuppressWarnings({"removal", "deprecation"})
+public final class ProviderWarmUp {
+
+    static final String WARM_UP = "com.ibm.crypto.provider.WarmUp";
+
+    static final String WARM_UP_ITERATIONS = "com.ibm.crypto.provider.WarmUpIterations";
+
+    /**
+     * The number of operations per algorithm by default, enough for the
+     * engine code to be compiled by the optimizing compiler.
+     */
+    public static final int DEFAULT_ITERATIONS = 10000;
+
+    /**
+     * The algorithms warmed up by default.
+     */
+    public static final List<String> DEFAULT_ALGORITHMS = List.of("SHA-256", "SHA-384",
+            "HmacSHA256", "AES/GCM/NoPadding", "AES/CBC/PKCS5Padding", "SHA256withECDSA",
+            "SHA256withRSA", "ECDH");
+
+    private static final long MAX_ALGORITHM_NANOS = 1000000000L;
+
+    private static final int MESSAGE_SIZE = 1024;
+
+    private static final Debug debug = Debug.getInstance(OpenJCEPlusProvider.DEBUG_VALUE);
+
+    private static final String[] algorithmsOnCreation;
+    private static final int iterationsOnCreation;
+
+    static {
+        String[] properties = AccessController.doPrivileged(new PrivilegedAction<String[]>() {
+            public String[] run() {
+                return new String[] {System.getProperty(WARM_UP),
+                        System.getProperty(WARM_UP_ITERATIONS)};
+            }
+        });
+
+        String algorithms = properties[0];
+        if ((algorithms == null) || algorithms.isBlank()
+                || algorithms.equalsIgnoreCase("false")) {
+            algorithmsOnCreation = null;
+        } else if (algorithms.equalsIgnoreCase("true")) {
+            algorithmsOnCreation = DEFAULT_ALGORITHMS.toArray(new String[0]);
+        } else {
+            algorithmsOnCreation = Arrays.stream(algorithms.split(",")).map(String::trim)
+                    .filter(a -> !a.isEmpty()).toArray(String[]::new);
+        }
+
+        int iterations = DEFAULT_ITERATIONS;
+        if (properties[1] != null) {
+            try {
+                iterations = Math.max(1, Integer.parseInt(properties[1].trim()));
+            } catch (NumberFormatException e) {
+                if (debug != null) {
+                    debug.println("Ignoring " + WARM_UP_ITERATIONS + "=" + properties[1]);
+                }
+            }
+        }
+        iterationsOnCreation = iterations;
+    }
+
+    private ProviderWarmUp() {}
+
+    /**
+     * Warms up the provider with {@link #DEFAULT_ITERATIONS} operations of
+     * each of the {@link #DEFAULT_ALGORITHMS} it supports.
+     *
+     * @param provider an OpenJCEPlus or OpenJCEPlusFIPS provider instance
+     * @return how long the warm-up took
+     */
+    public static Duration warmUp(Provider provider) {
+        checkProvider(provider);
+        List<String> algorithms = DEFAULT_ALGORITHMS.stream()
+                .filter(a -> typeOf(provider, a) != null).toList();
+        try {
+            return warmUp(provider, DEFAULT_ITERATIONS, algorithms.toArray(new String[0]));
+        } catch (GeneralSecurityException e) {
+            throw ((OpenJCEPlusProvider) provider).providerException("Failure in warm-up", e);
+        }
+    }
+
+    /**
+     * Warms up the provider with operations of each of the algorithms.
+     *
+     * @param provider an OpenJCEPlus or OpenJCEPlusFIPS provider instance
+     * @param iterations the number of operations per algorithm
+     * @param algorithms message digest, MAC, signature or key agreement
+     *        algorithms or cipher transformations of the provider
+     * @return how long the warm-up took
+     * @throws NoSuchAlgorithmException if the provider does not support one
+     *         of the algorithms
+     * @throws GeneralSecurityException if an operation fails
+     */
+    public static Duration warmUp(Provider provider, int iterations, String... algorithms)
+            throws GeneralSecurityException {
+        checkProvider(provider);
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        for (String algorithm : algorithms) {
+            if (typeOf(provider, algorithm) == null) {
+                throw new NoSuchAlgorithmException(
+                        algorithm + " not available from " + provider.getName());
+            }
+        }
+
+        long start = System.nanoTime();
+
+        // Initializes OCK ahead of the first algorithm, so that the debug
+        // output does not count it against that algorithm.
+        //
+        ((OpenJCEPlusProvider) provider).getOCKContext();
+
+        for (String algorithm : algorithms) {
+            long algorithmStart = System.nanoTime();
+            warmUp(provider, typeOf(provider, algorithm), algorithm, iterations);
+            if (debug != null) {
+                debug.println("Warmed up " + provider.getName() + " " + algorithm + " in "
+                        + (System.nanoTime() - algorithmStart) / 1000000 + " ms");
+            }
+        }
+
+        Duration time = Duration.ofNanos(System.nanoTime() - start);
+        ((OpenJCEPlusProvider) provider).getStatistics().setWarmUpTime(time);
+        if (debug != null) {
+            debug.println("Warmed up " + provider.getName() + " in " + time.toMillis() + " ms");
+        }
+        return time;
+    }
+
+    // Starts warming up a new provider instance on a daemon thread if the
+    // system property asks for it.
+    //
+    static void warmUpOnCreation(final OpenJCEPlusProvider provider) {
+        if (algorithmsOnCreation == null) {
+            return;
+        }
+
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                Thread thread = new Thread(() -> {
+                    try {
+                        String[] algorithms = Arrays.stream(algorithmsOnCreation)
+                                .filter(a -> typeOf(provider, a) != null)
+                                .toArray(String[]::new);
+                        warmUp(provider, iterationsOnCreation, algorithms);
+                    } catch (Exception | LinkageError e) {
+                        if (debug != null) {
+                            debug.println("Warm-up of " + provider.getName() + " failed: " + e);
+                        }
+                    }
+                }, provider.getName() + " warm-up");
+                thread.setDaemon(true);
+                thread.start();
+                return null;
+            }
+        });
+    }
+
+    private static void checkProvider(Provider provider) {
+        if (!(provider instanceof OpenJCEPlusProvider)) {
+            throw new IllegalArgumentException("provider is not an OpenJCEPlus provider");
+        }
+    }
+
+    // Returns the service type of an algorithm of the provider, or null if
+    // the provider does not support it.
+    //
+    private static String typeOf(Provider provider, String algorithm) {
+        for (String type : new String[] {"MessageDigest", "Mac", "Signature", "KeyAgreement"}) {
+            if (provider.getService(type, algorithm) != null) {
+                return type;
+            }
+        }
+        try {
+            Cipher.getInstance(algorithm, provider);
+            return "Cipher";
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private static void warmUp(Provider provider, String type, String algorithm,
+            int iterations) throws GeneralSecurityException {
+        byte[] message = new byte[MESSAGE_SIZE];
+        new SecureRandom().nextBytes(message);
+        long deadline = System.nanoTime() + MAX_ALGORITHM_NANOS;
+
+        switch (type) {
+            case "MessageDigest": {
+                java.security.MessageDigest digest = java.security.MessageDigest
+                        .getInstance(algorithm, provider);
+                for (int i = 0; (i < iterations) && (System.nanoTime() < deadline); i++) {
+                    digest.update(message);
+                    digest.digest();
+                }
+                break;
+            }
+            case "Mac": {
+                Mac mac = Mac.getInstance(algorithm, provider);
+                mac.init(new SecretKeySpec(Arrays.copyOf(message, 32), algorithm));
+                for (int i = 0; (i < iterations) && (System.nanoTime() < deadline); i++) {
+                    mac.update(message);
+                    mac.doFinal();
+                }
+                break;
+            }
+            case "Signature": {
+                Signature signature = Signature.getInstance(algorithm, provider);
+                if (signature.getAlgorithm().toUpperCase(Locale.ENGLISH).contains("PSS")) {
+                    signature.setParameter(new PSSParameterSpec("SHA-256", "MGF1",
+                            MGF1ParameterSpec.SHA256, 32, 1));
+                }
+                KeyPair keyPair = generateKeyPair(provider, signatureKeyAlgorithm(algorithm));
+                for (int i = 0; (i < iterations) && (System.nanoTime() < deadline); i++) {
+                    signature.initSign(keyPair.getPrivate());
+                    signature.update(message);
+                    byte[] signed = signature.sign();
+                    signature.initVerify(keyPair.getPublic());
+                    signature.update(message);
+                    signature.verify(signed);
+                }
+                break;
+            }
+            case "KeyAgreement": {
+                KeyAgreement agreement = KeyAgreement.getInstance(algorithm, provider);
+                String keyAlgorithm = algorithm.equals("ECDH") ? "EC" : algorithm;
+                KeyPair ours = generateKeyPair(provider, keyAlgorithm);
+                KeyPair theirs = generateKeyPair(provider, keyAlgorithm);
+                for (int i = 0; (i < iterations) && (System.nanoTime() < deadline); i++) {
+                    agreement.init(ours.getPrivate());
+                    agreement.doPhase(theirs.getPublic(), true);
+                    agreement.generateSecret();
+                }
+                break;
+            }
+            default:
+                warmUpCipher(provider, algorithm, message, iterations, deadline);
+                break;
+        }
+    }
+
+    private static void warmUpCipher(Provider provider, String transformation, byte[] message,
+            int iterations, long deadline) throws GeneralSecurityException {
+        Cipher encrypter = Cipher.getInstance(transformation, provider);
+        Cipher decrypter = Cipher.getInstance(transformation, provider);
+        String keyAlgorithm = transformation.split("/")[0];
+
+        java.security.Key encryptionKey;
+        java.security.Key decryptionKey;
+        if (keyAlgorithm.equals("RSA")) {
+            KeyPair keyPair = generateKeyPair(provider, keyAlgorithm);
+            encryptionKey = keyPair.getPublic();
+            decryptionKey = keyPair.getPrivate();
+            message = Arrays.copyOf(message, 32);
+        } else {
+            if (keyAlgorithm.startsWith("ChaCha20")) {
+                keyAlgorithm = "ChaCha20";
+            }
+            SecretKey key = KeyGenerator.getInstance(keyAlgorithm, provider).generateKey();
+            encryptionKey = key;
+            decryptionKey = key;
+            if (transformation.endsWith("/NoPadding")) {
+                message = Arrays.copyOf(message, message.length - message.length
+                        % encrypter.getBlockSize());
+            }
+        }
+
+        // A new initialization in encrypt mode without parameters picks a
+        // new IV, so that modes that do not allow reusing one may be warmed
+        // up too.
+        //
+        for (int i = 0; (i < iterations) && (System.nanoTime() < deadline); i++) {
+            encrypter.init(Cipher.ENCRYPT_MODE, encryptionKey);
+            byte[] cipherText = encrypter.doFinal(message);
+            AlgorithmParameters parameters = encrypter.getParameters();
+            decrypter.init(Cipher.DECRYPT_MODE, decryptionKey, parameters);
+            decrypter.doFinal(cipherText);
+        }
+    }
+
+    private static String signatureKeyAlgorithm(String algorithm) {
+        String upper = algorithm.toUpperCase(Locale.ENGLISH);
+        if (upper.endsWith("ECDSA")) {
+            return "EC";
+        } else if (upper.endsWith("DSA") && !upper.contains("EDDSA")) {
+            return "DSA";
+        } else if (upper.contains("RSA")) {
+            return "RSA";
+        }
+        return algorithm.equals("EdDSA") ? "Ed25519" : algorithm;
+    }
+
+    private static KeyPair generateKeyPair(Provider provider, String algorithm)
+            throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm, provider);
+        if (algorithm.equals("EC")) {
+            generator.initialize(256);
+        } else if (algorithm.equals("RSA") || algorithm.equals("DiffieHellman")
+                || algorithm.equals("DSA")) {
+            generator.initialize(2048);
+        }
+        return generator.generateKeyPair();
+    }
+}
@@ -8,6 +8,7 @@
 
 package com.ibm.crypto.plus.provider;
 
+import com.ibm.crypto.plus.provider.ock.FailureExceptions;
 import com.ibm.crypto.plus.provider.ock.RSACipher;
 import com.ibm.crypto.plus.provider.ock.RSAPadding;
 import java.nio.ByteBuffer;
@@ -35,6 +36,7 @@ import javax.crypto.spec.PSource;
 public final class RSA extends CipherSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation doFinalOperation = null;
     private RSACipher rsaCipher = null;
     private RSAPadding padding = RSAPadding.PKCS1Padding;
     private ByteBuffer msgBuffer = null;
@@ -61,6 +63,7 @@ public final class RSA extends CipherSpi {
         }
 
         this.provider = provider;
+        doFinalOperation = provider.getStatistics().operation(this, "Cipher", "doFinal");
         try {
             this.rsaCipher = RSACipher.getInstance(provider.getOCKContext());
         } catch (Exception e) {
@@ -92,6 +95,16 @@ public final class RSA extends CipherSpi {
     @Override
     protected int engineDoFinal(byte[] input, int inOffset, int inLen, byte[] output, int outOffset)
             throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalDoFinal(input, inOffset, inLen, output, outOffset);
+        } finally {
+            event.finish(doFinalOperation, null, inLen);
+        }
+    }
+
+    private int internalDoFinal(byte[] input, int inOffset, int inLen, byte[] output, int outOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
         checkCipherInitialized();
         if (input != null) {
             internalUpdate(input, inOffset, inLen);
@@ -152,7 +165,7 @@ public final class RSA extends CipherSpi {
             provider.setOCKExceptionCause(ibse, ock_ibse);
             throw ibse;
         } catch (BadPaddingException ock_bpe) {
-            BadPaddingException bpe = new BadPaddingException(ock_bpe.getMessage());
+            BadPaddingException bpe = FailureExceptions.badPadding(ock_bpe.getMessage());
             provider.setOCKExceptionCause(bpe, ock_bpe);
             throw bpe;
         } catch (Exception e) {
@@ -24,6 +24,7 @@ import sun.security.x509.AlgorithmId;
 abstract class RSAKeyPairGenerator extends KeyPairGeneratorSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateKeyPairOperation = null;
     private int keysize = 2048;
     private BigInteger publicExponent = RSAKeyGenParameterSpec.F4;
     static int DEF_RSA_KEY_SIZE = 2048;
@@ -33,6 +34,8 @@ abstract class RSAKeyPairGenerator extends KeyPairGeneratorSpi {
 
     RSAKeyPairGenerator(OpenJCEPlusProvider provider, KeyType type, int keySize) {
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
         this.type = type;
         this.rsaId = RSAUtil.createAlgorithmId(type, null);
         this.keysize = keySize;
@@ -115,6 +118,15 @@ abstract class RSAKeyPairGenerator extends KeyPairGeneratorSpi {
 
     @Override
     public KeyPair generateKeyPair() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateKeyPair();
+        } finally {
+            event.finish(generateKeyPairOperation, keysize, 0);
+        }
+    }
+
+    private KeyPair internalGenerateKeyPair() {
         try {
             RSAKey rsaKey = RSAKey.generateKeyPair(provider.getOCKContext(), this.keysize,
                     this.publicExponent);
@@ -41,6 +41,8 @@ public final class RSAPSSSignature extends SignatureSpi {
     protected SecureRandom random;
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private SignatureRSAPSS signature = null;
 
     // PSS parameters
@@ -73,6 +75,8 @@ public final class RSAPSSSignature extends SignatureSpi {
 
     public RSAPSSSignature(OpenJCEPlusProvider provider, PSSParameterSpec pssParameterSpec) {
         this.provider = provider;
+        signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+        verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
         try {
             if (pssParameterSpec == null) {
                 if (provider.isFIPS()) {
@@ -117,6 +121,8 @@ public final class RSAPSSSignature extends SignatureSpi {
         // PSSParameterSpec pssParameterSpec = null;
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             if (pssParameterSpec != null) {
                 //System.out.println ("pssParameterSpec is null");
                 switch (ockDigestAlgo) {
@@ -304,6 +310,15 @@ public final class RSAPSSSignature extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, privateKey, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         try {
             return this.signature.signFinal();
         } catch (Exception e) {
@@ -316,6 +331,15 @@ public final class RSAPSSSignature extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, publicKey, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         try {
             boolean result = this.signature.verifyFinal(sigBytes);
             return result;
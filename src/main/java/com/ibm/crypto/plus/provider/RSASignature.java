@@ -25,6 +25,8 @@ import java.util.List;
 abstract class RSASignature extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private Signature signature = null;
     private String ockDigestAlgo = null;
     java.security.PublicKey publicKey = null;
@@ -33,6 +35,8 @@ abstract class RSASignature extends SignatureSpi {
     RSASignature(OpenJCEPlusProvider provider, String ockDigestAlgo) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.ockDigestAlgo = ockDigestAlgo;
             this.signature = Signature.getInstance(provider.getOCKContext(), ockDigestAlgo);
         } catch (Exception e) {
@@ -184,6 +188,15 @@ abstract class RSASignature extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, privateKey, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         if (this.privateKey == null) {
             throw new SignatureException("Missing private key");
         }
@@ -201,6 +214,15 @@ abstract class RSASignature extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, publicKey, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         if (publicKey == null) {
             throw new SignatureException("Missing public key");
         }
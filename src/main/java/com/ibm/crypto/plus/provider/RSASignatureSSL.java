@@ -58,6 +58,8 @@ import java.util.Arrays;
 public final class RSASignatureSSL extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private RSACipher rsaCipher = null;
     private RSAPadding padding = RSAPadding.PKCS1Padding;
     private ByteArrayOutputStream data;
@@ -65,6 +67,8 @@ public final class RSASignatureSSL extends SignatureSpi {
     public RSASignatureSSL(OpenJCEPlusProvider provider) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.rsaCipher = RSACipher.getInstance(provider.getOCKContext());
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize RSA signature", e);
@@ -161,6 +165,15 @@ public final class RSASignatureSSL extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         try {
             byte[] dataBytes = data.toByteArray();
             data.reset();
@@ -184,6 +197,15 @@ public final class RSASignatureSSL extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         try {
             byte[] dataBytes = data.toByteArray();
             data.reset();
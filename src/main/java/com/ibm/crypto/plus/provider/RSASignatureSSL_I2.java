@@ -61,12 +61,16 @@ import java.security.SignatureSpi;
 public final class RSASignatureSSL_I2 extends SignatureSpi {
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation signOperation = null;
+    private ProviderStatistics.Operation verifyOperation = null;
     private SignatureRSASSL signature = null;
     private ByteArrayOutputStream data;
 
     public RSASignatureSSL_I2(OpenJCEPlusProvider provider) {
         try {
             this.provider = provider;
+            signOperation = provider.getStatistics().operation(this, "Signature", "sign");
+            verifyOperation = provider.getStatistics().operation(this, "Signature", "verify");
             this.signature = SignatureRSASSL.getInstance(provider.getOCKContext());
         } catch (Exception e) {
             throw provider.providerException("Failed to initialize RSA signature", e);
@@ -162,6 +166,15 @@ public final class RSASignatureSSL_I2 extends SignatureSpi {
 
     @Override
     protected byte[] engineSign() throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalSign();
+        } finally {
+            event.finish(signOperation, null, 0);
+        }
+    }
+
+    private byte[] internalSign() throws SignatureException {
         try {
             byte[] dataBytes = data.toByteArray();
             data.reset();
@@ -177,6 +190,15 @@ public final class RSASignatureSSL_I2 extends SignatureSpi {
 
     @Override
     protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalVerify(sigBytes);
+        } finally {
+            event.finish(verifyOperation, null, (sigBytes == null) ? 0 : sigBytes.length);
+        }
+    }
+
+    private boolean internalVerify(byte[] sigBytes) throws SignatureException {
         try {
             byte[] dataBytes = data.toByteArray();
             data.reset();
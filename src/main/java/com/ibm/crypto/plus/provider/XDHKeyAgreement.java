@@ -31,6 +31,7 @@ abstract class XDHKeyAgreement extends KeyAgreementSpi {
     private static final int SECRET_BUFFER_SIZE_X448 = 56;
 
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateSecretOperation = null;
     private long genCtx;
     private XECKey ockXecKeyPub = null;
     private XECKey ockXecKeyPriv = null;
@@ -43,6 +44,8 @@ abstract class XDHKeyAgreement extends KeyAgreementSpi {
             throw new SecurityException("Integrity check failed for: " + provider.getName());
 
         this.provider = provider;
+        generateSecretOperation = provider.getStatistics().operation(this, "KeyAgreement",
+                "generateSecret");
     }
 
     XDHKeyAgreement(OpenJCEPlusProvider provider, String Alg) {
@@ -51,6 +54,8 @@ abstract class XDHKeyAgreement extends KeyAgreementSpi {
             throw new SecurityException("Integrity check failed for: " + provider.getName());
 
         this.provider = provider;
+        generateSecretOperation = provider.getStatistics().operation(this, "KeyAgreement",
+                "generateSecret");
         this.alg = Alg;
     }
 
@@ -130,6 +135,15 @@ abstract class XDHKeyAgreement extends KeyAgreementSpi {
 
     @Override
     protected byte[] engineGenerateSecret() throws IllegalStateException {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateSecret();
+        } finally {
+            event.finish(generateSecretOperation, null, 0);
+        }
+    }
+
+    private byte[] internalGenerateSecret() throws IllegalStateException {
         if (secret == null)
             throw new IllegalStateException("Wrong state");
         if (ockXecKeyPriv == null || ockXecKeyPub == null)
@@ -22,6 +22,7 @@ abstract class XDHKeyPairGenerator extends KeyPairGeneratorSpi {
     private static final NamedParameterSpec DEFAULT_PARAM_SPEC
         = NamedParameterSpec.X25519;
     private OpenJCEPlusProvider provider = null;
+    private ProviderStatistics.Operation generateKeyPairOperation = null;
     private NamedParameterSpec namedSpec;
     private String alg = null;
 
@@ -50,6 +51,8 @@ abstract class XDHKeyPairGenerator extends KeyPairGeneratorSpi {
 
     private void initXDHKeyPairGenerator(OpenJCEPlusProvider provider, NamedParameterSpec params) {
         this.provider = provider;
+        generateKeyPairOperation = provider.getStatistics().operation(this, "KeyPairGenerator",
+                "generateKeyPair");
         try {
             if (params == null) {
                 // Default Initialization is X25519.
@@ -117,6 +120,15 @@ abstract class XDHKeyPairGenerator extends KeyPairGeneratorSpi {
 
     @Override
     public KeyPair generateKeyPair() {
+        CryptoOperationEvent event = CryptoOperationEvent.start();
+        try {
+            return internalGenerateKeyPair();
+        } finally {
+            event.finish(generateKeyPairOperation, 0, 0);
+        }
+    }
+
+    private KeyPair internalGenerateKeyPair() {
         try {
             int keySize = CurveUtil.getCurveSize(serviceCurve);
             XECKey xecKey = XECKey.generateKeyPair(provider.getOCKContext(), this.serviceCurve.ordinal(), keySize);
@@ -7,8 +7,6 @@
  */
 package com.ibm.crypto.plus.provider.ock;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Arrays;
 
 /**
@@ -18,6 +16,10 @@ import java.util.Arrays;
  * same order they were received.
  * This class can be used to avoid processing data at the end of a byte array stream until required.
  * flush should be called to obtain any data that may be left.
+ *
+ * The held back bytes are kept in a fixed size buffer that is allocated once. The
+ * {@link #write(byte[], int, int, Sink)} variant hands released bytes to a {@link Sink}
+ * straight from the buffer and the caller's array, so no intermediate arrays are created.
  */
 public final class ByteArrayOutputDelay {
     public static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
@@ -25,8 +27,22 @@ public final class ByteArrayOutputDelay {
     private static int DEFAULT_BYTE_DELAY = 16;
     public static int MAX_BYTE_DELAY = 65536; //Only used to protect against "unreasonable" memory usage
 
+    /**
+     * Receives the bytes released by {@link ByteArrayOutputDelay#write(byte[], int, int, Sink)}.
+     */
+    public interface Sink {
+        /**
+         * @param input       - array holding the released bytes
+         * @param inputOffset - offset of the first released byte
+         * @param inputLen    - number of released bytes
+         * @return number of bytes the sink produced for this call
+         */
+        int accept(byte[] input, int inputOffset, int inputLen) throws OCKException;
+    }
+
     private int byteDelay = 0;
-    private ByteArrayOutputStream byteArrayOutputStream = null;
+    private byte[] held = null;
+    private int heldCount = 0;
 
     public ByteArrayOutputDelay() {
         super();
@@ -49,7 +65,7 @@ public final class ByteArrayOutputDelay {
             throw new IllegalArgumentException(
                     "Size must be greater than zero; given: " + byteDelay);
         }
-        byteArrayOutputStream = new ByteArrayOutputStream(byteDelay);
+        held = new byte[byteDelay];
         this.byteDelay = byteDelay;
     }
 
@@ -60,42 +76,117 @@ public final class ByteArrayOutputDelay {
      * @return byte array containing input data from size byte ago. If data less
      *         than the size of the buffer has been input EMPTY_ARRAY will be
      *         returned
-     * @throws IOException
      */
     public byte[] write(byte[] input, int inputOffset, int numberOfBytesToWrite) {
         if ((null == input) || (inputOffset >= input.length) || (numberOfBytesToWrite < 1)) {
             return EMPTY_BYTE_ARRAY;
         }
 
-        byteArrayOutputStream.write(input, inputOffset, numberOfBytesToWrite);
-        int overflowCount = byteArrayOutputStream.size() - byteDelay;
+        int overflowCount = heldCount + numberOfBytesToWrite - byteDelay;
         if (overflowCount < 1) {
+            hold(input, inputOffset, numberOfBytesToWrite);
             return EMPTY_BYTE_ARRAY;
         }
 
-        byte[] allBytes = byteArrayOutputStream.toByteArray();
-        byte[] overflow = Arrays.copyOfRange(allBytes, 0, overflowCount);
-        byte[] keepBytes = Arrays.copyOfRange(allBytes, overflowCount, allBytes.length);
-        // byteArrayOutputStream.close(); //ByteArrayOutputStream close has no effect
-        byteArrayOutputStream = new ByteArrayOutputStream(byteDelay);
-        byteArrayOutputStream.write(keepBytes, 0, byteDelay);
+        byte[] overflow = new byte[overflowCount];
+        int fromHeld = Math.min(heldCount, overflowCount);
+        System.arraycopy(held, 0, overflow, 0, fromHeld);
+        System.arraycopy(input, inputOffset, overflow, fromHeld, overflowCount - fromHeld);
+        release(fromHeld);
+        hold(input, inputOffset + (overflowCount - fromHeld),
+                numberOfBytesToWrite - (overflowCount - fromHeld));
 
         return overflow;
     }
 
+    /**
+     * Delays the input like {@link #write(byte[], int, int)} but passes the
+     * released bytes to the sink instead of returning them. The sink is called
+     * at most twice, once for previously held bytes and once for the leading
+     * part of the input.
+     *
+     * @param input       - input byte array to be delayed
+     * @param inputOffset - offset into input to start processing from
+     * @param inputLen    - number of bytes to process from the input
+     * @param sink        - receiver of the released bytes
+     * @return the sum of the values returned by the sink
+     */
+    public int write(byte[] input, int inputOffset, int inputLen, Sink sink) throws OCKException {
+        if ((null == input) || (inputLen < 1)) {
+            return 0;
+        }
+
+        int overflowCount = heldCount + inputLen - byteDelay;
+        if (overflowCount < 1) {
+            hold(input, inputOffset, inputLen);
+            return 0;
+        }
+
+        int outLen = 0;
+        int fromHeld = Math.min(heldCount, overflowCount);
+        if (fromHeld > 0) {
+            outLen += sink.accept(held, 0, fromHeld);
+            release(fromHeld);
+        }
+        int fromInput = overflowCount - fromHeld;
+        if (fromInput > 0) {
+            outLen += sink.accept(input, inputOffset, fromInput);
+        }
+        hold(input, inputOffset + fromInput, inputLen - fromInput);
+
+        return outLen;
+    }
+
     /**
      * @return any bytes left; otherwise EMPTY_BYTE_ARRAY
      */
     public byte[] flush() {
-        byte[] allBytes = byteArrayOutputStream.toByteArray();
-        if ((null == allBytes) || (0 == allBytes.length)) {
+        if (0 == heldCount) {
             return EMPTY_BYTE_ARRAY;
         }
-        return allBytes;
+        return Arrays.copyOf(held, heldCount);
+    }
+
+    /**
+     * Copies the bytes currently held back into the given array.
+     *
+     * @return the number of bytes copied
+     */
+    public int flush(byte[] output, int outputOffset) {
+        System.arraycopy(held, 0, output, outputOffset, heldCount);
+        return heldCount;
+    }
+
+    /**
+     * @return the number of bytes currently held back
+     */
+    public int size() {
+        return heldCount;
+    }
+
+    /**
+     * Discards any bytes held back so the instance can be reused.
+     */
+    public void reset() {
+        Arrays.fill(held, 0, heldCount, (byte) 0x00);
+        heldCount = 0;
     }
 
     public int getByteDelay() {
         return byteDelay;
     }
 
+    private void hold(byte[] input, int inputOffset, int inputLen) {
+        System.arraycopy(input, inputOffset, held, heldCount, inputLen);
+        heldCount += inputLen;
+    }
+
+    // Drops the first count held bytes. At most byteDelay bytes are held, so
+    // moving the rest down is cheaper than tracking a wrapping start index.
+    //
+    private void release(int count) {
+        System.arraycopy(held, count, held, 0, heldCount - count);
+        heldCount -= count;
+    }
+
 }
@@ -21,7 +21,7 @@ public final class CCMCipher {
     private static final boolean disableCCMAcceleration;
     private static final String DISABLE_CCM_ACCELERATION = "com.ibm.crypto.provider.DisableCCMAcceleration";
     private static final String debPrefix = "CCMCipher";
-    private static long CCMHardwareFunctionPtr = -1; // Disable hardware AES/CCM for System Z
+    private static final boolean enableHardwareCCM = false; // Disable hardware AES/CCM for System Z
 
     static final int parameterBlockSize = 80;
     static final int TAADLOffset = 48;
@@ -67,6 +67,9 @@ public final class CCMCipher {
     };
 
 
+    // Return code of the native decrypt functions when the tag does not match
+    private static final int TAG_MISMATCH = 6;
+
     private static final Map<Integer, String> ErrorCodes;
     static {
         ErrorCodes = new HashMap<Integer, String>();
@@ -76,6 +79,8 @@ public final class CCMCipher {
         ErrorCodes.put(4, "ICC_AES_CCM_En/DecryptFinal failed");
         ErrorCodes.put(5, "NULL from GetPrimitiveArrayCritical");
         ErrorCodes.put(6, "ICC_AES_CCM_DecryptFinal failed: Tag Mismatch!\n");
+        ErrorCodes.put(7, "CCM stream EncryptUpdate failed");
+        ErrorCodes.put(8, "CCM stream Final failed");
 
         //        int tls_support_result=1;
         //        try {
@@ -87,8 +92,9 @@ public final class CCMCipher {
         //useJavaTLS = true; //(tls_support_result != 0);
         //OCKDebug.Msg (debPrefix,  "static", "UseJavaTLS" + useJavaTLS);
     }
-    private static final int FastJNIInputBufferSize = 1024 * 2 * 2;
-    private static final int FastJNIOutputBufferSize = 1024 * 2 * 2 + 16;
+    private static final int FastJNIInputBufferSize = TransferCalibration
+            .getThreshold(TransferCalibration.CCM);
+    private static final int FastJNIOutputBufferSize = FastJNIInputBufferSize + 16;
     private static final int FastJNIParameterBufferSize = 1024;
 
     // AES-CCM constants in Bytes
@@ -96,6 +102,131 @@ public final class CCMCipher {
     private static final int AES_CCM_MIN_IV_SIZE = 1;
     private static final byte[] emptyAAD = new byte[0];
 
+    // Streaming state, only used by instances returned from createStream
+    private final OCKContext ockContext;
+    private final int tagLen;
+    private long streamId;
+
+    private CCMCipher(OCKContext ockContext, int tagLen, long streamId) {
+        this.ockContext = ockContext;
+        this.tagLen = tagLen;
+        this.streamId = streamId;
+    }
+
+    /**
+     * Starts a streaming CCM encryption for a payload whose length is known up
+     * front. The payload is then encrypted in any number of update calls
+     * without being buffered, and doFinal produces the tag.
+     *
+     * <p>There is no streaming decryption, since it would release plaintext
+     * before the tag has been verified.
+     *
+     * @param payloadLen the plaintext length, not counting the tag
+     */
+    public static CCMCipher createStream(OCKContext ockContext, byte[] key, byte[] iv,
+            int tagLen, byte[] aad, long payloadLen) throws OCKException {
+        if (ockContext == null) {
+            throw new IllegalArgumentException("context is null");
+        }
+
+        if ((key == null) || (key.length < AES_CCM_MIN_KEY_SIZE)) {
+            throw new IllegalArgumentException("key is null or the wrong size");
+        }
+
+        if (iv == null) {
+            throw new IllegalArgumentException("IV is null");
+        }
+
+        if (payloadLen < 0) {
+            throw new IllegalArgumentException("payload length is negative");
+        }
+
+        long streamId = NativeInterface.do_CCM_streamCreate(ockContext.getId(), key, iv,
+                (aad != null) ? aad : emptyAAD, payloadLen, tagLen);
+        return new CCMCipher(ockContext, tagLen, streamId);
+    }
+
+    /**
+     * Encrypts the next chunk of the payload. The output has the same length
+     * as the input.
+     */
+    public synchronized int update(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset) throws OCKException, ShortBufferException {
+        if (streamId == 0L) {
+            throw new IllegalStateException("CCM stream is closed");
+        }
+
+        if (inputLen == 0) {
+            return 0;
+        }
+
+        if (input == null || inputLen < 0 || inputOffset < 0
+                || (inputOffset + inputLen) > input.length) {
+            throw new IllegalArgumentException("Input range is invalid");
+        }
+
+        if ((output == null) || (outputOffset < 0) || (outputOffset > output.length)) {
+            throw new IllegalArgumentException("Output range is invalid");
+        }
+
+        if ((output.length - outputOffset) < inputLen) {
+            throw new ShortBufferException(
+                    "Output buffer must be (at least) " + inputLen + " bytes long");
+        }
+
+        // Processing in place is fine, partially overlapping ranges are not
+        if ((input == output) && (inputOffset != outputOffset)
+                && (outputOffset < inputOffset + inputLen)
+                && (inputOffset < outputOffset + inputLen)) {
+            input = Arrays.copyOfRange(input, inputOffset, inputOffset + inputLen);
+            inputOffset = 0;
+        }
+
+        int rc = NativeInterface.do_CCM_streamUpdate(ockContext.getId(), streamId, input,
+                inputOffset, inputLen, output, outputOffset);
+        if (rc != 0) {
+            close();
+            throw new OCKException(ErrorCodes.get(rc));
+        }
+        return inputLen;
+    }
+
+    /**
+     * Completes the stream and releases its native state. The tag is written
+     * to {@code tag} at {@code tagOffset}.
+     */
+    public synchronized void doFinal(byte[] tag, int tagOffset) throws OCKException {
+        if (streamId == 0L) {
+            throw new IllegalStateException("CCM stream is closed");
+        }
+
+        if ((tag == null) || (tagOffset < 0) || (tag.length - tagOffset < tagLen)) {
+            throw new IllegalArgumentException("Tag range is invalid");
+        }
+
+        try {
+            int rc = NativeInterface.do_CCM_streamFinal(ockContext.getId(), streamId, tag,
+                    tagOffset);
+            if (rc != 0) {
+                throw new OCKException(ErrorCodes.get(rc));
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Releases the native state of the stream. Calling it more than once has
+     * no effect.
+     */
+    public synchronized void close() throws OCKException {
+        if (streamId != 0L) {
+            long id = streamId;
+            streamId = 0L;
+            NativeInterface.do_CCM_streamDelete(ockContext.getId(), id);
+        }
+    }
+
     // it is not synchronized since there are no shared OCK data structures used in the OCK call
     // except ICC_CTX which is thread safe
 
@@ -189,13 +320,10 @@ public final class CCMCipher {
 
         int aadLen = authenticationData.length;
 
-        if (CCMHardwareFunctionPtr == 0) {
-            CCMHardwareFunctionPtr = NativeInterface
-                    .do_CCM_checkHardwareCCMSupport(ockContext.getId());
-        }
+        boolean hardwareCCM = enableHardwareCCM && ockContext.getHardwareCapabilities().aesCCM;
 
         if (iv.length + key.length + aadLen <= FastJNIParameterBufferSize && !disableCCMAcceleration
-                && (inputLen <= FastJNIInputBufferSize || CCMHardwareFunctionPtr != -1)) {
+                && (inputLen <= FastJNIInputBufferSize || hardwareCCM)) {
             FastJNIBuffer parameters = CCMCipher.parameterBuffer.get();
             parameters.put(0, iv, 0, iv.length);
             parameters.put(iv.length, authenticationData, 0, aadLen);
@@ -203,10 +331,14 @@ public final class CCMCipher {
             //OCKDebug.Msg (debPrefix, methodName,  "key.length :" + key.length + " iv.length :" + iv.length + " inputOffset :" + inputOffset);
             //OCKDebug.Msg (debPrefix, methodName,   " inputLen :" + inputLen + " aadLen :" + aadLen + " tagLen :" + tagLen);
 
-            if (CCMHardwareFunctionPtr != -1) { // hardware supports fast CCM command
+            if (hardwareCCM) { // hardware supports fast CCM command
+                ockContext.getStatistics().count(NativeStatistics.Counter.CCM_HARDWARE_PATH);
+                OperationTrace.record(OperationTrace.HARDWARE_PATH);
                 rc = useHardwareCCM(false, inputLen, iv.length, key.length, aadLen, tagLen, key,
                         input, inputOffset, output, outputOffset, parameters);
             } else {
+                ockContext.getStatistics().count(NativeStatistics.Counter.CCM_FAST_PATH);
+                OperationTrace.record(OperationTrace.FAST_PATH);
                 FastJNIBuffer outputBuffer = CCMCipher.outputBuffer.get();
                 FastJNIBuffer inputBuffer = CCMCipher.inputBuffer.get();
                 inputBuffer.put(0, input, inputOffset, inputLen);
@@ -219,7 +351,9 @@ public final class CCMCipher {
                 outputBuffer.get(0, output, outputOffset, len);
             }
 
-            if (rc != 0) {
+            if (rc == TAG_MISMATCH) {
+                throw FailureExceptions.tagMismatch("Tag mismatch!");
+            } else if (rc != 0) {
                 throw new OCKException(ErrorCodes.get(rc));
             }
         } else {
@@ -234,12 +368,15 @@ public final class CCMCipher {
             // Create tempOutput
             byte[] tempOutput = new byte[len + outputOffset]; // len from call to getOutputSizeLegacy() above
 
+            ockContext.getStatistics().count(NativeStatistics.Counter.CCM_SLOW_PATH);
             rc = NativeInterface.do_CCM_decrypt(ockContext.getId(), iv, iv.length, key, key.length,
                     authenticationData, aadLen, tempInput, inputLen, tempOutput, tempOutput.length,
                     tagLen);
 
 
-            if (rc != 0) {
+            if (rc == TAG_MISMATCH) {
+                throw FailureExceptions.tagMismatch("Tag mismatch!");
+            } else if (rc != 0) {
                 throw new OCKException(ErrorCodes.get(rc));
             } else {
                 // Copy contents of tempOutput to output at outputOffset for len bytes
@@ -331,12 +468,10 @@ public final class CCMCipher {
 
         int aadLen = authenticationData.length;
 
-        if (CCMHardwareFunctionPtr == 0)
-            CCMHardwareFunctionPtr = NativeInterface
-                    .do_CCM_checkHardwareCCMSupport(ockContext.getId());
+        boolean hardwareCCM = enableHardwareCCM && ockContext.getHardwareCapabilities().aesCCM;
 
         if (iv.length + key.length + aadLen + tagLen <= FastJNIParameterBufferSize
-                && (inputLen <= FastJNIInputBufferSize || CCMHardwareFunctionPtr != -1)) {
+                && (inputLen <= FastJNIInputBufferSize || hardwareCCM)) {
 
             FastJNIBuffer parameters = CCMCipher.parameterBuffer.get();
             parameters.put(0, iv, 0, ivLen);
@@ -345,10 +480,14 @@ public final class CCMCipher {
             //OCKDebug.Msg (debPrefix, methodName, "FastJNI key.length :" + key.length + " iv.length :" + iv.length + " inputOffset :" + inputOffset);
             //OCKDebug.Msg (debPrefix, methodName, " inputLen :" + inputLen + " aadLen :" + aadLen + " tagLen :" + tagLen);
 
-            if (CCMHardwareFunctionPtr != -1) { // hardware supports fast CCM command
+            if (hardwareCCM) { // hardware supports fast CCM command
+                ockContext.getStatistics().count(NativeStatistics.Counter.CCM_HARDWARE_PATH);
+                OperationTrace.record(OperationTrace.HARDWARE_PATH);
                 rc = useHardwareCCM(true, inputLen, ivLen, keyLen, aadLen, tagLen, key, input,
                         inputOffset, output, outputOffset, parameters);
             } else {
+                ockContext.getStatistics().count(NativeStatistics.Counter.CCM_FAST_PATH);
+                OperationTrace.record(OperationTrace.FAST_PATH);
                 FastJNIBuffer outputBuffer = CCMCipher.outputBuffer.get();
                 FastJNIBuffer inputBuffer = CCMCipher.inputBuffer.get();
                 inputBuffer.put(0, input, inputOffset, inputLen);
@@ -374,6 +513,7 @@ public final class CCMCipher {
             // Create tempOutput
             byte[] tempOutput = new byte[len + outputOffset]; // len from call to getOutputSizeLegacy() above
 
+            ockContext.getStatistics().count(NativeStatistics.Counter.CCM_SLOW_PATH);
             rc = NativeInterface.do_CCM_encrypt(ockContext.getId(), iv, iv.length, key, key.length,
                     authenticationData, aadLen, tempInput, tempInput.length, tempOutput,
                     tempOutput.length, tagLen);
@@ -498,7 +638,7 @@ public final class CCMCipher {
                     inputLen, 0, aadLen, tagLen, parameters.pointer(), input, inputOffset, output,
                     outputOffset);
             if (rc == -1)
-                throw new AEADBadTagException("Tag mismatch!");
+                throw FailureExceptions.tagMismatch("Tag mismatch!");
         }
         return rc;
     }
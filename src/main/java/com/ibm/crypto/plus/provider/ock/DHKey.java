@@ -99,6 +99,9 @@ public final class DHKey implements AsymmetricKey {
             byte[] publicKeyBytes) {
         this.ockContext = ockContext;
         this.dhKeyId = dhKeyId;
+        if (dhKeyId != 0) {
+            ockContext.getStatistics().created(NativeStatistics.Handle.DH_KEY, dhKeyId);
+        }
         this.pkeyId = 0;
         this.parameters = parameters;
         this.privateKeyBytes = privateKeyBytes;
@@ -110,6 +113,10 @@ public final class DHKey implements AsymmetricKey {
         return "DH";
     }
 
+    public OCKContext getOCKContext() {
+        return this.ockContext;
+    }
+
     public long getDHKeyId() {
         //final String methodName = "getDHKeyId() :";
         //OCKDebug.Msg(debPrefix, methodName, this.dhKeyId);
@@ -189,6 +196,9 @@ public final class DHKey implements AsymmetricKey {
                 throw new OCKException(badIdMsg);
             }
             this.pkeyId = NativeInterface.DHKEY_createPKey(ockContext.getId(), dhKeyId);
+            if (pkeyId != 0) {
+                ockContext.getStatistics().created(NativeStatistics.Handle.PKEY, pkeyId);
+            }
         }
     }
 
@@ -237,11 +247,13 @@ public final class DHKey implements AsymmetricKey {
 
             if (dhKeyId != 0) {
                 NativeInterface.DHKEY_delete(ockContext.getId(), dhKeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.DH_KEY, dhKeyId);
                 dhKeyId = 0;
             }
 
             if (pkeyId != 0) {
                 NativeInterface.PKEY_delete(ockContext.getId(), pkeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.PKEY, pkeyId);
                 pkeyId = 0;
             }
         } finally {
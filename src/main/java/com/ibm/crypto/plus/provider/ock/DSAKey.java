@@ -126,6 +126,9 @@ public final class DSAKey implements AsymmetricKey {
             byte[] publicKeyBytes) {
         this.ockContext = ockContext;
         this.dsaKeyId = dsaKeyId;
+        if (dsaKeyId != 0) {
+            ockContext.getStatistics().created(NativeStatistics.Handle.DSA_KEY, dsaKeyId);
+        }
         this.pkeyId = 0;
         this.parameters = parameters;
         this.privateKeyBytes = privateKeyBytes;
@@ -196,6 +199,7 @@ public final class DSAKey implements AsymmetricKey {
             if (!validId(pkeyId)) {
                 throw new OCKException(badIdMsg);
             }
+            ockContext.getStatistics().created(NativeStatistics.Handle.PKEY, pkeyId);
         }
 
     }
@@ -255,11 +259,13 @@ public final class DSAKey implements AsymmetricKey {
 
             if (dsaKeyId != 0) {
                 NativeInterface.DSAKEY_delete(ockContext.getId(), dsaKeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.DSA_KEY, dsaKeyId);
                 dsaKeyId = 0;
             }
 
             if (pkeyId != 0) {
                 NativeInterface.PKEY_delete(ockContext.getId(), pkeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.PKEY, pkeyId);
                 pkeyId = 0;
             }
         } finally {
@@ -8,8 +8,11 @@
 
 package com.ibm.crypto.plus.provider.ock;
 
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -24,36 +27,56 @@ public final class Digest implements Cloneable {
 
     // index corresponding the SHA algorithm it's using
     // also used as a flag:
-    // 0 - 4: it is using one of {SHA1, SHA224, SHA256, SHA384, SHA512}
+    // 0 - 10: it is using one of {SHA256, SHA384, SHA512, SHA224, SHA1,
+    //         SHA512-224, SHA512-256, SHA3-224, SHA3-256, SHA3-384, SHA3-512}
     // -1   : Not initialized
     // -2   : Not a SHA* digest algorithm
     private int algIndx = -1;
 
+    // Whether the native context was updated since the last digest or reset.
     private boolean needsReinit = false;
 
     private boolean contextFromQueue = false;
 
-    // Size of {SHA256, SHA384, SHA512, SHA224, SHA1}
-    final static int[] digestLengths = {32, 48, 64, 28, 20};
+    // Whether the context was taken from the cache rather than created.
+    private boolean contextCacheHit = false;
+
+    // Size of {SHA256, SHA384, SHA512, SHA224, SHA1, SHA512-224, SHA512-256,
+    // SHA3-224, SHA3-256, SHA3-384, SHA3-512}
+    final static int[] digestLengths = {32, 48, 64, 28, 20, 28, 32, 28, 32, 48, 64};
 
     //disable caching mechanism for windows OS
     final static private boolean isWindows = System.getProperty("os.name").startsWith("Windows");
 
     final static private int numContexts;
 
-    final static int numShaAlgos = 5;
+    final static int numShaAlgos = 11;
     private static final String DIGEST_CONTEXT_CACHE_SIZE = "com.ibm.crypto.provider.DigestContextCacheSize";
 
-    private static boolean needsInit = true;
+    // The cached contexts of each OCK context, by the id of the OCK context.
+    // A native digest context is only ever used with the OCK context that
+    // created it.
+    private static final ConcurrentHashMap<Long, ContextCache> caches = new ConcurrentHashMap<Long, ContextCache>();
 
-    static private ConcurrentLinkedQueueLong contexts[];
+    static class ConcurrentLinkedQueueLong extends ConcurrentLinkedQueue<Long> {
+        private static final long serialVersionUID = 196745693267521676L;
+    }
 
-    static private int runtimeContextNum[];
+    private static final class ContextCache {
+        final ConcurrentLinkedQueueLong contexts[] = new ConcurrentLinkedQueueLong[numShaAlgos];
 
-    class ConcurrentLinkedQueueLong extends ConcurrentLinkedQueue<Long> {
-        private static final long serialVersionUID = 196745693267521676L;
+        final int runtimeContextNum[] = new int[numShaAlgos];
+
+        ContextCache() {
+            for (int i = 0; i < numShaAlgos; i++) {
+                contexts[i] = new ConcurrentLinkedQueueLong();
+            }
+        }
     }
 
+    // The cache of the OCK context of this digest.
+    private ContextCache cache = null;
+
     static {
         // Configurable number of cached contexts
         numContexts = AccessController.doPrivileged(new PrivilegedAction<Integer>() {
@@ -75,19 +98,8 @@ public final class Digest implements Cloneable {
     }
 
     void getContext() throws OCKException {
-        if (needsInit) {
-            synchronized (Digest.class) {
-                if (needsInit) {
-                    contexts = new ConcurrentLinkedQueueLong[numShaAlgos];
-                    runtimeContextNum = new int[numShaAlgos];
-
-                    for (int i = 0; i < numShaAlgos; i++) {
-                        contexts[i] = new ConcurrentLinkedQueueLong();
-                        runtimeContextNum[i] = 0;
-                    }
-                    needsInit = false;
-                }
-            }
+        if (this.cache == null) {
+            this.cache = caches.computeIfAbsent(this.ockContext.getId(), k -> new ContextCache());
         }
 
         if (this.digestId != 0) {
@@ -111,6 +123,24 @@ public final class Digest implements Cloneable {
                 case "SHA1":
                     this.algIndx = 4;
                     break;
+                case "SHA512-224":
+                    this.algIndx = 5;
+                    break;
+                case "SHA512-256":
+                    this.algIndx = 6;
+                    break;
+                case "SHA3-224":
+                    this.algIndx = 7;
+                    break;
+                case "SHA3-256":
+                    this.algIndx = 8;
+                    break;
+                case "SHA3-384":
+                    this.algIndx = 9;
+                    break;
+                case "SHA3-512":
+                    this.algIndx = 10;
+                    break;
                 default:
                     this.algIndx = -2;
                     break;
@@ -119,27 +149,50 @@ public final class Digest implements Cloneable {
 
         // Algorithm is not SHA*
         if (this.algIndx == -2) {
-            this.digestId = NativeInterface.DIGEST_create(this.ockContext.getId(),
-                    this.digestAlgo);
+            this.digestId = createContext();
+            this.contextCacheHit = false;
         } else {
-            Long context = contexts[this.algIndx].poll();
+            Long context = cache.contexts[this.algIndx].poll();
 
             if (context == null) {
                 // Create new context
-                this.digestId = NativeInterface
-                        .DIGEST_create(this.ockContext.getId(), this.digestAlgo);
-                this.contextFromQueue = (runtimeContextNum[this.algIndx] < numContexts);
-                if (runtimeContextNum[this.algIndx] < numContexts) {
-                    runtimeContextNum[this.algIndx]++;
+                this.ockContext.getStatistics().count(NativeStatistics.Counter.DIGEST_CACHE_MISS);
+                this.digestId = createContext();
+                this.contextFromQueue = (cache.runtimeContextNum[this.algIndx] < numContexts);
+                if (cache.runtimeContextNum[this.algIndx] < numContexts) {
+                    cache.runtimeContextNum[this.algIndx]++;
                 }
+                this.contextCacheHit = false;
             } else {
+                this.ockContext.getStatistics().count(NativeStatistics.Counter.DIGEST_CACHE_HIT);
                 this.digestId = context;
                 this.contextFromQueue = true;
+                this.contextCacheHit = true;
             }
         }
         this.needsReinit = false;
     }
 
+    private long createContext() throws OCKException {
+        NativeContextEvent event = NativeContextEvent.start();
+        long id = NativeInterface.DIGEST_create(this.ockContext.getId(), this.digestAlgo);
+        event.finish("Digest", this.digestAlgo, this.ockContext);
+        this.ockContext.getStatistics().created(NativeStatistics.Handle.DIGEST, id);
+        return id;
+    }
+
+    static long[] getCacheSizes() {
+        long idle = 0;
+        long total = 0;
+        for (ContextCache cache : caches.values()) {
+            for (int i = 0; i < numShaAlgos; i++) {
+                idle += cache.contexts[i].size();
+                total += cache.runtimeContextNum[i];
+            }
+        }
+        return new long[] {idle, total};
+    }
+
     void releaseContext() throws OCKException {
 
         if (this.digestId == 0) {
@@ -151,13 +204,14 @@ public final class Digest implements Cloneable {
             if (validId(this.digestId)) {
                 NativeInterface.DIGEST_delete(this.ockContext.getId(),
                         this.digestId);
+                this.ockContext.getStatistics().freed(NativeStatistics.Handle.DIGEST, this.digestId);
                 this.digestId = 0;
             }
         } else {
             if (this.contextFromQueue) {
                 // reset now to make sure all contexts in the queue are ready to use
                 this.reset();
-                contexts[this.algIndx].add(this.digestId);
+                cache.contexts[this.algIndx].add(this.digestId);
                 this.digestId = 0;
                 this.contextFromQueue = false;
             } else {
@@ -165,6 +219,7 @@ public final class Digest implements Cloneable {
                 if (validId(this.digestId)) {
                     NativeInterface.DIGEST_delete(this.ockContext.getId(),
                             this.digestId);
+                    this.ockContext.getStatistics().freed(NativeStatistics.Handle.DIGEST, this.digestId);
                     this.digestId = 0;
                 }
             }
@@ -176,6 +231,38 @@ public final class Digest implements Cloneable {
      * ===========================================================================
      */
 
+    /* ===========================================================================
+       Small message fast path
+       Input is gathered in smallInput while it fits in the FastJNI buffer and
+       the native context was not updated yet. digest() then passes it through a
+       per-thread direct buffer to a native call that updates, finalizes and
+       resets the context at once, writing the digest to the same buffer, so
+       that hashing a small message takes one JNI call without pinning arrays.
+       Once the context was updated, updates of up to the transfer threshold
+       and the digest still go through the direct buffer.
+       */
+
+    // Largest digest length of the supported algorithms, SHA-512 and SHA3-512.
+    private static final int MAX_DIGEST_LENGTH = 64;
+
+    private static final int FastJNIInputBufferSize = TransferCalibration
+            .getThreshold(TransferCalibration.DIGEST);
+
+    private static final ThreadLocal<FastJNIBuffer> buffer = new ThreadLocal<FastJNIBuffer>() {
+        @Override
+        protected FastJNIBuffer initialValue() {
+            return FastJNIBuffer.create(Math.max(FastJNIInputBufferSize, MAX_DIGEST_LENGTH));
+        }
+    };
+
+    private byte[] smallInput = null;
+
+    private int smallInputLength = 0;
+
+    /* end small message fast path
+     * ===========================================================================
+     */
+
     private OCKContext ockContext = null;
     private int digestLength = 0;
     private final String badIdMsg = "Digest Identifier is not valid";
@@ -218,6 +305,8 @@ public final class Digest implements Cloneable {
                 throw new OCKException("ICC_EVP_DigestInit failed!");
             case -3:
                 throw new OCKException("ICC_EVP_DigestUpdate failed!");
+            case -4:
+                throw new OCKException("ICC_EVP_MD_CTX_copy failed!");
             default:
                 throw new OCKException("Unknow Error Code");
         }
@@ -240,16 +329,109 @@ public final class Digest implements Cloneable {
             throw new OCKException(badIdMsg);
         }
 
-        errorCode = NativeInterface.DIGEST_update(this.ockContext.getId(),
-                this.digestId, input, offset, length);
-        if (errorCode < 0) {
-            throwOCKException(errorCode);
+        if (!this.needsReinit && (length <= FastJNIInputBufferSize - this.smallInputLength)) {
+            if (this.smallInput == null) {
+                this.smallInput = new byte[FastJNIInputBufferSize];
+            }
+            System.arraycopy(input, offset, this.smallInput, this.smallInputLength, length);
+            this.smallInputLength += length;
+            return;
+        }
+
+        flushSmallInput();
+        if (length <= FastJNIInputBufferSize) {
+            FastJNIBuffer buffer = Digest.buffer.get();
+            buffer.put(0, input, offset, length);
+            NativeInterface.DIGEST_updateFastJNI(this.ockContext.getId(), this.digestId,
+                    buffer.pointer(), length);
+        } else {
+            errorCode = NativeInterface.DIGEST_update(this.ockContext.getId(),
+                    this.digestId, input, offset, length);
+            if (errorCode < 0) {
+                throwOCKException(errorCode);
+            }
         }
         this.needsReinit = true;
     }
 
+    /**
+     * Updates the digest with the remaining bytes of the buffer and moves its
+     * position to its limit. The bytes of a direct buffer, including a mapped
+     * file, are read by the native code in place.
+     */
+    public synchronized void update(ByteBuffer input) throws OCKException {
+        int length = input.remaining();
+        if (length == 0) {
+            return;
+        }
+
+        if (!input.isDirect()) {
+            if (input.hasArray()) {
+                update(input.array(), input.arrayOffset() + input.position(), length);
+                input.position(input.limit());
+            } else {
+                byte[] chunk = new byte[Math.min(length, 64 * 1024)];
+                while (input.hasRemaining()) {
+                    int chunkLength = Math.min(chunk.length, input.remaining());
+                    input.get(chunk, 0, chunkLength);
+                    update(chunk, 0, chunkLength);
+                }
+            }
+            return;
+        }
+
+        if (!validId(this.digestId)) {
+            throw new OCKException(badIdMsg);
+        }
+
+        if (!this.needsReinit && (length <= FastJNIInputBufferSize - this.smallInputLength)) {
+            if (this.smallInput == null) {
+                this.smallInput = new byte[FastJNIInputBufferSize];
+            }
+            input.get(this.smallInput, this.smallInputLength, length);
+            this.smallInputLength += length;
+            return;
+        }
+
+        flushSmallInput();
+        try {
+            NativeInterface.DIGEST_updateFastJNI(this.ockContext.getId(), this.digestId,
+                    NativeInterface.getByteBufferPointer(input) + input.position(), length);
+        } finally {
+            // The buffer must not be freed or unmapped while the native code
+            // reads it.
+            Reference.reachabilityFence(input);
+        }
+        input.position(input.limit());
+        this.needsReinit = true;
+    }
+
+    // Passes the gathered small input to the native context.
+    private void flushSmallInput() throws OCKException {
+        if (this.smallInputLength == 0) {
+            return;
+        }
+
+        FastJNIBuffer buffer = Digest.buffer.get();
+        buffer.put(0, this.smallInput, 0, this.smallInputLength);
+        NativeInterface.DIGEST_updateFastJNI(this.ockContext.getId(), this.digestId,
+                buffer.pointer(), this.smallInputLength);
+        this.smallInputLength = 0;
+        this.needsReinit = true;
+    }
+
     public synchronized byte[] digest() throws OCKException {
-        //final String methodName = "digest()";
+        byte[] digestBytes = new byte[getDigestLength()];
+        digest(digestBytes, 0);
+        return digestBytes;
+    }
+
+    /**
+     * Writes the digest to the output at the offset and resets the digest.
+     * The output must have room for {@link #getDigestLength()} bytes.
+     */
+    public synchronized void digest(byte[] output, int offset) throws OCKException {
+        //final String methodName = "digest(byte[], int)";
         int errorCode = 0;
 
         if (!validId(this.digestId)) {
@@ -257,24 +439,141 @@ public final class Digest implements Cloneable {
         }
         //OCKDebug.Msg (debPrefix, methodName, "digestId :" + this.digestId);
 
-
-        // push data from the buffer that haven't got updated yet
         int digestLength = getDigestLength();
-        byte[] digestBytes = new byte[digestLength];
+        if (output == null || offset < 0 || (offset + digestLength) > output.length) {
+            throw new IllegalArgumentException("Output range is invalid.");
+        }
 
-        errorCode = NativeInterface.DIGEST_digest_and_reset(this.ockContext.getId(),
-                this.digestId, digestBytes);
-        if (errorCode < 0) {
-            throwOCKException(errorCode);
+        if (digestLength <= MAX_DIGEST_LENGTH) {
+            FastJNIBuffer buffer = Digest.buffer.get();
+            if (!this.needsReinit) {
+                buffer.put(0, this.smallInput, 0, this.smallInputLength);
+                int inputLength = this.smallInputLength;
+                this.smallInputLength = 0;
+                errorCode = NativeInterface.DIGEST_digestOneShotFastJNI(this.ockContext.getId(),
+                        this.digestId, buffer.pointer(), inputLength);
+                if (errorCode < 0) {
+                    throwOCKException(errorCode);
+                }
+            } else {
+                NativeInterface.DIGEST_digest_and_reset(this.ockContext.getId(), this.digestId,
+                        buffer.pointer(), digestLength);
+            }
+            buffer.get(0, output, offset, digestLength);
+        } else {
+            flushSmallInput();
+            byte[] digestBytes = (offset == 0 && output.length == digestLength) ? output
+                    : new byte[digestLength];
+            errorCode = NativeInterface.DIGEST_digest_and_reset(this.ockContext.getId(),
+                    this.digestId, digestBytes);
+            if (errorCode < 0) {
+                throwOCKException(errorCode);
+            }
+            if (digestBytes != output) {
+                System.arraycopy(digestBytes, 0, output, offset, digestLength);
+            }
         }
         this.needsReinit = false;
+        if (this.contextCacheHit) {
+            OperationTrace.record(OperationTrace.CONTEXT_CACHE_HIT);
+        }
+    }
 
-        return digestBytes;
+    /**
+     * Writes the digest of the input given so far to the output at the offset,
+     * leaving this digest as it is, so that more input can be added. This
+     * gives the same result as digesting a clone, but finalizes a copy of the
+     * state in a cached native context that is reset and returned to the
+     * cache right after. The output must have room for
+     * {@link #getDigestLength()} bytes.
+     */
+    public synchronized void snapshotDigest(byte[] output, int offset) throws OCKException {
+        if (!validId(this.digestId)) {
+            throw new OCKException(badIdMsg);
+        }
+
+        int digestLength = getDigestLength();
+        if (output == null || offset < 0 || (offset + digestLength) > output.length) {
+            throw new IllegalArgumentException("Output range is invalid.");
+        }
+
+        Digest scratch = new Digest(this.ockContext, this.digestAlgo);
+        try {
+            if (!this.needsReinit) {
+                // All input was gathered, the native context of this digest
+                // has no state to copy.
+                if (this.smallInputLength != 0) {
+                    scratch.update(this.smallInput, 0, this.smallInputLength);
+                }
+                scratch.digest(output, offset);
+            } else if (digestLength <= MAX_DIGEST_LENGTH) {
+                flushSmallInput();
+                FastJNIBuffer buffer = Digest.buffer.get();
+                int errorCode = NativeInterface.DIGEST_snapshotFastJNI(this.ockContext.getId(),
+                        this.digestId, scratch.digestId, buffer.pointer());
+                if (errorCode < 0) {
+                    scratch.needsReinit = true;
+                    throwOCKException(errorCode);
+                }
+                buffer.get(0, output, offset, digestLength);
+            } else {
+                flushSmallInput();
+                scratch.needsReinit = true;
+                NativeInterface.DIGEST_copyInto(this.ockContext.getId(), this.digestId,
+                        scratch.digestId);
+                scratch.digest(output, offset);
+            }
+        } finally {
+            scratch.releaseContext();
+        }
+    }
+
+    /**
+     * Digests independent messages with one native call, message {@code i}
+     * being {@code lengths[i]} bytes of {@code buffers[i]} from
+     * {@code offsets[i]}. The digests are written one after the other to the
+     * output from the offset. Input given to {@link #update} and not digested
+     * yet is discarded.
+     */
+    public synchronized void digestBatch(byte[][] buffers, int[] offsets, int[] lengths,
+            byte[] output, int outputOffset) throws OCKException {
+        if (buffers == null || offsets == null || lengths == null
+                || offsets.length != buffers.length || lengths.length != buffers.length) {
+            throw new IllegalArgumentException("Bad input parameters to digest batch");
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] == null || offsets[i] < 0 || lengths[i] < 0
+                    || lengths[i] > buffers[i].length - offsets[i]) {
+                throw new IllegalArgumentException("Input range " + i + " is invalid.");
+            }
+        }
+        int digestLength = getDigestLength();
+        if (output == null || outputOffset < 0
+                || ((long) buffers.length * digestLength) > (output.length - (long) outputOffset)) {
+            throw new IllegalArgumentException("Output range is invalid.");
+        }
+
+        if (!validId(this.digestId)) {
+            throw new OCKException(badIdMsg);
+        }
+
+        // The native code initializes the context before and after every
+        // message, a failure part way through leaves it to be reset.
+        this.smallInputLength = 0;
+        this.needsReinit = true;
+        NativeInterface.DIGEST_digestBatch(this.ockContext.getId(), this.digestId, buffers,
+                offsets, lengths, output, outputOffset);
+        this.needsReinit = false;
     }
 
-    protected long getId() throws OCKException {
+    protected synchronized long getId() throws OCKException {
         //final String methodName = "getId()";
         //OCKDebug.Msg(debPrefix, methodName, "digestId :" + this.digestId);
+
+        // The native context is used directly, so it needs all input.
+        if (validId(this.digestId)) {
+            flushSmallInput();
+        }
         return this.digestId;
     }
 
@@ -299,6 +598,7 @@ public final class Digest implements Cloneable {
         if (!validId(this.digestId)) {
             throw new OCKException(badIdMsg);
         }
+        this.smallInputLength = 0;
         if (this.needsReinit) {
             NativeInterface.DIGEST_reset(this.ockContext.getId(), this.digestId);
         }
@@ -348,25 +648,44 @@ public final class Digest implements Cloneable {
      */
     public synchronized Object clone() throws CloneNotSupportedException {
         // Create new Digest instance and copy all relevant fields into the copy.
-        // Clones do not make use of the cache so always set the value of
-        // contextFromQueue to false to ensure that the context is later freed
-        // correctly.
         Digest copy = new Digest();
         copy.digestLength = this.digestLength;
         copy.algIndx = this.algIndx;
         copy.digestAlgo = new String(this.digestAlgo);
-        copy.needsReinit = this.needsReinit;
         copy.ockContext = this.ockContext;
         copy.contextFromQueue = false;
+        if (this.smallInputLength != 0) {
+            copy.smallInput = this.smallInput.clone();
+            copy.smallInputLength = this.smallInputLength;
+        }
 
-        // Allocate a new context for the digestId and copy all state information from our
-        // original context into the copy. 
         try {
-            copy.digestId = NativeInterface.DIGEST_copy(
-                this.ockContext.getId(), getId());
-            if (0 == copy.digestId) {
+            if (!validId(this.digestId)) {
                 throw new CloneNotSupportedException("Copy of native digest context failed.");
             }
+
+            if (this.algIndx >= 0) {
+                // Clones of SHA* digests take a context from the cache, like
+                // new digests, and return it there when they are released.
+                // The state is copied into it only if the context of this
+                // digest was updated since it was last reset.
+                copy.getContext();
+                copy.needsReinit = this.needsReinit;
+                if (this.needsReinit) {
+                    NativeInterface.DIGEST_copyInto(this.ockContext.getId(), this.digestId,
+                            copy.digestId);
+                }
+            } else {
+                // Allocate a new context for the digestId and copy all state information from our
+                // original context into the copy. It is freed when the copy is released.
+                copy.digestId = NativeInterface.DIGEST_copy(
+                    this.ockContext.getId(), this.digestId);
+                if (0 == copy.digestId) {
+                    throw new CloneNotSupportedException("Copy of native digest context failed.");
+                }
+                copy.ockContext.getStatistics().created(NativeStatistics.Handle.DIGEST, copy.digestId);
+                copy.needsReinit = this.needsReinit;
+            }
         } catch (OCKException e) {
             StackTraceElement[] stackTraceArray = e.getStackTrace();
             String stackTrace = Stream.of(stackTraceArray)
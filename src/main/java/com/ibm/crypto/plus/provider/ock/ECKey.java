@@ -12,11 +12,14 @@ import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.security.spec.ECParameterSpec;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
 
 public final class ECKey implements AsymmetricKey {
 
     // The following is a special byte[] instance to indicate that the
-    // private/public key bytes are available but not yet obtained.
+    // private/public key or parameter bytes are available but not yet
+    // obtained.
     //
     static final byte[] unobtainedKeyBytes = new byte[0];
 
@@ -25,6 +28,9 @@ public final class ECKey implements AsymmetricKey {
     private long pkeyId = 0;
     private static final String badIdMsg = "EC Key Identifier is not valid";
 
+    // Most distinct keys locked at once by verifyBatchWithECDSA
+    private static final int MAX_BATCH_LOCKED_KEYS = 256;
+
     // Public Key
     // BigInteger pubKeyAffineX;
     // BigInteger pubKeyAffineY;
@@ -67,6 +73,9 @@ public final class ECKey implements AsymmetricKey {
         //final String methodName = "ECKey(long, byte[], byte[], byte[]) ";
         this.ockContext = ockContext;
         this.ecKeyId = ecKeyId;
+        if (ecKeyId != 0) {
+            ockContext.getStatistics().created(NativeStatistics.Handle.EC_KEY, ecKeyId);
+        }
         this.pkeyId = 0;
         this.parameterBytes = parameterBytes;
         this.privateKeyBytes = privateKeyBytes;
@@ -81,6 +90,9 @@ public final class ECKey implements AsymmetricKey {
             BigInteger pubKeyAffineX, BigInteger pubKeyAffineY) {
         this.ockContext = ockContext;
         this.ecKeyId = ecKeyId;
+        if (ecKeyId != 0) {
+            ockContext.getStatistics().created(NativeStatistics.Handle.EC_KEY, ecKeyId);
+        }
         this.pkeyId = 0;
 
         this.ecSpec = ecSpec;
@@ -118,9 +130,8 @@ public final class ECKey implements AsymmetricKey {
             throw new OCKException(badIdMsg);
         }
 
-        byte[] parameterBytes = getParametersBytes(ockContext, ecKeyId);
-        //OCKDebug.Msg (debPrefix, methodName,  "size=" + size + " ecKeyId=" + ecKeyId + " parameterBytes :",  parameterBytes);
-        return new ECKey(ockContext, ecKeyId, parameterBytes, unobtainedKeyBytes,
+        //OCKDebug.Msg (debPrefix, methodName,  "size=" + size + " ecKeyId=" + ecKeyId);
+        return new ECKey(ockContext, ecKeyId, unobtainedKeyBytes, unobtainedKeyBytes,
                 unobtainedKeyBytes);
     }
 
@@ -140,9 +151,8 @@ public final class ECKey implements AsymmetricKey {
         if (!validId(ecKeyId)) {
             throw new OCKException(badIdMsg);
         }
-        byte[] parameterBytes = getParametersBytes(ockContext, ecKeyId);
-        //OCKDebug.Msg (debPrefix, methodName, "soid :" + soid + " ecKeyId :" + ecKeyId + "parameterBytes :",  parameterBytes);
-        return new ECKey(ockContext, ecKeyId, parameterBytes, unobtainedKeyBytes,
+        //OCKDebug.Msg (debPrefix, methodName, "soid :" + soid + " ecKeyId :" + ecKeyId);
+        return new ECKey(ockContext, ecKeyId, unobtainedKeyBytes, unobtainedKeyBytes,
                 unobtainedKeyBytes);
 
     }
@@ -217,7 +227,7 @@ public final class ECKey implements AsymmetricKey {
 
     public byte[] getParameters() throws OCKException {
         //final String methodName = "getParameters :";
-        if (ecSpec == null) {
+        if (parameterBytes == unobtainedKeyBytes) {
             obtainParameters();
         }
         //OCKDebug.Msg (debPrefix, methodName,  parameterBytes);
@@ -259,6 +269,9 @@ public final class ECKey implements AsymmetricKey {
                 throw new OCKException(badIdMsg);
             }
             this.pkeyId = NativeInterface.ECKEY_createPKey(ockContext.getId(), ecKeyId);
+            if (pkeyId != 0) {
+                ockContext.getStatistics().created(NativeStatistics.Handle.PKEY, pkeyId);
+            }
         }
     }
 
@@ -267,7 +280,7 @@ public final class ECKey implements AsymmetricKey {
         // to getParameters at the same time, we only want to call the
         // native code one time.
         //
-        if (ecSpec == null) {
+        if (parameterBytes == unobtainedKeyBytes) {
             if (!validId(ecKeyId)) {
                 throw new OCKException(badIdMsg);
             }
@@ -315,11 +328,13 @@ public final class ECKey implements AsymmetricKey {
 
             if (ecKeyId != 0) {
                 NativeInterface.ECKEY_delete(ockContext.getId(), ecKeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.EC_KEY, ecKeyId);
                 ecKeyId = 0;
             }
 
             if (pkeyId != 0) {
                 NativeInterface.PKEY_delete(ockContext.getId(), pkeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.PKEY, pkeyId);
                 pkeyId = 0;
             }
         } finally {
@@ -346,11 +361,39 @@ public final class ECKey implements AsymmetricKey {
         if (!validId(ecKeyId)) {
             throw new OCKException(badIdMsg);
         }
-        byte[] publicKeyBytes = NativeInterface.ECKEY_getPublicKeyBytes(ockContext.getId(),
-                ecKeyId);
 
-        //OCKDebug.Msg (debPrefix, methodName, "publicKeyBytes :", publicKeyBytes);
-        return new ECKey(ockContext, ecKeyId, paramBytes, privateKeyBytes.clone(), publicKeyBytes);
+        // The public key bytes are only obtained from OCK when first asked for.
+        return new ECKey(ockContext, ecKeyId,
+                (paramBytes == null) ? unobtainedKeyBytes : paramBytes.clone(),
+                privateKeyBytes.clone(), unobtainedKeyBytes);
+    }
+
+    // Create a private key of a named curve directly from its private scalar,
+    // without going through a DER encoded ECPrivateKey structure.
+    //
+    // The underlying native function used in this method does not use any native pointer
+    // that is shared across threads. Hence, it does not require any locks
+    public static ECKey createPrivateKeyFromScalar(OCKContext ockContext, String soid,
+            byte[] scalarBytes) throws OCKException {
+        if (ockContext == null) {
+            throw new IllegalArgumentException("context is null");
+        }
+
+        if ((soid == null) || soid.isEmpty()) {
+            throw new IllegalArgumentException("The String Object Identifier parameter is invalid");
+        }
+
+        if (scalarBytes == null) {
+            throw new IllegalArgumentException("key bytes is null");
+        }
+
+        long ecKeyId = NativeInterface.ECKEY_createPrivateKeyFromScalar(ockContext.getId(), soid,
+                scalarBytes);
+        if (!validId(ecKeyId)) {
+            throw new OCKException(badIdMsg);
+        }
+        return new ECKey(ockContext, ecKeyId, unobtainedKeyBytes, unobtainedKeyBytes,
+                unobtainedKeyBytes);
     }
 
     // There is a lock on ecPrivateKey to ensure that the underlying native pointer is not concurrently
@@ -438,6 +481,90 @@ public final class ECKey implements AsymmetricKey {
         return verified;
     }
 
+    // Verifies a batch of ECDSA signatures in a single native call. If digestAlgo
+    // is null every data entry must already be a digest. Bit i of the returned
+    // bitmap is set if signature i verified.
+    //
+    // Every distinct key is locked, as in verifyDatawithECDSA, for the duration
+    // of the native call. Keys are locked in order of their native id so that
+    // concurrent batches sharing keys cannot deadlock.
+    public static long[] verifyBatchWithECDSA(OCKContext ockContext, String digestAlgo,
+            ECKey[] ecPublicKeys, byte[][] data, byte[][] sigBytes) throws OCKException {
+        //final String methodName = "verifyBatchWithECDSA";
+        if (ockContext == null) {
+            throw new IllegalArgumentException("context is null");
+        }
+
+        if ((ecPublicKeys == null) || (data == null) || (sigBytes == null)
+                || (data.length != ecPublicKeys.length)
+                || (sigBytes.length != ecPublicKeys.length)) {
+            throw new IllegalArgumentException("Bad input parameters to ECDSA batch verify");
+        }
+
+        long[] ecKeyIds = new long[ecPublicKeys.length];
+        for (int i = 0; i < ecPublicKeys.length; i++) {
+            if ((ecPublicKeys[i] == null) || !validId(ecPublicKeys[i].getEcKeyId())) {
+                throw new OCKException(badIdMsg);
+            }
+            if ((data[i] == null) || (sigBytes[i] == null)) {
+                throw new IllegalArgumentException("Bad input parameters to ECDSA batch verify");
+            }
+            ecKeyIds[i] = ecPublicKeys[i].getEcKeyId();
+        }
+
+        long[] results = new long[(ecPublicKeys.length + 63) / 64];
+        if (ecPublicKeys.length == 0) {
+            return results;
+        }
+
+        // Entries are verified in runs that use at most MAX_BATCH_LOCKED_KEYS
+        // distinct keys, which bounds the nesting of the key locks.
+        Map<Long, ECKey> runKeys = new TreeMap<>();
+        int runStart = 0;
+        for (int i = 0; i <= ecPublicKeys.length; i++) {
+            if ((i == ecPublicKeys.length) || ((runKeys.size() == MAX_BATCH_LOCKED_KEYS)
+                    && !runKeys.containsKey(ecKeyIds[i]))) {
+                if ((runStart == 0) && (i == ecPublicKeys.length)) {
+                    ECKey[] lockOrder = runKeys.values().toArray(new ECKey[0]);
+                    verifyBatchLocked(ockContext, digestAlgo, lockOrder, 0, ecKeyIds, data,
+                            sigBytes, results);
+                } else if (i > runStart) {
+                    ECKey[] lockOrder = runKeys.values().toArray(new ECKey[0]);
+                    long[] runResults = new long[(i - runStart + 63) / 64];
+                    verifyBatchLocked(ockContext, digestAlgo, lockOrder, 0,
+                            Arrays.copyOfRange(ecKeyIds, runStart, i),
+                            Arrays.copyOfRange(data, runStart, i),
+                            Arrays.copyOfRange(sigBytes, runStart, i), runResults);
+                    for (int j = 0; j < i - runStart; j++) {
+                        if ((runResults[j >>> 6] & (1L << j)) != 0) {
+                            results[(runStart + j) >>> 6] |= 1L << (runStart + j);
+                        }
+                    }
+                }
+                runKeys.clear();
+                runStart = i;
+            }
+            if (i < ecPublicKeys.length) {
+                runKeys.putIfAbsent(ecKeyIds[i], ecPublicKeys[i]);
+            }
+        }
+        return results;
+    }
+
+    private static void verifyBatchLocked(OCKContext ockContext, String digestAlgo,
+            ECKey[] lockOrder, int index, long[] ecKeyIds, byte[][] data, byte[][] sigBytes,
+            long[] results) throws OCKException {
+        if (index == lockOrder.length) {
+            NativeInterface.ECKEY_verifyBatchWithECDSA(ockContext.getId(), digestAlgo, ecKeyIds,
+                    data, sigBytes, results);
+            return;
+        }
+        synchronized (lockOrder[index]) {
+            verifyBatchLocked(ockContext, digestAlgo, lockOrder, index + 1, ecKeyIds, data,
+                    sigBytes, results);
+        }
+    }
+
     public static ECKey createPublicKey(OCKContext ockContext, byte[] publicKeyBytes,
             byte[] parameterBytes) throws OCKException {
         //final String methodName = "createPublicKey";
@@ -453,7 +580,31 @@ public final class ECKey implements AsymmetricKey {
         long ecKeyId = NativeInterface.ECKEY_createPublicKey(ockContext.getId(), publicKeyBytes,
                 parameterBytes);
         //OCKDebug.Msg (debPrefix, methodName,  "ecKeyId :" + ecKeyId);
-        return new ECKey(ockContext, ecKeyId, null, null, publicKeyBytes.clone());
+        return new ECKey(ockContext, ecKeyId, unobtainedKeyBytes, null, publicKeyBytes.clone());
+    }
+
+    // Create a public key of a named curve directly from its encoded point,
+    // without going through DER encoded EC parameters.
+    public static ECKey createPublicKeyFromPoint(OCKContext ockContext, String soid,
+            byte[] pointBytes) throws OCKException {
+        if (ockContext == null) {
+            throw new IllegalArgumentException("context is null");
+        }
+
+        if ((soid == null) || soid.isEmpty()) {
+            throw new IllegalArgumentException("The String Object Identifier parameter is invalid");
+        }
+
+        if (pointBytes == null) {
+            throw new IllegalArgumentException("key bytes is null");
+        }
+
+        long ecKeyId = NativeInterface.ECKEY_createPublicKeyFromPoint(ockContext.getId(), soid,
+                pointBytes);
+        if (!validId(ecKeyId)) {
+            throw new OCKException(badIdMsg);
+        }
+        return new ECKey(ockContext, ecKeyId, unobtainedKeyBytes, null, pointBytes.clone());
     }
 
     // There is a double lock on pubEcKeyId and privEcKeyId to ensure that the underlying native
@@ -28,7 +28,10 @@ public final class ExtendedRandom {
 
     private ExtendedRandom(OCKContext ockContext, String algName) throws OCKException {
         this.ockContext = ockContext;
+        NativeContextEvent event = NativeContextEvent.start();
         this.ockPRNGContextId = NativeInterface.EXTRAND_create(ockContext.getId(), algName);
+        event.finish("Random", algName, ockContext);
+        ockContext.getStatistics().created(NativeStatistics.Handle.RANDOM, ockPRNGContextId);
     }
 
     public synchronized void nextBytes(byte[] bytes) throws OCKException {
@@ -56,6 +59,7 @@ public final class ExtendedRandom {
         try {
             if (ockPRNGContextId != 0) {
                 NativeInterface.EXTRAND_delete(ockContext.getId(), ockPRNGContextId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.RANDOM, ockPRNGContextId);
                 ockPRNGContextId = 0;
             }
         } finally {
@@ -0,0 +1,87 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.BadPaddingException;
+
+/**
+ * Creates the exceptions for the expected outcomes of decrypting input that
+ * cannot be trusted, a tag that does not match and padding that is not
+ * valid.
+ *
+ * <p>The native layer reports these outcomes as status codes. The exceptions
+ * are created without a stack trace, so that input forged on purpose costs
+ * little more to reject than to decrypt. Setting the property
+ * {@code com.ibm.crypto.provider.FailureStackTraces} to {@code true} fills in
+ * the stack traces again.
+ */
+@SuppressWarnings({"removal", "deprecation"})
+public final class FailureExceptions {
+
+    private static final String FAILURE_STACK_TRACES =
+            "com.ibm.crypto.provider.FailureStackTraces";
+
+    private static final boolean stackTraces;
+
+    static {
+        stackTraces = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            public Boolean run() {
+                return Boolean.parseBoolean(System.getProperty(FAILURE_STACK_TRACES, "false"));
+            }
+        });
+    }
+
+    private static final class TagMismatchException extends AEADBadTagException {
+
+        private static final long serialVersionUID = -6373829154640210461L;
+
+        TagMismatchException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return stackTraces ? super.fillInStackTrace() : this;
+        }
+    }
+
+    private static final class PaddingFailureException extends BadPaddingException {
+
+        private static final long serialVersionUID = 3318463407285927140L;
+
+        PaddingFailureException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return stackTraces ? super.fillInStackTrace() : this;
+        }
+    }
+
+    private FailureExceptions() {}
+
+    /**
+     * Returns a new exception for a tag that does not match.
+     */
+    public static AEADBadTagException tagMismatch(String message) {
+        return new TagMismatchException(message);
+    }
+
+    /**
+     * Returns a new exception for padding or an integrity check value that
+     * is not valid.
+     */
+    public static BadPaddingException badPadding(String message) {
+        return new PaddingFailureException(message);
+    }
+}
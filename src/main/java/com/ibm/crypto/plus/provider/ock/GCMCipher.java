@@ -25,7 +25,6 @@ public final class GCMCipher {
     private static final boolean disableGCMAcceleration;
     private static final String DISABLE_GCM_ACCELERATION = "com.ibm.crypto.provider.DisableGCMAcceleration";
     private static final String debPrefix = "GCMCipher";
-    private static long GCMHardwareFunctionPtr = 0;
 
     static final int parameterBlockSize = 80;
     static final int TAADLOffset = 48;
@@ -89,6 +88,9 @@ public final class GCMCipher {
     private static final ThreadLocal<GCMContextPointer> gcmContextBufferD32FIPS = new ThreadLocal<GCMContextPointer>() {};
     private static final boolean useJavaTLS = true;
 
+    // Return code of the native decrypt functions when the tag does not match
+    private static final int TAG_MISMATCH = 6;
+
     private static final Map<Integer, String> ErrorCodes;
     static {
         ErrorCodes = new HashMap<Integer, String>();
@@ -107,8 +109,9 @@ public final class GCMCipher {
         //        }
         //        useJavaTLS = (tls_support_result != 0);
     }
-    private static final int FastJNIInputBufferSize = 1024 * 2 * 2;
-    private static final int FastJNIOutputBufferSize = 1024 * 2 * 2 + 16; //Add Tag length for encryption
+    private static final int FastJNIInputBufferSize = TransferCalibration
+            .getThreshold(TransferCalibration.GCM);
+    private static final int FastJNIOutputBufferSize = FastJNIInputBufferSize + 16; //Add Tag length for encryption
     private static final int FastJNIParameterBufferSize = 1024;
 
     // AES-GCM constants in Bytes
@@ -194,22 +197,23 @@ public final class GCMCipher {
 
         long gcmCtx = getGCMContext(false, key.length, ockContext);
 
-        if (GCMHardwareFunctionPtr == 0)
-            GCMHardwareFunctionPtr = NativeInterface
-                    .do_GCM_checkHardwareGCMSupport(ockContext.getId());
-
+        boolean hardwareGCM = ockContext.getHardwareCapabilities().aesGCM;
 
         if (iv.length + key.length + aadLen <= FastJNIParameterBufferSize && !disableGCMAcceleration
-                && (inputLen <= FastJNIInputBufferSize || GCMHardwareFunctionPtr != -1)) {
+                && (inputLen <= FastJNIInputBufferSize || hardwareGCM)) {
             FastJNIBuffer parameters = GCMCipher.parameterBuffer.get();
             parameters.put(0, iv, 0, iv.length);
             parameters.put(iv.length, authenticationData, 0, aadLen);
 
-            if (GCMHardwareFunctionPtr != -1) { // hardware supports fast GCM command
+            if (hardwareGCM) { // hardware supports fast GCM command
+                ockContext.getStatistics().count(NativeStatistics.Counter.GCM_HARDWARE_PATH);
+                OperationTrace.record(OperationTrace.HARDWARE_PATH);
                 rc = useHardwareGCM(false, inputLen, iv.length, key.length, aadLen, tagLen, key,
                         input, inputOffset, output, outputOffset, parameters);
             } else {
 
+                ockContext.getStatistics().count(NativeStatistics.Counter.GCM_FAST_PATH);
+                OperationTrace.record(OperationTrace.FAST_PATH);
                 FastJNIBuffer outputBuffer = GCMCipher.outputBuffer.get();
                 FastJNIBuffer inputBuffer = GCMCipher.inputBuffer.get();
                 inputBuffer.put(0, input, inputOffset, inputLen);
@@ -223,14 +227,19 @@ public final class GCMCipher {
             }
 
             //OCKDebug.Msg (debPrefix, methodName, "RC = " + rc);
-            if (rc != 0) {
+            if (rc == TAG_MISMATCH) {
+                throw FailureExceptions.tagMismatch("Tag mismatch!");
+            } else if (rc != 0) {
                 throw new OCKException(ErrorCodes.get(rc));
             }
         } else {
+            ockContext.getStatistics().count(NativeStatistics.Counter.GCM_SLOW_PATH);
             rc = NativeInterface.do_GCM_decrypt(ockContext.getId(), gcmCtx, key, key.length, iv,
                     iv.length, input, inputOffset, inputLen - tagLen, output, outputOffset,
                     authenticationData, aadLen, tagLen);
-            if (rc != 0) {
+            if (rc == TAG_MISMATCH) {
+                throw FailureExceptions.tagMismatch("Tag mismatch!");
+            } else if (rc != 0) {
                 throw new OCKException(ErrorCodes.get(rc));
             }
         }
@@ -319,19 +328,21 @@ public final class GCMCipher {
 
         long gcmCtx = getGCMContext(true, key.length, ockContext);
 
-        if (GCMHardwareFunctionPtr == 0)
-            GCMHardwareFunctionPtr = NativeInterface
-                    .do_GCM_checkHardwareGCMSupport(ockContext.getId());
+        boolean hardwareGCM = ockContext.getHardwareCapabilities().aesGCM;
         if (iv.length + key.length + aadLen + tagLen <= FastJNIParameterBufferSize
-                && (inputLen <= FastJNIInputBufferSize || GCMHardwareFunctionPtr != -1)) {
+                && (inputLen <= FastJNIInputBufferSize || hardwareGCM)) {
             FastJNIBuffer parameters = GCMCipher.parameterBuffer.get();
             parameters.put(0, iv, 0, ivLen);
             parameters.put(ivLen, authenticationData, 0, aadLen);
 
-            if (GCMHardwareFunctionPtr != -1) { // hardware supports fast GCM command
+            if (hardwareGCM) { // hardware supports fast GCM command
+                ockContext.getStatistics().count(NativeStatistics.Counter.GCM_HARDWARE_PATH);
+                OperationTrace.record(OperationTrace.HARDWARE_PATH);
                 rc = useHardwareGCM(true, inputLen, ivLen, keyLen, aadLen, tagLen, key, input,
                         inputOffset, output, outputOffset, parameters);
             } else {
+                ockContext.getStatistics().count(NativeStatistics.Counter.GCM_FAST_PATH);
+                OperationTrace.record(OperationTrace.FAST_PATH);
                 FastJNIBuffer outputBuffer = GCMCipher.outputBuffer.get();
                 FastJNIBuffer inputBuffer = GCMCipher.inputBuffer.get();
                 inputBuffer.put(0, input, inputOffset, inputLen);
@@ -354,6 +365,7 @@ public final class GCMCipher {
 
             //OCKDebug.Msg (debPrefix, methodName,   "key.length :" + key.length + " iv.length :" + iv.length + " inputOffset :" + inputOffset);
             //OCKDebug.Msg (debPrefix, methodName," inputLen :" + inputLen + " aadLen :" + aadLen + " tagLen " + tagLen);
+            ockContext.getStatistics().count(NativeStatistics.Counter.GCM_SLOW_PATH);
             rc = NativeInterface.do_GCM_encrypt(ockContext.getId(), gcmCtx, key, key.length, iv,
                     iv.length, input, inputOffset, inputLen, output, outputOffset,
                     authenticationData, aadLen, tag, tagLen);
@@ -438,7 +450,9 @@ public final class GCMCipher {
 
         //OCKDebug.Msg (debPrefix, methodName, "After calling do_GCM_FinalForUpdateDecrypt gcmUpdateOutlen ="  + String.valueOf(gcmUpdateOutlen.getValue()));
         //OCKDebug.Msg (debPrefix, methodName, "Decrypted text from do_GCM_FinalForUpdateDecrypt = ",  output);
-        if (rc != 0) {
+        if (rc == TAG_MISMATCH) {
+            throw FailureExceptions.tagMismatch("Tag mismatch!");
+        } else if (rc != 0) {
             throw new OCKException(ErrorCodes.get(rc));
         }
         
@@ -890,9 +904,17 @@ public final class GCMCipher {
                     break;
             }
             gcmCtx = gcmCtxBuffer.get();
-            if (gcmCtx == null) {
-                gcmCtx = new GCMContextPointer(ockContext.getId());
+            // A GCM context is only used with the OCK context that created it,
+            // the one of another OCK context is left to its finalizer.
+            if ((gcmCtx == null) || (gcmCtx.ockContext != ockContext.getId())) {
+                NativeContextEvent event = NativeContextEvent.start();
+                ockContext.getStatistics().count(NativeStatistics.Counter.GCM_CONTEXT_CACHE_MISS);
+                gcmCtx = new GCMContextPointer(ockContext);
+                event.finish("GCM", "AES-" + (keyLength * 8) + "-GCM", ockContext);
                 gcmCtxBuffer.set(gcmCtx);
+            } else {
+                ockContext.getStatistics().count(NativeStatistics.Counter.GCM_CONTEXT_CACHE_HIT);
+                OperationTrace.record(OperationTrace.CONTEXT_CACHE_HIT);
             }
             return gcmCtx.getCtx();
         } else {
@@ -1004,7 +1026,7 @@ public final class GCMCipher {
                     inputLen, 0, aadLen, tagLen, parameters.pointer(), input, inputOffset, output,
                     outputOffset);
             if (rc == -1)
-                throw new AEADBadTagException("Tag mismatch!");
+                throw FailureExceptions.tagMismatch("Tag mismatch!");
         }
         return rc;
     }
@@ -1035,10 +1057,13 @@ public final class GCMCipher {
     static class GCMContextPointer {
         long gcmCtx = 0;
         long ockContext = 0;
+        NativeStatistics statistics;
 
-        GCMContextPointer(long ockContext) throws OCKException {
-            this.gcmCtx = NativeInterface.create_GCM_context(ockContext);
-            this.ockContext = ockContext;
+        GCMContextPointer(OCKContext ockContext) throws OCKException {
+            this.gcmCtx = NativeInterface.create_GCM_context(ockContext.getId());
+            this.ockContext = ockContext.getId();
+            this.statistics = ockContext.getStatistics();
+            statistics.created(NativeStatistics.Handle.GCM_CONTEXT, gcmCtx);
         }
 
         @Override
@@ -1046,6 +1071,7 @@ public final class GCMCipher {
             try {
                 if (gcmCtx != 0) {
                     NativeInterface.free_GCM_ctx(ockContext, gcmCtx);
+                    statistics.freed(NativeStatistics.Handle.GCM_CONTEXT, gcmCtx);
                     gcmCtx = 0;
                 }
             } finally {
@@ -34,7 +34,10 @@ public final class HKDF {
     private HKDF(OCKContext ockContext, String digestAlgo) throws OCKException {
         //final String methodName = "HKDF (ockContext, String)";
         this.ockContext = ockContext;
+        NativeContextEvent event = NativeContextEvent.start();
         this.hkdfId = NativeInterface.HKDF_create(ockContext.getId(), digestAlgo);
+        event.finish("HKDF", digestAlgo, ockContext);
+        ockContext.getStatistics().created(NativeStatistics.Handle.HKDF, hkdfId);
         //OCKDebug.Msg (debPrefix, methodName,  "this.hkdfId :" + this.hkdfId );
     }
 
@@ -111,6 +114,7 @@ public final class HKDF {
         try {
             if (hkdfId != 0) {
                 NativeInterface.HKDF_delete(ockContext.getId(), hkdfId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.HKDF, hkdfId);
                 hkdfId = 0;
             }
         } finally {
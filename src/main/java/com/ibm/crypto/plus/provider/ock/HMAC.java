@@ -44,7 +44,10 @@ public final class HMAC {
     private HMAC(OCKContext ockContext, String digestAlgo) throws OCKException {
         //final String methodName = "HMAC (String)";
         this.ockContext = ockContext;
+        NativeContextEvent event = NativeContextEvent.start();
         this.hmacId = NativeInterface.HMAC_create(ockContext.getId(), digestAlgo);
+        event.finish("HMAC", digestAlgo, ockContext);
+        ockContext.getStatistics().created(NativeStatistics.Handle.HMAC, hmacId);
         //OCKDebug.Msg (debPrefix, methodName,  "this.hmacId :" + this.hmacId + " digestAlgo :" + digestAlgo);
     }
 
@@ -151,6 +154,7 @@ public final class HMAC {
         try {
             if (hmacId != 0) {
                 NativeInterface.HMAC_delete(ockContext.getId(), hmacId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.HMAC, hmacId);
                 hmacId = 0;
             }
         } finally {
@@ -0,0 +1,81 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The hardware acceleration that the native layer drives directly, probed
+ * once when an OCK context is created. On IBM Z these are the CPACF
+ * functions for AES/CBC (KMC), AES/GCM (KMA) and AES/CCM. Acceleration that
+ * OCK uses by itself, such as that of the SHA digests, is not probed here.
+ *
+ * <p>Instances are immutable and reached through a final field of their
+ * context, so that the hot paths read them without synchronization.
+ */
+public final class HardwareCapabilities {
+
+    final boolean aesCBC;
+    final boolean aesGCM;
+    final boolean aesCCM;
+
+    private HardwareCapabilities(boolean aesCBC, boolean aesGCM, boolean aesCCM) {
+        this.aesCBC = aesCBC;
+        this.aesGCM = aesGCM;
+        this.aesCCM = aesCCM;
+    }
+
+    // Besides reporting support, the GCM and CCM probes set the native
+    // function pointers that the hardware paths of those modes call, which
+    // are shared by all contexts.
+    //
+    static HardwareCapabilities probe(long ockContextId) {
+        return new HardwareCapabilities(NativeInterface.checkHardwareSupport(ockContextId) == 1,
+                NativeInterface.do_GCM_checkHardwareGCMSupport(ockContextId) != -1,
+                NativeInterface.do_CCM_checkHardwareCCMSupport(ockContextId) != -1);
+    }
+
+    /**
+     * Returns whether AES/CBC can be run by the hardware.
+     */
+    public boolean isAESCBCAccelerated() {
+        return aesCBC;
+    }
+
+    /**
+     * Returns whether AES/GCM can be run by the hardware.
+     */
+    public boolean isAESGCMAccelerated() {
+        return aesGCM;
+    }
+
+    /**
+     * Returns whether AES/CCM can be run by the hardware. The provider does
+     * not use it currently.
+     */
+    public boolean isAESCCMAccelerated() {
+        return aesCCM;
+    }
+
+    /**
+     * Returns the capabilities keyed by name, such as {@code AES_GCM}.
+     */
+    public Map<String, Boolean> toMap() {
+        Map<String, Boolean> values = new TreeMap<String, Boolean>();
+        values.put("AES_CBC", aesCBC);
+        values.put("AES_GCM", aesGCM);
+        values.put("AES_CCM", aesCCM);
+        return values;
+    }
+
+    public String toString() {
+        return "HardwareCapabilities " + toMap();
+    }
+}
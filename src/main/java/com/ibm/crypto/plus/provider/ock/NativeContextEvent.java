@@ -0,0 +1,53 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+/**
+ * Reports the creation of a native context as a
+ * {@link NativeContextJFREvent} while that event is enabled. While it is
+ * disabled, or the runtime has no {@code jdk.jfr} module, nothing is
+ * allocated.
+ */
+final class NativeContextEvent {
+
+    // Returned by start while the event is disabled.
+    //
+    private static final NativeContextEvent NOT_RECORDED = new NativeContextEvent(null);
+
+    private final NativeContextJFREvent event;
+
+    private NativeContextEvent(NativeContextJFREvent event) {
+        this.event = event;
+    }
+
+    /**
+     * Returns an event timing the creation of a context, the creation must be
+     * followed by {@link #finish(String, String, OCKContext)}.
+     */
+    static NativeContextEvent start() {
+        if (!OperationTrace.JFR_AVAILABLE || !NativeContextJFREvent.enabled()) {
+            return NOT_RECORDED;
+        }
+        NativeContextJFREvent event = new NativeContextJFREvent();
+        event.begin();
+        return new NativeContextEvent(event);
+    }
+
+    void finish(String contextType, String algorithm, OCKContext ockContext) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.contextType = contextType;
+                event.algorithm = algorithm;
+                event.fips = (ockContext != null) && ockContext.isFIPS();
+                event.commit();
+            }
+        }
+    }
+}
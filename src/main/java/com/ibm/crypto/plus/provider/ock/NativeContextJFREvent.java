@@ -0,0 +1,50 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the creation of a native context. It is disabled by default
+ * and is enabled in a recording by its name, for example with
+ * {@code recording.enable("com.ibm.crypto.plus.NativeContext")}. It is only
+ * created through {@link NativeContextEvent}.
+ */
+@Name("com.ibm.crypto.plus.NativeContext")
+@Label("Native Context Creation")
+@Category({"Security", "OpenJCEPlus"})
+@Description("Creation of a native OCK context")
+@Enabled(false)
+@StackTrace(false)
+final class NativeContextJFREvent extends Event {
+
+    // Checks whether the event is enabled without creating an event.
+    //
+    private static final NativeContextJFREvent PROBE = new NativeContextJFREvent();
+
+    @Label("Context Type")
+    @Description("The kind of native context, such as Digest or Cipher")
+    String contextType;
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("FIPS")
+    boolean fips;
+
+    static boolean enabled() {
+        return PROBE.isEnabled();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import sun.security.util.Debug;
+
+/**
+ * Records every native handle created and freed while tracking, to find
+ * handles that are never freed. Tracking is off unless the system property
+ * {@value #TRACK} is {@code true}, or until {@link #start()} is called, for
+ * example by a test. When tracking is turned on by the property, the handles
+ * still live when the JVM shuts down are reported in the provider's debug
+ * output, enabled with {@code -Djava.security.debug=jceplus}.
+ *
+ * <p>The allocation site, the first calling frames outside this package, is
+ * recorded for one in every {@value #SAMPLE_INTERVAL} handles, 10 unless
+ * set, so that tracking a busy application stays affordable. A value of 1
+ * records the site of every handle.
+ *
+ * <p>Only handles created while tracking are recorded. Most handles are
+ * freed by the finalizer of the object owning them, so a live count is only
+ * meaningful after those objects were collected and finalized.
+ */
+@SuppressWarnings({"removal", "deprecation"})
+public final class NativeHandleTracker {
+
+    static final String TRACK = "com.ibm.crypto.provider.TrackNativeHandles";
+    static final String SAMPLE_INTERVAL = "com.ibm.crypto.provider.TrackNativeHandlesSampleInterval";
+
+    private static final Debug debug = Debug.getInstance("jceplus");
+
+    private static final String NOT_SAMPLED = "(site not sampled)";
+
+    // Number of frames recorded for an allocation site.
+    //
+    private static final int SITE_DEPTH = 6;
+
+    // Checked by NativeStatistics before calling into the tracker, so that
+    // nothing but a volatile read is done while not tracking.
+    //
+    static volatile boolean tracking = false;
+
+    private static final int sampleInterval;
+
+    private static final AtomicLong creations = new AtomicLong();
+
+    // Live handles of every type, keyed by native id with the allocation
+    // site as value.
+    //
+    private static final List<ConcurrentHashMap<Long, String>> live = new ArrayList<ConcurrentHashMap<Long, String>>();
+
+    static {
+        for (int i = 0; i < NativeStatistics.Handle.values().length; i++) {
+            live.add(new ConcurrentHashMap<Long, String>());
+        }
+
+        String[] settings = AccessController.doPrivileged(new PrivilegedAction<String[]>() {
+            public String[] run() {
+                return new String[] {System.getProperty(TRACK),
+                        System.getProperty(SAMPLE_INTERVAL)};
+            }
+        });
+
+        int interval = 10;
+        try {
+            if (settings[1] != null) {
+                interval = Math.max(1, Integer.parseInt(settings[1].trim()));
+            }
+        } catch (NumberFormatException e) {
+            // Keep the default.
+        }
+        sampleInterval = interval;
+
+        if (Boolean.parseBoolean(settings[0])) {
+            tracking = true;
+        }
+        if (tracking && (debug != null)) {
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        debug.println("Native handles live at shutdown:");
+                        for (String line : report().split("\n")) {
+                            debug.println(line);
+                        }
+                    }, "OpenJCEPlus native handle report"));
+                    return null;
+                }
+            });
+        }
+    }
+
+    private NativeHandleTracker() {}
+
+    /**
+     * Starts tracking, forgetting all handles recorded before.
+     */
+    public static void start() {
+        for (ConcurrentHashMap<Long, String> handles : live) {
+            handles.clear();
+        }
+        tracking = true;
+    }
+
+    /**
+     * Stops tracking. The handles recorded so far are kept for reporting.
+     */
+    public static void stop() {
+        tracking = false;
+    }
+
+    public static boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * Returns the number of recorded handles of the type that were not freed.
+     */
+    public static long getLive(NativeStatistics.Handle handle) {
+        return live.get(handle.ordinal()).size();
+    }
+
+    /**
+     * Returns the number of recorded handles of all types that were not freed.
+     */
+    public static long getLiveTotal() {
+        long total = 0;
+        for (ConcurrentHashMap<Long, String> handles : live) {
+            total += handles.size();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of recorded handles that were not freed by type,
+     * leaving out types without any.
+     */
+    public static Map<NativeStatistics.Handle, Long> getLiveCounts() {
+        Map<NativeStatistics.Handle, Long> counts = new EnumMap<NativeStatistics.Handle, Long>(
+                NativeStatistics.Handle.class);
+        for (NativeStatistics.Handle handle : NativeStatistics.Handle.values()) {
+            long count = getLive(handle);
+            if (count != 0) {
+                counts.put(handle, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns a report of the recorded handles that were not freed, by type
+     * and by allocation site with the most frequent site first.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (NativeStatistics.Handle handle : NativeStatistics.Handle.values()) {
+            ConcurrentHashMap<Long, String> handles = live.get(handle.ordinal());
+            if (handles.isEmpty()) {
+                continue;
+            }
+            Map<String, Long> sites = new HashMap<String, Long>();
+            for (String site : handles.values()) {
+                sites.merge(site, 1L, Long::sum);
+            }
+            report.append(handle).append(": ").append(handles.size()).append(" live\n");
+            sites.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(site -> report.append("  ").append(site.getValue()).append(" at ")
+                            .append(site.getKey()).append('\n'));
+        }
+        if (report.length() == 0) {
+            report.append("No live native handles recorded\n");
+        }
+        return report.toString();
+    }
+
+    static void created(NativeStatistics.Handle handle, long id) {
+        if (id == 0) {
+            return;
+        }
+        String site = ((creations.incrementAndGet() % sampleInterval) == 0) ? site()
+                : NOT_SAMPLED;
+        live.get(handle.ordinal()).put(id, site);
+    }
+
+    static void freed(NativeStatistics.Handle handle, long id) {
+        live.get(handle.ordinal()).remove(id);
+    }
+
+    private static String site() {
+        String ockPackage = NativeHandleTracker.class.getPackageName() + ".";
+        String site = StackWalker.getInstance().walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().startsWith(ockPackage))
+                .limit(SITE_DEPTH)
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":"
+                        + frame.getLineNumber())
+                .collect(Collectors.joining(" < ")));
+        return site.isEmpty() ? "(unknown site)" : site;
+    }
+}
@@ -308,6 +308,11 @@ final class NativeInterface {
 
     static native long getByteBufferPointer(ByteBuffer b);
 
+    static native void TRANSFER_calibrateDirect(long inputPointer, long outputPointer, int len);
+
+    static native void TRANSFER_calibrateCritical(byte[] input, byte[] output, int len,
+            byte[] parameters, int extraPins);
+
     // =========================================================================
     // Basic random number generator functions
     // =========================================================================
@@ -371,6 +376,10 @@ final class NativeInterface {
             byte[] ciphertext, int cipherOffset, int cipherLen, byte[] plaintext,
             int plaintextOffset, boolean needsReinit) throws OCKException;
 
+    static public native int CIPHER_keyWrap(long ockContextId, long ockCipherId, int isWrap,
+            int isPadded, byte[] key, byte[] icv, byte[] input, int inputOffset, int inputLen,
+            byte[] output, int outputOffset) throws OCKException;
+
     static public native long checkHardwareSupport(long ockContextId);
 
     static public native void CIPHER_delete(long ockContextId, long ockCipherId)
@@ -415,10 +424,19 @@ final class NativeInterface {
             byte[] input, int inOffset, int inLen, byte[] ciphertext, int ciphertextOffset,
             byte[] tag) throws OCKException;
 
+    // Returns FAIL_CIPHER_INTERNAL_DECRYPTFINAL (-4) if the tag does not match.
     static public native int POLY1305CIPHER_decryptFinal(long ockContextId, long ockCipherId,
             byte[] ciphertext, int cipherOffset, int cipherLen, byte[] plaintext,
             int plaintextOffset, byte[] tag) throws OCKException;
 
+    static public native int POLY1305CIPHER_encryptFastJNI(long ockContextId, long ockCipherId,
+            int keyLen, int ivLen, int aadLen, int plaintextLen, long parameterBuffer,
+            long inputBuffer, long outputBuffer) throws OCKException;
+
+    static public native int POLY1305CIPHER_decryptFastJNI(long ockContextId, long ockCipherId,
+            int keyLen, int ivLen, int aadLen, int ciphertextLen, long parameterBuffer,
+            long inputBuffer, long outputBuffer) throws OCKException;
+
     static public native void POLY1305CIPHER_delete(long ockContextId, long ockCipherId)
             throws OCKException;
 
@@ -527,6 +545,18 @@ final class NativeInterface {
 
     static public native void do_CCM_delete(long ockContextId) throws OCKException;
 
+    static public native long do_CCM_streamCreate(long ockContextId, byte[] key, byte[] iv,
+            byte[] aad, long payloadLen, int tagLen) throws OCKException;
+
+    static public native int do_CCM_streamUpdate(long ockContextId, long streamId, byte[] input,
+            int inputOffset, int inputLen, byte[] output, int outputOffset) throws OCKException;
+
+    static public native int do_CCM_streamFinal(long ockContextId, long streamId, byte[] tag,
+            int tagOffset) throws OCKException;
+
+    static public native void do_CCM_streamDelete(long ockContextId, long streamId)
+            throws OCKException;
+
     // =========================================================================
     // RSA cipher functions
     // =========================================================================
@@ -651,6 +681,9 @@ final class NativeInterface {
     static public native long DIGEST_copy(long id, long digestId)
             throws OCKException;
 
+    static public native void DIGEST_copyInto(long ockContextId, long digestId,
+            long targetDigestId) throws OCKException;
+
     static public native int DIGEST_update(long ockContextId, long digestId, byte[] input,
             int offset, int length) throws OCKException;
 
@@ -665,6 +698,16 @@ final class NativeInterface {
     static public native int DIGEST_digest_and_reset(long ockContextId, long digestId,
             byte[] output) throws OCKException;
 
+    static public native int DIGEST_digestOneShotFastJNI(long ockContextId, long digestId,
+            long buffer, int length) throws OCKException;
+
+    static public native int DIGEST_snapshotFastJNI(long ockContextId, long digestId,
+            long scratchDigestId, long buffer) throws OCKException;
+
+    static public native void DIGEST_digestBatch(long ockContextId, long digestId,
+            byte[][] buffers, int[] offsets, int[] lengths, byte[] output, int outputOffset)
+            throws OCKException;
+
     static public native int DIGEST_size(long ockContextId, long digestId) throws OCKException;
 
     static public native void DIGEST_reset(long ockContextId, long digestId) throws OCKException;
@@ -682,10 +725,13 @@ final class NativeInterface {
             byte[] sigBytes) throws OCKException;
 
     static public native byte[] SIGNATUREEdDSA_signOneShot(long ockContextId, long pkeyId,
-            byte[] bytes) throws OCKException;
+            byte[] bytes, int offset, int length) throws OCKException;
 
     static public native boolean SIGNATUREEdDSA_verifyOneShot(long ockContextId, long pkeyId,
-            byte[] sigBytes, byte[] oneShot) throws OCKException;
+            byte[] sigBytes, byte[] oneShot, int offset, int length) throws OCKException;
+
+    static public native void SIGNATUREEdDSA_verifyBatch(long ockContextId, long[] pkeyIds,
+            byte[][] sigBytes, byte[][] data, long[] results) throws OCKException;
 
     // =========================================================================
     // RSAPSSSignature functions
@@ -711,6 +757,9 @@ final class NativeInterface {
     static public native void RSAPSS_releaseContext(long ockContextId, long rsaPssId)
             throws OCKException;
 
+    static public native void RSAPSS_resetContext(long ockContextId, long rsaPssId)
+            throws OCKException;
+
     static public native void RSAPSS_digestUpdate(long ockContextId, long rsaPssId, byte[] input,
             int offset, int length) throws OCKException;
 
@@ -785,6 +834,12 @@ final class NativeInterface {
     static public native long ECKEY_createPublicKey(long ockContextId, byte[] publicKeyBytes,
             byte[] parameterBytes) throws OCKException;
 
+    static public native long ECKEY_createPrivateKeyFromScalar(long ockContextId, String curveOid,
+            byte[] scalarBytes) throws OCKException;
+
+    static public native long ECKEY_createPublicKeyFromPoint(long ockContextId, String curveOid,
+            byte[] pointBytes) throws OCKException;
+
     static public native long XECKEY_createPublicKey(long ockContextId, byte[] publicKeyBytes)
             throws OCKException;
 
@@ -826,6 +881,10 @@ final class NativeInterface {
             int digestBytesLen, byte[] sigBytes, int sigBytesLen, long ecPublicKeyId)
             throws OCKException;
 
+    static public native void ECKEY_verifyBatchWithECDSA(long ockContextId, String digestAlgo,
+            long[] ecPublicKeyIds, byte[][] data, byte[][] sigBytes, long[] results)
+            throws OCKException;
+
 
     // =========================================================================
     // HKDF functions
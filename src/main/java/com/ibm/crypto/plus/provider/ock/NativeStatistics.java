@@ -0,0 +1,131 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the native handles of an {@link OCKContext} and how often its
+ * caches and transfer paths are used. A handle is live from its creation
+ * until it is freed, which for keys and most contexts happens when the
+ * object owning it is finalized.
+ *
+ * <p>The number of live handles of each type is kept in an {@link AtomicLong}
+ * and its high-water mark is raised, when needed, by the creation that
+ * reached it, so that no peak is missed. All other counts are kept in
+ * {@link LongAdder}s, so updating them from many threads does not contend.
+ *
+ * <p>Creations and frees are also passed to the {@link NativeHandleTracker}
+ * while it is tracking.
+ */
+public final class NativeStatistics {
+
+    /** The types of native handles that are counted. */
+    public enum Handle {
+        DIGEST, CIPHER, GCM_CONTEXT, POLY1305_CIPHER, HMAC, HKDF, RSAPSS_CONTEXT, RANDOM,
+        RSA_KEY, EC_KEY, XEC_KEY, DH_KEY, DSA_KEY, PKEY
+    }
+
+    /** The cache and transfer path events that are counted. */
+    public enum Counter {
+        DIGEST_CACHE_HIT, DIGEST_CACHE_MISS, GCM_CONTEXT_CACHE_HIT, GCM_CONTEXT_CACHE_MISS,
+        RSAPSS_CONTEXT_CACHE_HIT, RSAPSS_CONTEXT_CACHE_MISS,
+        GCM_FAST_PATH, GCM_HARDWARE_PATH, GCM_SLOW_PATH,
+        CCM_FAST_PATH, CCM_HARDWARE_PATH, CCM_SLOW_PATH
+    }
+
+    private final LongAdder[] created = newAdders(Handle.values().length);
+    private final AtomicLong[] live = new AtomicLong[Handle.values().length];
+    private final AtomicLong[] highWater = new AtomicLong[Handle.values().length];
+    private final LongAdder[] counters = newAdders(Counter.values().length);
+
+    NativeStatistics() {
+        for (int i = 0; i < highWater.length; i++) {
+            live[i] = new AtomicLong();
+            highWater[i] = new AtomicLong();
+        }
+    }
+
+    void created(Handle handle, long id) {
+        if (NativeHandleTracker.tracking) {
+            NativeHandleTracker.created(handle, id);
+        }
+        int i = handle.ordinal();
+        created[i].increment();
+        long liveCount = live[i].incrementAndGet();
+        if (liveCount > highWater[i].get()) {
+            highWater[i].accumulateAndGet(liveCount, Math::max);
+        }
+    }
+
+    void freed(Handle handle, long id) {
+        if (NativeHandleTracker.tracking) {
+            NativeHandleTracker.freed(handle, id);
+        }
+        live[handle.ordinal()].decrementAndGet();
+    }
+
+    void count(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * Returns the number of handles of the type that were created and not
+     * freed yet.
+     */
+    public long getLive(Handle handle) {
+        return live[handle.ordinal()].get();
+    }
+
+    /**
+     * Returns the largest number of handles of the type that were live at
+     * the same time so far.
+     */
+    public long getHighWater(Handle handle) {
+        return highWater[handle.ordinal()].get();
+    }
+
+    /**
+     * Returns the number of handles of the type created so far.
+     */
+    public long getCreated(Handle handle) {
+        return created[handle.ordinal()].sum();
+    }
+
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of cached SHA digest contexts that are currently
+     * idle and the number of contexts the cache holds in total, whether idle
+     * or in use, summed over the caches of all OCK contexts.
+     */
+    public static long[] getDigestCacheSizes() {
+        return Digest.getCacheSizes();
+    }
+
+    /**
+     * Returns the number of cached RSA-PSS contexts that are currently idle
+     * and the number of contexts the cache holds in total, whether idle or
+     * in use.
+     */
+    public static long[] getRSAPSSCacheSizes() {
+        return SignatureRSAPSS.getCacheSizes();
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright IBM Corp. 2023
+ * Copyright IBM Corp. 2023, 2024
  *
  * Licensed under the Apache License 2.0 (the "License").  You may not use
  * this file except in compliance with the License.  You can obtain a copy
@@ -8,6 +8,10 @@
 
 package com.ibm.crypto.plus.provider.ock;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+@SuppressWarnings({"removal", "deprecation"})
 public final class OCKContext {
     // These code values must match those defined in Context.h.
     //
@@ -27,17 +31,79 @@ public final class OCKContext {
     // whether to validate OCK version of load library matches version in ICCSIG.txt
     private static final boolean validateOCKVersion = false;
 
+    // Number of contexts a provider creates and spreads its threads over.
+    // A single context is shared by all threads unless this is set.
+    //
+    private static final String CONTEXT_SHARDS = "com.ibm.crypto.provider.OCKContextShards";
+
+    private static final int MAX_CONTEXT_SHARDS = 256;
+
+    private static final int contextShards;
+
+    static {
+        contextShards = AccessController.doPrivileged(new PrivilegedAction<Integer>() {
+            public Integer run() {
+                try {
+                    int shards = Integer.parseInt(System.getProperty(CONTEXT_SHARDS, "1"));
+                    return Math.max(1, Math.min(shards, MAX_CONTEXT_SHARDS));
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        });
+    }
+
     private long ockContextId;
     private boolean isFIPS;
     private String ockVersion = unobtainedValue;
     private String ockInstallPath = unobtainedValue;
+    private final NativeStatistics statistics;
+    private final HardwareCapabilities hardwareCapabilities;
 
     private static String libraryBuildDate = unobtainedValue;
 
     public static OCKContext createContext(boolean isFIPS) throws OCKException {
+        return createContext(isFIPS, new NativeStatistics());
+    }
+
+    /**
+     * Creates the contexts of a provider, as many as the property
+     * {@code com.ibm.crypto.provider.OCKContextShards} asks for and a single
+     * one by default. The contexts share one {@link NativeStatistics}, so
+     * that the statistics of the provider do not depend on their number.
+     */
+    public static OCKContext[] createContexts(boolean isFIPS) throws OCKException {
+        OCKContext[] contexts = new OCKContext[contextShards];
+        contexts[0] = createContext(isFIPS);
+        for (int i = 1; i < contexts.length; i++) {
+            contexts[i] = createContext(isFIPS, contexts[0].statistics);
+        }
+        return contexts;
+    }
+
+    /**
+     * Returns the context of the current thread, chosen by the thread's id,
+     * so that threads are striped over the contexts. An object keeps the
+     * context it was created with, whichever thread uses it later. Only
+     * objects that are never used together with objects of another context,
+     * as keys are with the engines that use them, may be created with the
+     * selected context; everything else uses {@code contexts[0]}.
+     */
+    public static OCKContext select(OCKContext[] contexts) {
+        if (contexts.length == 1) {
+            return contexts[0];
+        }
+        return contexts[(int) (Thread.currentThread().threadId() % contexts.length)];
+    }
+
+    private static OCKContext createContext(boolean isFIPS, NativeStatistics statistics)
+            throws OCKException {
+        NativeContextEvent event = NativeContextEvent.start();
         long ockContextId = NativeInterface.initializeOCK(isFIPS);
 
-        OCKContext context = new OCKContext(ockContextId, isFIPS);
+        OCKContext context = new OCKContext(ockContextId, isFIPS, statistics,
+                HardwareCapabilities.probe(ockContextId));
+        event.finish("ICC", null, context);
 
         if (validateOCKLocation) {
             NativeInterface.validateLibraryLocation(context);
@@ -50,9 +116,12 @@ public final class OCKContext {
         return context;
     }
 
-    private OCKContext(long ockContextId, boolean isFIPS) {
+    private OCKContext(long ockContextId, boolean isFIPS, NativeStatistics statistics,
+            HardwareCapabilities hardwareCapabilities) {
         this.ockContextId = ockContextId;
         this.isFIPS = isFIPS;
+        this.statistics = statistics;
+        this.hardwareCapabilities = hardwareCapabilities;
     }
 
     public long getId() {
@@ -63,6 +132,17 @@ public final class OCKContext {
         return isFIPS;
     }
 
+    public NativeStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the hardware acceleration probed when the context was created.
+     */
+    public HardwareCapabilities getHardwareCapabilities() {
+        return hardwareCapabilities;
+    }
+
     public String getOCKVersion() throws OCKException {
         if (ockVersion == unobtainedValue) {
             obtainOCKVersion();
@@ -0,0 +1,93 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects which optimized paths the native layer took for the operation in
+ * progress on the current thread, for the provider's JFR events.
+ *
+ * <p>Collecting is started by {@link #begin()} only while such an event is
+ * enabled. Until then {@link #record(int)} reads a single static field.
+ */
+public final class OperationTrace {
+
+    /** Input and output were copied through direct FastJNI buffers. */
+    public static final int FAST_PATH = 0x1;
+
+    /** A hardware accelerated native function was used. */
+    public static final int HARDWARE_PATH = 0x2;
+
+    /** A cached native context was reused instead of creating one. */
+    public static final int CONTEXT_CACHE_HIT = 0x4;
+
+    /**
+     * Whether the runtime has the {@code jdk.jfr} module. The provider's JFR
+     * event classes are only loaded if it does.
+     */
+    public static final boolean JFR_AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr")
+            .isPresent();
+
+    // Number of threads collecting, so that record is a no-op when none is.
+    //
+    private static final AtomicInteger collecting = new AtomicInteger();
+
+    // Per thread flag whether an operation is traced and its paths so far.
+    //
+    private static final ThreadLocal<int[]> trace = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[2];
+        }
+    };
+
+    private OperationTrace() {}
+
+    /**
+     * Starts collecting the paths of an operation on the current thread.
+     * Returns false, without starting, if an operation is already traced on
+     * the thread, for example when an engine's doFinal calls another of its
+     * doFinal methods, so that only the outermost operation is reported.
+     */
+    public static boolean begin() {
+        int[] current = trace.get();
+        if (current[0] != 0) {
+            return false;
+        }
+        current[0] = 1;
+        current[1] = 0;
+        collecting.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Stops collecting on the current thread and returns the paths recorded
+     * since {@link #begin()}, a combination of {@link #FAST_PATH},
+     * {@link #HARDWARE_PATH} and {@link #CONTEXT_CACHE_HIT}.
+     */
+    public static int end() {
+        int[] current = trace.get();
+        if (current[0] == 0) {
+            return 0;
+        }
+        current[0] = 0;
+        collecting.decrementAndGet();
+        return current[1];
+    }
+
+    static void record(int path) {
+        if (collecting.get() != 0) {
+            int[] current = trace.get();
+            if (current[0] != 0) {
+                current[1] |= path;
+            }
+        }
+    }
+}
@@ -9,14 +9,74 @@
 package com.ibm.crypto.plus.provider.ock;
 
 import com.ibm.crypto.plus.provider.Poly1305Constants;
-import java.io.ByteArrayOutputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.AEADBadTagException;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.ShortBufferException;
 
+@SuppressWarnings({"removal", "deprecation"})
 public final class Poly1305Cipher implements Poly1305Constants {
 
+    private static final boolean disablePoly1305Acceleration;
+    private static final String DISABLE_POLY1305_ACCELERATION = "com.ibm.crypto.provider.DisableChaCha20Poly1305Acceleration";
+
+    static {
+        disablePoly1305Acceleration = AccessController
+                .doPrivileged(new PrivilegedAction<Boolean>() {
+                    public Boolean run() {
+                        return ("true".equalsIgnoreCase(
+                                System.getProperty(DISABLE_POLY1305_ACCELERATION, "false")));
+                    }
+                });
+    }
+
+    // Buffer to pass one-shot input to native
+    private static final ThreadLocal<FastJNIBuffer> inputBuffer = new ThreadLocal<FastJNIBuffer>() {
+        @Override
+        protected FastJNIBuffer initialValue() {
+            return FastJNIBuffer.create(FastJNIInputBufferSize);
+        }
+    };
+
+    // Buffer to get one-shot output from native
+    private static final ThreadLocal<FastJNIBuffer> outputBuffer = new ThreadLocal<FastJNIBuffer>() {
+        @Override
+        protected FastJNIBuffer initialValue() {
+            return FastJNIBuffer.create(FastJNIOutputBufferSize);
+        }
+    };
+
+    // Buffer to pass nonce, AAD, key and to pass/get the tag
+    private static final ThreadLocal<FastJNIBuffer> parameterBuffer = new ThreadLocal<FastJNIBuffer>() {
+        @Override
+        protected FastJNIBuffer initialValue() {
+            return FastJNIBuffer.create(FastJNIParameterBufferSize);
+        }
+    };
+
+    private static final int TAG_MISMATCH = 6;
+
+    private static final Map<Integer, String> ErrorCodes;
+    static {
+        ErrorCodes = new HashMap<Integer, String>();
+        ErrorCodes.put(1, "ICC_EVP_Encrypt/DecryptInit failed");
+        ErrorCodes.put(2, "ICC_EVP_Encrypt/DecryptUpdate failed on AAD");
+        ErrorCodes.put(3, "ICC_EVP_Encrypt/DecryptUpdate failed");
+        ErrorCodes.put(4, "ICC_EVP_EncryptFinal failed");
+        ErrorCodes.put(5, "ICC_EVP_CIPHER_CTX_ctrl failed on tag");
+        ErrorCodes.put(6, "ICC_EVP_DecryptFinal failed: Tag Mismatch!");
+    }
+
+    private static final int FastJNIInputBufferSize = TransferCalibration
+            .getThreshold(TransferCalibration.CHACHA20_POLY1305);
+    private static final int FastJNIOutputBufferSize = FastJNIInputBufferSize;
+    private static final int FastJNIParameterBufferSize = 1024;
+
     private OCKContext ockContext;
     private long ockCipherId;
     private boolean isInitialized = false;
@@ -30,6 +90,13 @@ public final class Poly1305Cipher implements Poly1305Constants {
     private byte[] reinitKey = null;
     private byte[] reinitIV = null;
     private ByteArrayOutputDelay byteArrayOutputDelay = null;
+    private final ByteArrayOutputDelay.Sink decryptSink = this::decryptReleased;
+    private final byte[] tag = new byte[Poly1305_TAG_SIZE];
+    private byte[] decryptOutput = null;
+    private int decryptOutputOffset = 0;
+    private byte[] pendingAAD = null;
+    private int pendingAADOffset = 0;
+    private int pendingAADLen = 0;
 
     private final static String badIdMsg = "Cipher Identifier is not valid";
 
@@ -54,7 +121,10 @@ public final class Poly1305Cipher implements Poly1305Constants {
     private Poly1305Cipher(OCKContext ockContext, String cipherName, Padding padding)
             throws OCKException {
         this.ockContext = ockContext;
+        NativeContextEvent event = NativeContextEvent.start();
         this.ockCipherId = NativeInterface.POLY1305CIPHER_create(ockContext.getId(), cipherName);
+        event.finish("Cipher", cipherName, ockContext);
+        ockContext.getStatistics().created(NativeStatistics.Handle.POLY1305_CIPHER, ockCipherId);
         this.padding = padding;
     }
 
@@ -63,8 +133,10 @@ public final class Poly1305Cipher implements Poly1305Constants {
     }
 
     public synchronized void initCipherDecrypt(byte[] key, byte[] iv) throws OCKException {
+        if (byteArrayOutputDelay == null) {
+            byteArrayOutputDelay = new ByteArrayOutputDelay(Poly1305_TAG_SIZE);
+        }
         initCipher(false, key, iv);
-        byteArrayOutputDelay = new ByteArrayOutputDelay(Poly1305_TAG_SIZE);
     }
 
     private void initCipher(boolean isEncrypt, byte[] key, byte[] iv) throws OCKException {
@@ -83,13 +155,16 @@ public final class Poly1305Cipher implements Poly1305Constants {
         if (ockCipherId == 0L) {
             throw new OCKException(badIdMsg);
         }
-        NativeInterface.POLY1305CIPHER_init(ockContext.getId(), ockCipherId, isEncrypt ? 1 : 0, key,
-                iv);
-        NativeInterface.POLY1305CIPHER_setPadding(ockContext.getId(), ockCipherId, padding.getId());
 
+        // The native context is initialized on first use, see initNativeCipher,
+        // so that a message processed by a single doFinal can take the one-shot path.
         this.encrypting = isEncrypt ? true : false;
         this.bufferedCount = 0;
-        this.needsReinit = false;
+        this.needsReinit = true;
+        this.pendingAAD = null;
+        if (byteArrayOutputDelay != null) {
+            byteArrayOutputDelay.reset();
+        }
         if (key != reinitKey) {
             if (reinitKey != null) {
                 Arrays.fill(reinitKey, (byte) 0x00);
@@ -102,6 +177,28 @@ public final class Poly1305Cipher implements Poly1305Constants {
         this.isInitialized = true;
     }
 
+    private void initNativeCipher() throws OCKException {
+        if (ockCipherId == 0L) {
+            throw new OCKException(badIdMsg);
+        }
+        NativeInterface.POLY1305CIPHER_init(ockContext.getId(), ockCipherId, encrypting ? 1 : 0,
+                reinitKey, reinitIV);
+        NativeInterface.POLY1305CIPHER_setPadding(ockContext.getId(), ockCipherId, padding.getId());
+        this.needsReinit = false;
+
+        if (pendingAAD != null) {
+            byte[] aad = pendingAAD;
+            pendingAAD = null;
+            if (encrypting) {
+                NativeInterface.POLY1305CIPHER_encryptUpdate(ockContext.getId(), ockCipherId, aad,
+                        pendingAADOffset, pendingAADLen, null, 0);
+            } else {
+                NativeInterface.POLY1305CIPHER_decryptUpdate(ockContext.getId(), ockCipherId, aad,
+                        pendingAADOffset, pendingAADLen, null, 0);
+            }
+        }
+    }
+
     public synchronized int getOutputSize(int inputLen, boolean encrypting, int tLen) {
 
         if (inputLen < 0) {
@@ -163,11 +260,6 @@ public final class Poly1305Cipher implements Poly1305Constants {
             throw new IllegalStateException("Cipher not initialized");
         }
 
-        if (needsReinit) {
-            initCipher(this.encrypting, this.reinitKey, this.reinitIV);
-            needsReinit = false;
-        }
-
         if (inputLen == 0) {
             return outLen;
         }
@@ -181,10 +273,24 @@ public final class Poly1305Cipher implements Poly1305Constants {
             throw new IllegalArgumentException("Output range is invalid");
         }
 
+        // A null output marks the AAD. It is held until the native context is needed,
+        // callers must not modify the array in the meantime.
+        if ((output == null) && needsReinit && (pendingAAD == null)) {
+            pendingAAD = input;
+            pendingAADOffset = inputOffset;
+            pendingAADLen = inputLen;
+            return outLen;
+        }
+
+        if (needsReinit) {
+            initNativeCipher();
+        }
+
         // For update output size = input size...
         int len = inputLen;
         if (!encrypting) {
-            len -= byteArrayOutputDelay.getByteDelay();
+            len = Math.max(0, byteArrayOutputDelay.size() + inputLen
+                    - byteArrayOutputDelay.getByteDelay());
         }
         if ((output != null) && (output.length != 0) && ((output.length - outputOffset) < len)) {
             throw new ShortBufferException(
@@ -203,7 +309,7 @@ public final class Poly1305Cipher implements Poly1305Constants {
         byte[] copyOfInput = null;
         if (input == output) {
             if ((inputOffset == outputOffset)
-                    || ((inputOffset < outputOffset) && (outputOffset < (inputOffset = inputLen)))
+                    || ((inputOffset < outputOffset) && (outputOffset < (inputOffset + inputLen)))
                     || ((inputOffset > outputOffset) && (inputOffset < (outputOffset + len)))) {
                 copyOfInput = new byte[inputLen];
                 System.arraycopy(input, inputOffset, copyOfInput, 0, inputLen);
@@ -222,10 +328,7 @@ public final class Poly1305Cipher implements Poly1305Constants {
                         ockCipherId, input, inputOffset, inputLen, output, outputOffset);
             } else {
                 if (null != output) { //NOT updateAAD call
-                    byte[] delayedInput = getDelayedInput(input, inputOffset, inputLen);
-                    outLen = NativeInterface.POLY1305CIPHER_decryptUpdate(ockContext.getId(),
-                            ockCipherId, delayedInput, 0, delayedInput.length, output,
-                            outputOffset);
+                    outLen = decryptDelayed(input, inputOffset, inputLen, output, outputOffset);
                 } else {
                     outLen = NativeInterface.POLY1305CIPHER_decryptUpdate(ockContext.getId(),
                             ockCipherId, input, inputOffset, inputLen, output, outputOffset);
@@ -246,20 +349,12 @@ public final class Poly1305Cipher implements Poly1305Constants {
             int outputOffset) throws IllegalStateException, ShortBufferException,
             IllegalBlockSizeException, BadPaddingException, OCKException {
 
-        byte[] tag = new byte[Poly1305_TAG_SIZE];
-        byte[] cipherText = null;
-        int cipherTextLen = 0;
         int outLen = 0;
 
         if (!this.isInitialized) {
             throw new IllegalStateException("Cipher not initialized");
         }
 
-        if (needsReinit) {
-            initCipher(this.encrypting, this.reinitKey, this.reinitIV);
-            needsReinit = false;
-        }
-
         if (inputLen != 0) {
             if (input == null || inputLen < 0 || inputOffset < 0
                     || (inputOffset + inputLen) > input.length) {
@@ -268,19 +363,9 @@ public final class Poly1305Cipher implements Poly1305Constants {
         }
 
         if (!this.encrypting) {
-            input = getFinalCipherTextInput(input, inputOffset, inputLen);
-            inputOffset = 0;
-            inputLen = input.length;
-
-            // Input must at least contain the cipher tag...
-            if (tag == null && ((input == null) || (inputLen < Poly1305_TAG_SIZE))) {
+            // Held back and new input together must at least contain the cipher tag...
+            if ((byteArrayOutputDelay.size() + inputLen) < Poly1305_TAG_SIZE) {
                 throw new IllegalArgumentException("Missing tag on decrypt final");
-            } else {
-                // Input contains cipher text, as well...
-                if (inputLen > Poly1305_TAG_SIZE) {
-                    cipherTextLen = inputLen - Poly1305_TAG_SIZE;
-                    cipherText = new byte[cipherTextLen];
-                }
             }
         }
 
@@ -300,15 +385,28 @@ public final class Poly1305Cipher implements Poly1305Constants {
             }
         }
 
-        int len = getOutputSize(inputLen, this.encrypting, Poly1305_TAG_SIZE);
-        if (!encrypting) {
-            len = len - Poly1305_TAG_SIZE;
-        }
+        int len = encrypting ? getOutputSize(inputLen, true, Poly1305_TAG_SIZE)
+                : (byteArrayOutputDelay.size() + inputLen - Poly1305_TAG_SIZE);
         if ((output.length - outputOffset) < len) {
             throw new ShortBufferException(
                     "Output buffer must be (at least) " + len + " bytes long");
         }
 
+        // Nothing has reached the native context since init, so the whole message
+        // can be sealed or opened by one native call.
+        if (needsReinit && !disablePoly1305Acceleration && (reinitIV != null)
+                && (inputLen <= FastJNIInputBufferSize)
+                && (reinitKey.length + reinitIV.length + pendingAADLength()
+                        + Poly1305_TAG_SIZE <= FastJNIParameterBufferSize)) {
+            outLen = doFinalFastJNI(input, inputOffset, inputLen, output, outputOffset);
+            this.bufferedCount = 0;
+            return outLen;
+        }
+
+        if (needsReinit) {
+            initNativeCipher();
+        }
+
         // Check if any part of the potential output overlaps the input area.  If so, then make a copy of a the input area
         // to work with so that the method is copy-safe.  A copy will be made if the input and output point to the same
         // array and if one of the following conditions is fulfilled:
@@ -321,7 +419,7 @@ public final class Poly1305Cipher implements Poly1305Constants {
         byte[] copyOfInput = null;
         if (input == output) {
             if ((inputOffset == outputOffset)
-                    || ((inputOffset < outputOffset) && (outputOffset < (inputOffset = inputLen)))
+                    || ((inputOffset < outputOffset) && (outputOffset < (inputOffset + inputLen)))
                     || ((inputOffset > outputOffset) && (inputOffset < (outputOffset + len)))) {
                 copyOfInput = new byte[inputLen];
                 System.arraycopy(input, inputOffset, copyOfInput, 0, inputLen);
@@ -343,20 +441,22 @@ public final class Poly1305Cipher implements Poly1305Constants {
                 // Output length is cipher text length plus tag length...
                 outLen += Poly1305_TAG_SIZE;
             } else {
-                // Parse tag from input...
-                System.arraycopy(input, (inputLen - Poly1305_TAG_SIZE), tag, 0, Poly1305_TAG_SIZE);
-                // Parse cipher text from input...
-                if (cipherText != null) {
-                    System.arraycopy(input, 0, cipherText, 0, cipherTextLen);
+                // Push everything but the trailing tag through the decrypt update, which
+                // leaves exactly the tag held back...
+                outLen = decryptDelayed(input, inputOffset, inputLen, output, outputOffset);
+                byteArrayOutputDelay.flush(tag, 0);
+                byteArrayOutputDelay.reset();
+                int finalLen = NativeInterface.POLY1305CIPHER_decryptFinal(ockContext.getId(),
+                        ockCipherId, null, 0, 0, output, outputOffset + outLen, tag);
+                if (finalLen < 0) {
+                    throw FailureExceptions.tagMismatch("Tag mismatch");
                 }
                 // Output length is equal to total cipher text length including buffered text...
-                outLen = NativeInterface.POLY1305CIPHER_decryptFinal(ockContext.getId(),
-                        ockCipherId, cipherText, inputOffset, cipherTextLen, output, outputOffset,
-                        tag);
+                outLen += finalLen;
             }
         } catch (OCKException e) {
             if (e.getCode() == OCKException.GKR_DECRYPT_FINAL_BAD_PADDING_ERROR) {
-                throw new BadPaddingException("Unexpected padding");
+                throw FailureExceptions.badPadding("Unexpected padding");
             } else {
                 throw e;
             }
@@ -379,6 +479,7 @@ public final class Poly1305Cipher implements Poly1305Constants {
         try {
             if (ockCipherId != 0) {
                 NativeInterface.POLY1305CIPHER_delete(ockContext.getId(), ockCipherId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.POLY1305_CIPHER, ockCipherId);
                 ockCipherId = 0;
             }
         } finally {
@@ -391,23 +492,88 @@ public final class Poly1305Cipher implements Poly1305Constants {
         }
     }
 
+    private int pendingAADLength() {
+        return (pendingAAD == null) ? 0 : pendingAADLen;
+    }
+
+    // Seals or opens the complete message with a single native call. Nonce, AAD,
+    // key and tag travel through the thread's parameter buffer, the message
+    // through its input and output buffers. The native context is left to be
+    // initialized again, as after any other doFinal.
+    //
+    private int doFinalFastJNI(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset) throws OCKException, AEADBadTagException {
+        int keyLen = reinitKey.length;
+        int ivLen = reinitIV.length;
+        int aadLen = pendingAADLength();
+        int tagOffset = ivLen + aadLen + keyLen;
+        int outLen;
+        int rc;
+
+        OperationTrace.record(OperationTrace.FAST_PATH);
+        FastJNIBuffer parameters = Poly1305Cipher.parameterBuffer.get();
+        FastJNIBuffer inputBuffer = Poly1305Cipher.inputBuffer.get();
+        FastJNIBuffer outputBuffer = Poly1305Cipher.outputBuffer.get();
+        parameters.put(0, reinitIV, 0, ivLen);
+        parameters.put(ivLen, pendingAAD, pendingAADOffset, aadLen);
+        parameters.put(ivLen + aadLen, reinitKey, 0, keyLen);
+        pendingAAD = null;
+
+        if (encrypting) {
+            inputBuffer.put(0, input, inputOffset, inputLen);
+            rc = NativeInterface.POLY1305CIPHER_encryptFastJNI(ockContext.getId(), ockCipherId,
+                    keyLen, ivLen, aadLen, inputLen, parameters.pointer(), inputBuffer.pointer(),
+                    outputBuffer.pointer());
+            if (rc == 0) {
+                // Cipher text followed by the tag...
+                outputBuffer.get(0, output, outputOffset, inputLen);
+                parameters.get(tagOffset, output, outputOffset + inputLen, Poly1305_TAG_SIZE);
+            }
+            outLen = inputLen + Poly1305_TAG_SIZE;
+        } else {
+            outLen = inputLen - Poly1305_TAG_SIZE;
+            inputBuffer.put(0, input, inputOffset, outLen);
+            parameters.put(tagOffset, input, inputOffset + outLen, Poly1305_TAG_SIZE);
+            rc = NativeInterface.POLY1305CIPHER_decryptFastJNI(ockContext.getId(), ockCipherId,
+                    keyLen, ivLen, aadLen, outLen, parameters.pointer(), inputBuffer.pointer(),
+                    outputBuffer.pointer());
+            if (rc == 0) {
+                // Plain text is only released once the tag verified...
+                outputBuffer.get(0, output, outputOffset, outLen);
+            }
+        }
+
+        if (rc == TAG_MISMATCH) {
+            throw FailureExceptions.tagMismatch("Tag mismatch");
+        } else if (rc != 0) {
+            throw new OCKException(ErrorCodes.get(rc));
+        }
+        return outLen;
+    }
+
     /* At some point we may enhance this function to do other validations */
     private static boolean validId(long id) {
         return (id != 0L);
     }
 
-    private byte[] getDelayedInput(byte[] input, int inputOffset, int inputLen) {
-        return byteArrayOutputDelay.write(input, inputOffset, inputLen);
+    // Holds back the last Poly1305_TAG_SIZE bytes seen so far and decrypts the
+    // rest directly from the held back bytes and the caller's input array.
+    //
+    private int decryptDelayed(byte[] input, int inputOffset, int inputLen, byte[] output,
+            int outputOffset) throws OCKException {
+        this.decryptOutput = output;
+        this.decryptOutputOffset = outputOffset;
+        try {
+            return byteArrayOutputDelay.write(input, inputOffset, inputLen, decryptSink);
+        } finally {
+            this.decryptOutput = null;
+        }
     }
 
-    private byte[] getFinalCipherTextInput(byte[] input, int inputOffset, int inputLen) {
-        byte[] delayedInput = byteArrayOutputDelay.flush();
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream(delayedInput.length + inputLen);
-        baos.write(delayedInput, 0, delayedInput.length);
-        if (null != input) {
-            baos.write(input, inputOffset, inputLen);
-        }
-        return baos.toByteArray();
+    private int decryptReleased(byte[] cipherText, int offset, int length) throws OCKException {
+        int outLen = NativeInterface.POLY1305CIPHER_decryptUpdate(ockContext.getId(),
+                ockCipherId, cipherText, offset, length, decryptOutput, decryptOutputOffset);
+        decryptOutputOffset += outLen;
+        return outLen;
     }
 }
@@ -170,7 +170,7 @@ public final class RSACipher {
 
     private int checkOutLen(int outLen) throws BadPaddingException {
         if (outLen < 0) {
-            throw new BadPaddingException("Decryption error");
+            throw FailureExceptions.badPadding("Decryption error");
         }
         return outLen;
     }
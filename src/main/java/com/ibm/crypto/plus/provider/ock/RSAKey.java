@@ -80,6 +80,9 @@ public final class RSAKey implements AsymmetricKey {
             byte[] publicKeyBytes) {
         this.ockContext = ockContext;
         this.rsaKeyId = rsaKeyId;
+        if (rsaKeyId != 0) {
+            ockContext.getStatistics().created(NativeStatistics.Handle.RSA_KEY, rsaKeyId);
+        }
         this.pkeyId = 0;
         this.privateKeyBytes = privateKeyBytes;
         this.publicKeyBytes = publicKeyBytes;
@@ -144,6 +147,9 @@ public final class RSAKey implements AsymmetricKey {
                 throw new OCKException(badIdMsg);
             }
             this.pkeyId = NativeInterface.RSAKEY_createPKey(ockContext.getId(), rsaKeyId);
+            if (pkeyId != 0) {
+                ockContext.getStatistics().created(NativeStatistics.Handle.PKEY, pkeyId);
+            }
         }
     }
 
@@ -199,11 +205,13 @@ public final class RSAKey implements AsymmetricKey {
 
             if (rsaKeyId != 0) {
                 NativeInterface.RSAKEY_delete(ockContext.getId(), rsaKeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.RSA_KEY, rsaKeyId);
                 rsaKeyId = 0;
             }
 
             if (pkeyId != 0) {
                 NativeInterface.PKEY_delete(ockContext.getId(), pkeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.PKEY, pkeyId);
                 pkeyId = 0;
             }
         } finally {
@@ -43,18 +43,36 @@ public final class SignatureEdDSA {
     }
 
     public synchronized byte[] sign(byte[] oneShotData) throws OCKException, SignatureException {
+        return sign(oneShotData, 0, oneShotData.length);
+    }
+
+    // Signs length bytes of data starting at offset. The data is handed to
+    // OCK in place, callers can pass a partially filled buffer.
+    public synchronized byte[] sign(byte[] data, int offset, int length)
+            throws OCKException, SignatureException {
         if (!this.initialized) {
             throw new IllegalStateException("SignatureEdDSA not initialized");
         }
+        if ((data == null) || (offset < 0) || (length < 0) || (offset > data.length - length)) {
+            throw new IllegalArgumentException("Bad input parameters to SignatureEdDSA sign");
+        }
         if (!validId(this.key.getPKeyId())) {
             throw new OCKException(badIdMsg);
         }
         byte[] signature = NativeInterface.SIGNATUREEdDSA_signOneShot(this.ockContext.getId(),
-                this.key.getPKeyId(), oneShotData);
+                this.key.getPKeyId(), data, offset, length);
         return signature;
     }
 
     public synchronized boolean verify(byte[] sigBytes, byte[] dataBytes) throws OCKException {
+        return verify(sigBytes, dataBytes, 0, dataBytes.length);
+    }
+
+    // Verifies sigBytes over length bytes of data starting at offset. The
+    // data is handed to OCK in place, callers can pass a partially filled
+    // buffer.
+    public synchronized boolean verify(byte[] sigBytes, byte[] data, int offset, int length)
+            throws OCKException {
         //final String methodName = "verify";
         // create key length function and check sigbytes against key length?
         if (!this.initialized) {
@@ -64,14 +82,49 @@ public final class SignatureEdDSA {
         if (sigBytes == null) {
             throw new IllegalArgumentException("invalid signature");
         }
+        if ((data == null) || (offset < 0) || (length < 0) || (offset > data.length - length)) {
+            throw new IllegalArgumentException("Bad input parameters to SignatureEdDSA verify");
+        }
         if (this.key.getPKeyId() == 0L) {
             throw new OCKException(badIdMsg);
         }
         boolean verified = NativeInterface.SIGNATUREEdDSA_verifyOneShot(this.ockContext.getId(),
-                this.key.getPKeyId(), sigBytes, dataBytes);
+                this.key.getPKeyId(), sigBytes, data, offset, length);
         return verified;
     }
 
+    // Verifies a batch of EdDSA signatures in a single native call. Bit i of
+    // the returned bitmap is set if sigBytes[i] verified over data[i] with
+    // keys[i].
+    public static long[] verifyBatch(OCKContext ockContext, AsymmetricKey[] keys,
+            byte[][] sigBytes, byte[][] data) throws OCKException {
+        if (ockContext == null) {
+            throw new IllegalArgumentException("context is null");
+        }
+        if ((keys == null) || (sigBytes == null) || (data == null)
+                || (sigBytes.length != keys.length) || (data.length != keys.length)) {
+            throw new IllegalArgumentException("Bad input parameters to EdDSA batch verify");
+        }
+
+        long[] pkeyIds = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if ((keys[i] == null) || !validId(keys[i].getPKeyId())) {
+                throw new OCKException("PKey Identifier is not valid");
+            }
+            if ((sigBytes[i] == null) || (data[i] == null)) {
+                throw new IllegalArgumentException("Bad input parameters to EdDSA batch verify");
+            }
+            pkeyIds[i] = keys[i].getPKeyId();
+        }
+
+        long[] results = new long[(keys.length + 63) / 64];
+        if (keys.length > 0) {
+            NativeInterface.SIGNATUREEdDSA_verifyBatch(ockContext.getId(), pkeyIds, sigBytes,
+                    data, results);
+        }
+        return results;
+    }
+
     /* At some point we may enhance this function to do other validations */
     protected static boolean validId(long id) {
 
@@ -8,16 +8,155 @@
 
 package com.ibm.crypto.plus.provider.ock;
 
+import java.security.AccessController;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.InvalidParameterException;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@SuppressWarnings({"removal", "deprecation"})
 public final class SignatureRSAPSS {
 
     public enum InitOp {
         INITSIGN, INITVERIFY
     };
 
+    /* ===========================================================================
+       RSA-PSS context caching mechanism
+       A native RSA-PSS context only depends on the digest and the MGF1 digest,
+       the key is given when it is initialized. A signature holds a context
+       from its initialization until the end of the next sign or verify, or
+       until it is initialized again. Contexts are then cached by OCK context
+       and digests, after freeing what refers to the key, and reused by the
+       next signature with the same digests.
+       */
+
+    private static final String RSAPSS_CONTEXT_CACHE_SIZE =
+            "com.ibm.crypto.provider.RSAPSSContextCacheSize";
+
+    // Largest number of contexts held by the cache for one pair of digests.
+    private final static int numContexts;
+
+    private static final ConcurrentHashMap<String, ContextCache> caches =
+            new ConcurrentHashMap<String, ContextCache>();
+
+    private static final class ContextCache {
+        final ConcurrentLinkedQueue<Long> contexts = new ConcurrentLinkedQueue<Long>();
+
+        // Contexts held by the cache, whether idle or in use.
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    static {
+        numContexts = AccessController.doPrivileged(new PrivilegedAction<Integer>() {
+            public Integer run() {
+                try {
+                    return Integer.parseInt(System.getProperty(RSAPSS_CONTEXT_CACHE_SIZE, "256"));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        });
+    }
+
+    // The cache of the current context, null if it is not held by the cache.
+    private ContextCache contextCache = null;
+
+    // The OCK names of the digests of the current context.
+    private String contextDigestAlgo = null;
+    private String contextMGF1SpecAlgo = null;
+
+    private void obtainContext(String digestAlgoOCK, String mgf1SpecAlgoOCK) throws OCKException {
+        ContextCache cache = caches.computeIfAbsent(
+                ockContext.getId() + "/" + digestAlgoOCK + "/" + mgf1SpecAlgoOCK,
+                k -> new ContextCache());
+        Long context = cache.contexts.poll();
+
+        if (context == null) {
+            ockContext.getStatistics().count(NativeStatistics.Counter.RSAPSS_CONTEXT_CACHE_MISS);
+            NativeContextEvent event = NativeContextEvent.start();
+            this.rsaPssId = NativeInterface.RSAPSS_createContext(ockContext.getId(), digestAlgoOCK,
+                    mgf1SpecAlgoOCK);
+            event.finish("RSAPSS", digestAlgoOCK, ockContext);
+            ockContext.getStatistics().created(NativeStatistics.Handle.RSAPSS_CONTEXT, rsaPssId);
+            if (cache.size.incrementAndGet() <= numContexts) {
+                this.contextCache = cache;
+            } else {
+                cache.size.decrementAndGet();
+                this.contextCache = null;
+            }
+        } else {
+            ockContext.getStatistics().count(NativeStatistics.Counter.RSAPSS_CONTEXT_CACHE_HIT);
+            OperationTrace.record(OperationTrace.CONTEXT_CACHE_HIT);
+            this.rsaPssId = context;
+            this.contextCache = cache;
+        }
+        this.contextDigestAlgo = digestAlgoOCK;
+        this.contextMGF1SpecAlgo = mgf1SpecAlgoOCK;
+    }
+
+    // Obtains a context for the current digests, if the signature holds
+    // none, and initializes it with the key if the signature has one.
+    private void ensureContext() throws OCKException {
+        if (rsaPssId == 0) {
+            obtainContext(getDigestAlgoOCK(digestAlgo), getDigestAlgoOCK(mgf1SpecAlgo));
+            if (initialized) {
+                initContext();
+            }
+        }
+    }
+
+    private void initContext() throws OCKException {
+        if (initOp == InitOp.INITSIGN) {
+            NativeInterface.RSAPSS_signInit(this.ockContext.getId(), rsaPssId,
+                    this.key.getPKeyId(), this.saltlen, this.convert);
+        } else {
+            NativeInterface.RSAPSS_verifyInit(this.ockContext.getId(), rsaPssId,
+                    this.key.getPKeyId(), this.saltlen);
+        }
+    }
+
+    private void releaseContext() throws OCKException {
+        if (rsaPssId == 0) {
+            return;
+        }
+
+        long id = rsaPssId;
+        ContextCache cache = contextCache;
+        rsaPssId = 0;
+        contextCache = null;
+
+        if (cache != null) {
+            try {
+                NativeInterface.RSAPSS_resetContext(ockContext.getId(), id);
+                cache.contexts.add(id);
+                return;
+            } catch (OCKException e) {
+                // Not fit for reuse, free it below.
+                cache.size.decrementAndGet();
+            }
+        }
+        NativeInterface.RSAPSS_releaseContext(ockContext.getId(), id);
+        ockContext.getStatistics().freed(NativeStatistics.Handle.RSAPSS_CONTEXT, id);
+    }
+
+    static long[] getCacheSizes() {
+        long idle = 0;
+        long total = 0;
+        for (ContextCache cache : caches.values()) {
+            idle += cache.contexts.size();
+            total += cache.size.get();
+        }
+        return new long[] {idle, total};
+    }
+
+    /* end RSA-PSS context caching mechanism
+     * ===========================================================================
+     */
+
     private OCKContext ockContext = null;
     private long rsaPssId = 0;
     private AsymmetricKey key = null;
@@ -56,9 +195,11 @@ public final class SignatureRSAPSS {
             String mgfAlgo, String mgf1SpecAlgo) throws InvalidAlgorithmParameterException {
 
         try {
-            if (rsaPssId != 0) { // release existing context before allocating a new one
-                NativeInterface.RSAPSS_releaseContext(ockContext.getId(), rsaPssId);
-                rsaPssId = 0;
+            // A context with the same digests is kept, only the salt length
+            // or trailer field changed.
+            if (rsaPssId != 0 && !(getDigestAlgoOCK(digestAlgo).equals(contextDigestAlgo)
+                    && getDigestAlgoOCK(mgf1SpecAlgo).equals(contextMGF1SpecAlgo))) {
+                releaseContext();
             }
         } catch (OCKException e) {
             throw new InvalidParameterException("Unable to set the digestAlgoOCK: releaseContext");
@@ -70,77 +211,42 @@ public final class SignatureRSAPSS {
         }
     }
 
-
-    private int configureParameter(String digestAlgo, int saltlen, int trailerField, String mgfAlgo,
-            String mgf1SpecAlgo) {
-
-        String digestAlgoOCK = null;
-        String mgf1SpecAlgoOCK = null;
-
+    private static String getDigestAlgoOCK(String digestAlgo) {
         switch (digestAlgo.toUpperCase()) {
             case "SHA-1":
             case "SHA":
             case "SHA1":
-                digestAlgoOCK = "SHA1";
-                break;
+                return "SHA1";
             case "SHA-224":
             case "SHA224":
-                digestAlgoOCK = "SHA224";
-                break;
+                return "SHA224";
             case "SHA-2":
             case "SHA2":
             case "SHA256":
             case "SHA-256":
-                digestAlgoOCK = "SHA256";
-                break;
+                return "SHA256";
             case "SHA3":
             case "SHA-3":
             case "SHA384":
             case "SHA-384":
-                digestAlgoOCK = "SHA384";
-                break;
+                return "SHA384";
             case "SHA5":
             case "SHA-5":
             case "SHA512":
             case "SHA-512":
-                digestAlgoOCK = "SHA512";
-                break;
+                return "SHA512";
             default:
-                digestAlgoOCK = digestAlgo;
+                return digestAlgo;
         }
-        switch (mgf1SpecAlgo.toUpperCase()) {
-            case "SHA-1":
-            case "SHA":
-            case "SHA1":
-                mgf1SpecAlgoOCK = "SHA1";
-                break;
-            case "SHA-224":
-            case "SHA224":
-                mgf1SpecAlgoOCK = "SHA224";
-                break;
-            case "SHA-2":
-            case "SHA2":
-            case "SHA256":
-            case "SHA-256":
-                mgf1SpecAlgoOCK = "SHA256";
-                break;
-            case "SHA3":
-            case "SHA-3":
-            case "SHA384":
-            case "SHA-384":
-                mgf1SpecAlgoOCK = "SHA384";
-                break;
+    }
 
-            case "SHA5":
-            case "SHA-5":
-            case "SHA512":
-            case "SHA-512":
-                mgf1SpecAlgoOCK = "SHA512";
-                break;
-            default:
-                mgf1SpecAlgoOCK = mgf1SpecAlgo;
-        }
+    private int configureParameter(String digestAlgo, int saltlen, int trailerField, String mgfAlgo,
+            String mgf1SpecAlgo) {
+
+        String digestAlgoOCK = getDigestAlgoOCK(digestAlgo);
+        String mgf1SpecAlgoOCK = getDigestAlgoOCK(mgf1SpecAlgo);
 
+        this.digestAlgo = digestAlgo;
         this.saltlen = saltlen;
         this.trailerField = trailerField;
         this.mgfAlgo = mgfAlgo;
@@ -148,27 +254,28 @@ public final class SignatureRSAPSS {
 
         int ret = 0;
         try {
-            this.rsaPssId = NativeInterface.RSAPSS_createContext(ockContext.getId(), digestAlgoOCK,
-                    mgf1SpecAlgoOCK);
-            // If already initialized, re-init with new context and parameters
-            if (this.initialized && this.rsaPssId != 0) {
-                if (this.initOp == InitOp.INITSIGN) {
-                    NativeInterface.RSAPSS_signInit(this.ockContext.getId(), rsaPssId,
-                            this.key.getPKeyId(), this.saltlen, this.convert);
+            if (this.rsaPssId == 0) {
+                // Obtaining a context checks that the digests are supported,
+                // it is only kept if the signature is initialized.
+                obtainContext(digestAlgoOCK, mgf1SpecAlgoOCK);
+                if (this.initialized) {
+                    initContext();
                 } else {
-                    NativeInterface.RSAPSS_verifyInit(this.ockContext.getId(), rsaPssId,
-                            this.key.getPKeyId(), this.saltlen);
+                    releaseContext();
                 }
+            } else if (this.initialized) {
+                // Re-init with the context and new parameters
+                initContext();
             }
         } catch (OCKException e) {
             ret = 1;
         }
 
-        return (this.rsaPssId != 0 && ret == 0) ? 0 : 1;
+        return ret;
     }
 
     public synchronized void update(byte[] input, int offset, int length) throws OCKException {
-
+        ensureContext();
         NativeInterface.RSAPSS_digestUpdate(this.ockContext.getId(), this.rsaPssId, input, offset,
                 length);
 
@@ -180,26 +287,20 @@ public final class SignatureRSAPSS {
             throw new IllegalArgumentException("key is null");
         }
         this.initialized = false; // Set false to verify successful init.
-        if (rsaPssId == 0) { // if context wasn't created by setParameters, create it now
-            if (0 != configureParameter(digestAlgo, saltlen, trailerField, mgfAlgo, mgf1SpecAlgo)) {
-                throw new InvalidParameterException(
-                        "Unable to set the digestAlgoOCK: configureParameters");
-            }
-        }
+
+        // The context of the previous key goes back to the cache.
+        releaseContext();
+
         this.key = key;
         this.initOp = initOp;
         this.convert = convert;
-        if (rsaPssId != 0) {
-            if (initOp == InitOp.INITSIGN) {
-                NativeInterface.RSAPSS_signInit(this.ockContext.getId(), rsaPssId,
-                        this.key.getPKeyId(), this.saltlen, convert);
-            } else {
-                NativeInterface.RSAPSS_verifyInit(this.ockContext.getId(), rsaPssId,
-                        this.key.getPKeyId(), this.saltlen);
-            }
-        } else {
-            throw new OCKException("RSS-PSS context was not created correctly");
+        try {
+            obtainContext(getDigestAlgoOCK(digestAlgo), getDigestAlgoOCK(mgf1SpecAlgo));
+        } catch (OCKException e) {
+            throw new InvalidParameterException(
+                    "Unable to set the digestAlgoOCK: configureParameters");
         }
+        initContext();
         this.initialized = true;
     }
 
@@ -208,21 +309,17 @@ public final class SignatureRSAPSS {
         if (!this.initialized) {
             throw new IllegalStateException("SignatureRSAPSS not initialized");
         }
-        if (rsaPssId != 0) {
-            byte[] signature = null;
-            try {
-                signature = new byte[NativeInterface.RSAPSS_getSigLen(this.ockContext.getId(),
-                        this.rsaPssId)];
-                NativeInterface.RSAPSS_signFinal(this.ockContext.getId(), this.rsaPssId, signature,
-                        signature.length);
-                return signature;
-            } catch (OCKException e) {
-                // Try to reset if OCKException is thrown
-                NativeInterface.RSAPSS_resetDigest(this.ockContext.getId(), this.rsaPssId);
-                throw e;
-            }
-        } else {
-            throw new OCKException("RSS-PSS context was not created correctly");
+        try {
+            ensureContext();
+            byte[] signature = new byte[NativeInterface.RSAPSS_getSigLen(this.ockContext.getId(),
+                    this.rsaPssId)];
+            NativeInterface.RSAPSS_signFinal(this.ockContext.getId(), this.rsaPssId, signature,
+                    signature.length);
+            return signature;
+        } finally {
+            // Whether or not signing failed, the context goes back to the
+            // cache, the next signature gets one with ensureContext.
+            releaseContext();
         }
     }
 
@@ -237,19 +334,14 @@ public final class SignatureRSAPSS {
         if (sigBytes == null) {
             throw new IllegalArgumentException("invalid signature");
         }
-        if (rsaPssId != 0) {
-            boolean verified = false;
-            try {
-                verified = NativeInterface.RSAPSS_verifyFinal(this.ockContext.getId(),
-                        this.rsaPssId, sigBytes, sigBytes.length);
-            } catch (OCKException e) {
-                // Try to reset if OCKException is thrown
-                NativeInterface.RSAPSS_resetDigest(this.ockContext.getId(), this.rsaPssId);
-                throw e;
-            }
-            return verified;
-        } else {
-            throw new OCKException("RSS-PSS context was not created correctly");
+        try {
+            ensureContext();
+            return NativeInterface.RSAPSS_verifyFinal(this.ockContext.getId(), this.rsaPssId,
+                    sigBytes, sigBytes.length);
+        } finally {
+            // Whether or not verifying failed, the context goes back to the
+            // cache, the next verification gets one with ensureContext.
+            releaseContext();
         }
     }
 
@@ -259,10 +351,7 @@ public final class SignatureRSAPSS {
         //final String methodName = "finalize";
 
         try {
-            if (rsaPssId != 0) {
-                NativeInterface.RSAPSS_releaseContext(ockContext.getId(), rsaPssId);
-                rsaPssId = 0;
-            }
+            releaseContext();
         } finally {
             super.finalize();
         }
@@ -12,7 +12,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.Arrays;
-import java.util.HashMap;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.ShortBufferException;
@@ -40,9 +39,7 @@ public final class SymmetricCipher {
     private long outputPointer; // Pointer to memory that has the output to the encrypted text by z_kmc
     private long outputOffset; // Offset, in the buffer, to where the output is stored, used to retrieve output after z_kmc call
     private long paramPointer; // Pointer to memory that has the parameters/state keeping used by z_kmc
-    private static long hardwareFunctionPtr = 0;
     private boolean use_z_fast_command = false;
-    private static HashMap<OCKContext, Boolean> hardwareEnabled = new HashMap<OCKContext, Boolean>(); // Caching for hardwareFunctionPtr
     private final static String badIdMsg = "Cipher Identifier is not valid";
     /* private final static String debPrefix = "SymCipher"; Adding Debug causes test cases to fail */
     int paramOffset;
@@ -108,7 +105,7 @@ public final class SymmetricCipher {
             case -4:
                 throw new OCKException("ICC_EVP_DecryptFinal failed!");
             case -5:
-                throw new BadPaddingException("Unexpected padding");
+                throw FailureExceptions.badPadding("Unexpected padding");
             default:
                 throw new OCKException("Unknow Error Code");
         }
@@ -117,21 +114,17 @@ public final class SymmetricCipher {
     private SymmetricCipher(OCKContext ockContext, String cipherName, Padding padding)
             throws OCKException {
         // Check whether used algorithm is CBC and whether hardware supports
-        boolean isHardwareSupport = false;
-        if (hardwareEnabled.containsKey(ockContext))
-            isHardwareSupport = hardwareEnabled.get(ockContext);
-        else {
-            hardwareFunctionPtr = checkHardwareSupport(ockContext.getId());
-            isHardwareSupport = (hardwareFunctionPtr == 1) ? true : false;
-            hardwareEnabled.put(ockContext, isHardwareSupport);
-        }
+        boolean isHardwareSupport = ockContext.getHardwareCapabilities().aesCBC;
         use_z_fast_command = "AES".equals(cipherName.substring(0, 3))
                 && "CBC".equals(cipherName.substring(cipherName.length() - 3)) && isHardwareSupport;
 
         this.ockContext = ockContext;
         this.padding = padding;
         if (!use_z_fast_command) {
+            NativeContextEvent event = NativeContextEvent.start();
             this.ockCipherId = NativeInterface.CIPHER_create(ockContext.getId(), cipherName);
+            event.finish("Cipher", cipherName, ockContext);
+            ockContext.getStatistics().created(NativeStatistics.Handle.CIPHER, ockCipherId);
         }
     }
 
@@ -577,6 +570,7 @@ public final class SymmetricCipher {
 
         outLen = NativeInterface.z_kmc_native(input, inputOffset, output, outputOffset,
                 paramPointer, inputLen, mode);
+        OperationTrace.record(OperationTrace.HARDWARE_PATH);
 
         // Need to reset the object such that it can be re-used.
         this.needsReinit = true;
@@ -592,6 +586,7 @@ public final class SymmetricCipher {
             if (!use_z_fast_command) {
                 if (ockCipherId != 0) {
                     NativeInterface.CIPHER_delete(ockContext.getId(), ockCipherId);
+                    ockContext.getStatistics().freed(NativeStatistics.Handle.CIPHER, ockCipherId);
                     ockCipherId = 0;
                 }
             }
@@ -605,6 +600,55 @@ public final class SymmetricCipher {
         }
     }
 
+    /**
+     * Wraps a key with AES key wrap (RFC 3394) or, if padded, AES key wrap
+     * with padding (RFC 5649) in a single native call. This cipher must be an
+     * AES/ECB instance, the integrity check value is 8 bytes for KW and 4 bytes
+     * for KWP. The input length is checked by the caller.
+     */
+    public synchronized int wrapKey(boolean padded, byte[] key, byte[] icv, byte[] input,
+            int inputOffset, int inputLen, byte[] output, int outputOffset)
+            throws OCKException {
+        checkKeyWrapArguments(key, input, inputOffset, inputLen);
+        return NativeInterface.CIPHER_keyWrap(ockContext.getId(), ockCipherId, 1, padded ? 1 : 0,
+                key, icv, input, inputOffset, inputLen, output, outputOffset);
+    }
+
+    /**
+     * Unwraps a key wrapped by {@link #wrapKey}. Nothing is written to the
+     * output if the integrity check fails.
+     */
+    public synchronized int unwrapKey(boolean padded, byte[] key, byte[] icv, byte[] input,
+            int inputOffset, int inputLen, byte[] output, int outputOffset)
+            throws OCKException, BadPaddingException {
+        checkKeyWrapArguments(key, input, inputOffset, inputLen);
+        int outLen = NativeInterface.CIPHER_keyWrap(ockContext.getId(), ockCipherId, 0,
+                padded ? 1 : 0, key, icv, input, inputOffset, inputLen, output, outputOffset);
+        if (outLen < 0) {
+            throw FailureExceptions.badPadding("Integrity check failed");
+        }
+        return outLen;
+    }
+
+    private void checkKeyWrapArguments(byte[] key, byte[] input, int inputOffset, int inputLen)
+            throws OCKException {
+        if (use_z_fast_command || (ockCipherId == 0L)) {
+            throw new OCKException(badIdMsg);
+        }
+        if ((key == null) || (key.length != getKeyLength())) {
+            throw new IllegalArgumentException("key is the wrong size");
+        }
+        if ((input == null) || (inputLen <= 0) || (inputOffset < 0)
+                || (inputOffset > input.length - inputLen)) {
+            throw new IllegalArgumentException("Input range is invalid");
+        }
+
+        // The native context no longer holds the key and direction of the
+        // last init, a later update or doFinal needs a new init.
+        //
+        this.isInitialized = false;
+    }
+
     /* At some point we may enhance this function to do other validations */
     protected static boolean validId(long id) {
         //final String methodName = "validId";
@@ -612,10 +656,6 @@ public final class SymmetricCipher {
         return (id != 0L);
     }
 
-    private static long checkHardwareSupport(long ockId) {
-        return NativeInterface.checkHardwareSupport(ockId);
-    }
-
     public boolean getHardwareSupportStatus() {
         return use_z_fast_command;
     }
@@ -0,0 +1,342 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package com.ibm.crypto.plus.provider.ock;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import sun.security.util.Debug;
+
+/**
+ * Chooses, per algorithm, the largest input that is passed to native code by
+ * copying it through a direct FastJNI buffer. Larger inputs are passed as Java
+ * arrays that the native code pins with GetPrimitiveArrayCritical.
+ *
+ * <p>The crossover depends on the platform and the JVM, so it is measured
+ * once per JVM, by {@link #calibrate()} when the provider creates its OCK
+ * context, and otherwise when a threshold is first asked for. Both transfer
+ * paths are timed for input sizes from {@value #MIN_THRESHOLD} to
+ * {@value #MAX_THRESHOLD} bytes, with the number of arrays each algorithm pins
+ * besides its input and output. Timings vary from run to run, so runs that
+ * must behave the same every time, such as the tests of the build, turn
+ * calibration off or use a profile.
+ *
+ * <p>The following system properties control the thresholds:
+ * <ul>
+ * <li>{@value #CALIBRATION}: "measure" (the default) or "off" to use
+ * {@value #DEFAULT_THRESHOLD} bytes for every algorithm without measuring.
+ * <li>{@value #PROFILE}: a file caching the measured thresholds. It is read
+ * if it was written on the same architecture and Java version, otherwise the
+ * thresholds are measured and written to it.
+ * <li>{@value #THRESHOLD}: a threshold for all algorithms, and
+ * {@value #THRESHOLD}.&lt;algorithm&gt;, for example
+ * {@code com.ibm.crypto.provider.TransferThreshold.GCM}, for one algorithm.
+ * Both take precedence over measured and cached values, and like them are
+ * kept between {@value #MIN_THRESHOLD} and {@value #MAX_THRESHOLD} bytes.
+ * </ul>
+ */
+@SuppressWarnings({"removal", "deprecation"})
+public final class TransferCalibration {
+
+    static final String CALIBRATION = "com.ibm.crypto.provider.TransferCalibration";
+    static final String PROFILE = "com.ibm.crypto.provider.TransferCalibrationProfile";
+    static final String THRESHOLD = "com.ibm.crypto.provider.TransferThreshold";
+
+    public static final String GCM = "GCM";
+    public static final String CCM = "CCM";
+    public static final String CHACHA20_POLY1305 = "ChaCha20-Poly1305";
+    public static final String DIGEST = "Digest";
+    public static final String DEFAULT = "default";
+
+    static final int DEFAULT_THRESHOLD = 4096;
+    static final int MIN_THRESHOLD = 256;
+    static final int MAX_THRESHOLD = 16 * 1024;
+
+    // Algorithms and the number of arrays besides input and output that
+    // their non FastJNI path pins: key, IV and AAD for the AEAD ciphers.
+    //
+    private static final String[] ALGORITHMS = {GCM, CCM, CHACHA20_POLY1305, DIGEST, DEFAULT};
+    private static final int[] EXTRA_PINS = {3, 3, 3, 0, 0};
+
+    private static final int ROUNDS = 3;
+    private static final long BYTES_PER_MEASUREMENT = 256 * 1024;
+
+    private static final Debug debug = Debug.getInstance("jceplus");
+
+    private static volatile Map<String, Integer> thresholds;
+    private static volatile String source;
+
+    private TransferCalibration() {}
+
+    /**
+     * Chooses the thresholds, by measuring them unless calibration is off or
+     * a profile has them, if that has not been done yet.
+     */
+    public static synchronized void calibrate() {
+        if (thresholds != null) {
+            return;
+        }
+
+        String[] settings = AccessController.doPrivileged(new PrivilegedAction<String[]>() {
+            public String[] run() {
+                return new String[] {System.getProperty(CALIBRATION, "measure"),
+                        System.getProperty(PROFILE), System.getProperty(THRESHOLD),
+                        System.getProperty("os.arch"), System.getProperty("java.version")};
+            }
+        });
+        String arch = settings[3];
+        String javaVersion = settings[4];
+
+        Map<String, Integer> chosen = null;
+        String chosenSource = null;
+        if ("off".equalsIgnoreCase(settings[0].trim())) {
+            chosenSource = "default";
+        } else {
+            if (settings[1] != null) {
+                chosen = loadProfile(settings[1], arch, javaVersion);
+                chosenSource = "profile " + settings[1];
+            }
+            if (chosen == null) {
+                try {
+                    chosen = measure();
+                    chosenSource = "measured";
+                    if (settings[1] != null) {
+                        storeProfile(settings[1], arch, javaVersion, chosen);
+                    }
+                } catch (RuntimeException | LinkageError e) {
+                    // Fall back to the defaults, the thresholds only affect
+                    // performance.
+                    chosen = null;
+                    chosenSource = "default, measurement failed: " + e;
+                }
+            }
+        }
+        if (chosen == null) {
+            chosen = new LinkedHashMap<String, Integer>();
+            for (String algorithm : ALGORITHMS) {
+                chosen.put(algorithm, DEFAULT_THRESHOLD);
+            }
+        }
+
+        for (String algorithm : ALGORITHMS) {
+            String override = getProperty(THRESHOLD + "." + algorithm);
+            if (override == null) {
+                override = settings[2];
+            }
+            if (override != null) {
+                try {
+                    chosen.put(algorithm, clamp(Integer.parseInt(override.trim())));
+                } catch (NumberFormatException e) {
+                    // Keep the measured, cached or default threshold.
+                }
+            }
+        }
+
+        source = chosenSource;
+        thresholds = Collections.unmodifiableMap(chosen);
+        if (debug != null) {
+            debug.println("Transfer thresholds (" + chosenSource + "): " + chosen);
+        }
+    }
+
+    /**
+     * Returns the largest input length in bytes that the algorithm copies
+     * through a direct buffer. Unknown algorithms get the threshold of
+     * {@link #DEFAULT}.
+     */
+    public static int getThreshold(String algorithm) {
+        Map<String, Integer> chosen = getThresholds();
+        Integer threshold = chosen.get(algorithm);
+        return (threshold != null) ? threshold.intValue() : chosen.get(DEFAULT).intValue();
+    }
+
+    /**
+     * Returns the thresholds of all algorithms.
+     */
+    public static Map<String, Integer> getThresholds() {
+        if (thresholds == null) {
+            calibrate();
+        }
+        return thresholds;
+    }
+
+    /**
+     * Returns where the thresholds came from: "measured", "profile" followed
+     * by the profile file, or "default". Overrides by system property are
+     * not reflected.
+     */
+    public static String getSource() {
+        if (thresholds == null) {
+            calibrate();
+        }
+        return source;
+    }
+
+    private static int clamp(int threshold) {
+        return Math.max(MIN_THRESHOLD, Math.min(MAX_THRESHOLD, threshold));
+    }
+
+    private static Map<String, Integer> measure() {
+        FastJNIBuffer inputBuffer = FastJNIBuffer.create(MAX_THRESHOLD);
+        FastJNIBuffer outputBuffer = FastJNIBuffer.create(MAX_THRESHOLD);
+        byte[] input = new byte[MAX_THRESHOLD];
+        byte[] output = new byte[MAX_THRESHOLD];
+        byte[] parameters = new byte[64];
+
+        // Warm up both paths before timing them.
+        for (int size = MIN_THRESHOLD; size <= MAX_THRESHOLD; size <<= 1) {
+            timeDirect(inputBuffer, outputBuffer, input, output, size);
+            timeCritical(input, output, size, parameters, 3);
+        }
+
+        // The copy path does not depend on the algorithm and the pinned path
+        // only on the number of arrays pinned, so each is timed once per size.
+        //
+        int sizes = Integer.numberOfTrailingZeros(MAX_THRESHOLD / MIN_THRESHOLD) + 1;
+        long[] direct = new long[sizes];
+        Map<Integer, long[]> critical = new LinkedHashMap<Integer, long[]>();
+
+        Map<String, Integer> measured = new LinkedHashMap<String, Integer>();
+        for (int i = 0; i < ALGORITHMS.length; i++) {
+            long[] pinned = critical.computeIfAbsent(EXTRA_PINS[i], k -> new long[sizes]);
+
+            // The copy path grows with the input faster than the pinned path,
+            // the threshold is the largest size at which it is still cheaper.
+            int threshold = MIN_THRESHOLD;
+            for (int s = 0; s < sizes; s++) {
+                int size = MIN_THRESHOLD << s;
+                if (direct[s] == 0) {
+                    direct[s] = Long.MAX_VALUE;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        direct[s] = Math.min(direct[s],
+                                timeDirect(inputBuffer, outputBuffer, input, output, size));
+                    }
+                }
+                if (pinned[s] == 0) {
+                    pinned[s] = Long.MAX_VALUE;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        pinned[s] = Math.min(pinned[s],
+                                timeCritical(input, output, size, parameters, EXTRA_PINS[i]));
+                    }
+                }
+                if (direct[s] > pinned[s]) {
+                    break;
+                }
+                threshold = size;
+            }
+            measured.put(ALGORITHMS[i], threshold);
+        }
+        return measured;
+    }
+
+    private static long timeDirect(FastJNIBuffer inputBuffer, FastJNIBuffer outputBuffer,
+            byte[] input, byte[] output, int size) {
+        long iterations = BYTES_PER_MEASUREMENT / size;
+        long start = System.nanoTime();
+        for (long n = 0; n < iterations; n++) {
+            inputBuffer.put(0, input, 0, size);
+            NativeInterface.TRANSFER_calibrateDirect(inputBuffer.pointer(),
+                    outputBuffer.pointer(), size);
+            outputBuffer.get(0, output, 0, size);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeCritical(byte[] input, byte[] output, int size, byte[] parameters,
+            int extraPins) {
+        long iterations = BYTES_PER_MEASUREMENT / size;
+        long start = System.nanoTime();
+        for (long n = 0; n < iterations; n++) {
+            NativeInterface.TRANSFER_calibrateCritical(input, output, size, parameters,
+                    extraPins);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Map<String, Integer> loadProfile(String fileName, String arch,
+            String javaVersion) {
+        return AccessController.doPrivileged(new PrivilegedAction<Map<String, Integer>>() {
+            public Map<String, Integer> run() {
+                Properties profile = new Properties();
+                try (InputStream in = new FileInputStream(fileName)) {
+                    profile.load(in);
+                } catch (IOException e) {
+                    return null;
+                }
+                if (!arch.equals(profile.getProperty("os.arch"))
+                        || !javaVersion.equals(profile.getProperty("java.version"))) {
+                    return null;
+                }
+
+                Map<String, Integer> loaded = new LinkedHashMap<String, Integer>();
+                try {
+                    for (String algorithm : ALGORITHMS) {
+                        int threshold = Integer
+                                .parseInt(profile.getProperty("threshold." + algorithm, "").trim());
+                        loaded.put(algorithm, clamp(threshold));
+                    }
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                return loaded;
+            }
+        });
+    }
+
+    private static void storeProfile(String fileName, String arch, String javaVersion,
+            Map<String, Integer> measured) {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                Properties profile = new Properties();
+                profile.setProperty("os.arch", arch);
+                profile.setProperty("java.version", javaVersion);
+                for (Map.Entry<String, Integer> entry : measured.entrySet()) {
+                    profile.setProperty("threshold." + entry.getKey(),
+                            entry.getValue().toString());
+                }
+
+                // Write to a temporary file first, so that a JVM starting at
+                // the same time never reads a partial profile.
+                File file = new File(fileName);
+                File temp = new File(fileName + ".tmp");
+                try (OutputStream out = new FileOutputStream(temp)) {
+                    profile.store(out, "OpenJCEPlus transfer calibration");
+                } catch (IOException | SecurityException e) {
+                    temp.delete();
+                    return null;
+                }
+                if (!temp.renameTo(file)) {
+                    // Some platforms do not replace an existing file.
+                    file.delete();
+                    if (!temp.renameTo(file)) {
+                        temp.delete();
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private static String getProperty(String name) {
+        return AccessController.doPrivileged(new PrivilegedAction<String>() {
+            public String run() {
+                return System.getProperty(name);
+            }
+        });
+    }
+}
@@ -35,6 +35,9 @@ public final class XECKey implements AsymmetricKey {
         //final String methodName = "XECKey(long, byte[], byte[]) ";
         this.ockContext = ockContext;
         this.xecKeyId = xecKeyId;
+        if (xecKeyId != 0) {
+            ockContext.getStatistics().created(NativeStatistics.Handle.XEC_KEY, xecKeyId);
+        }
         this.privateKeyBytes = privateKeyBytes;
         this.publicKeyBytes = publicKeyBytes;
     }
@@ -122,6 +125,7 @@ public final class XECKey implements AsymmetricKey {
 
             if (xecKeyId != 0) {
                 NativeInterface.XECKEY_delete(ockContext.getId(), xecKeyId);
+                ockContext.getStatistics().freed(NativeStatistics.Handle.XEC_KEY, xecKeyId);
                 xecKeyId = 0;
             }
         } finally {
@@ -1,5 +1,5 @@
 /*
- * Copyright IBM Corp. 2023
+ * Copyright IBM Corp. 2023, 2024
  *
  * Licensed under the Apache License 2.0 (the "License").  You may not use
  * this file except in compliance with the License.  You can obtain a copy
@@ -19,6 +19,9 @@ public class CCMParameterSpec implements AlgorithmParameterSpec {
     // Authentication tag bit length.
     private int tLen;
 
+    // Payload length in bytes, or -1 if not known up front.
+    private long payloadLen = -1;
+
     /**
      * Constructs a CCMParameterSpec object using the specified
      * authentication tag bit-length and the specified initialization vector.
@@ -57,6 +60,41 @@ public class CCMParameterSpec implements AlgorithmParameterSpec {
         init(tLen, ivBuffer, ivOffset, ivLen);
     }
 
+    /**
+     * Constructs a CCMParameterSpec object using the specified
+     * authentication tag bit-length, initialization vector and payload
+     * length.
+     *
+     * <p>CCM authenticates the payload length before any payload is
+     * processed. Knowing it up front allows an encrypting cipher to process
+     * the payload chunk by chunk through {@code Cipher.update} instead of
+     * requiring the whole message in a single {@code Cipher.doFinal} call.
+     * The data passed to {@code update} and {@code doFinal} must add up to
+     * exactly {@code payloadLen} bytes, not counting the tag.
+     *
+     * @param tLen the authentication tag bit length.
+     * @param iv the initialization vector.
+     * @param payloadLen the length of the plaintext in bytes.
+     *
+     * @throws IllegalArgumentException if {@code tLen} is not an integer multiple of 16
+     * between 32 and 128 inclusive, or if {@code iv} is null,
+     * or if the byte length of {@code iv} is not between 7 to 13 inclusive,
+     * or if {@code payloadLen} is negative or too large to be encoded with
+     * the given IV length.
+     */
+    public CCMParameterSpec(int tLen, byte[] iv, long payloadLen) {
+        this(tLen, iv);
+
+        // The length is encoded in the 15 - ivLen bytes left over by the IV
+        int lengthFieldBits = 8 * (15 - this.iv.length);
+        if ((payloadLen < 0) || ((lengthFieldBits < 64) && ((payloadLen >>> lengthFieldBits) != 0))) {
+            throw new IllegalArgumentException(
+                    "The payload length must be between 0 and 2^" + lengthFieldBits
+                            + " - 1 for a " + this.iv.length + " byte IV.");
+        }
+        this.payloadLen = payloadLen;
+    }
+
     /*
      * Check input parameters.
      */
@@ -126,4 +164,13 @@ public class CCMParameterSpec implements AlgorithmParameterSpec {
         return iv.clone();
     }
 
+    /**
+     * Returns the payload length.
+     *
+     * @return the payload length (in bytes), or -1 if it was not specified
+     */
+    public long getPayloadLen() {
+        return this.payloadLen;
+    }
+
 }
@@ -23,6 +23,8 @@
 #define ICC_AES_CCM_CRYPTFINAL_FAILED 4
 #define GetPRIMITICEARRAYCRITICAL 5
 #define ICC_AES_CCM_TAG_MISMATCH 6
+#define CCM_STREAM_UPDATE_FAILED 7
+#define CCM_STREAM_FINAL_FAILED 8
 
 
 #ifdef WINDOWS
@@ -599,3 +601,447 @@ int OpenSSLError(ICC_CTX *ICC_ctx,const int line) {
     }
     return retcode;
 }
+
+/*============================================================================
+ * Streaming AES/CCM
+ *
+ * CCM needs the payload length before the first payload byte is processed,
+ * because it is part of the first CBC-MAC block. When the caller knows it
+ * up front the payload can be processed chunk by chunk: the CBC-MAC is
+ * computed with an AES-CBC context (zero IV, no padding, the last output
+ * block being the MAC state) and the payload is encrypted with an AES-CTR
+ * context started at counter block A0, whose first key stream block S0 is
+ * kept to encrypt the tag.
+ *
+ * Only encryption is streamed. Decryption must verify the tag before any
+ * plaintext is released, so it always goes through the one-shot functions.
+ */
+#define CCM_BLOCK_SIZE 16
+#define CCM_STREAM_SCRATCH_SIZE 1024
+
+typedef struct CCMStream
+{
+  ICC_EVP_CIPHER_CTX * macCtx;
+  ICC_EVP_CIPHER_CTX * ctrCtx;
+  unsigned char        mac[CCM_BLOCK_SIZE];
+  unsigned char        partial[CCM_BLOCK_SIZE];
+  int                  partialLen;
+  unsigned char        s0[CCM_BLOCK_SIZE];
+  int                  tagLen;
+  jlong                remaining;
+} CCMStream;
+
+static void CCM_stream_free(ICC_CTX *ockCtx, CCMStream *stream) {
+  if (stream != NULL) {
+    if (stream->macCtx != NULL) {
+      ICC_EVP_CIPHER_CTX_free(ockCtx, stream->macCtx);
+    }
+    if (stream->ctrCtx != NULL) {
+      ICC_EVP_CIPHER_CTX_free(ockCtx, stream->ctrCtx);
+    }
+    memset(stream, 0, sizeof(CCMStream));
+    free(stream);
+  }
+}
+
+/* Runs full blocks through the CBC-MAC context, keeping the last block */
+static int CCM_stream_macBlocks(ICC_CTX *ockCtx, CCMStream *stream, unsigned char *data, int len) {
+  unsigned char scratch[CCM_STREAM_SCRATCH_SIZE];
+  int outLen = 0;
+  int chunk = 0;
+
+  while (len > 0) {
+    chunk = (len > CCM_STREAM_SCRATCH_SIZE) ? CCM_STREAM_SCRATCH_SIZE : len;
+    if (ICC_EVP_EncryptUpdate(ockCtx, stream->macCtx, scratch, &outLen, data, chunk) != ICC_OSSL_SUCCESS
+        || outLen != chunk) {
+      return ICC_OSSL_FAILURE;
+    }
+    memcpy(stream->mac, scratch + chunk - CCM_BLOCK_SIZE, CCM_BLOCK_SIZE);
+    data += chunk;
+    len -= chunk;
+  }
+  return ICC_OSSL_SUCCESS;
+}
+
+static int CCM_stream_mac(ICC_CTX *ockCtx, CCMStream *stream, unsigned char *data, int len) {
+  int take = 0;
+  int full = 0;
+
+  if (stream->partialLen > 0) {
+    take = CCM_BLOCK_SIZE - stream->partialLen;
+    if (take > len) {
+      take = len;
+    }
+    memcpy(stream->partial + stream->partialLen, data, take);
+    stream->partialLen += take;
+    data += take;
+    len -= take;
+    if (stream->partialLen < CCM_BLOCK_SIZE) {
+      return ICC_OSSL_SUCCESS;
+    }
+    if (CCM_stream_macBlocks(ockCtx, stream, stream->partial, CCM_BLOCK_SIZE) != ICC_OSSL_SUCCESS) {
+      return ICC_OSSL_FAILURE;
+    }
+    stream->partialLen = 0;
+  }
+
+  full = len - (len % CCM_BLOCK_SIZE);
+  if (full > 0 && CCM_stream_macBlocks(ockCtx, stream, data, full) != ICC_OSSL_SUCCESS) {
+    return ICC_OSSL_FAILURE;
+  }
+  memcpy(stream->partial, data + full, len - full);
+  stream->partialLen = len - full;
+  return ICC_OSSL_SUCCESS;
+}
+
+/* Zero pads and MACs a trailing partial block */
+static int CCM_stream_macPad(ICC_CTX *ockCtx, CCMStream *stream) {
+  if (stream->partialLen > 0) {
+    memset(stream->partial + stream->partialLen, 0, CCM_BLOCK_SIZE - stream->partialLen);
+    stream->partialLen = 0;
+    return CCM_stream_macBlocks(ockCtx, stream, stream->partial, CCM_BLOCK_SIZE);
+  }
+  return ICC_OSSL_SUCCESS;
+}
+
+static const char * CCM_stream_cipherName(int keyLen, int isCTR) {
+  switch (keyLen) {
+    case 16:
+      return isCTR ? "AES-128-CTR" : "AES-128-CBC";
+    case 24:
+      return isCTR ? "AES-192-CTR" : "AES-192-CBC";
+    case 32:
+      return isCTR ? "AES-256-CTR" : "AES-256-CBC";
+    default:
+      return NULL;
+  }
+}
+
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    do_CCM_streamCreate
+ * Signature: (J[B[B[BJI)J
+ */
+JNIEXPORT jlong JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_do_1CCM_1streamCreate
+  (JNIEnv *env, jclass unusedClass, jlong ockContextId, jbyteArray key, jbyteArray iv,
+   jbyteArray aad, jlong payloadLen, jint tagLen)
+{
+  static const char * functionName = "NativeInterface.do_CCM_streamCreate";
+
+  ICC_CTX *       ockCtx     = (ICC_CTX *)((intptr_t) ockContextId);
+  CCMStream *     stream     = NULL;
+  unsigned char * keyNative  = NULL;
+  unsigned char * ivNative   = NULL;
+  unsigned char * aadNative  = NULL;
+  const char *    macName    = NULL;
+  const char *    ctrName    = NULL;
+  unsigned char   block[CCM_BLOCK_SIZE];
+  unsigned char   zeros[CCM_BLOCK_SIZE];
+  unsigned char   aadHeader[6];
+  int             aadHeaderLen = 0;
+  int             keyLen     = 0;
+  int             ivLen      = 0;
+  int             aadLen     = 0;
+  int             lenFieldLen = 0;
+  int             outLen     = 0;
+  int             i          = 0;
+  int             rc         = ICC_OSSL_FAILURE;
+  jlong           retStream  = 0;
+  jboolean        isCopy     = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((key == NULL) || (iv == NULL)) {
+    throwOCKException(env, 0, "The specified CCM stream arguments are incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return 0;
+  }
+
+  keyLen = (*env)->GetArrayLength(env, key);
+  ivLen  = (*env)->GetArrayLength(env, iv);
+  aadLen = (aad == NULL) ? 0 : (*env)->GetArrayLength(env, aad);
+  lenFieldLen = 15 - ivLen;
+  macName = CCM_stream_cipherName(keyLen, 0);
+  ctrName = CCM_stream_cipherName(keyLen, 1);
+
+  if ((macName == NULL) || (ivLen < 7) || (ivLen > 13) || (tagLen < 4) || (tagLen > 16)
+      || (tagLen & 1) || (payloadLen < 0)
+      || ((lenFieldLen < 8) && ((payloadLen >> (8 * lenFieldLen)) != 0))) {
+    throwOCKException(env, 0, "The specified CCM stream parameters are incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return 0;
+  }
+
+  stream = (CCMStream *)calloc(1, sizeof(CCMStream));
+  if (stream == NULL) {
+    throwOCKException(env, 0, "Error allocating CCMStream");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return 0;
+  }
+  stream->tagLen = tagLen;
+  stream->remaining = payloadLen;
+
+  stream->macCtx = ICC_EVP_CIPHER_CTX_new(ockCtx);
+  stream->ctrCtx = ICC_EVP_CIPHER_CTX_new(ockCtx);
+  if ((stream->macCtx == NULL) || (stream->ctrCtx == NULL)) {
+    ockCheckStatus(ockCtx);
+    CCM_stream_free(ockCtx, stream);
+    throwOCKException(env, 0, "ICC_EVP_CIPHER_CTX_new failed");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return 0;
+  }
+  ICC_EVP_CIPHER_CTX_init(ockCtx, stream->macCtx);
+  ICC_EVP_CIPHER_CTX_init(ockCtx, stream->ctrCtx);
+
+  keyNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, key, &isCopy));
+  ivNative  = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, iv, &isCopy));
+  if (aadLen > 0) {
+    aadNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, aad, &isCopy));
+  }
+
+  if ((keyNative != NULL) && (ivNative != NULL) && ((aadLen == 0) || (aadNative != NULL))) {
+    memset(zeros, 0, CCM_BLOCK_SIZE);
+
+    rc = ICC_EVP_EncryptInit(ockCtx, stream->macCtx,
+            ICC_EVP_get_cipherbyname(ockCtx, macName), keyNative, zeros);
+    if (rc == ICC_OSSL_SUCCESS) {
+      rc = ICC_EVP_CIPHER_CTX_set_padding(ockCtx, stream->macCtx, 0);
+    }
+
+    // B0 = flags || nonce || payload length
+    if (rc == ICC_OSSL_SUCCESS) {
+      block[0] = (unsigned char)(((aadLen > 0) ? 0x40 : 0) | (((tagLen - 2) / 2) << 3) | (lenFieldLen - 1));
+      memcpy(block + 1, ivNative, ivLen);
+      for (i = 0; i < lenFieldLen; i++) {
+        block[CCM_BLOCK_SIZE - 1 - i] = (i < 8) ? (unsigned char)(payloadLen >> (8 * i)) : 0;
+      }
+      rc = CCM_stream_mac(ockCtx, stream, block, CCM_BLOCK_SIZE);
+    }
+
+    // Encoded AAD length, the AAD, then zero padding
+    if ((rc == ICC_OSSL_SUCCESS) && (aadLen > 0)) {
+      if (aadLen < 0xFF00) {
+        aadHeader[0] = (unsigned char)(aadLen >> 8);
+        aadHeader[1] = (unsigned char)aadLen;
+        aadHeaderLen = 2;
+      } else {
+        aadHeader[0] = 0xFF;
+        aadHeader[1] = 0xFE;
+        aadHeader[2] = (unsigned char)(aadLen >> 24);
+        aadHeader[3] = (unsigned char)(aadLen >> 16);
+        aadHeader[4] = (unsigned char)(aadLen >> 8);
+        aadHeader[5] = (unsigned char)aadLen;
+        aadHeaderLen = 6;
+      }
+      rc = CCM_stream_mac(ockCtx, stream, aadHeader, aadHeaderLen);
+      if (rc == ICC_OSSL_SUCCESS) {
+        rc = CCM_stream_mac(ockCtx, stream, aadNative, aadLen);
+      }
+      if (rc == ICC_OSSL_SUCCESS) {
+        rc = CCM_stream_macPad(ockCtx, stream);
+      }
+    }
+
+    // A0 = flags || nonce || 0, its key stream block S0 encrypts the tag
+    // and leaves the counter at A1 for the payload
+    if (rc == ICC_OSSL_SUCCESS) {
+      memset(block, 0, CCM_BLOCK_SIZE);
+      block[0] = (unsigned char)(lenFieldLen - 1);
+      memcpy(block + 1, ivNative, ivLen);
+      rc = ICC_EVP_EncryptInit(ockCtx, stream->ctrCtx,
+              ICC_EVP_get_cipherbyname(ockCtx, ctrName), keyNative, block);
+    }
+    if (rc == ICC_OSSL_SUCCESS) {
+      rc = ICC_EVP_EncryptUpdate(ockCtx, stream->ctrCtx, stream->s0, &outLen, zeros, CCM_BLOCK_SIZE);
+      if ((rc == ICC_OSSL_SUCCESS) && (outLen != CCM_BLOCK_SIZE)) {
+        rc = ICC_OSSL_FAILURE;
+      }
+    }
+  }
+
+  if (keyNative != NULL) {
+    (*env)->ReleasePrimitiveArrayCritical(env, key, keyNative, JNI_ABORT);
+  }
+  if (ivNative != NULL) {
+    (*env)->ReleasePrimitiveArrayCritical(env, iv, ivNative, JNI_ABORT);
+  }
+  if (aadNative != NULL) {
+    (*env)->ReleasePrimitiveArrayCritical(env, aad, aadNative, JNI_ABORT);
+  }
+
+  if (rc == ICC_OSSL_SUCCESS) {
+    retStream = (jlong)((intptr_t)stream);
+  } else {
+    ockCheckStatus(ockCtx);
+    CCM_stream_free(ockCtx, stream);
+    throwOCKException(env, 0, "Failed to initialize CCM stream");
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return retStream;
+}
+
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    do_CCM_streamUpdate
+ * Signature: (JJ[BII[BI)I
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_do_1CCM_1streamUpdate
+  (JNIEnv *env, jclass unusedClass, jlong ockContextId, jlong streamId, jbyteArray input,
+   jint inputOffset, jint inputLen, jbyteArray output, jint outputOffset)
+{
+  static const char * functionName = "NativeInterface.do_CCM_streamUpdate";
+
+  ICC_CTX *       ockCtx       = (ICC_CTX *)((intptr_t) ockContextId);
+  CCMStream *     stream       = (CCMStream *)((intptr_t) streamId);
+  unsigned char * inputNative  = NULL;
+  unsigned char * outputNative = NULL;
+  int             outLen       = 0;
+  int             ret          = 0;
+  jboolean        isCopy       = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((stream == NULL) || (inputLen < 0) || ((jlong)inputLen > stream->remaining)) {
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return CCM_STREAM_UPDATE_FAILED;
+  }
+  if (inputLen == 0) {
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return 0;
+  }
+
+  inputNative  = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, input, &isCopy));
+  outputNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, output, &isCopy));
+
+  if ((inputNative == NULL) || (outputNative == NULL)) {
+    ret = GetPRIMITICEARRAYCRITICAL;
+  } else {
+    // MAC the plaintext, then encrypt it
+    if ((CCM_stream_mac(ockCtx, stream, inputNative + inputOffset, inputLen) != ICC_OSSL_SUCCESS)
+        || (ICC_EVP_EncryptUpdate(ockCtx, stream->ctrCtx, outputNative + outputOffset, &outLen,
+              inputNative + inputOffset, inputLen) != ICC_OSSL_SUCCESS)) {
+      ret = CCM_STREAM_UPDATE_FAILED;
+    }
+  }
+
+  if (ret == 0) {
+    stream->remaining -= inputLen;
+  } else {
+    ockCheckStatus(ockCtx);
+  }
+
+  if (inputNative != NULL) {
+    (*env)->ReleasePrimitiveArrayCritical(env, input, inputNative, JNI_ABORT);
+  }
+  if (outputNative != NULL) {
+    (*env)->ReleasePrimitiveArrayCritical(env, output, outputNative, 0);
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return (jint)ret;
+}
+
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    do_CCM_streamFinal
+ * Signature: (JJ[BI)I
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_do_1CCM_1streamFinal
+  (JNIEnv *env, jclass unusedClass, jlong ockContextId, jlong streamId, jbyteArray tag,
+   jint tagOffset)
+{
+  static const char * functionName = "NativeInterface.do_CCM_streamFinal";
+
+  ICC_CTX *       ockCtx    = (ICC_CTX *)((intptr_t) ockContextId);
+  CCMStream *     stream    = (CCMStream *)((intptr_t) streamId);
+  unsigned char * tagNative = NULL;
+  int             ret       = 0;
+  int             i         = 0;
+  jboolean        isCopy    = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  // The whole announced payload must have been processed
+  if ((stream == NULL) || (stream->remaining != 0)) {
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return CCM_STREAM_FINAL_FAILED;
+  }
+
+  if (CCM_stream_macPad(ockCtx, stream) != ICC_OSSL_SUCCESS) {
+    ockCheckStatus(ockCtx);
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return CCM_STREAM_FINAL_FAILED;
+  }
+
+  tagNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, tag, &isCopy));
+  if (tagNative == NULL) {
+    ret = GetPRIMITICEARRAYCRITICAL;
+  } else {
+    for (i = 0; i < stream->tagLen; i++) {
+      tagNative[tagOffset + i] = stream->mac[i] ^ stream->s0[i];
+    }
+  }
+
+  if (tagNative != NULL) {
+    (*env)->ReleasePrimitiveArrayCritical(env, tag, tagNative, 0);
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return (jint)ret;
+}
+
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    do_CCM_streamDelete
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_do_1CCM_1streamDelete
+  (JNIEnv *env, jclass unusedClass, jlong ockContextId, jlong streamId)
+{
+  static const char * functionName = "NativeInterface.do_CCM_streamDelete";
+
+  ICC_CTX *   ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+  CCMStream * stream = (CCMStream *)((intptr_t) streamId);
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  CCM_stream_free(ockCtx, stream);
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+}
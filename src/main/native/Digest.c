@@ -224,6 +224,45 @@ JNIEXPORT jlong JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_DI
   return digestCopyId;
 }
 
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    DIGEST_copyInto
+ * Signature: (JJJ)V
+ *
+ * Copies the state of a digest context into an existing context of the same
+ * algorithm, such as one taken from the context cache.
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_DIGEST_1copyInto
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong digestId, jlong targetDigestId)
+{
+  static const char * functionName = "NativeInterface.DIGEST_copyInto";
+
+  ICC_CTX *   ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+  OCKDigest * ockDigest = (OCKDigest *)((intptr_t) digestId);
+  OCKDigest * ockDigestTarget = (OCKDigest *)((intptr_t) targetDigestId);
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((ockDigest == NULL) || (ockDigestTarget == NULL)) {
+    throwOCKException(env, 0, "Digest copy failed. The specified Digest identifiers are incorrect.");
+  } else if (ICC_OSSL_SUCCESS != ICC_EVP_MD_CTX_copy(ockCtx, ockDigestTarget->mdCtx, ockDigest->mdCtx)) {
+#ifdef DEBUG_DIGEST_DETAIL
+    if ( debug ) {
+      gslogMessage ("DETAIL_DIGEST FAILURE ICC_EVP_MD_CTX_copy failed");
+    }
+#endif
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_EVP_MD_CTX_copy failed");
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+}
+
 //============================================================================
 /*
  * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
@@ -565,6 +604,228 @@ JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_DIG
   return (jint)returnResult;
 }
 
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    DIGEST_digestOneShotFastJNI
+ * Signature: (JJJI)I
+ *
+ * Updates the digest with the first dataLen bytes of the buffer, writes the
+ * digest to the start of the same buffer and resets the digest context.
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_DIGEST_1digestOneShotFastJNI
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong digestId, jlong buffer, jint dataLen)
+{
+  static const char * functionName = "NativeInterface.DIGEST_digestOneShotFastJNI";
+
+  ICC_CTX *       ockCtx = (ICC_CTX *)((intptr_t)ockContextId);
+  OCKDigest *     ockDigest = (OCKDigest *)((intptr_t)digestId);
+  unsigned char * bufferNative = (unsigned char *)((intptr_t)buffer);
+  int             returnResult = DIGEST_INTERNAL_SUCCESS;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((ockDigest == NULL) || (bufferNative == NULL) || (dataLen < 0)) {
+    throwOCKException(env, 0, "Digest failed. The specified Digest identifier or buffer is incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return returnResult;
+  }
+#ifdef DEBUG_DIGEST_DATA
+  if( debug ) {
+    gslogMessagePrefix("%d bytes to digest : ", (int)dataLen);
+    gslogMessageHex((char *) bufferNative, 0, (int)dataLen, 0, 0, NULL);
+  }
+#endif
+
+  if( dataLen > 0 ) {
+    returnResult = DIGEST_update_internal(ockCtx, ockDigest, bufferNative, (int)dataLen);
+  }
+
+  if( DIGEST_INTERNAL_SUCCESS <= returnResult ) {
+    returnResult = DIGEST_digest_and_reset_internal(ockCtx, ockDigest, bufferNative);
+  }
+
+  if( DIGEST_INTERNAL_SUCCESS > returnResult ) {
+    ockCheckStatus(ockCtx);
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return (jint)returnResult;
+}
+
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    DIGEST_snapshotFastJNI
+ * Signature: (JJJJ)I
+ *
+ * Copies the state of a digest context into a scratch context of the same
+ * algorithm, writes the digest of the scratch context to the buffer and
+ * resets the scratch context. The digest context itself is left unchanged.
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_DIGEST_1snapshotFastJNI
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong digestId, jlong scratchDigestId, jlong buffer)
+{
+  static const char * functionName = "NativeInterface.DIGEST_snapshotFastJNI";
+
+  ICC_CTX *       ockCtx = (ICC_CTX *)((intptr_t)ockContextId);
+  OCKDigest *     ockDigest = (OCKDigest *)((intptr_t)digestId);
+  OCKDigest *     ockDigestScratch = (OCKDigest *)((intptr_t)scratchDigestId);
+  unsigned char * bufferNative = (unsigned char *)((intptr_t)buffer);
+  int             returnResult = DIGEST_INTERNAL_SUCCESS;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((ockDigest == NULL) || (ockDigestScratch == NULL) || (bufferNative == NULL)) {
+    throwOCKException(env, 0, "Digest failed. The specified Digest identifiers or buffer are incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return returnResult;
+  }
+
+  if( ICC_OSSL_SUCCESS != ICC_EVP_MD_CTX_copy(ockCtx, ockDigestScratch->mdCtx, ockDigest->mdCtx) ) {
+    returnResult = FAIL_DIGEST_COPY;
+  } else {
+    returnResult = DIGEST_digest_and_reset_internal(ockCtx, ockDigestScratch, bufferNative);
+  }
+
+  if( DIGEST_INTERNAL_SUCCESS > returnResult ) {
+    ockCheckStatus(ockCtx);
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return (jint)returnResult;
+}
+
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    DIGEST_digestBatch
+ * Signature: (JJ[[B[I[I[BI)V
+ *
+ * Digests count = length(buffers) independent messages, message i being
+ * lengths[i] bytes of buffers[i] starting at offsets[i]. The digests are
+ * written one after the other to output starting at outputOffset. The
+ * digest context is reset before and after every message.
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_DIGEST_1digestBatch
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong digestId, jobjectArray buffers,
+   jintArray offsets, jintArray lengths, jbyteArray output, jint outputOffset)
+{
+  static const char * functionName = "NativeInterface.DIGEST_digestBatch";
+
+  ICC_CTX *       ockCtx = (ICC_CTX *)((intptr_t)ockContextId);
+  OCKDigest *     ockDigest = (OCKDigest *)((intptr_t)digestId);
+  jint *          offsetsNative = NULL;
+  jint *          lengthsNative = NULL;
+  unsigned char * digestsNative = NULL;
+  unsigned int    digestLen = 0;
+  int             mdSize = 0;
+  jsize           count = 0;
+  jsize           i = 0;
+  int             failed = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if( (ockDigest == NULL) || (ockDigest->mdCtx == NULL) || (buffers == NULL) || (offsets == NULL)
+      || (lengths == NULL) || (output == NULL) ) {
+    throwOCKException(env, 0, "Digest batch failed. The specified Digest identifier or the batch is incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return;
+  }
+
+  count = (*env)->GetArrayLength(env, buffers);
+  mdSize = ICC_EVP_MD_size(ockCtx, ockDigest->md);
+  if( (mdSize <= 0) || ((*env)->GetArrayLength(env, offsets) != count)
+      || ((*env)->GetArrayLength(env, lengths) != count) || (outputOffset < 0)
+      || (((jlong) count * mdSize) > ((*env)->GetArrayLength(env, output) - (jlong) outputOffset)) ) {
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "Internal inconsistency while validating the batch lengths");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return;
+  }
+
+  offsetsNative = (*env)->GetIntArrayElements(env, offsets, NULL);
+  lengthsNative = (*env)->GetIntArrayElements(env, lengths, NULL);
+  digestsNative = (unsigned char *)malloc((count > 0) ? ((size_t) count * mdSize) : 1);
+  if( (offsetsNative == NULL) || (lengthsNative == NULL) || (digestsNative == NULL) ) {
+    throwOCKException(env, 0, "Failed to allocate memory for the batch");
+    failed = 1;
+  } else if( ICC_EVP_DigestInit(ockCtx, ockDigest->mdCtx, ockDigest->md) != ICC_OSSL_SUCCESS ) {
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_EVP_DigestInit failed");
+    failed = 1;
+  }
+
+  for( i = 0; (i < count) && !failed; i++ ) {
+    jbyteArray      bufferBytes = (jbyteArray)(*env)->GetObjectArrayElement(env, buffers, i);
+    unsigned char * bufferNative = NULL;
+
+    if( (bufferBytes == NULL) || (offsetsNative[i] < 0) || (lengthsNative[i] < 0)
+        || (lengthsNative[i] > ((*env)->GetArrayLength(env, bufferBytes) - offsetsNative[i])) ) {
+      throwOCKException(env, 0, "Invalid batch entry");
+      failed = 1;
+    } else {
+      bufferNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, bufferBytes, NULL));
+      if( bufferNative == NULL ) {
+        throwOCKException(env, 0, "NULL from GetPrimitiveArrayCritical!");
+        failed = 1;
+      } else {
+        digestLen = (unsigned int) mdSize;
+        if( (ICC_EVP_DigestUpdate(ockCtx, ockDigest->mdCtx, bufferNative + offsetsNative[i], (int) lengthsNative[i]) != ICC_OSSL_SUCCESS)
+            || (ICC_EVP_DigestFinal(ockCtx, ockDigest->mdCtx, digestsNative + ((size_t) i * mdSize), &digestLen) != ICC_OSSL_SUCCESS)
+            || (ICC_EVP_DigestInit(ockCtx, ockDigest->mdCtx, ockDigest->md) != ICC_OSSL_SUCCESS) ) {
+          failed = 1;
+        }
+        (*env)->ReleasePrimitiveArrayCritical(env, bufferBytes, bufferNative, JNI_ABORT);
+        if( failed ) {
+          ockCheckStatus(ockCtx);
+          throwOCKException(env, 0, "Failed to digest batch entry");
+        }
+      }
+    }
+
+    if( bufferBytes != NULL ) {
+      (*env)->DeleteLocalRef(env, bufferBytes);
+    }
+  }
+
+  if( !failed && (count > 0) ) {
+    (*env)->SetByteArrayRegion(env, output, outputOffset, count * mdSize, (jbyte *) digestsNative);
+  }
+
+  if( digestsNative != NULL ) {
+    free(digestsNative);
+  }
+  if( lengthsNative != NULL ) {
+    (*env)->ReleaseIntArrayElements(env, lengths, lengthsNative, JNI_ABORT);
+  }
+  if( offsetsNative != NULL ) {
+    (*env)->ReleaseIntArrayElements(env, offsets, offsetsNative, JNI_ABORT);
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+}
+
 //============================================================================
 /*
  * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
@@ -27,6 +27,9 @@
 #define NID_ED25519             1087
 #define NID_ED448               1088
 
+/* Largest digest produced by the digests usable with ECDSA (SHA-512, SHA3-512) */
+#define EC_BATCH_MAX_DIGEST_LEN 64
+
 /* Note: when making ICC_D2i calls do not pass the address of a pointer allocated
  by GetPrimitiveArrayCritical.  Instead make a copy and pass the address of the copied pointer
    For Example,  instead of  passing  parameterBytesNative, 
@@ -1287,6 +1290,271 @@ JNIEXPORT jlong JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_EC
   return ecKeyId;
 }
 
+//============================================================================
+/*
+ * Returns 1 if 0 < scalar < order of the group, and 0 otherwise.
+ */
+static int isScalarInRange(ICC_CTX * ockCtx, const ICC_EC_GROUP * ockECGroup, ICC_BIGNUM * scalar)
+{
+  ICC_BIGNUM * order = NULL;
+  int          inRange = 0;
+
+  /* A scalar of zero has no significant bytes */
+  if ((ockECGroup == NULL) || (ICC_BN_num_bytes(ockCtx, scalar) == 0)) {
+    return 0;
+  }
+
+  order = ICC_BN_new(ockCtx);
+  if (order != NULL) {
+    if (ICC_EC_GROUP_get_order(ockCtx, ockECGroup, order, NULL) == ICC_OSSL_SUCCESS) {
+      inRange = (ICC_BN_cmp(ockCtx, scalar, order) < 0);
+    } else {
+      ockCheckStatus(ockCtx);
+    }
+    ICC_BN_clear_free(ockCtx, order);
+  }
+
+  return inRange;
+}
+
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    ECKEY_createPrivateKeyFromScalar
+ * Signature: (JLjava/lang/String;[B)J
+ */
+JNIEXPORT jlong JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_ECKEY_1createPrivateKeyFromScalar
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jstring soid, jbyteArray scalarBytes)
+{
+  static const char * functionName = "NativeInterface.ECKEY_createPrivateKeyFromScalar";
+
+  ICC_CTX *            ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+  ICC_EC_KEY *         ockECKey = NULL;
+  const ICC_EC_GROUP * ockECGroup = NULL;
+  ICC_EC_POINT *       ockPubPoint = NULL;
+  ICC_BIGNUM *         ockPrivBN = NULL;
+  const char *         nativeSoid = NULL;
+  unsigned char *      scalarBytesNative = NULL;
+  jboolean             isCopy = 0;
+  jlong                ecKeyId = 0;
+  jint                 size = 0;
+  int                  nid = 0;
+  int                  rc = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((soid == NULL) || (scalarBytes == NULL)) {
+    throwOCKException(env, 0, "Creating EC Private Key failed. The specified input parameters are incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  nativeSoid = (*env)->GetStringUTFChars(env, soid, NULL);
+  if (nativeSoid == NULL) {
+    throwOCKException(env, 0, "Creating EC Private Key failed (GetStringUTFChars)");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  nid = ICC_OBJ_txt2nid(ockCtx, (char *) nativeSoid);
+  (*env)->ReleaseStringUTFChars(env, soid, nativeSoid);
+  if (nid <= 0) {
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_OBJ_txt2nid failed");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  ockECKey = ICC_EC_KEY_new_by_curve_name(ockCtx, nid);
+  if (ockECKey == NULL) {
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_EC_KEY_new_by_curve_name failed");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  ockECGroup = ICC_EC_KEY_get0_group(ockCtx, ockECKey);
+  if (ockECGroup != NULL) {
+    ICC_EC_GROUP_set_asn1_flag(ockCtx, (ICC_EC_GROUP *)ockECGroup, 1);
+  }
+
+  scalarBytesNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, scalarBytes, &isCopy));
+  if (scalarBytesNative == NULL) {
+    throwOCKException(env, 0, "NULL from GetPrimitiveArrayCritical!");
+  } else {
+    size = (*env)->GetArrayLength(env, scalarBytes);
+    ockPrivBN = ICC_BN_bin2bn(ockCtx, scalarBytesNative, (int)size, NULL);
+    (*env)->ReleasePrimitiveArrayCritical(env, scalarBytes, scalarBytesNative, 0);
+    scalarBytesNative = NULL;
+
+    if (ockPrivBN == NULL) {
+      ockCheckStatus(ockCtx);
+      throwOCKException(env, 0, "ICC_BN_bin2bn failed");
+    } else if (!isScalarInRange(ockCtx, ockECGroup, ockPrivBN)) {
+      throwOCKException(env, 0, "The EC private key must be between 1 and the order of the curve minus 1");
+    } else {
+      rc = ICC_EC_KEY_set_private_key(ockCtx, ockECKey, ockPrivBN);
+      if (rc != ICC_OSSL_SUCCESS) {
+        ockCheckStatus(ockCtx);
+        throwOCKException(env, 0, "ICC_EC_KEY_set_private_key failed");
+      } else {
+        /* Derive the public point the same way ICC_d2i_ECPrivateKey does
+           when the encoding carries no public key. */
+        ockPubPoint = ICC_EC_POINT_new(ockCtx, ockECGroup);
+        if (ockPubPoint == NULL) {
+          ockCheckStatus(ockCtx);
+          throwOCKException(env, 0, "ICC_EC_POINT_new failed");
+        } else if (ICC_EC_POINT_mul(ockCtx, ockECGroup, ockPubPoint, ockPrivBN, NULL, NULL, NULL) != ICC_OSSL_SUCCESS) {
+          ockCheckStatus(ockCtx);
+          throwOCKException(env, 0, "ICC_EC_POINT_mul failed");
+        } else if (ICC_EC_KEY_set_public_key(ockCtx, ockECKey, ockPubPoint) != ICC_OSSL_SUCCESS) {
+          ockCheckStatus(ockCtx);
+          throwOCKException(env, 0, "ICC_EC_KEY_set_public_key failed");
+        } else {
+          ecKeyId = (jlong)((intptr_t)ockECKey);
+#ifdef DEBUG_EC_DETAIL
+          if ( debug ) {
+            gslogMessage ("DETAIL_EC returning ecKeyId=%lx", ecKeyId);
+          }
+#endif
+        }
+      }
+    }
+  }
+
+  if (ockPubPoint != NULL) {
+    ICC_EC_POINT_free(ockCtx, ockPubPoint);
+    ockPubPoint = NULL;
+  }
+
+  if (ockPrivBN != NULL) {
+    ICC_BN_clear_free(ockCtx, ockPrivBN);
+    ockPrivBN = NULL;
+  }
+
+  if ((ockECKey != NULL) && (ecKeyId == 0)) {
+    ICC_EC_KEY_free(ockCtx, ockECKey);
+    ockECKey = NULL;
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return ecKeyId;
+}
+
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    ECKEY_createPublicKeyFromPoint
+ * Signature: (JLjava/lang/String;[B)J
+ */
+JNIEXPORT jlong JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_ECKEY_1createPublicKeyFromPoint
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jstring soid, jbyteArray pointBytes)
+{
+  static const char * functionName = "NativeInterface.ECKEY_createPublicKeyFromPoint";
+
+  ICC_CTX *            ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+  ICC_EC_KEY *         ockECKey = NULL;
+  const ICC_EC_GROUP * ockECGroup = NULL;
+  const char *         nativeSoid = NULL;
+  unsigned char *      pointBytesNative = NULL;
+  unsigned char *      pPointBytes = NULL;
+  jboolean             isCopy = 0;
+  jlong                ecKeyId = 0;
+  jint                 size = 0;
+  int                  nid = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  if ((soid == NULL) || (pointBytes == NULL)) {
+    throwOCKException(env, 0, "Creating EC Public Key failed. The specified input parameters are incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  nativeSoid = (*env)->GetStringUTFChars(env, soid, NULL);
+  if (nativeSoid == NULL) {
+    throwOCKException(env, 0, "Creating EC Public Key failed (GetStringUTFChars)");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  nid = ICC_OBJ_txt2nid(ockCtx, (char *) nativeSoid);
+  (*env)->ReleaseStringUTFChars(env, soid, nativeSoid);
+  if (nid <= 0) {
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_OBJ_txt2nid failed");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  ockECKey = ICC_EC_KEY_new_by_curve_name(ockCtx, nid);
+  if (ockECKey == NULL) {
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_EC_KEY_new_by_curve_name failed");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return ecKeyId;
+  }
+
+  ockECGroup = ICC_EC_KEY_get0_group(ockCtx, ockECKey);
+  if (ockECGroup != NULL) {
+    ICC_EC_GROUP_set_asn1_flag(ockCtx, (ICC_EC_GROUP *)ockECGroup, 1);
+  }
+
+  pointBytesNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, pointBytes, &isCopy));
+  if (pointBytesNative == NULL) {
+    throwOCKException(env, 0, "NULL from GetPrimitiveArrayCritical!");
+  } else {
+    pPointBytes = pointBytesNative;
+    size = (*env)->GetArrayLength(env, pointBytes);
+    if (ICC_o2i_ECPublicKey(ockCtx, &ockECKey, &pPointBytes, (long)size) == NULL) {
+      ockCheckStatus(ockCtx);
+      throwOCKException(env, 0, "ICC_o2i_ECPublicKey failed");
+    } else {
+      ecKeyId = (jlong)((intptr_t)ockECKey);
+#ifdef DEBUG_EC_DETAIL
+      if ( debug ) {
+        gslogMessage ("DETAIL_EC returning ecKeyId=%lx", ecKeyId);
+      }
+#endif
+    }
+    (*env)->ReleasePrimitiveArrayCritical(env, pointBytes, pointBytesNative, 0);
+  }
+
+  if ((ockECKey != NULL) && (ecKeyId == 0)) {
+    ICC_EC_KEY_free(ockCtx, ockECKey);
+    ockECKey = NULL;
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return ecKeyId;
+}
+
 //============================================================================
 /*
  * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
@@ -2466,3 +2734,172 @@ JNIEXPORT jboolean JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface
   return (verified == 1);
   
 }
+
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    ECKEY_verifyBatchWithECDSA
+ * Signature: (JLjava/lang/String;[J[[B[[B[J)V
+ *
+ * Verifies count = length(pubEcKeyIds) ECDSA signatures. When digestAlgo is
+ * not NULL each data entry is digested with it first, otherwise each data
+ * entry already holds the digest. Bit i of results is set when signature i
+ * verified. A malformed signature or a failing verification only clears the
+ * corresponding bit, an exception is thrown only for internal failures.
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_ECKEY_1verifyBatchWithECDSA
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jstring digestAlgo, jlongArray pubEcKeyIds, jobjectArray data, jobjectArray sigs, jlongArray results)
+{
+  static const char * functionName = "NativeInterface_ECKEY_1verifyBatchWithECDSA";
+
+  ICC_CTX *             ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+  const char *          digestAlgoChars = NULL;
+  const ICC_EVP_MD *    md = NULL;
+  ICC_EVP_MD_CTX *      mdCtx = NULL;
+  jlong *               keyIdsNative = NULL;
+  jlong *               resultsNative = NULL;
+  unsigned char         digest[EC_BATCH_MAX_DIGEST_LEN];
+  unsigned int          digestLen = 0;
+  jsize                 count = 0;
+  jsize                 resultsLen = 0;
+  jsize                 i = 0;
+  int                   failed = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+
+  count = (*env)->GetArrayLength(env, pubEcKeyIds);
+  resultsLen = (*env)->GetArrayLength(env, results);
+  if( ((*env)->GetArrayLength(env, data) != count) || ((*env)->GetArrayLength(env, sigs) != count)
+      || (resultsLen < ((count + 63) / 64)) ) {
+    throwOCKException(env, 0, "Internal inconsistency while validating the batch lengths");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return;
+  }
+
+  if( digestAlgo != NULL ) {
+    digestAlgoChars = (*env)->GetStringUTFChars(env, digestAlgo, NULL);
+    if( digestAlgoChars == NULL ) {
+      throwOCKException(env, 0, "GetStringUTFChars() failed");
+      if( debug ) {
+        gslogFunctionExit(functionName);
+      }
+      return;
+    }
+    md = ICC_EVP_get_digestbyname(ockCtx, digestAlgoChars);
+    if( (md == NULL) || (ICC_EVP_MD_size(ockCtx, md) > EC_BATCH_MAX_DIGEST_LEN) ) {
+      ockCheckStatus(ockCtx);
+      throwOCKException(env, 0, "ICC_EVP_get_digestbyname failed");
+      failed = 1;
+    } else {
+      mdCtx = ICC_EVP_MD_CTX_new(ockCtx);
+      if( mdCtx == NULL ) {
+        ockCheckStatus(ockCtx);
+        throwOCKException(env, 0, "ICC_EVP_MD_CTX_new failed");
+        failed = 1;
+      } else {
+        ICC_EVP_MD_CTX_init(ockCtx, mdCtx);
+      }
+    }
+  }
+
+  if( !failed ) {
+    keyIdsNative = (*env)->GetLongArrayElements(env, pubEcKeyIds, NULL);
+    resultsNative = (jlong *)calloc(resultsLen, sizeof(jlong));
+    if( (keyIdsNative == NULL) || (resultsNative == NULL) ) {
+      throwOCKException(env, 0, "Failed to allocate memory for the batch");
+      failed = 1;
+    }
+  }
+
+  for( i = 0; (i < count) && !failed; i++ ) {
+    ICC_EC_KEY *    ockPubEcKey = (ICC_EC_KEY *)((intptr_t) keyIdsNative[i]);
+    jbyteArray      dataBytes = (jbyteArray)(*env)->GetObjectArrayElement(env, data, i);
+    jbyteArray      sigBytes = (jbyteArray)(*env)->GetObjectArrayElement(env, sigs, i);
+    unsigned char * dataNative = NULL;
+    unsigned char * sigNative = NULL;
+    jsize           dataLen = 0;
+    jsize           sigLen = 0;
+    int             verified = 0;
+
+    if( (ockPubEcKey == NULL) || (dataBytes == NULL) || (sigBytes == NULL) ) {
+      throwOCKException(env, 0, "Invalid batch entry");
+      failed = 1;
+    } else {
+      dataLen = (*env)->GetArrayLength(env, dataBytes);
+      sigLen = (*env)->GetArrayLength(env, sigBytes);
+
+      dataNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, dataBytes, NULL));
+      sigNative = (dataNative == NULL) ? NULL : (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, sigBytes, NULL));
+      if( (dataNative == NULL) || (sigNative == NULL) ) {
+        throwOCKException(env, 0, "NULL from GetPrimitiveArrayCritical!");
+        failed = 1;
+      } else if( md != NULL ) {
+        if( (ICC_EVP_DigestInit(ockCtx, mdCtx, md) != ICC_OSSL_SUCCESS)
+            || (ICC_EVP_DigestUpdate(ockCtx, mdCtx, dataNative, dataLen) != ICC_OSSL_SUCCESS)
+            || (ICC_EVP_DigestFinal(ockCtx, mdCtx, digest, &digestLen) != ICC_OSSL_SUCCESS) ) {
+          ockCheckStatus(ockCtx);
+          failed = 1;
+        } else {
+          verified = ICC_ECDSA_verify(ockCtx, 0, digest, (int) digestLen, sigNative, sigLen, ockPubEcKey);
+        }
+      } else {
+        verified = ICC_ECDSA_verify(ockCtx, 0, dataNative, dataLen, sigNative, sigLen, ockPubEcKey);
+      }
+
+      if( sigNative != NULL ) {
+        (*env)->ReleasePrimitiveArrayCritical(env, sigBytes, sigNative, JNI_ABORT);
+      }
+      if( dataNative != NULL ) {
+        (*env)->ReleasePrimitiveArrayCritical(env, dataBytes, dataNative, JNI_ABORT);
+      }
+
+      if( failed && (md != NULL) && (dataNative != NULL) && (sigNative != NULL) ) {
+        throwOCKException(env, 0, "Failed to digest batch entry");
+      }
+    }
+
+#ifdef DEBUG_EC_DETAIL
+    if ( debug ) {
+      gslogMessage ("DETAIL_EC batch entry %d verified=%d", (int) i, verified);
+    }
+#endif
+    if( verified == 1 ) {
+      resultsNative[i / 64] |= ((jlong) 1) << (i % 64);
+    } else {
+      /* A bad signature is an expected outcome, drain the error queue and go on. */
+      ockCheckStatus(ockCtx);
+    }
+
+    if( dataBytes != NULL ) {
+      (*env)->DeleteLocalRef(env, dataBytes);
+    }
+    if( sigBytes != NULL ) {
+      (*env)->DeleteLocalRef(env, sigBytes);
+    }
+  }
+
+  if( !failed ) {
+    (*env)->SetLongArrayRegion(env, results, 0, (count + 63) / 64, resultsNative);
+  }
+
+  if( resultsNative != NULL ) {
+    free(resultsNative);
+  }
+  if( keyIdsNative != NULL ) {
+    (*env)->ReleaseLongArrayElements(env, pubEcKeyIds, keyIdsNative, JNI_ABORT);
+  }
+  if( mdCtx != NULL ) {
+    ICC_EVP_MD_CTX_free(ockCtx, mdCtx);
+  }
+  if( digestAlgoChars != NULL ) {
+    (*env)->ReleaseStringUTFChars(env, digestAlgo, digestAlgoChars);
+  }
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+}
@@ -712,8 +712,7 @@ JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_POL
 	jboolean    isCopy           = 0;
 	unsigned long errCode = 0;
 	const char* errStr = NULL;
-	int exceptionCode = 0;
-	const char* exceptionMsg = NULL;
+	int         tagMismatch      = 0;
 
 	if( debug ) {
 		gslogFunctionEntry(functionName);
@@ -801,22 +800,20 @@ JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_POL
 
 				errCode = ICC_ERR_peek_last_error(ockCtx);
 				errStr = ICC_ERR_reason_error_string(ockCtx, errCode);
-				exceptionMsg = "ICC_EVP_DecryptFinal failed!\n";
 
 #ifdef DEBUG_CIPHER_DATA
 				if( debug ) {
 					gslogMessage("errCode:      %ul", errCode);
 					gslogMessage("errStr:       %s", errStr);
-					gslogMessage("exceptionMsg: %s", exceptionMsg);
 				}
 #endif
 
-				if (errStr == NULL) {
-					exceptionCode = GKR_UNSPECIFIED;
-				}
-
+				/* A tag that does not match is an expected outcome of decrypting
+				 * input that cannot be trusted. It is returned as a status rather
+				 * than thrown, so that the Java side can raise a cheap exception.
+				 */
 				ockCheckStatus(ockCtx);
-				throwOCKException(env, exceptionCode, exceptionMsg);
+				tagMismatch = 1;
 			} else {
 
 #ifdef DEBUG_CIPHER_DATA	
@@ -850,6 +847,10 @@ JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_POL
 		gslogFunctionExit(functionName);
 	}
 
+	if( tagMismatch ) {
+		return (jint) FAIL_CIPHER_INTERNAL_DECRYPTFINAL;
+	}
+
 	return(jint)(updateOutlen + finalOutlen);
 }
 
@@ -894,3 +895,141 @@ JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_POL
 	}
 }
 
+
+//============================================================================
+// Return codes of the one-shot FastJNI entry points below. They must match
+// the ErrorCodes table in Poly1305Cipher.java.
+//
+#define POLY1305_FASTJNI_INIT_FAILED        1
+#define POLY1305_FASTJNI_AAD_FAILED         2
+#define POLY1305_FASTJNI_UPDATE_FAILED      3
+#define POLY1305_FASTJNI_FINAL_FAILED       4
+#define POLY1305_FASTJNI_TAG_FAILED         5
+#define POLY1305_FASTJNI_TAG_MISMATCH       6
+
+/* Seals or opens a complete message on the cipher context of ockCipher.
+ *
+ * The parameter buffer holds the nonce, followed by the AAD, the key and
+ * the 16 byte tag. On encryption the tag is written to the buffer, on
+ * decryption it is read from it.
+ */
+static int POLY1305CIPHER_fastJNI_core(ICC_CTX * ockCtx, OCKCipher * ockCipher, int isEncrypt,
+		int keyLen, int ivLen, int aadLen, int inputLen, unsigned char * parameters,
+		unsigned char * inputNative, unsigned char * outputNative)
+{
+	static const int POLY1305_TAG_SIZE = 16;
+	static const int EVP_CTRL_AEAD_GET_TAG = 0x10;
+	static const int EVP_CTRL_AEAD_SET_TAG = 0x11;
+
+	unsigned char * iv        = parameters;
+	unsigned char * aad       = parameters + ivLen;
+	unsigned char * key       = parameters + ivLen + aadLen;
+	unsigned char * tag       = parameters + ivLen + aadLen + keyLen;
+	int             outLen    = 0;
+	int             finalLen  = 0;
+	int             rc        = ICC_OSSL_SUCCESS;
+
+	rc = isEncrypt ?
+			ICC_EVP_EncryptInit(ockCtx, ockCipher->cipherCtx, ockCipher->cipher, key, iv) :
+			ICC_EVP_DecryptInit(ockCtx, ockCipher->cipherCtx, ockCipher->cipher, key, iv);
+	if( rc != ICC_OSSL_SUCCESS ) {
+		return POLY1305_FASTJNI_INIT_FAILED;
+	}
+
+	if( aadLen > 0 ) {
+		rc = isEncrypt ?
+				ICC_EVP_EncryptUpdate(ockCtx, ockCipher->cipherCtx, NULL, &outLen, aad, aadLen) :
+				ICC_EVP_DecryptUpdate(ockCtx, ockCipher->cipherCtx, NULL, &outLen, aad, aadLen);
+		if( rc != ICC_OSSL_SUCCESS ) {
+			return POLY1305_FASTJNI_AAD_FAILED;
+		}
+	}
+
+	outLen = 0;
+	if( inputLen > 0 ) {
+		rc = isEncrypt ?
+				ICC_EVP_EncryptUpdate(ockCtx, ockCipher->cipherCtx, outputNative, &outLen, inputNative, inputLen) :
+				ICC_EVP_DecryptUpdate(ockCtx, ockCipher->cipherCtx, outputNative, &outLen, inputNative, inputLen);
+		if( rc != ICC_OSSL_SUCCESS ) {
+			return POLY1305_FASTJNI_UPDATE_FAILED;
+		}
+	}
+
+	if( isEncrypt ) {
+		rc = ICC_EVP_EncryptFinal(ockCtx, ockCipher->cipherCtx, outputNative + outLen, &finalLen);
+		if( rc != ICC_OSSL_SUCCESS ) {
+			return POLY1305_FASTJNI_FINAL_FAILED;
+		}
+		rc = ICC_EVP_CIPHER_CTX_ctrl(ockCtx, ockCipher->cipherCtx, EVP_CTRL_AEAD_GET_TAG, POLY1305_TAG_SIZE, tag);
+		if( rc != ICC_OSSL_SUCCESS ) {
+			return POLY1305_FASTJNI_TAG_FAILED;
+		}
+	} else {
+		rc = ICC_EVP_CIPHER_CTX_ctrl(ockCtx, ockCipher->cipherCtx, EVP_CTRL_AEAD_SET_TAG, POLY1305_TAG_SIZE, tag);
+		if( rc != ICC_OSSL_SUCCESS ) {
+			return POLY1305_FASTJNI_TAG_FAILED;
+		}
+		rc = ICC_EVP_DecryptFinal(ockCtx, ockCipher->cipherCtx, outputNative + outLen, &finalLen);
+		if( rc != ICC_OSSL_SUCCESS ) {
+			return POLY1305_FASTJNI_TAG_MISMATCH;
+		}
+	}
+
+	return 0;
+}
+
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    POLY1305CIPHER_encryptFastJNI
+ * Signature: (JJIIIIJJJ)I
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_POLY1305CIPHER_1encryptFastJNI
+(JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockCipherId, jint keyLen, jint ivLen,
+		jint aadLen, jint plaintextLen, jlong parameterBuffer, jlong inputBuffer, jlong outputBuffer)
+{
+	ICC_CTX *   ockCtx    = (ICC_CTX *) ((intptr_t) ockContextId);
+	OCKCipher * ockCipher = (OCKCipher *) ((intptr_t) ockCipherId);
+	int         ret       = 0;
+
+	if( ockCipher == NULL ) {
+		return POLY1305_FASTJNI_INIT_FAILED;
+	}
+
+	ret = POLY1305CIPHER_fastJNI_core(ockCtx, ockCipher, 1, keyLen, ivLen, aadLen, plaintextLen,
+			(unsigned char *) parameterBuffer, (unsigned char *) inputBuffer,
+			(unsigned char *) outputBuffer);
+	if( ret != 0 ) {
+		ockCheckStatus(ockCtx);
+	}
+
+	return (jint)ret;
+}
+
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    POLY1305CIPHER_decryptFastJNI
+ * Signature: (JJIIIIJJJ)I
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_POLY1305CIPHER_1decryptFastJNI
+(JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockCipherId, jint keyLen, jint ivLen,
+		jint aadLen, jint ciphertextLen, jlong parameterBuffer, jlong inputBuffer, jlong outputBuffer)
+{
+	ICC_CTX *   ockCtx    = (ICC_CTX *) ((intptr_t) ockContextId);
+	OCKCipher * ockCipher = (OCKCipher *) ((intptr_t) ockCipherId);
+	int         ret       = 0;
+
+	if( ockCipher == NULL ) {
+		return POLY1305_FASTJNI_INIT_FAILED;
+	}
+
+	ret = POLY1305CIPHER_fastJNI_core(ockCtx, ockCipher, 0, keyLen, ivLen, aadLen, ciphertextLen,
+			(unsigned char *) parameterBuffer, (unsigned char *) inputBuffer,
+			(unsigned char *) outputBuffer);
+	if( ret != 0 ) {
+		ockCheckStatus(ockCtx);
+	}
+
+	return (jint)ret;
+}
@@ -611,6 +611,56 @@ OCKDigest* allocateDigest(JNIEnv* env, ICC_CTX* ockCtx, jstring digestAlgo) {
   }
 }
 
+//============================================================================
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    RSAPSS_resetContext
+ * Signature: (JJ)V
+ *
+ * Frees the public key context set up by the last signInit or verifyInit,
+ * which holds a reference to the key, and resets the digest, so that the
+ * context can be cached and initialized with another key later.
+ */
+
+ JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_RSAPSS_1resetContext
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockRsaPssId)
+{
+  static const char * functionName = "NativeInterface.RSAPSS_resetContext";
+
+  ICC_CTX *      ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+  OCKRsaPss *    ockRsaPss = (OCKRsaPss *)((intptr_t) ockRsaPssId);
+  int            rc = ICC_OSSL_SUCCESS;
+
+  if (debug) {
+    gslogFunctionEntry(functionName);
+  }
+  if ((ockRsaPss == NULL) || (ockRsaPss->ockDigest == NULL) || (ockRsaPss->ockDigest->mdCtx == NULL)) {
+    throwOCKException(env, 0, "OCKRsaPss context is not valid");
+	if ( debug ) {
+	  gslogFunctionExit(functionName);
+	}
+	return;
+  }
+
+  rc = ICC_EVP_MD_CTX_cleanup(ockCtx, ockRsaPss->ockDigest->mdCtx);
+  ICC_EVP_MD_CTX_init(ockCtx, ockRsaPss->ockDigest->mdCtx);
+  ockRsaPss->ockPKey = NULL;
+  ockRsaPss->evpPkeyCtx = NULL;
+  if( ICC_OSSL_SUCCESS != rc ) {
+#ifdef DEBUG_RSAPSS_DETAIL
+    if ( debug ) {
+      gslogMessage ("DETAIL_RSAPSS FAILURE ICC_EVP_MD_CTX_cleanup failed");
+    }
+#endif
+    ockCheckStatus(ockCtx);
+    throwOCKException(env, 0, "ICC_EVP_MD_CTX_cleanup failed");
+  }
+
+  if (debug) {
+    gslogFunctionExit(functionName);
+  }
+}
+
 
 //============================================================================
 /*
@@ -21,10 +21,10 @@
 /*
  * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
  * Method:    SIGNATUREEdDSA_signOneShot
- * DigestSignature: (JJJ[B)[B
+ * DigestSignature: (JJ[BII)[B
  */
 JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_SIGNATUREEdDSA_1signOneShot
- (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockPKeyId, jbyteArray bytes) {
+ (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockPKeyId, jbyteArray bytes, jint offset, jint length) {
 
      static const char * functionName = "SIGNATUREEdDSA_signOneShot";
      ICC_CTX *   ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
@@ -43,7 +43,8 @@ JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterfa
      if( debug ) {
          gslogFunctionEntry(functionName);
      }
-     if ((pkey == NULL) || (bytes == NULL)){
+     if ((pkey == NULL) || (bytes == NULL) || (offset < 0) || (length < 0)
+         || (offset > ((*env)->GetArrayLength(env, bytes) - length))){
        throwOCKException(env, 0, "EdDSA signature failed. The input arguments are incorrect.");
        if( debug ) {
          gslogFunctionExit(functionName);
@@ -64,7 +65,7 @@ JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterfa
          if(bytesNative == NULL) {
              throwOCKException(env, 0, "GetPrimitiveArrayCritical failed");
          } else {
-             size = (*env)->GetArrayLength(env, bytes);
+             size = length;
 #ifdef DEBUG_SIGNATURE_EDDSA_DETAIL
              if ( debug ) {
                  gslogMessage("DETAIL_SIGNATURE_EDDSA sigLen - %d", (int) size);
@@ -82,7 +83,7 @@ JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterfa
                  }
                  return 0;
              } else {
-                 rc=ICC_EVP_DigestSign(ockCtx, md_ctx, NULL, &outLen, (unsigned char *)bytesNative, size);
+                 rc=ICC_EVP_DigestSign(ockCtx, md_ctx, NULL, &outLen, (unsigned char *)bytesNative + offset, size);
                  sigBytesLocal = malloc(outLen);
                  if( sigBytesLocal == NULL ) {
 #ifdef DEBUG_SIGNATURE_EDDSA_DETAIL
@@ -91,7 +92,7 @@ JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterfa
                      throwOCKException(env, 0, "malloc failed");
                  } else {
                      rc = ICC_EVP_DigestSign(ockCtx, md_ctx, (unsigned char *)sigBytesLocal, &outLen,
-                                             (unsigned char *)bytesNative, (unsigned int)size);
+                                             (unsigned char *)bytesNative + offset, (unsigned int)size);
 #ifdef DEBUG_SIGNATURE_EDDSA_DETAIL
                      gslogMessage ("DETAIL_SIGNATURE_EDDSA sigBytesLocal %lx outLen %d", sigBytesLocal, outLen);
 #endif
@@ -130,7 +131,7 @@ JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterfa
      FREE_N_NULL(sigBytesLocal);
 
      if (bytesNative != NULL) {
-         (*env)->ReleasePrimitiveArrayCritical(env, bytes,  bytesNative, 0);
+         (*env)->ReleasePrimitiveArrayCritical(env, bytes,  bytesNative, JNI_ABORT);
      }
 
      if( sigBytesNative != NULL ) {
@@ -150,10 +151,10 @@ JNIEXPORT jbyteArray JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterfa
 /*
  * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
  * Method:    SIGNATUREEdDSA_verifyOneShot
- * Signature: (JJ[B[B)Z
+ * Signature: (JJ[B[BII)Z
  */
 JNIEXPORT jboolean JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_SIGNATUREEdDSA_1verifyOneShot
-(JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockPKeyId, jbyteArray sigBytes, jbyteArray oneShotBytes) {
+(JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockPKeyId, jbyteArray sigBytes, jbyteArray oneShotBytes, jint offset, jint length) {
 
     static const char * functionName = "SIGNATUREEdDSA_verifyOneShot";
     ICC_CTX *   ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
@@ -167,7 +168,8 @@ JNIEXPORT jboolean JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface
     jboolean       verified = 0;
     jint size = 0;
     jint sizeRes = 0;
-    if ((pkey == NULL) || (sigBytes == NULL)) {
+    if ((pkey == NULL) || (sigBytes == NULL) || (oneShotBytes == NULL) || (offset < 0) || (length < 0)
+        || (offset > ((*env)->GetArrayLength(env, oneShotBytes) - length))) {
       throwOCKException(env, 0, "EdDSA signature one shot verify failed. The input arguments are incorrect.");
       if( debug ) {
         gslogFunctionExit(functionName);
@@ -193,7 +195,7 @@ JNIEXPORT jboolean JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface
                 throwOCKException(env, 0, "GetPrimitiveArrayCritical failed");
             } else {
                 size = (*env)->GetArrayLength(env, sigBytes);
-                sizeRes = (*env)->GetArrayLength(env, oneShotBytes);
+                sizeRes = length;
 #ifdef DEBUG_SIGNATURE_EDDSA_DATA
                 if ( debug ) {
                     gslogMessage("DATA_SIGNATURE_EDDSA size - %d sizeRes - %d", (int) size, (int)sizeRes);
@@ -211,7 +213,7 @@ JNIEXPORT jboolean JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface
                     }
                     return 0;
                 } else {
-                    rc = ICC_EVP_DigestVerify(ockCtx, md_ctx, (unsigned char *)sigBytesNative, (unsigned int)size, (unsigned char *)sigBytesNativeRes, (unsigned int)sizeRes);
+                    rc = ICC_EVP_DigestVerify(ockCtx, md_ctx, (unsigned char *)sigBytesNative, (unsigned int)size, (unsigned char *)sigBytesNativeRes + offset, (unsigned int)sizeRes);
                     if( ICC_OSSL_SUCCESS == rc ) {
                         verified = 1;
                     } else {
@@ -232,13 +234,138 @@ JNIEXPORT jboolean JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface
         }
     }
 
-    if( sigBytesNative != NULL ) {
-        (*env)->ReleasePrimitiveArrayCritical(env, sigBytes,  sigBytesNative, 0);
+    if( sigBytesNativeRes != NULL ) {
+        (*env)->ReleasePrimitiveArrayCritical(env, oneShotBytes,  sigBytesNativeRes, JNI_ABORT);
     }
 
     if( sigBytesNative != NULL ) {
-        (*env)->ReleasePrimitiveArrayCritical(env, oneShotBytes,  sigBytesNativeRes, 0);
+        (*env)->ReleasePrimitiveArrayCritical(env, sigBytes,  sigBytesNative, JNI_ABORT);
     }
 
     return verified;
 }
+
+/*
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    SIGNATUREEdDSA_verifyBatch
+ * Signature: (J[J[[B[[B[J)V
+ *
+ * Verifies count = length(pkeyIds) EdDSA signatures with one digest context.
+ * Bit i of results is set when signature i verified over data i. A failing
+ * verification only clears the corresponding bit.
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_SIGNATUREEdDSA_1verifyBatch
+(JNIEnv *env, jclass thisObj, jlong ockContextId, jlongArray pkeyIds, jobjectArray sigs, jobjectArray data, jlongArray results) {
+
+    static const char * functionName = "SIGNATUREEdDSA_verifyBatch";
+    ICC_CTX *        ockCtx = (ICC_CTX *)((intptr_t) ockContextId);
+    ICC_EVP_MD_CTX * md_ctx = NULL;
+    jlong *          pkeyIdsNative = NULL;
+    jlong *          resultsNative = NULL;
+    jsize            count = 0;
+    jsize            resultsLen = 0;
+    jsize            i = 0;
+    int              failed = 0;
+
+    if( debug ) {
+        gslogFunctionEntry(functionName);
+    }
+
+    count = (*env)->GetArrayLength(env, pkeyIds);
+    resultsLen = (*env)->GetArrayLength(env, results);
+    if( ((*env)->GetArrayLength(env, sigs) != count) || ((*env)->GetArrayLength(env, data) != count)
+        || (resultsLen < ((count + 63) / 64)) ) {
+        throwOCKException(env, 0, "EdDSA batch verify failed. The input arguments are incorrect.");
+        if( debug ) {
+            gslogFunctionExit(functionName);
+        }
+        return;
+    }
+
+    md_ctx = ICC_EVP_MD_CTX_new(ockCtx);
+    pkeyIdsNative = (*env)->GetLongArrayElements(env, pkeyIds, NULL);
+    resultsNative = (jlong *)calloc(resultsLen, sizeof(jlong));
+    if( md_ctx == NULL ) {
+        ockCheckStatus(ockCtx);
+        throwOCKException(env, 0, "ICC_EVP_MD_CTX_new failed");
+        failed = 1;
+    } else if( (pkeyIdsNative == NULL) || (resultsNative == NULL) ) {
+        throwOCKException(env, 0, "Failed to allocate memory for the batch");
+        failed = 1;
+    }
+
+    for( i = 0; (i < count) && !failed; i++ ) {
+        ICC_EVP_PKEY *     pkey = (ICC_EVP_PKEY *)((intptr_t) pkeyIdsNative[i]);
+        ICC_EVP_PKEY_CTX * pctx = NULL;
+        jbyteArray         sigBytes = (jbyteArray)(*env)->GetObjectArrayElement(env, sigs, i);
+        jbyteArray         dataBytes = (jbyteArray)(*env)->GetObjectArrayElement(env, data, i);
+        unsigned char *    sigNative = NULL;
+        unsigned char *    dataNative = NULL;
+        jsize              sigLen = 0;
+        jsize              dataLen = 0;
+        int                rc = 0;
+
+        if( (pkey == NULL) || (sigBytes == NULL) || (dataBytes == NULL) ) {
+            throwOCKException(env, 0, "EdDSA batch verify failed. Invalid batch entry.");
+            failed = 1;
+        } else {
+            sigLen = (*env)->GetArrayLength(env, sigBytes);
+            dataLen = (*env)->GetArrayLength(env, dataBytes);
+            sigNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, sigBytes, NULL));
+            dataNative = (sigNative == NULL) ? NULL : (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, dataBytes, NULL));
+            if( (sigNative == NULL) || (dataNative == NULL) ) {
+                failed = 1;
+            } else {
+                rc = ICC_EVP_DigestVerifyInit(ockCtx, md_ctx, &(pctx), NULL, NULL, pkey);
+                if( ICC_OSSL_SUCCESS == rc ) {
+                    rc = ICC_EVP_DigestVerify(ockCtx, md_ctx, sigNative, (unsigned int)sigLen, dataNative, (unsigned int)dataLen);
+                }
+                /* Reset the context so the next entry can initialize it again */
+                ICC_EVP_MD_CTX_cleanup(ockCtx, md_ctx);
+                if( ICC_OSSL_SUCCESS == rc ) {
+                    resultsNative[i / 64] |= ((jlong) 1) << (i % 64);
+                } else {
+                    /* A bad signature is an expected outcome, drain the error queue and go on. */
+                    ockCheckStatus(ockCtx);
+                }
+#ifdef DEBUG_SIGNATURE_EDDSA_DETAIL
+                if ( debug ) {
+                    gslogMessage ("DETAIL_SIGNATURE_EDDSA batch entry %d rc=%d", (int) i, rc);
+                }
+#endif
+            }
+            if( dataNative != NULL ) {
+                (*env)->ReleasePrimitiveArrayCritical(env, dataBytes, dataNative, JNI_ABORT);
+            }
+            if( sigNative != NULL ) {
+                (*env)->ReleasePrimitiveArrayCritical(env, sigBytes, sigNative, JNI_ABORT);
+            }
+            if( failed ) {
+                throwOCKException(env, 0, "GetPrimitiveArrayCritical failed");
+            }
+        }
+
+        if( sigBytes != NULL ) {
+            (*env)->DeleteLocalRef(env, sigBytes);
+        }
+        if( dataBytes != NULL ) {
+            (*env)->DeleteLocalRef(env, dataBytes);
+        }
+    }
+
+    if( !failed ) {
+        (*env)->SetLongArrayRegion(env, results, 0, (count + 63) / 64, resultsNative);
+    }
+
+    FREE_N_NULL(resultsNative);
+    if( pkeyIdsNative != NULL ) {
+        (*env)->ReleaseLongArrayElements(env, pkeyIds, pkeyIdsNative, JNI_ABORT);
+    }
+    if( md_ctx != NULL ) {
+        ICC_EVP_MD_CTX_free(ockCtx, md_ctx);
+    }
+
+    if( debug ) {
+        gslogFunctionExit(functionName);
+    }
+}
@@ -17,6 +17,7 @@
 #include "ExceptionCodes.h"
 #include "Context.h"
 #include <stdint.h>
+#include <string.h>
 
 //============================================================================
 /*
@@ -194,3 +195,57 @@ JNIEXPORT jlong JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_ge
 (JNIEnv *env, jclass unusedclass, jobject obj) {
 	return (jlong)((intptr_t) (*env)->GetDirectBufferAddress(env,obj));
 }
+
+/*
+ * Copies len bytes between two direct buffers, the native side of a FastJNI
+ * transfer once the data has been copied into the input buffer.
+ *
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    TRANSFER_calibrateDirect
+ * Signature: (JJI)V
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_TRANSFER_1calibrateDirect
+  (JNIEnv *env, jclass thisObj, jlong inputPointer, jlong outputPointer, jint len)
+{
+  memcpy((unsigned char *)((intptr_t) outputPointer), (unsigned char *)((intptr_t) inputPointer), (size_t)len);
+}
+
+/*
+ * Copies len bytes between two pinned Java arrays, as the non FastJNI paths
+ * do, after pinning and releasing the parameter array extraPins times to
+ * account for the key, IV and AAD those paths pin as well.
+ *
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    TRANSFER_calibrateCritical
+ * Signature: ([B[BI[BI)V
+ */
+JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_TRANSFER_1calibrateCritical
+  (JNIEnv *env, jclass thisObj, jbyteArray input, jbyteArray output, jint len,
+   jbyteArray parameters, jint extraPins)
+{
+  unsigned char * inputNative  = NULL;
+  unsigned char * outputNative = NULL;
+  unsigned char * paramsNative = NULL;
+  jboolean        isCopy       = 0;
+  int             i            = 0;
+
+  for (i = 0; i < extraPins; i++) {
+    paramsNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, parameters, &isCopy));
+    if( paramsNative != NULL ) {
+      (*env)->ReleasePrimitiveArrayCritical(env, parameters, paramsNative, JNI_ABORT);
+    }
+  }
+
+  inputNative  = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, input, &isCopy));
+  outputNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, output, &isCopy));
+  if( (inputNative != NULL) && (outputNative != NULL) ) {
+    memcpy(outputNative, inputNative, (size_t)len);
+  }
+
+  if( outputNative != NULL ) {
+    (*env)->ReleasePrimitiveArrayCritical(env, output, outputNative, 0);
+  }
+  if( inputNative != NULL ) {
+    (*env)->ReleasePrimitiveArrayCritical(env, input, inputNative, JNI_ABORT);
+  }
+}
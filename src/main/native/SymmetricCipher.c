@@ -1075,3 +1075,261 @@ JNIEXPORT void JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_CIP
   }
 }
 
+
+#define KEYWRAP_SEMIBLOCK_SIZE 8
+#define KEYWRAP_INTEGRITY_FAILURE -1
+
+/* Applies the RFC 3394 wrapping function W to the n semiblocks in r, with
+ * the integrity check register a. The cipher context must be initialized
+ * for AES-ECB encryption without padding.
+ */
+static int CIPHER_keyWrap_W(ICC_CTX *ockCtx, ICC_EVP_CIPHER_CTX *cipherCtx, unsigned char *a,
+                            unsigned char *r, int n)
+{
+  unsigned char block[2 * KEYWRAP_SEMIBLOCK_SIZE];
+  uint64_t      t      = 0;
+  int           outLen = 0;
+  int           rc     = CIPHER_INTERNAL_SUCCESS;
+  int           i, j, k;
+
+  for (j = 0; (j <= 5) && (rc == CIPHER_INTERNAL_SUCCESS); j++) {
+    for (i = 0; i < n; i++) {
+      memcpy(block, a, KEYWRAP_SEMIBLOCK_SIZE);
+      memcpy(block + KEYWRAP_SEMIBLOCK_SIZE, r + (i * KEYWRAP_SEMIBLOCK_SIZE), KEYWRAP_SEMIBLOCK_SIZE);
+      if ((ICC_OSSL_SUCCESS != ICC_EVP_EncryptUpdate(ockCtx, cipherCtx, block, &outLen, block, sizeof(block)))
+          || (outLen != sizeof(block))) {
+        rc = FAIL_CIPHER_INTERNAL_ENCRYPTUPDATE;
+        break;
+      }
+      t = ((uint64_t)n * j) + i + 1;
+      for (k = KEYWRAP_SEMIBLOCK_SIZE - 1; k >= 0; k--) {
+        a[k] = block[k] ^ (unsigned char)(t & 0xFF);
+        t >>= 8;
+      }
+      memcpy(r + (i * KEYWRAP_SEMIBLOCK_SIZE), block + KEYWRAP_SEMIBLOCK_SIZE, KEYWRAP_SEMIBLOCK_SIZE);
+    }
+  }
+
+  memset(block, 0, sizeof(block));
+  return rc;
+}
+
+/* Applies the RFC 3394 unwrapping function W-1 to the n semiblocks in r, with
+ * the integrity check register a. The cipher context must be initialized
+ * for AES-ECB decryption without padding.
+ */
+static int CIPHER_keyWrap_Winverse(ICC_CTX *ockCtx, ICC_EVP_CIPHER_CTX *cipherCtx, unsigned char *a,
+                                   unsigned char *r, int n)
+{
+  unsigned char block[2 * KEYWRAP_SEMIBLOCK_SIZE];
+  uint64_t      t      = 0;
+  int           outLen = 0;
+  int           rc     = CIPHER_INTERNAL_SUCCESS;
+  int           i, j, k;
+
+  for (j = 5; (j >= 0) && (rc == CIPHER_INTERNAL_SUCCESS); j--) {
+    for (i = n - 1; i >= 0; i--) {
+      t = ((uint64_t)n * j) + i + 1;
+      for (k = KEYWRAP_SEMIBLOCK_SIZE - 1; k >= 0; k--) {
+        block[k] = a[k] ^ (unsigned char)(t & 0xFF);
+        t >>= 8;
+      }
+      memcpy(block + KEYWRAP_SEMIBLOCK_SIZE, r + (i * KEYWRAP_SEMIBLOCK_SIZE), KEYWRAP_SEMIBLOCK_SIZE);
+      if ((ICC_OSSL_SUCCESS != ICC_EVP_DecryptUpdate(ockCtx, cipherCtx, block, &outLen, block, sizeof(block)))
+          || (outLen != sizeof(block))) {
+        rc = FAIL_CIPHER_INTERNAL_DECRYPTUPDATE;
+        break;
+      }
+      memcpy(a, block, KEYWRAP_SEMIBLOCK_SIZE);
+      memcpy(r + (i * KEYWRAP_SEMIBLOCK_SIZE), block + KEYWRAP_SEMIBLOCK_SIZE, KEYWRAP_SEMIBLOCK_SIZE);
+    }
+  }
+
+  memset(block, 0, sizeof(block));
+  return rc;
+}
+
+/*
+ * Wraps (RFC 3394 KW, RFC 5649 KWP) or unwraps a key in a single call using
+ * an AES-ECB cipher created by CIPHER_create. Returns the output length, or
+ * KEYWRAP_INTEGRITY_FAILURE if the integrity check of an unwrapped key
+ * fails. Nothing is written to the output in that case. The input lengths
+ * are checked by the caller.
+ *
+ * Class:     com_ibm_crypto_plus_provider_ock_NativeInterface
+ * Method:    CIPHER_keyWrap
+ * Signature: (JJII[B[B[BII[BI)I
+ */
+JNIEXPORT jint JNICALL Java_com_ibm_crypto_plus_provider_ock_NativeInterface_CIPHER_1keyWrap
+  (JNIEnv *env, jclass thisObj, jlong ockContextId, jlong ockCipherId, jint isWrap, jint isPadded,
+   jbyteArray key, jbyteArray icv, jbyteArray input, jint inputOffset, jint inputLen,
+   jbyteArray output, jint outputOffset)
+{
+  static const char * functionName = "NativeInterface.CIPHER_keyWrap";
+
+  ICC_CTX *       ockCtx       = (ICC_CTX *)((intptr_t) ockContextId);
+  OCKCipher *     ockCipher    = (OCKCipher *)((intptr_t) ockCipherId);
+  unsigned char * keyNative    = NULL;
+  unsigned char * icvNative    = NULL;
+  unsigned char * inputNative  = NULL;
+  unsigned char * outputNative = NULL;
+  unsigned char * work         = NULL;
+  int             workLen      = 0;
+  int             n            = 0;
+  int             rc           = ICC_OSSL_SUCCESS;
+  int             returnResult = 0;
+  jboolean        isCopy       = 0;
+
+  if( debug ) {
+    gslogFunctionEntry(functionName);
+  }
+  if ((ockCipher == NULL) || (key == NULL) || (icv == NULL) || (input == NULL) || (output == NULL)
+      || (inputLen <= 0)) {
+    throwOCKException(env, 0, "The specified Cipher key wrap arguments are incorrect.");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return (jint) returnResult;
+  }
+
+  // The work area holds the integrity check register followed by the
+  // semiblocks, the input padded to a multiple of 8 bytes for KWP.
+  //
+  if (isWrap) {
+    workLen = KEYWRAP_SEMIBLOCK_SIZE
+        + ((inputLen + KEYWRAP_SEMIBLOCK_SIZE - 1) / KEYWRAP_SEMIBLOCK_SIZE) * KEYWRAP_SEMIBLOCK_SIZE;
+  } else {
+    workLen = inputLen;
+  }
+  n = (workLen / KEYWRAP_SEMIBLOCK_SIZE) - 1;
+
+  work = (unsigned char *)malloc(workLen);
+  if( work == NULL ) {
+    throwOCKException(env, 0, "Error allocating key wrap work area");
+    if( debug ) {
+      gslogFunctionExit(functionName);
+    }
+    return (jint) returnResult;
+  }
+  memset(work, 0, workLen);
+
+  keyNative    = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, key, &isCopy));
+  icvNative    = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, icv, &isCopy));
+  inputNative  = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, input, &isCopy));
+  outputNative = (unsigned char*)((*env)->GetPrimitiveArrayCritical(env, output, &isCopy));
+
+  if( (NULL == keyNative) || (NULL == icvNative) || (NULL == inputNative) || (NULL == outputNative) ) {
+    throwOCKException(env, 0, "NULL from GetPrimitiveArrayCritical!");
+  } else {
+    rc = isWrap ?
+        ICC_EVP_EncryptInit(ockCtx, ockCipher->cipherCtx, ockCipher->cipher, keyNative, NULL) :
+        ICC_EVP_DecryptInit(ockCtx, ockCipher->cipherCtx, ockCipher->cipher, keyNative, NULL);
+    if( rc == ICC_OSSL_SUCCESS ) {
+      rc = ICC_EVP_CIPHER_CTX_set_padding(ockCtx, ockCipher->cipherCtx, 0);
+    }
+    if( rc != ICC_OSSL_SUCCESS ) {
+      ockCheckStatus(ockCtx);
+      throwOCKException(env, 0, "ICC_EVP_Encrypt/DecryptInit failed");
+    } else if (isWrap) {
+      if (isPadded) {
+        memcpy(work, icvNative, 4);
+        work[4] = (unsigned char)(((unsigned int)inputLen >> 24) & 0xFF);
+        work[5] = (unsigned char)(((unsigned int)inputLen >> 16) & 0xFF);
+        work[6] = (unsigned char)(((unsigned int)inputLen >> 8) & 0xFF);
+        work[7] = (unsigned char)((unsigned int)inputLen & 0xFF);
+      } else {
+        memcpy(work, icvNative, KEYWRAP_SEMIBLOCK_SIZE);
+      }
+      memcpy(work + KEYWRAP_SEMIBLOCK_SIZE, inputNative + (int)inputOffset, (int)inputLen);
+
+      if (n == 1) {
+        // A KWP key of up to 8 bytes is encrypted as a single block.
+        //
+        int outLen = 0;
+        rc = (ICC_OSSL_SUCCESS == ICC_EVP_EncryptUpdate(ockCtx, ockCipher->cipherCtx, work, &outLen, work, workLen))
+            && (outLen == workLen) ? CIPHER_INTERNAL_SUCCESS : FAIL_CIPHER_INTERNAL_ENCRYPTUPDATE;
+      } else {
+        rc = CIPHER_keyWrap_W(ockCtx, ockCipher->cipherCtx, work, work + KEYWRAP_SEMIBLOCK_SIZE, n);
+      }
+
+      if (rc != CIPHER_INTERNAL_SUCCESS) {
+        ockCheckStatus(ockCtx);
+        throwOCKException(env, 0, "ICC_EVP_EncryptUpdate failed");
+      } else {
+        memcpy(outputNative + (int)outputOffset, work, workLen);
+        returnResult = workLen;
+      }
+    } else {
+      unsigned char diff = 0;
+      int           i    = 0;
+      int           mli  = 0;
+
+      memcpy(work, inputNative + (int)inputOffset, (int)inputLen);
+
+      if (isPadded && (n == 1)) {
+        int outLen = 0;
+        rc = (ICC_OSSL_SUCCESS == ICC_EVP_DecryptUpdate(ockCtx, ockCipher->cipherCtx, work, &outLen, work, workLen))
+            && (outLen == workLen) ? CIPHER_INTERNAL_SUCCESS : FAIL_CIPHER_INTERNAL_DECRYPTUPDATE;
+      } else {
+        rc = CIPHER_keyWrap_Winverse(ockCtx, ockCipher->cipherCtx, work, work + KEYWRAP_SEMIBLOCK_SIZE, n);
+      }
+
+      if (rc != CIPHER_INTERNAL_SUCCESS) {
+        ockCheckStatus(ockCtx);
+        throwOCKException(env, 0, "ICC_EVP_DecryptUpdate failed");
+      } else {
+        // The integrity checks do not stop at the first difference, so the
+        // time taken does not depend on where a wrong key differs.
+        //
+        if (isPadded) {
+          for (i = 0; i < 4; i++) {
+            diff |= work[i] ^ icvNative[i];
+          }
+          mli = (int)(((unsigned int)work[4] << 24) | ((unsigned int)work[5] << 16)
+              | ((unsigned int)work[6] << 8) | (unsigned int)work[7]);
+          if ((mli <= (KEYWRAP_SEMIBLOCK_SIZE * (n - 1))) || (mli > (KEYWRAP_SEMIBLOCK_SIZE * n))) {
+            diff |= 1;
+            mli = KEYWRAP_SEMIBLOCK_SIZE * n;
+          }
+          for (i = KEYWRAP_SEMIBLOCK_SIZE + mli; i < workLen; i++) {
+            diff |= work[i];
+          }
+        } else {
+          for (i = 0; i < KEYWRAP_SEMIBLOCK_SIZE; i++) {
+            diff |= work[i] ^ icvNative[i];
+          }
+          mli = KEYWRAP_SEMIBLOCK_SIZE * n;
+        }
+
+        if (diff != 0) {
+          returnResult = KEYWRAP_INTEGRITY_FAILURE;
+        } else {
+          memcpy(outputNative + (int)outputOffset, work + KEYWRAP_SEMIBLOCK_SIZE, mli);
+          returnResult = mli;
+        }
+      }
+    }
+  }
+
+  if( outputNative != NULL ) {
+    (*env)->ReleasePrimitiveArrayCritical(env, output, outputNative, 0);
+  }
+  if( inputNative != NULL ) {
+    (*env)->ReleasePrimitiveArrayCritical(env, input, inputNative, JNI_ABORT);
+  }
+  if( icvNative != NULL ) {
+    (*env)->ReleasePrimitiveArrayCritical(env, icv, icvNative, JNI_ABORT);
+  }
+  if( keyNative != NULL ) {
+    (*env)->ReleasePrimitiveArrayCritical(env, key, keyNative, JNI_ABORT);
+  }
+
+  memset(work, 0, workLen);
+  FREE_N_NULL(work);
+
+  if( debug ) {
+    gslogFunctionExit(functionName);
+  }
+
+  return (jint)returnResult;
+}
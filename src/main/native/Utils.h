@@ -17,6 +17,7 @@
 #define FAIL_DIGEST_FINAL -1
 #define FAIL_DIGEST_INIT -2
 #define FAIL_DIGEST_UPDATE -3
+#define FAIL_DIGEST_COPY -4
 
 #define CIPHER_INTERNAL_SUCCESS 0
 #define FAIL_CIPHER_INTERNAL_ENCRYPTUPDATE -1
@@ -61,6 +61,49 @@ public class BaseByteArrayOutputDelayTest extends BaseTestPublicMethodsToMakeNon
 
     }
 
+    /**
+     * Feed data through the Sink variant of write with a random chop size and
+     * verify the released bytes plus the held back tail reproduce the input,
+     * also after a reset.
+     */
+    @Test
+    public void testSinkWrite() throws Exception {
+        Random random = new SecureRandom();
+        for (int delayByte : new int[] {0, 1, 16, 4096}) {
+            ByteArrayOutputDelay keeper = new ByteArrayOutputDelay(delayByte);
+            for (int pass = 0; pass < 2; ++pass) {
+                byte[] testData = new byte[random.nextInt(65536) + 1];
+                random.nextBytes(testData);
+                ByteArrayOutputStream allOutput = new ByteArrayOutputStream(testData.length);
+                ByteArrayOutputDelay.Sink sink = (b, off, len) -> {
+                    allOutput.write(b, off, len);
+                    return len;
+                };
+
+                int released = 0;
+                for (int i = 0; i < testData.length;) {
+                    int chopSize = Math.min(random.nextInt(100) + 1, testData.length - i);
+                    released += keeper.write(testData, i, chopSize, sink);
+                    i += chopSize;
+                    if (keeper.size() != Math.min(delayByte, i)) {
+                        throw new RuntimeException("Held back " + keeper.size() + " bytes after "
+                                + i + " bytes with delay " + delayByte);
+                    }
+                }
+                if (released != allOutput.size()) {
+                    throw new RuntimeException("Sink return value mismatch");
+                }
+                byte[] tail = new byte[keeper.size()];
+                keeper.flush(tail, 0);
+                allOutput.write(tail);
+                if (!Arrays.equals(allOutput.toByteArray(), testData)) {
+                    throw new RuntimeException("Total sink output mismatch, delay " + delayByte);
+                }
+                keeper.reset();
+            }
+        }
+    }
+
     private void testRandom(int iterations) throws IOException {
         System.out.println("Running " + iterations + " random iterations");
         Random random = new SecureRandom();
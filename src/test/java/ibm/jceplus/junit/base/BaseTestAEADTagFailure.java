@@ -0,0 +1,73 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import ibm.security.internal.spec.CCMParameterSpec;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Random;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that records with a forged tag are rejected with an
+ * AEADBadTagException without a stack trace, on every decrypt path, and that
+ * the cipher decrypts genuine records afterwards.
+ */
+public class BaseTestAEADTagFailure extends BaseTestJunit5 {
+
+    private final Random random = new Random(46);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"AES/GCM/NoPadding", "AES/CCM/NoPadding", "ChaCha20-Poly1305"})
+    public void testForgedTag(String transformation) throws Exception {
+        byte[] keyBytes = new byte[32];
+        random.nextBytes(keyBytes);
+        SecretKeySpec key = new SecretKeySpec(keyBytes,
+                transformation.startsWith("AES") ? "AES" : "ChaCha20");
+
+        for (int size : new int[] {0, 16, 1000, 100000}) {
+            byte[] iv = new byte[12];
+            random.nextBytes(iv);
+            AlgorithmParameterSpec parameters = transformation.contains("/GCM/")
+                    ? new GCMParameterSpec(128, iv)
+                    : transformation.contains("/CCM/") ? new CCMParameterSpec(128, iv)
+                            : new IvParameterSpec(iv);
+            byte[] plainText = new byte[size];
+            random.nextBytes(plainText);
+
+            Cipher cipher = Cipher.getInstance(transformation, getProviderName());
+            cipher.init(Cipher.ENCRYPT_MODE, key, parameters);
+            byte[] cipherText = cipher.doFinal(plainText);
+            byte[] forgedText = cipherText.clone();
+            forgedText[forgedText.length - 1] ^= 1;
+
+            cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+            AEADBadTagException e = assertThrows(AEADBadTagException.class,
+                    () -> cipher.doFinal(forgedText), transformation + " " + size);
+            assertEquals(0, e.getStackTrace().length, transformation + " " + size);
+
+            cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+            assertThrows(AEADBadTagException.class,
+                    () -> cipher.doFinal(forgedText, 0, forgedText.length,
+                            new byte[forgedText.length], 0),
+                    transformation + " " + size);
+
+            cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+            assertArrayEquals(plainText, cipher.doFinal(cipherText), transformation + " " + size);
+        }
+    }
+}
@@ -12,9 +12,11 @@ import ibm.security.internal.spec.CCMParameterSpec;
 import java.nio.ByteBuffer;
 import java.security.ProviderException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Random;
 import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -837,6 +839,250 @@ public class BaseTestAESCCM extends BaseTestJunit5 {
     }
 
 
+    @Test
+    public void testAESCCMStreaming() throws Exception {
+        SecureRandom random = new SecureRandom();
+        int[] keySizes = {16, 24, 32};
+        int[] chunkSizes = {1, 15, 16, 17, 1000};
+        int[] aadSizes = {0, 13, 70000};
+
+        for (int keySize : keySizes) {
+            for (int chunkSize : chunkSizes) {
+                for (int aadSize : aadSizes) {
+                    byte[] keyBytes = new byte[keySize];
+                    random.nextBytes(keyBytes);
+                    SecretKey key = new SecretKeySpec(keyBytes, "AES");
+                    byte[] iv = new byte[computeIVBufferLength()];
+                    random.nextBytes(iv);
+                    byte[] aadBytes = new byte[aadSize];
+                    random.nextBytes(aadBytes);
+                    byte[] message = new byte[4099];
+                    random.nextBytes(message);
+                    int tagLen = computeTagLength();
+
+                    // Reference result of a single doFinal() call
+                    Cipher oneShot = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+                    oneShot.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(tagLen, iv));
+                    if (aadSize > 0) {
+                        oneShot.updateAAD(aadBytes);
+                    }
+                    byte[] expected = oneShot.doFinal(message);
+
+                    CCMParameterSpec streamSpec = new CCMParameterSpec(tagLen, iv,
+                            message.length);
+                    Cipher encrypter = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+                    encrypter.init(Cipher.ENCRYPT_MODE, key, streamSpec);
+                    if (aadSize > 0) {
+                        encrypter.updateAAD(aadBytes);
+                    }
+                    byte[] ciphertext = new byte[encrypter.getOutputSize(message.length)];
+                    int ciphertextLen = 0;
+                    int offset = 0;
+                    for (; offset + chunkSize < message.length; offset += chunkSize) {
+                        ciphertextLen += encrypter.update(message, offset, chunkSize, ciphertext,
+                                ciphertextLen);
+                    }
+                    ciphertextLen += encrypter.doFinal(message, offset, message.length - offset,
+                            ciphertext, ciphertextLen);
+                    Assert.assertEquals(expected.length, ciphertextLen);
+                    Assert.assertArrayEquals(expected, ciphertext);
+
+                    Cipher decrypter = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+                    decrypter.init(Cipher.DECRYPT_MODE, key, streamSpec);
+                    if (aadSize > 0) {
+                        decrypter.updateAAD(aadBytes);
+                    }
+                    for (offset = 0; offset + chunkSize < ciphertext.length; offset += chunkSize) {
+                        decrypter.update(ciphertext, offset, chunkSize);
+                    }
+                    byte[] plaintext = decrypter.doFinal(ciphertext, offset,
+                            ciphertext.length - offset);
+                    Assert.assertArrayEquals(message, plaintext);
+
+                    // A modified tag must be detected
+                    ciphertext[ciphertext.length - 1] ^= 1;
+                    decrypter.init(Cipher.DECRYPT_MODE, key, streamSpec);
+                    if (aadSize > 0) {
+                        decrypter.updateAAD(aadBytes);
+                    }
+                    decrypter.update(ciphertext, 0, chunkSize);
+                    try {
+                        decrypter.doFinal(ciphertext, chunkSize, ciphertext.length - chunkSize);
+                        Assert.fail("Modified tag was not detected");
+                    } catch (AEADBadTagException e) {
+                        // expected
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAESCCMStreamingLengthMismatch() throws Exception {
+        KeyGenerator keyGen = KeyGenerator.getInstance("AES", getProviderName());
+        keyGen.init(128);
+        SecretKey key = keyGen.generateKey();
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        byte[] message = new byte[100];
+
+        Cipher cipher = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+        cipher.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(128, iv, 64));
+        cipher.update(message, 0, 32);
+        try {
+            cipher.update(message, 32, 64);
+            Assert.fail("Input beyond the payload length was accepted");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // CCM encryption must not reuse key and IV
+        iv[0] ^= 1;
+        cipher.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(128, iv, 64));
+        cipher.update(message, 0, 32);
+        try {
+            cipher.doFinal(message, 32, 16);
+            Assert.fail("Input shorter than the payload length was accepted");
+        } catch (IllegalBlockSizeException e) {
+            // expected
+        }
+
+        try {
+            new CCMParameterSpec(128, new byte[13], 0x10000);
+            Assert.fail("Payload length too large for the IV length was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAESCCMStreamingEncryptTwice() throws Exception {
+        KeyGenerator keyGen = KeyGenerator.getInstance("AES", getProviderName());
+        keyGen.init(128);
+        SecretKey key = keyGen.generateKey();
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        byte[] message = new byte[100];
+
+        Cipher cipher = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+        cipher.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(128, iv, message.length));
+        cipher.update(message, 0, 32);
+        byte[] first = cipher.doFinal(message, 32, message.length - 32);
+
+        // CCM encryption must not reuse key and IV without a new init
+        try {
+            cipher.update(message, 0, 32);
+            Assert.fail("Key and IV were reused by update()");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            cipher.doFinal(message);
+            Assert.fail("Key and IV were reused by doFinal()");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        iv[0] ^= 1;
+        cipher.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(128, iv, message.length));
+        cipher.update(message, 0, 32);
+        byte[] second = cipher.doFinal(message, 32, message.length - 32);
+        Assert.assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    public void testAESCCMStreamingNoReuseAfterLengthMismatch() throws Exception {
+        KeyGenerator keyGen = KeyGenerator.getInstance("AES", getProviderName());
+        keyGen.init(128);
+        SecretKey key = keyGen.generateKey();
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        byte[] message = new byte[100];
+
+        Cipher cipher = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+        cipher.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(128, iv, message.length));
+        byte[] released = cipher.update(message, 0, 32);
+        try {
+            cipher.doFinal(message, 32, 10);
+            Assert.fail("Input shorter than the payload length was accepted");
+        } catch (IllegalBlockSizeException e) {
+            // expected
+        }
+
+        if ((released == null) || (released.length == 0)) {
+            // No ciphertext was released, as in FIPS mode, so key and IV may
+            // be used again
+            cipher.update(message, 0, 32);
+            cipher.doFinal(message, 32, message.length - 32);
+            return;
+        }
+
+        // Ciphertext was released under this key and IV, which must not be
+        // used to encrypt again without a new init
+        try {
+            cipher.update(message, 0, 32);
+            Assert.fail("Key and IV were reused by update()");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            cipher.doFinal(message);
+            Assert.fail("Key and IV were reused by doFinal()");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAESCCMStreamingDecryptTagFailure() throws Exception {
+        KeyGenerator keyGen = KeyGenerator.getInstance("AES", getProviderName());
+        keyGen.init(128);
+        SecretKey key = keyGen.generateKey();
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        byte[] message = new byte[100];
+
+        Cipher cipher = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+        cipher.init(Cipher.ENCRYPT_MODE, key, new CCMParameterSpec(128, iv, message.length));
+        byte[] ciphertext = cipher.doFinal(message);
+        ciphertext[ciphertext.length - 1] ^= 1;
+
+        cipher.init(Cipher.DECRYPT_MODE, key, new CCMParameterSpec(128, iv, message.length));
+        cipher.update(ciphertext, 0, 32);
+        try {
+            cipher.doFinal(ciphertext, 32, ciphertext.length - 32);
+            Assert.fail("Forged tag was accepted");
+        } catch (AEADBadTagException e) {
+            // expected
+        }
+
+        // A failed decryption requires a new init
+        try {
+            cipher.update(ciphertext, 0, 32);
+            Assert.fail("Decryption continued without a new init");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAESCCMStreamingPayloadTooLargeToBuffer() throws Exception {
+        KeyGenerator keyGen = KeyGenerator.getInstance("AES", getProviderName());
+        keyGen.init(128);
+        SecretKey key = keyGen.generateKey();
+        byte[] iv = new byte[7];
+        new SecureRandom().nextBytes(iv);
+
+        Cipher cipher = Cipher.getInstance("AES/CCM/NoPadding", getProviderName());
+        cipher.init(Cipher.DECRYPT_MODE, key, new CCMParameterSpec(128, iv, 1L << 33));
+        try {
+            cipher.update(new byte[16]);
+            Assert.fail("A payload larger than an array was buffered");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
     // The IV buffer length is specified in bytes.  Valid values are 7 thru 13 inclusive.
     // The ivBufferLength will be selected randomly for each iteration.
     private int computeIVBufferLength() {
@@ -0,0 +1,216 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BaseTestAESKeyWrapInterop extends BaseTestJunit5Interop {
+
+    static final String KW = "AES/KW/NoPadding";
+    static final String KWP = "AES/KWP/NoPadding";
+
+    static final int[] KEY_SIZES = {16, 24, 32};
+
+    SecureRandom random = new SecureRandom();
+
+    @Test
+    public void testKWKnownAnswer() throws Exception {
+        // RFC 3394 section 4.1 and 4.6
+        checkKnownAnswer(KW, "000102030405060708090A0B0C0D0E0F",
+                "00112233445566778899AABBCCDDEEFF",
+                "1FA68B0A8112B447AEF34BD8FB5A7B829D3E862371D2CFE5");
+        checkKnownAnswer(KW, "000102030405060708090A0B0C0D0E0F101112131415161718191A1B1C1D1E1F",
+                "00112233445566778899AABBCCDDEEFF000102030405060708090A0B0C0D0E0F",
+                "28C9F404C4B810F4CBCCB35CFB87F8263F5786E2D80ED326CBC7F0E71A99F43BFB988B9B7A02DD21");
+    }
+
+    @Test
+    public void testKWPKnownAnswer() throws Exception {
+        // RFC 5649 section 6
+        checkKnownAnswer(KWP, "5840DF6E29B02AF1AB493B705BF16EA1AE8338F4DCC176A8",
+                "C37B7E6492584340BED12207808941155068F738",
+                "138BDEAA9B8FA7FC61F97742E72248EE5AE6AE5360D1AE6A5F54F373FA543B6A");
+        checkKnownAnswer(KWP, "5840DF6E29B02AF1AB493B705BF16EA1AE8338F4DCC176A8",
+                "466F7250617369", "AFBEB0F07DFBF5419200F2CCB50BB24F");
+    }
+
+    @Test
+    public void testKWInterop() throws Exception {
+        for (int keySize : KEY_SIZES) {
+            for (int dataLen = 16; dataLen <= 64; dataLen += 8) {
+                checkInterop(KW, keySize, dataLen);
+            }
+        }
+    }
+
+    @Test
+    public void testKWPInterop() throws Exception {
+        for (int keySize : KEY_SIZES) {
+            for (int dataLen = 1; dataLen <= 70; dataLen++) {
+                checkInterop(KWP, keySize, dataLen);
+            }
+        }
+    }
+
+    @Test
+    public void testWrapUnwrapKey() throws Exception {
+        for (String transformation : new String[] {KW, KWP}) {
+            SecretKeySpec kek = new SecretKeySpec(randomBytes(32), "AES");
+            SecretKey key = new SecretKeySpec(randomBytes(24), "AES");
+
+            Cipher cipher = Cipher.getInstance(transformation, getProviderName());
+            cipher.init(Cipher.WRAP_MODE, kek);
+            byte[] wrapped = cipher.wrap(key);
+
+            Cipher interop = Cipher.getInstance(transformation, getInteropProviderName());
+            interop.init(Cipher.UNWRAP_MODE, kek);
+            Key unwrapped = interop.unwrap(wrapped, "AES", Cipher.SECRET_KEY);
+            assertArrayEquals(key.getEncoded(), unwrapped.getEncoded());
+
+            cipher.init(Cipher.UNWRAP_MODE, kek);
+            unwrapped = cipher.unwrap(wrapped, "AES", Cipher.SECRET_KEY);
+            assertArrayEquals(key.getEncoded(), unwrapped.getEncoded());
+
+            wrapped[wrapped.length - 1] ^= 0x01;
+            byte[] tampered = wrapped;
+            assertThrows(InvalidKeyException.class,
+                    () -> cipher.unwrap(tampered, "AES", Cipher.SECRET_KEY));
+        }
+    }
+
+    @Test
+    public void testTamperedInput() throws Exception {
+        for (String transformation : new String[] {KW, KWP}) {
+            SecretKeySpec kek = new SecretKeySpec(randomBytes(16), "AES");
+            byte[] wrapped = crypt(transformation, getProviderName(), Cipher.ENCRYPT_MODE, kek,
+                    null, randomBytes(32));
+
+            for (int i = 0; i < wrapped.length; i++) {
+                byte[] tampered = wrapped.clone();
+                tampered[i] ^= 0x80;
+                assertThrows(BadPaddingException.class, () -> crypt(transformation,
+                        getProviderName(), Cipher.DECRYPT_MODE, kek, null, tampered));
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateIsBuffered() throws Exception {
+        SecretKeySpec kek = new SecretKeySpec(randomBytes(16), "AES");
+        byte[] data = randomBytes(41);
+        byte[] expected = crypt(KWP, getInteropProviderName(), Cipher.ENCRYPT_MODE, kek, null,
+                data);
+
+        Cipher cipher = Cipher.getInstance(KWP, getProviderName());
+        cipher.init(Cipher.ENCRYPT_MODE, kek);
+        assertEquals(0, cipher.update(data, 0, 10).length);
+        assertEquals(0, cipher.update(data, 10, 20, new byte[0], 0));
+        assertArrayEquals(expected, cipher.doFinal(data, 30, 11));
+
+        // The cipher is reset and can be used again with the same key.
+        assertArrayEquals(expected, cipher.doFinal(data));
+
+        cipher.init(Cipher.DECRYPT_MODE, kek);
+        cipher.update(expected, 0, 17);
+        byte[] output = new byte[cipher.getOutputSize(expected.length - 17)];
+        int outputLen = cipher.doFinal(expected, 17, expected.length - 17, output, 0);
+        assertEquals(data.length, outputLen);
+        assertArrayEquals(data, Arrays.copyOf(output, outputLen));
+    }
+
+    @Test
+    public void testCustomICV() throws Exception {
+        SecretKeySpec kek = new SecretKeySpec(randomBytes(16), "AES");
+        byte[] data = randomBytes(24);
+
+        IvParameterSpec kwICV = new IvParameterSpec(randomBytes(8));
+        byte[] wrapped = crypt(KW, getProviderName(), Cipher.ENCRYPT_MODE, kek, kwICV, data);
+        assertArrayEquals(data, crypt(KW, getInteropProviderName(), Cipher.DECRYPT_MODE, kek,
+                kwICV, wrapped));
+        assertThrows(BadPaddingException.class,
+                () -> crypt(KW, getProviderName(), Cipher.DECRYPT_MODE, kek, null, wrapped));
+
+        IvParameterSpec kwpICV = new IvParameterSpec(randomBytes(4));
+        byte[] wrappedPad = crypt(KWP, getProviderName(), Cipher.ENCRYPT_MODE, kek, kwpICV,
+                data);
+        assertArrayEquals(data, crypt(KWP, getInteropProviderName(), Cipher.DECRYPT_MODE, kek,
+                kwpICV, wrappedPad));
+    }
+
+    @Test
+    public void testInvalidLengths() throws Exception {
+        SecretKeySpec kek = new SecretKeySpec(randomBytes(16), "AES");
+
+        assertThrows(IllegalBlockSizeException.class,
+                () -> crypt(KW, getProviderName(), Cipher.ENCRYPT_MODE, kek, null, new byte[8]));
+        assertThrows(IllegalBlockSizeException.class,
+                () -> crypt(KW, getProviderName(), Cipher.ENCRYPT_MODE, kek, null, new byte[17]));
+        assertThrows(IllegalBlockSizeException.class,
+                () -> crypt(KW, getProviderName(), Cipher.DECRYPT_MODE, kek, null, new byte[16]));
+        assertThrows(IllegalBlockSizeException.class,
+                () -> crypt(KWP, getProviderName(), Cipher.ENCRYPT_MODE, kek, null, new byte[0]));
+        assertThrows(IllegalBlockSizeException.class,
+                () -> crypt(KWP, getProviderName(), Cipher.DECRYPT_MODE, kek, null, new byte[20]));
+    }
+
+    private void checkKnownAnswer(String transformation, String kek, String data, String wrapped)
+            throws Exception {
+        SecretKeySpec key = new SecretKeySpec(BaseUtils.hexStringToByteArray(kek), "AES");
+        byte[] dataBytes = BaseUtils.hexStringToByteArray(data);
+        byte[] wrappedBytes = BaseUtils.hexStringToByteArray(wrapped);
+
+        assertArrayEquals(wrappedBytes, crypt(transformation, getProviderName(),
+                Cipher.ENCRYPT_MODE, key, null, dataBytes));
+        assertArrayEquals(dataBytes, crypt(transformation, getProviderName(),
+                Cipher.DECRYPT_MODE, key, null, wrappedBytes));
+    }
+
+    private void checkInterop(String transformation, int keySize, int dataLen) throws Exception {
+        SecretKeySpec kek = new SecretKeySpec(randomBytes(keySize), "AES");
+        byte[] data = randomBytes(dataLen);
+
+        byte[] wrapped = crypt(transformation, getProviderName(), Cipher.ENCRYPT_MODE, kek, null,
+                data);
+        byte[] expected = crypt(transformation, getInteropProviderName(), Cipher.ENCRYPT_MODE,
+                kek, null, data);
+        assertArrayEquals(expected, wrapped, transformation + " key size " + keySize
+                + " data length " + dataLen);
+
+        assertArrayEquals(data, crypt(transformation, getProviderName(), Cipher.DECRYPT_MODE,
+                kek, null, expected));
+        assertArrayEquals(data, crypt(transformation, getInteropProviderName(),
+                Cipher.DECRYPT_MODE, kek, null, wrapped));
+    }
+
+    private static byte[] crypt(String transformation, String provider, int mode, Key key,
+            IvParameterSpec icv, byte[] input) throws Exception {
+        Cipher cipher = Cipher.getInstance(transformation, provider);
+        cipher.init(mode, key, icv);
+        return cipher.doFinal(input);
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that AES/CTR and AES/ECB messages split across threads produce the
+ * same output as sequential processing.
+ */
+public class BaseTestAESParallel extends BaseTestJunit5 {
+
+    static final String PARALLEL_THRESHOLD = "com.ibm.crypto.provider.AESParallelThreshold";
+    static final String PARALLELISM = "com.ibm.crypto.provider.AESParallelism";
+
+    // Just above four 1 MB segments and not a multiple of the block size.
+    static final int MESSAGE_SIZE = 4 * 1024 * 1024 + 5;
+
+    SecureRandom random = new SecureRandom();
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(PARALLEL_THRESHOLD);
+        System.clearProperty(PARALLELISM);
+    }
+
+    @Test
+    public void testCTRMatchesSequential() throws Exception {
+        byte[] counter = new byte[16];
+        random.nextBytes(counter);
+        checkMode("AES/CTR/NoPadding", counter, MESSAGE_SIZE);
+
+        // Force the low 64 bits of the counter to carry into the high ones
+        // within the first segment.
+        Arrays.fill(counter, 8, 16, (byte) 0xFF);
+        counter[15] = (byte) 0xF0;
+        checkMode("AES/CTR/NoPadding", counter, MESSAGE_SIZE);
+
+        Arrays.fill(counter, (byte) 0xFF);
+        checkMode("AES/CTR/NoPadding", counter, MESSAGE_SIZE);
+    }
+
+    @Test
+    public void testECBMatchesSequential() throws Exception {
+        checkMode("AES/ECB/NoPadding", null, MESSAGE_SIZE - 5);
+    }
+
+    @Test
+    public void testCTRInPlace() throws Exception {
+        byte[] keyBytes = new byte[16];
+        byte[] counter = new byte[16];
+        random.nextBytes(keyBytes);
+        random.nextBytes(counter);
+        SecretKeySpec key = new SecretKeySpec(keyBytes, "AES");
+        IvParameterSpec iv = new IvParameterSpec(counter);
+        byte[] plainText = new byte[MESSAGE_SIZE];
+        random.nextBytes(plainText);
+
+        byte[] expected = crypt("AES/CTR/NoPadding", Cipher.ENCRYPT_MODE, key, iv, plainText,
+                false);
+
+        System.setProperty(PARALLEL_THRESHOLD, "0");
+        System.setProperty(PARALLELISM, "4");
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding", getProviderName());
+        for (int shift : new int[] {0, 7, -7}) {
+            byte[] buffer = new byte[MESSAGE_SIZE + 14];
+            int inputOffset = 7;
+            int outputOffset = inputOffset + shift;
+            System.arraycopy(plainText, 0, buffer, inputOffset, MESSAGE_SIZE);
+            cipher.init(Cipher.ENCRYPT_MODE, key, iv);
+            assertEquals(MESSAGE_SIZE,
+                    cipher.doFinal(buffer, inputOffset, MESSAGE_SIZE, buffer, outputOffset));
+            assertArrayEquals(expected,
+                    Arrays.copyOfRange(buffer, outputOffset, outputOffset + MESSAGE_SIZE));
+        }
+    }
+
+    private void checkMode(String transformation, byte[] counter, int size) throws Exception {
+        for (int keySize : new int[] {16, 24, 32}) {
+            byte[] keyBytes = new byte[keySize];
+            random.nextBytes(keyBytes);
+            SecretKeySpec key = new SecretKeySpec(keyBytes, "AES");
+            IvParameterSpec iv = (counter == null) ? null : new IvParameterSpec(counter);
+            byte[] plainText = new byte[size];
+            random.nextBytes(plainText);
+
+            byte[] sequential = crypt(transformation, Cipher.ENCRYPT_MODE, key, iv, plainText,
+                    false);
+            byte[] parallel = crypt(transformation, Cipher.ENCRYPT_MODE, key, iv, plainText, true);
+            assertArrayEquals(sequential, parallel, transformation + " keySize " + keySize);
+
+            byte[] decrypted = crypt(transformation, Cipher.DECRYPT_MODE, key, iv, parallel, true);
+            assertArrayEquals(plainText, decrypted, transformation + " keySize " + keySize);
+        }
+    }
+
+    private byte[] crypt(String transformation, int opmode, SecretKeySpec key, IvParameterSpec iv,
+            byte[] input, boolean parallel) throws Exception {
+        if (parallel) {
+            System.setProperty(PARALLEL_THRESHOLD, "0");
+            System.setProperty(PARALLELISM, "3");
+        } else {
+            System.clearProperty(PARALLEL_THRESHOLD);
+        }
+        Cipher cipher = Cipher.getInstance(transformation, getProviderName());
+        if (iv == null) {
+            cipher.init(opmode, key);
+        } else {
+            cipher.init(opmode, key, iv);
+        }
+        byte[] output = cipher.doFinal(input);
+
+        // A second message on the same instance starts over from the IV.
+        assertArrayEquals(output, cipher.doFinal(input));
+        return output;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.BatchMessageDigest;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BaseTestBatchMessageDigest extends BaseTestJunit5 {
+
+    private final Random random = new Random(20240);
+
+    private byte[][] messages(int count, int maxLength) {
+        byte[][] messages = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            messages[i] = new byte[random.nextInt(maxLength + 1)];
+            random.nextBytes(messages[i]);
+        }
+        return messages;
+    }
+
+    // Digests the messages one by one with the provider.
+    private byte[] expected(String algorithm, byte[][] messages) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algorithm, getProviderName());
+        byte[] expected = new byte[messages.length * md.getDigestLength()];
+        for (int i = 0; i < messages.length; i++) {
+            System.arraycopy(md.digest(messages[i]), 0, expected, i * md.getDigestLength(),
+                    md.getDigestLength());
+        }
+        return expected;
+    }
+
+    @Test
+    public void testBatchDigest() throws Exception {
+        for (String algorithm : new String[] {"SHA-1", "SHA-256", "SHA-512", "SHA3-256"}) {
+            BatchMessageDigest digest = BatchMessageDigest.getInstance(algorithm,
+                    Security.getProvider(getProviderName()));
+            assertEquals(algorithm, digest.getAlgorithm());
+
+            byte[][] messages = messages(100, 300);
+            assertArrayEquals(expected(algorithm, messages), digest.digest(messages), algorithm);
+        }
+    }
+
+    @Test
+    public void testBatchDigestSlices() throws Exception {
+        BatchMessageDigest digest = BatchMessageDigest.getInstance("SHA256",
+                Security.getProvider(getProviderName()));
+        assertEquals("SHA-256", digest.getAlgorithm());
+
+        // Slices of one shared buffer, as for the chunks of a file.
+        byte[] buffer = messages(1, 10000)[0];
+        int count = 50;
+        byte[][] buffers = new byte[count][];
+        byte[][] messages = new byte[count][];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            buffers[i] = buffer;
+            offsets[i] = random.nextInt(buffer.length);
+            lengths[i] = random.nextInt(buffer.length - offsets[i] + 1);
+            messages[i] = Arrays.copyOfRange(buffer, offsets[i], offsets[i] + lengths[i]);
+        }
+
+        byte[] output = new byte[7 + count * digest.getDigestLength()];
+        digest.digest(buffers, offsets, lengths, output, 7);
+        assertArrayEquals(expected("SHA-256", messages),
+                Arrays.copyOfRange(output, 7, output.length));
+    }
+
+    @Test
+    public void testBatchDigestParallel() throws Exception {
+        BatchMessageDigest digest = BatchMessageDigest.getInstance("SHA-256",
+                Security.getProvider(getProviderName()));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            byte[][] messages = messages(5000, 64);
+            assertArrayEquals(expected("SHA-256", messages), digest.digest(messages, pool));
+
+            // Few large messages are split too.
+            messages = messages(8, 1 << 20);
+            assertArrayEquals(expected("SHA-256", messages), digest.digest(messages, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() throws Exception {
+        BatchMessageDigest digest = BatchMessageDigest.getInstance("SHA-384",
+                Security.getProvider(getProviderName()));
+        assertEquals(0, digest.digest(new byte[0][]).length);
+    }
+
+    @Test
+    public void testInvalidSlices() throws Exception {
+        BatchMessageDigest digest = BatchMessageDigest.getInstance("SHA-256",
+                Security.getProvider(getProviderName()));
+        byte[][] buffers = {new byte[10], new byte[10]};
+        byte[] output = new byte[64];
+
+        assertThrows(IllegalArgumentException.class,
+                () -> digest.digest(buffers, new int[] {0, 5}, new int[] {10, 6}, output, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> digest.digest(buffers, new int[] {0}, new int[] {10}, output, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> digest.digest(buffers, new int[] {0, 0}, new int[] {10, 10}, output, 1));
+    }
+
+    @Test
+    public void testNotADigestAlgorithm() throws Exception {
+        assertThrows(NoSuchAlgorithmException.class, () -> BatchMessageDigest
+                .getInstance("HmacSHA256", Security.getProvider(getProviderName())));
+    }
+}
@@ -15,6 +15,7 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
@@ -960,4 +961,68 @@ public class BaseTestChaCha20Poly1305 extends BaseTestCipher implements ChaCha20
             fail("Got unexpected exception on encrypt/decrypt...");
         }
     }
+
+    //--------------------------------------------------------------------------
+    // Compare single doFinal calls, which can be processed by one native call,
+    // with update/doFinal sequences for sizes around the one-shot buffer limit
+    //
+    @Test
+    public void testChaCha20Poly1305OneShotMatchesUpdate() throws Exception {
+        int[] sizes = {0, 1, 16, 4079, 4095, 4096, 4097, 10000};
+        byte[][] aads = {null, CHACHA20_POLY1305_AAD, new byte[1100]};
+        for (int size : sizes) {
+            byte[] plainText = new byte[size];
+            new SecureRandom().nextBytes(plainText);
+            for (byte[] aad : aads) {
+                cp = Cipher.getInstance(CHACHA20_POLY1305_ALGORITHM, getProviderName());
+                cp.init(Cipher.ENCRYPT_MODE, key, CHACHA20_POLY1305_PARAM_SPEC);
+                if (aad != null) {
+                    cp.updateAAD(aad);
+                }
+                byte[] oneShot = cp.doFinal(plainText);
+
+                cp = Cipher.getInstance(CHACHA20_POLY1305_ALGORITHM, getProviderName());
+                cp.init(Cipher.ENCRYPT_MODE, key, CHACHA20_POLY1305_PARAM_SPEC);
+                if (aad != null) {
+                    cp.updateAAD(aad);
+                }
+                byte[] streamed = new byte[size + 16];
+                int half = size / 2;
+                int len = cp.update(plainText, 0, half, streamed, 0);
+                len += cp.doFinal(plainText, half, size - half, streamed, len);
+                assertTrue("Length mismatch, msglen=" + size, len == streamed.length);
+                assertTrue("One-shot and update ciphertext differ, msglen=" + size,
+                        Arrays.equals(oneShot, streamed));
+
+                cp.init(Cipher.DECRYPT_MODE, key, CHACHA20_POLY1305_PARAM_SPEC);
+                if (aad != null) {
+                    cp.updateAAD(aad);
+                }
+                assertTrue("One-shot decrypt failed, msglen=" + size,
+                        Arrays.equals(plainText, cp.doFinal(oneShot)));
+
+                // The cipher must be usable again after a one-shot operation
+                cp.init(Cipher.DECRYPT_MODE, key, CHACHA20_POLY1305_PARAM_SPEC);
+                if (aad != null) {
+                    cp.updateAAD(aad);
+                }
+                byte[] decrypted = new byte[size];
+                len = cp.update(oneShot, 0, half, decrypted, 0);
+                len += cp.doFinal(oneShot, half, oneShot.length - half, decrypted, len);
+                assertTrue("Update decrypt failed, msglen=" + size,
+                        (len == size) && Arrays.equals(plainText, decrypted));
+
+                oneShot[oneShot.length - 1] ^= 1;
+                cp.init(Cipher.DECRYPT_MODE, key, CHACHA20_POLY1305_PARAM_SPEC);
+                if (aad != null) {
+                    cp.updateAAD(aad);
+                }
+                try {
+                    cp.doFinal(oneShot);
+                    fail("Did not get expected AEADBadTagException, msglen=" + size);
+                } catch (AEADBadTagException e) {
+                }
+            }
+        }
+    }
 }
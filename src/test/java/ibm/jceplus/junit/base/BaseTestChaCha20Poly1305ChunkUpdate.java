@@ -8,14 +8,18 @@
 package ibm.jceplus.junit.base;
 
 import com.ibm.crypto.plus.provider.ChaCha20Constants;
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 
 public class BaseTestChaCha20Poly1305ChunkUpdate extends BaseTestCipher
@@ -25,6 +29,7 @@ public class BaseTestChaCha20Poly1305ChunkUpdate extends BaseTestCipher
     static final int CHACHA20_MAC_SIZE = 16;
     static final byte[] NONCE_12_BYTE = "123456781234".getBytes();
     static final IvParameterSpec CHACHA20_POLY1305_PARAM_SPEC = new IvParameterSpec(NONCE_12_BYTE);
+    static final int ALLOCATION_TOLERANCE = 8192;
 
     protected KeyGenerator keyGen = null;
     protected SecretKey key = null;
@@ -52,6 +57,62 @@ public class BaseTestChaCha20Poly1305ChunkUpdate extends BaseTestCipher
         testChunkUpdate(8192);
     }
 
+    /**
+     * Checks the bytes allocated by the calling thread while decrypting in
+     * 4096 byte updates into preallocated output. Holding back the tag used
+     * to copy the input about three times, now only the initialization of
+     * the cipher allocates, which the fixed tolerance allows for.
+     */
+    @Test
+    public void testChunkUpdateAllocation() throws Exception {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assumptions.assumeTrue(allocBean.isThreadAllocatedMemorySupported());
+        allocBean.setThreadAllocatedMemoryEnabled(true);
+
+        int iterations = 200;
+        int[] inputSizes = {8175, 8192, 65536};
+        for (int inputSize : inputSizes) {
+            byte[] pText = new byte[inputSize];
+            Arrays.fill(pText, (byte) 'a');
+            byte[] cText = encrypt(pText);
+            int cTextLen = cText.length - ChaCha20_NONCE_SIZE;
+            byte[] output = new byte[inputSize];
+
+            Cipher cipher = Cipher.getInstance(CHACHA20_POLY1305_ALGORITHM, getProviderName());
+            for (int n = 0; n < iterations; n++) {
+                decryptChunked(cipher, cText, cTextLen, output);
+            }
+            assertArrayEquals(pText, output);
+
+            long threadId = Thread.currentThread().getId();
+            long allocatedBefore = allocBean.getThreadAllocatedBytes(threadId);
+            for (int n = 0; n < iterations; n++) {
+                decryptChunked(cipher, cText, cTextLen, output);
+            }
+            long allocated = allocBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            long perMessage = allocated / iterations;
+            assertTrue(getProviderName() + " allocated " + perMessage
+                    + " bytes per chunked decrypt of " + inputSize + " bytes",
+                    perMessage < (inputSize / 2) + ALLOCATION_TOLERANCE);
+        }
+    }
+
+    private void decryptChunked(Cipher cipher, byte[] cText, int cTextLen, byte[] output)
+            throws Exception {
+        cipher.init(Cipher.DECRYPT_MODE, key, CHACHA20_POLY1305_PARAM_SPEC);
+        int chunk = getTempArraySize(cTextLen);
+        int outLen = 0;
+        int off = 0;
+        for (; cTextLen - off > chunk; off += chunk) {
+            outLen += cipher.update(cText, off, chunk, output, outLen);
+        }
+        outLen += cipher.doFinal(cText, off, cTextLen - off, output, outLen);
+        assertTrue(outLen == output.length);
+    }
+
     private void testChunkUpdate(int inputSize) throws Exception {
         String input = getString(inputSize);
 
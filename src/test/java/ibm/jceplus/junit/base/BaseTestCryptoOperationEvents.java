@@ -0,0 +1,173 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BaseTestCryptoOperationEvents extends BaseTestJunit5 {
+
+    static final String CRYPTO_OPERATION = "com.ibm.crypto.plus.CryptoOperation";
+    static final String NATIVE_CONTEXT = "com.ibm.crypto.plus.NativeContext";
+
+    SecureRandom random = new SecureRandom();
+
+    @Test
+    public void testOperationEvents() throws Exception {
+        List<RecordedEvent> events = record(true, () -> {
+            byte[] data = new byte[1000];
+            random.nextBytes(data);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding", getProviderName());
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(new byte[32], "AES"),
+                    new GCMParameterSpec(128, new byte[12]));
+            cipher.doFinal(data);
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256", getProviderName());
+            digest.update(data, 0, 600);
+            digest.update(data, 600, 400);
+            digest.digest();
+
+            Mac mac = Mac.getInstance("HmacSHA256", getProviderName());
+            mac.init(new SecretKeySpec(new byte[16], "HmacSHA256"));
+            mac.doFinal(data);
+
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", getProviderName());
+            generator.initialize(256);
+            KeyPair keyPair = generator.generateKeyPair();
+
+            Signature signature = Signature.getInstance("SHA256withECDSA", getProviderName());
+            signature.initSign(keyPair.getPrivate());
+            signature.update(data);
+            byte[] sigBytes = signature.sign();
+            signature.initVerify(keyPair.getPublic());
+            signature.update(data);
+            assertTrue(signature.verify(sigBytes));
+
+            KeyAgreement agreement = KeyAgreement.getInstance("ECDH", getProviderName());
+            agreement.init(keyPair.getPrivate());
+            agreement.doPhase(generator.generateKeyPair().getPublic(), true);
+            agreement.generateSecret();
+        });
+
+        RecordedEvent cipher = find(events, "Cipher", "doFinal");
+        assertEquals(256, cipher.getInt("keySize"));
+        assertEquals(1000, cipher.getLong("inputBytes"));
+        assertEquals(getProviderName(), cipher.getString("provider"));
+        assertTrue(cipher.getString("algorithm").startsWith("AES"), cipher.getString("algorithm"));
+
+        RecordedEvent digest = find(events, "MessageDigest", "digest");
+        assertEquals(1000, digest.getLong("inputBytes"));
+        assertEquals("SHA-256", digest.getString("algorithm"));
+
+        RecordedEvent mac = find(events, "Mac", "doFinal");
+        assertEquals(128, mac.getInt("keySize"));
+        assertEquals(1000, mac.getLong("inputBytes"));
+
+        assertEquals(256, find(events, "KeyPairGenerator", "generateKeyPair").getInt("keySize"));
+        find(events, "Signature", "sign");
+        find(events, "Signature", "verify");
+        find(events, "KeyAgreement", "generateSecret");
+
+        // A context is created for the Mac at least.
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals(NATIVE_CONTEXT)
+                && "HMAC".equals(e.getString("contextType"))));
+    }
+
+    @Test
+    public void testOneEventPerOperation() throws Exception {
+        // The byte array doFinal delegates to the one with an output buffer,
+        // which must not be reported a second time.
+        List<RecordedEvent> events = record(true, () -> {
+            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding", getProviderName());
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(new byte[16], "AES"),
+                    new IvParameterSpec(new byte[16]));
+            for (int i = 0; i < 3; i++) {
+                cipher.doFinal(new byte[100]);
+            }
+        });
+        assertEquals(3, events.stream()
+                .filter(e -> e.getEventType().getName().equals(CRYPTO_OPERATION)).count());
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        List<RecordedEvent> events = record(false, () -> {
+            MessageDigest.getInstance("SHA-256", getProviderName()).digest(new byte[10]);
+            Mac mac = Mac.getInstance("HmacSHA256", getProviderName());
+            mac.init(new SecretKeySpec(new byte[16], "HmacSHA256"));
+            mac.doFinal();
+        });
+        assertFalse(events.stream()
+                .anyMatch(e -> e.getEventType().getName().startsWith("com.ibm.crypto.plus")));
+    }
+
+    interface Operations {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> record(boolean enable, Operations operations)
+            throws Exception {
+        Path file = Files.createTempFile("crypto-events", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                if (enable) {
+                    recording.enable(CRYPTO_OPERATION);
+                    recording.enable(NATIVE_CONTEXT);
+                }
+                recording.start();
+                operations.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getThread() != null
+                        && event.getThread().getJavaThreadId() == Thread.currentThread().getId()) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String service,
+            String operation) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(CRYPTO_OPERATION)
+                    && service.equals(event.getString("service"))
+                    && operation.equals(event.getString("operation"))) {
+                return event;
+            }
+        }
+        throw new AssertionError("No " + service + " " + operation + " event in " + events);
+    }
+}
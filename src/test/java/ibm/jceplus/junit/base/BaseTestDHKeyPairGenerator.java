@@ -9,9 +9,13 @@
 package ibm.jceplus.junit.base;
 
 import java.math.BigInteger;
+import java.security.AlgorithmParameterGenerator;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidParameterException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.spec.NamedParameterSpec;
+import javax.crypto.KeyAgreement;
 import javax.crypto.interfaces.DHKey;
 import javax.crypto.interfaces.DHPrivateKey;
 import javax.crypto.interfaces.DHPublicKey;
@@ -19,6 +23,8 @@ import javax.crypto.spec.DHParameterSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import sun.security.util.KeyUtil;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -229,6 +235,75 @@ public class BaseTestDHKeyPairGenerator extends BaseTestJunit5 {
         compPrivPubKeyParams();
     }
 
+    @Test
+    public void testDHKeyGen_ffdhe2048() throws Exception {
+        kpg.initialize(new NamedParameterSpec("ffdhe2048"));
+        compPrivPubKeyParams();
+
+        KeyPair kpA = kpg.generateKeyPair();
+        KeyPair kpB = kpg.generateKeyPair();
+        DHParameterSpec params = ((DHPublicKey) kpA.getPublic()).getParams();
+        assertEquals(2048, params.getP().bitLength());
+        assertEquals(BigInteger.valueOf(2), params.getG());
+
+        KeyAgreement kaA = KeyAgreement.getInstance("DH", getProviderName());
+        kaA.init(kpA.getPrivate());
+        kaA.doPhase(kpB.getPublic(), true);
+        KeyAgreement kaB = KeyAgreement.getInstance("DH", getProviderName());
+        kaB.init(kpB.getPrivate());
+        kaB.doPhase(kpA.getPublic(), true);
+        assertArrayEquals(kaA.generateSecret(), kaB.generateSecret());
+    }
+
+    @Test
+    public void testDHKeyGen_unknownNamedGroup() throws Exception {
+        try {
+            kpg.initialize(new NamedParameterSpec("ffdhe1024"));
+            fail("Unknown DH group was accepted");
+        } catch (InvalidAlgorithmParameterException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDHKeyGen_generatedParamsShared() throws Exception {
+        if (getProviderName().equals("OpenJCEPlusFIPS")) {
+            //FIPS does not support 576 bit keys
+            return;
+        }
+        // There are no precomputed parameters for 576 bits, the parameters
+        // generated for the first generator are reused by the second one.
+        KeyPairGenerator kpg1 = KeyPairGenerator.getInstance("DH", getProviderName());
+        kpg1.initialize(576);
+        KeyPairGenerator kpg2 = KeyPairGenerator.getInstance("DH", getProviderName());
+        kpg2.initialize(576);
+
+        DHParameterSpec params1 = ((DHPublicKey) kpg1.generateKeyPair().getPublic()).getParams();
+        DHParameterSpec params2 = ((DHPublicKey) kpg2.generateKeyPair().getPublic()).getParams();
+        assertEquals(576, params1.getP().bitLength());
+        assertEquals(params1.getP(), params2.getP());
+        assertEquals(params1.getG(), params2.getG());
+    }
+
+    @Test
+    public void testDHParamGen_freshParams() throws Exception {
+        if (getProviderName().equals("OpenJCEPlusFIPS")) {
+            //FIPS does not support 576 bit keys
+            return;
+        }
+        // Unlike the key pair generator, the parameter generator generates
+        // new parameters on every call.
+        AlgorithmParameterGenerator paramGen = AlgorithmParameterGenerator.getInstance("DH",
+                getProviderName());
+        paramGen.init(576);
+        DHParameterSpec params1 = paramGen.generateParameters()
+                .getParameterSpec(DHParameterSpec.class);
+        DHParameterSpec params2 = paramGen.generateParameters()
+                .getParameterSpec(DHParameterSpec.class);
+        assertEquals(576, params1.getP().bitLength());
+        assertFalse(params1.getP().equals(params2.getP()));
+    }
+
     @Test
     public void testDefaultDHPrivateExpSize() throws Exception {
         //        int[] keypairSizes = { 512, 768, 1024, 1536, 2048, 3072, 4096, 6144, 8192 };
@@ -0,0 +1,72 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ock.Digest;
+import com.ibm.crypto.plus.provider.ock.OCKContext;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks snapshot digests of the running state of a digest against the SUN
+ * provider, for input that is still gathered in Java and input that was
+ * passed to the native context, and that the digest goes on unchanged.
+ */
+public class BaseTestDigestSnapshot extends BaseTestJunit5 {
+
+    private OCKContext ockContext;
+
+    private final Random random = new Random(44);
+
+    @BeforeAll
+    public void createContext() throws Exception {
+        ockContext = OCKContext.createContext(false);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SHA1", "SHA256", "SHA384", "SHA512", "SHA3-256"})
+    public void testSnapshot(String digestAlgo) throws Exception {
+        Digest digest = Digest.getInstance(ockContext, digestAlgo);
+        String algorithm = digestAlgo.startsWith("SHA3") ? digestAlgo
+                : digestAlgo.replace("SHA", "SHA-");
+        MessageDigest expected = MessageDigest.getInstance(algorithm, "SUN");
+        int length = digest.getDigestLength();
+
+        byte[] transcript = new byte[64 * 1024];
+        random.nextBytes(transcript);
+        int offset = 0;
+        for (int size : new int[] {0, 10, 200, 30000, 7, 20000}) {
+            digest.update(transcript, offset, size);
+            offset += size;
+
+            byte[] output = new byte[length + 3];
+            digest.snapshotDigest(output, 3);
+            expected.update(transcript, 0, offset);
+            assertArrayEquals(expected.digest(), Arrays.copyOfRange(output, 3, output.length),
+                    digestAlgo + " snapshot after " + offset + " bytes");
+        }
+
+        expected.update(transcript, 0, offset);
+        assertArrayEquals(expected.digest(), digest.digest(), digestAlgo + " digest");
+    }
+
+    @Test
+    public void testSnapshotOutputTooShort() throws Exception {
+        Digest digest = Digest.getInstance(ockContext, "SHA256");
+        assertThrows(IllegalArgumentException.class,
+                () -> digest.snapshotDigest(new byte[40], 9));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ECDSABatchVerifier;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BaseTestECDSABatchVerifier extends BaseTestJunit5 {
+
+    private KeyPair generateKeyPair(String curveName) throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC", getProviderName());
+        kpg.initialize(new ECGenParameterSpec(curveName));
+        return kpg.generateKeyPair();
+    }
+
+    private byte[] sign(String algorithm, KeyPair keyPair, byte[] message) throws Exception {
+        Signature signer = Signature.getInstance(algorithm, getProviderName());
+        signer.initSign(keyPair.getPrivate());
+        signer.update(message);
+        return signer.sign();
+    }
+
+    // Adds count entries signed with a mix of keys and tampers with every
+    // seventh message and every eleventh signature. Returns the expected
+    // results.
+    private BitSet fillBatch(ECDSABatchVerifier verifier, KeyPair[] keyPairs, int count)
+            throws Exception {
+        BitSet expected = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            KeyPair keyPair = keyPairs[i % keyPairs.length];
+            byte[] message = ("log record " + i).getBytes();
+            byte[] signature = sign(verifier.getAlgorithm(), keyPair, message);
+            boolean valid = true;
+            if (i % 7 == 3) {
+                message = ("tampered record " + i).getBytes();
+                valid = false;
+            } else if (i % 11 == 5) {
+                signature[signature.length - 1] ^= 0x01;
+                valid = false;
+            }
+            verifier.add(keyPair.getPublic(), message, signature);
+            expected.set(i, valid);
+        }
+        return expected;
+    }
+
+    @Test
+    public void testBatchVerify() throws Exception {
+        KeyPair[] keyPairs = {generateKeyPair("secp256r1"), generateKeyPair("secp384r1")};
+        ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance("SHA256withECDSA",
+                Security.getProvider(getProviderName()));
+
+        BitSet expected = fillBatch(verifier, keyPairs, 100);
+        assertEquals(100, verifier.size());
+        assertEquals(expected, verifier.verify());
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    public void testBatchVerifyParallel() throws Exception {
+        KeyPair[] keyPairs = {generateKeyPair("secp256r1"), generateKeyPair("secp256r1"),
+                generateKeyPair("secp521r1")};
+        ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance("SHA384withECDSA",
+                Security.getProvider(getProviderName()));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BitSet expected = fillBatch(verifier, keyPairs, 2000);
+            assertEquals(expected, verifier.verify(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchVerifyManyDistinctKeys() throws Exception {
+        KeyPair[] keyPairs = new KeyPair[300];
+        for (int i = 0; i < keyPairs.length; i++) {
+            keyPairs[i] = generateKeyPair("secp256r1");
+        }
+        ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance("SHA256withECDSA",
+                Security.getProvider(getProviderName()));
+
+        BitSet expected = fillBatch(verifier, keyPairs, 700);
+        assertEquals(expected, verifier.verify());
+    }
+
+    @Test
+    public void testBatchVerifyWhileKeysInUse() throws Exception {
+        KeyPair[] keyPairs = {generateKeyPair("secp256r1"), generateKeyPair("secp384r1")};
+        byte[] message = "concurrent record".getBytes();
+        byte[][] signatures = {sign("SHA256withECDSA", keyPairs[0], message),
+                sign("SHA256withECDSA", keyPairs[1], message)};
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 2; t++) {
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance(
+                                "SHA256withECDSA", Security.getProvider(getProviderName()));
+                        BitSet expected = fillBatch(verifier, keyPairs, 50);
+                        if (!expected.equals(verifier.verify())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+                results.add(executor.submit(() -> {
+                    Signature verifier = Signature.getInstance("SHA256withECDSA",
+                            getProviderName());
+                    for (int round = 0; round < 500; round++) {
+                        int k = round % 2;
+                        verifier.initVerify(keyPairs[k].getPublic());
+                        verifier.update(message);
+                        if (!verifier.verify(signatures[k])) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchVerifyDigests() throws Exception {
+        KeyPair keyPair = generateKeyPair("secp256r1");
+        ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance("NONEwithECDSA",
+                Security.getProvider(getProviderName()));
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 10; i++) {
+            byte[] digest = md.digest(("record " + i).getBytes());
+            byte[] signature = sign("NONEwithECDSA", keyPair, digest);
+            if (i == 4) {
+                digest[0] ^= 0x01;
+            } else {
+                expected.set(i);
+            }
+            verifier.add(keyPair.getPublic(), digest, signature);
+        }
+        assertEquals(expected, verifier.verify());
+    }
+
+    @Test
+    public void testEmptyBatch() throws Exception {
+        ECDSABatchVerifier verifier = ECDSABatchVerifier.getInstance("SHA256withECDSA",
+                Security.getProvider(getProviderName()));
+        assertEquals(new BitSet(), verifier.verify());
+    }
+
+    @Test
+    public void testNotAnECDSAAlgorithm() throws Exception {
+        assertThrows(NoSuchAlgorithmException.class, () -> ECDSABatchVerifier
+                .getInstance("SHA256withRSA", Security.getProvider(getProviderName())));
+    }
+}
@@ -18,13 +18,17 @@ import java.security.spec.ECFieldFp;
 import java.security.spec.ECGenParameterSpec;
 import java.security.spec.ECParameterSpec;
 import java.security.spec.ECPoint;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
 import java.security.spec.EllipticCurve;
 import java.security.spec.EncodedKeySpec;
+import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class BaseTestECKeyImport extends BaseTestJunit5 {
 
@@ -140,5 +144,40 @@ public class BaseTestECKeyImport extends BaseTestJunit5 {
         assertTrue(Arrays.equals(publicKey2Bytes, publicKeyBytes));
         assertTrue(Arrays.equals(privateKey2Bytes, privKeyBytes));
     }
-}
 
+    /**
+     * Keys are checked when they are imported, although the OCK key is only
+     * created when the key is first used.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testImportInvalidKeys() throws Exception {
+        KeyPairGenerator keyPairGen = KeyPairGenerator.getInstance("EC", getProviderName());
+        keyPairGen.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGen.generateKeyPair();
+        java.security.interfaces.ECPublicKey publicKey =
+                (java.security.interfaces.ECPublicKey) keyPair.getPublic();
+        ECParameterSpec params = publicKey.getParams();
+        ECPoint w = publicKey.getW();
+        KeyFactory keyFactory = KeyFactory.getInstance("EC", getProviderName());
+
+        ECPoint offCurve = new ECPoint(w.getAffineX(), w.getAffineY().add(BigInteger.ONE));
+        assertThrows(InvalidKeySpecException.class,
+                () -> keyFactory.generatePublic(new ECPublicKeySpec(offCurve, params)));
+        BigInteger p = ((ECFieldFp) params.getCurve().getField()).getP();
+        ECPoint outOfRange = new ECPoint(w.getAffineX().add(p), w.getAffineY());
+        assertThrows(InvalidKeySpecException.class,
+                () -> keyFactory.generatePublic(new ECPublicKeySpec(outOfRange, params)));
+
+        for (BigInteger s : new BigInteger[] {BigInteger.ZERO, params.getOrder(),
+                params.getOrder().add(BigInteger.ONE)}) {
+            assertThrows(InvalidKeySpecException.class,
+                    () -> keyFactory.generatePrivate(new ECPrivateKeySpec(s, params)));
+        }
+
+        // The largest valid private value is accepted
+        keyFactory.generatePrivate(
+                new ECPrivateKeySpec(params.getOrder().subtract(BigInteger.ONE), params));
+    }
+}
@@ -8,6 +8,7 @@
 package ibm.jceplus.junit.base;
 
 import java.math.BigInteger;
+import java.security.AlgorithmParameters;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -18,6 +19,7 @@ import java.security.spec.ECGenParameterSpec;
 import java.security.spec.ECParameterSpec;
 import java.security.spec.ECPoint;
 import java.security.spec.EllipticCurve;
+import java.util.Arrays;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.Assert.assertTrue;
@@ -101,6 +103,30 @@ public class BaseTestECKeyPairGenerator extends BaseTestJunit5 {
 
     }
 
+    @Test
+    public void testECKeyGenExplicitNamedCurveParameters() throws Exception {
+        kpg.initialize(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec namedSpec = ((ECPublicKey) kpg.generateKeyPair().getPublic()).getParams();
+
+        // An ECParameterSpec that is not the provider's own instance but
+        // carries the parameters of a known curve must resolve to that curve.
+        ECParameterSpec explicitSpec = new ECParameterSpec(namedSpec.getCurve(),
+                namedSpec.getGenerator(), namedSpec.getOrder(), namedSpec.getCofactor());
+        for (int i = 0; i < 2; i++) {
+            kpgc.initialize(explicitSpec);
+            KeyPair kp = kpgc.generateKeyPair();
+            compareEcParameterSpec(((ECPublicKey) kp.getPublic()).getParams(),
+                    ((ECPrivateKey) kp.getPrivate()).getParams());
+
+            AlgorithmParameters params = AlgorithmParameters.getInstance("EC", getProviderName());
+            params.init(explicitSpec);
+            AlgorithmParameters namedParams = AlgorithmParameters.getInstance("EC",
+                    getProviderName());
+            namedParams.init(namedSpec);
+            assertTrue(Arrays.equals(namedParams.getEncoded(), params.getEncoded()));
+        }
+    }
+
     @Test
     public void testECKeyGenCurves_secp192k1() throws Exception {
         generictestECKeyGenCurve("secp192k1");
@@ -0,0 +1,89 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.EdDSABatchVerifier;
+import java.security.InvalidKeyException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.security.Signature;
+import java.security.spec.NamedParameterSpec;
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BaseTestEdDSABatchVerifier extends BaseTestJunit5 {
+
+    private KeyPair generateKeyPair(String alg) throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance(alg, getProviderName());
+        kpg.initialize(new NamedParameterSpec(alg));
+        return kpg.generateKeyPair();
+    }
+
+    private byte[] sign(KeyPair keyPair, byte[] message) throws Exception {
+        Signature signer = Signature.getInstance("EdDSA", getProviderName());
+        signer.initSign(keyPair.getPrivate());
+        signer.update(message);
+        return signer.sign();
+    }
+
+    @Test
+    public void testBatchVerifyEd25519() throws Exception {
+        KeyPair[] keyPairs = {generateKeyPair("Ed25519"), generateKeyPair("Ed25519"),
+                generateKeyPair("Ed25519")};
+        EdDSABatchVerifier verifier = EdDSABatchVerifier.getInstance("Ed25519",
+                Security.getProvider(getProviderName()));
+
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 150; i++) {
+            KeyPair keyPair = keyPairs[i % keyPairs.length];
+            byte[] message = ("log record " + i).getBytes();
+            byte[] signature = sign(keyPair, message);
+            if (i % 9 == 2) {
+                signature[0] ^= 0x01;
+            } else if (i % 13 == 6) {
+                message = ("tampered record " + i).getBytes();
+            } else {
+                expected.set(i);
+            }
+            verifier.add(keyPair.getPublic(), message, signature);
+        }
+        assertEquals(150, verifier.size());
+        assertEquals(expected, verifier.verify());
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    public void testBatchVerifyMixedCurves() throws Exception {
+        KeyPair ed25519 = generateKeyPair("Ed25519");
+        KeyPair ed448 = generateKeyPair("Ed448");
+        EdDSABatchVerifier verifier = EdDSABatchVerifier.getInstance("EdDSA",
+                Security.getProvider(getProviderName()));
+
+        byte[] message = "mixed".getBytes();
+        verifier.add(ed25519.getPublic(), message, sign(ed25519, message));
+        verifier.add(ed448.getPublic(), message, sign(ed448, message));
+        verifier.add(ed448.getPublic(), message, sign(ed25519, message));
+
+        BitSet expected = new BitSet();
+        expected.set(0, 2);
+        assertEquals(expected, verifier.verify());
+    }
+
+    @Test
+    public void testWrongCurveKey() throws Exception {
+        KeyPair ed448 = generateKeyPair("Ed448");
+        EdDSABatchVerifier verifier = EdDSABatchVerifier.getInstance("Ed25519",
+                Security.getProvider(getProviderName()));
+        assertThrows(InvalidKeyException.class,
+                () -> verifier.add(ed448.getPublic(), new byte[1], new byte[64]));
+    }
+}
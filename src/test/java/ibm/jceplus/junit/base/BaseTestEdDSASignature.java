@@ -505,6 +505,41 @@ public class BaseTestEdDSASignature extends BaseTestJunit5Signature {
         doSignVerify("Ed448", origMsg, keyPair.getPrivate(), keyPair.getPublic());
     }
 
+    @Test
+    public void testEd25519ChunkedUpdatesAndReuse() throws Exception {
+        KeyPair keyPair = generateKeyPair("Ed25519");
+        Signature signing = Signature.getInstance("Ed25519", getProviderName());
+        Signature verifying = Signature.getInstance("Ed25519", getProviderName());
+
+        // A large message given in one update, then in uneven chunks, then a
+        // small message on the same objects to make sure no data is left
+        // over from the previous operation.
+        byte[] largeMsg = new byte[200 * 1024 + 7];
+        for (int i = 0; i < largeMsg.length; i++) {
+            largeMsg[i] = (byte) i;
+        }
+
+        signing.initSign(keyPair.getPrivate());
+        signing.update(largeMsg);
+        byte[] signedBytes = signing.sign();
+
+        verifying.initVerify(keyPair.getPublic());
+        for (int off = 0; off < largeMsg.length; off += 1000) {
+            verifying.update(largeMsg, off, Math.min(1000, largeMsg.length - off));
+        }
+        assertTrue("Chunked verification failed", verifying.verify(signedBytes));
+
+        signing.update(origMsg, 0, 5);
+        signing.update(origMsg, 5, origMsg.length - 5);
+        signedBytes = signing.sign();
+        verifying.update(origMsg);
+        assertTrue("Verification after reuse failed", verifying.verify(signedBytes));
+
+        verifying.update(largeMsg);
+        assertTrue("Verification with wrong message succeeded",
+                !verifying.verify(signedBytes));
+    }
+
     private KeyPair generateKeyPair(String alg, int keysize) throws Exception {
         KeyPairGenerator xecKeyPairGen = KeyPairGenerator.getInstance(alg, getProviderName());
         xecKeyPairGen.initialize(keysize);
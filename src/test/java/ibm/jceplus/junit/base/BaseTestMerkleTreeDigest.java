@@ -0,0 +1,184 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.MerkleTreeDigest;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BaseTestMerkleTreeDigest extends BaseTestJunit5 {
+
+    private final Random random = new Random(6962);
+
+    private byte[] data(int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+
+    // Builds the tree level by level with a MessageDigest of the provider.
+    private byte[] expected(String algorithm, byte[] data, int leafSize, int fanOut,
+            byte[] leafPrefix, byte[] nodePrefix) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algorithm, getProviderName());
+        List<byte[]> level = new ArrayList<byte[]>();
+        int offset = 0;
+        do {
+            int length = Math.min(leafSize, data.length - offset);
+            md.update(leafPrefix);
+            md.update(data, offset, length);
+            level.add(md.digest());
+            offset += length;
+        } while (offset < data.length);
+
+        while (level.size() > 1) {
+            List<byte[]> parents = new ArrayList<byte[]>();
+            for (int i = 0; i < level.size(); i += fanOut) {
+                int end = Math.min(i + fanOut, level.size());
+                if (end - i == 1) {
+                    parents.add(level.get(i));
+                    continue;
+                }
+                md.update(nodePrefix);
+                for (int j = i; j < end; j++) {
+                    md.update(level.get(j));
+                }
+                parents.add(md.digest());
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+
+    // The Merkle tree hash of RFC 6962, split at the largest power of two.
+    private byte[] rfc6962(MessageDigest md, List<byte[]> leaves) {
+        if (leaves.size() == 1) {
+            md.update((byte) 0x00);
+            return md.digest(leaves.get(0));
+        }
+        int split = Integer.highestOneBit(leaves.size() - 1);
+        byte[] left = rfc6962(md, leaves.subList(0, split));
+        byte[] right = rfc6962(md, leaves.subList(split, leaves.size()));
+        md.update((byte) 0x01);
+        md.update(left);
+        return md.digest(right);
+    }
+
+    @Test
+    public void testDefaultsMatchRFC6962() throws Exception {
+        MerkleTreeDigest tree = MerkleTreeDigest.getInstance("SHA-256",
+                Security.getProvider(getProviderName()), 1000, MerkleTreeDigest.DEFAULT_FAN_OUT,
+                new byte[] {0x00}, new byte[] {0x01});
+        MessageDigest md = MessageDigest.getInstance("SHA-256", getProviderName());
+
+        for (int size : new int[] {1, 999, 1000, 1001, 7000, 12345}) {
+            byte[] data = data(size);
+            List<byte[]> leaves = new ArrayList<byte[]>();
+            for (int offset = 0; offset < size; offset += 1000) {
+                leaves.add(Arrays.copyOfRange(data, offset, Math.min(offset + 1000, size)));
+            }
+            assertArrayEquals(rfc6962(md, leaves), tree.digest(ByteBuffer.wrap(data), null),
+                    size + " bytes");
+        }
+    }
+
+    @Test
+    public void testInputs() throws Exception {
+        MerkleTreeDigest tree = MerkleTreeDigest.getInstance("SHA-384",
+                Security.getProvider(getProviderName()), 4096, 2, new byte[] {0x00},
+                new byte[] {0x01});
+        assertEquals("SHA-384", tree.getAlgorithm());
+        assertEquals(48, tree.getDigestLength());
+
+        byte[] data = data(1000003);
+        byte[] expected = expected("SHA-384", data, 4096, 2, new byte[] {0x00}, new byte[] {0x01});
+
+        ByteBuffer heap = ByteBuffer.wrap(data);
+        assertArrayEquals(expected, tree.digest(heap));
+        assertFalse(heap.hasRemaining());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        assertArrayEquals(expected, tree.digest(direct));
+        assertFalse(direct.hasRemaining());
+
+        assertArrayEquals(expected, tree.digest(MemorySegment.ofArray(data)));
+
+        Path file = Files.createTempFile("merkle", ".bin");
+        try {
+            Files.write(file, data);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                assertArrayEquals(expected, tree.digest(channel));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        MerkleTreeDigest tree = MerkleTreeDigest.getInstance("SHA3-256",
+                Security.getProvider(getProviderName()), 512, 3, new byte[0],
+                new byte[] {0x07, 0x07});
+        assertEquals(512, tree.getLeafSize());
+        assertEquals(3, tree.getFanOut());
+
+        byte[] data = data(3 << 20);
+        byte[] expected = expected("SHA3-256", data, 512, 3, new byte[0], new byte[] {0x07, 0x07});
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(expected, tree.digest(ByteBuffer.wrap(data), pool));
+            assertArrayEquals(expected, tree.digest(ByteBuffer.wrap(data), null));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmptyInput() throws Exception {
+        MerkleTreeDigest tree = MerkleTreeDigest.getInstance("SHA-256",
+                Security.getProvider(getProviderName()));
+        assertEquals(MerkleTreeDigest.DEFAULT_LEAF_SIZE, tree.getLeafSize());
+
+        MessageDigest md = MessageDigest.getInstance("SHA-256", getProviderName());
+        assertArrayEquals(md.digest(new byte[] {0x00}), tree.digest(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void testInvalidArguments() throws Exception {
+        assertThrows(NoSuchAlgorithmException.class, () -> MerkleTreeDigest
+                .getInstance("SHA-1", Security.getProvider(getProviderName())));
+        assertThrows(NoSuchAlgorithmException.class, () -> MerkleTreeDigest
+                .getInstance("HmacSHA256", Security.getProvider(getProviderName())));
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleTreeDigest.getInstance("SHA-256",
+                        Security.getProvider(getProviderName()), 0, 2, new byte[0], new byte[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleTreeDigest.getInstance("SHA-256",
+                        Security.getProvider(getProviderName()), 1024, 1, new byte[0],
+                        new byte[0]));
+    }
+}
@@ -10,6 +10,7 @@ package ibm.jceplus.junit.base;
 
 import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 import static org.junit.Assert.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -83,4 +84,32 @@ abstract public class BaseTestMessageDigestClone extends BaseTestJunit5 {
 
         assertFalse("Digest of original matches clone's digest when it shouldn't", Arrays.equals(digest1, digest2));
     }
+
+    @Test
+    public void testTranscriptClones() throws Exception {
+        // Like a handshake transcript, the running digest is cloned and the
+        // clone digested after every message, small ones and ones longer
+        // than the transfer threshold.
+        MessageDigest md = MessageDigest.getInstance(getAlgorithm(), getProviderName());
+        MessageDigest expected = MessageDigest.getInstance(getAlgorithm(), getProviderName());
+        byte[] transcript = new byte[64 * 1024];
+        new Random(1234).nextBytes(transcript);
+
+        int length = 0;
+        for (int size : new int[] {0, 5, 100, 40, 5000, 3, 20000, 1, 300}) {
+            md.update(transcript, length, size);
+            length += size;
+
+            MessageDigest mdCopy = (MessageDigest) md.clone();
+            MessageDigest mdCopyOfCopy = (MessageDigest) mdCopy.clone();
+            expected.update(transcript, 0, length);
+            byte[] digest = expected.digest();
+            assertArrayEquals(digest, mdCopy.digest(), "Digest of clone after " + length + " bytes");
+            assertArrayEquals(digest, mdCopyOfCopy.digest(),
+                    "Digest of clone of clone after " + length + " bytes");
+        }
+
+        expected.update(transcript, 0, length);
+        assertArrayEquals(expected.digest(), md.digest(), "Digest of original did not match");
+    }
 }
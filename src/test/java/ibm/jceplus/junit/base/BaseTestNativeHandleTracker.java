@@ -0,0 +1,84 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ock.NativeHandleTracker;
+import com.ibm.crypto.plus.provider.ock.NativeStatistics;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BaseTestNativeHandleTracker extends BaseTestJunit5 {
+
+    @AfterEach
+    public void tearDown() {
+        NativeHandleTracker.stop();
+    }
+
+    @Test
+    public void testLiveHandlesReported() throws Exception {
+        NativeHandleTracker.start();
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", getProviderName());
+        generator.initialize(256);
+        KeyPair[] keyPairs = new KeyPair[5];
+        for (int i = 0; i < keyPairs.length; i++) {
+            keyPairs[i] = generator.generateKeyPair();
+        }
+        Mac mac = Mac.getInstance("HmacSHA256", getProviderName());
+        mac.init(new SecretKeySpec(new byte[16], "HmacSHA256"));
+        mac.doFinal(new byte[10]);
+
+        assertTrue(NativeHandleTracker.getLive(NativeStatistics.Handle.EC_KEY) >= keyPairs.length);
+        assertTrue(NativeHandleTracker.getLive(NativeStatistics.Handle.HMAC) >= 1);
+        assertTrue(NativeHandleTracker.report().contains("EC_KEY: "),
+                NativeHandleTracker.report());
+        assertEquals(NativeHandleTracker.getLiveTotal(), NativeHandleTracker.getLiveCounts()
+                .values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @SuppressWarnings({"removal", "deprecation"})
+    public void testFinalizedHandlesFreed() throws Exception {
+        NativeHandleTracker.start();
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", getProviderName());
+        generator.initialize(256);
+        for (int i = 0; i < 20; i++) {
+            generator.generateKeyPair();
+        }
+
+        for (int i = 0; (i < 20)
+                && (NativeHandleTracker.getLive(NativeStatistics.Handle.EC_KEY) != 0); i++) {
+            System.gc();
+            System.runFinalization();
+            Thread.sleep(100);
+        }
+        assertEquals(0, NativeHandleTracker.getLive(NativeStatistics.Handle.EC_KEY),
+                NativeHandleTracker.report());
+    }
+
+    @Test
+    public void testNotTrackedAfterStop() throws Exception {
+        NativeHandleTracker.start();
+        NativeHandleTracker.stop();
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", getProviderName());
+        generator.initialize(256);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        assertEquals(0, NativeHandleTracker.getLive(NativeStatistics.Handle.EC_KEY));
+        assertTrue(keyPair.getPrivate() != null);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ock.Digest;
+import com.ibm.crypto.plus.provider.ock.OCKContext;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that threads are striped over the OCK contexts of the provider,
+ * always getting the same one, that objects created with one context work
+ * on any thread, that keys and the engines that use them stay on the first
+ * context, and that all contexts find the same hardware capabilities.
+ *
+ * <p>The contexts of the provider are used, rather than contexts created
+ * for the test, as OCK contexts are never freed and SHA digest contexts
+ * created with them are cached for the whole JVM. There are as many as the
+ * property {@code com.ibm.crypto.provider.OCKContextShards} asks for.
+ */
+public class BaseTestOCKContextShards extends BaseTestJunit5 {
+
+    private Provider provider;
+
+    private OCKContext[] contexts;
+
+    @BeforeAll
+    public void getContexts() throws Exception {
+        // The contexts are created by the first crypto operation.
+        provider = Security.getProvider(getProviderName());
+        MessageDigest.getInstance("SHA-256", provider).digest(new byte[1]);
+
+        Field field = provider.getClass().getDeclaredField("ockContexts");
+        field.setAccessible(true);
+        contexts = (OCKContext[]) field.get(null);
+    }
+
+    @Test
+    public void testSelect() throws Exception {
+        Set<OCKContext> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < 16; i++) {
+                Future<OCKContext> context = executor.submit(() -> {
+                    OCKContext first = OCKContext.select(contexts);
+                    assertSame(first, OCKContext.select(contexts));
+                    assertSame(contexts[(int) (Thread.currentThread().threadId()
+                            % contexts.length)], first);
+                    return first;
+                });
+                selected.add(context.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue((contexts.length == 1) ? (selected.size() == 1) : (selected.size() > 1),
+                "Threads use " + selected.size() + " of " + contexts.length + " contexts");
+        assertSame(contexts[0], OCKContext.select(new OCKContext[] {contexts[0]}));
+    }
+
+    @Test
+    public void testObjectsAcrossThreads() throws Exception {
+        byte[] message = new byte[1000];
+        byte[] expected = MessageDigest.getInstance("SHA-256", "SUN").digest(message);
+        ExecutorService executor = Executors.newFixedThreadPool(contexts.length);
+        try {
+            for (OCKContext context : contexts) {
+                Digest digest = Digest.getInstance(context, "SHA256");
+                digest.update(message, 0, message.length);
+                assertArrayEquals(expected, executor.submit(() -> digest.digest()).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testKeysAcrossThreads() throws Exception {
+        Method getOCKContext = provider.getClass().getDeclaredMethod("getOCKContext");
+        getOCKContext.setAccessible(true);
+
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC", provider);
+        ecGenerator.initialize(256);
+        KeyPair ecKeyPair = ecGenerator.generateKeyPair();
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA", provider);
+        rsaGenerator.initialize(2048);
+        KeyPair rsaKeyPair = rsaGenerator.generateKeyPair();
+        PSSParameterSpec pssSpec = new PSSParameterSpec("SHA-256", "MGF1",
+                MGF1ParameterSpec.SHA256, 32, 1);
+        byte[] message = new byte[1000];
+
+        // More threads than contexts, so that every context is selected by
+        // some thread.
+        ExecutorService executor = Executors.newFixedThreadPool(2 * contexts.length + 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2 * contexts.length + 2; i++) {
+                futures.add(executor.submit(() -> {
+                    assertSame(contexts[0], getOCKContext.invoke(provider));
+
+                    Signature ecdsa = Signature.getInstance("SHA256withECDSA", provider);
+                    ecdsa.initSign(ecKeyPair.getPrivate());
+                    ecdsa.update(message);
+                    byte[] signature = ecdsa.sign();
+                    ecdsa.initVerify(ecKeyPair.getPublic());
+                    ecdsa.update(message);
+                    assertTrue(ecdsa.verify(signature));
+
+                    Signature pss = Signature.getInstance("RSASSA-PSS", provider);
+                    pss.setParameter(pssSpec);
+                    pss.initSign(rsaKeyPair.getPrivate());
+                    pss.update(message);
+                    signature = pss.sign();
+                    pss.initVerify(rsaKeyPair.getPublic());
+                    pss.update(message);
+                    assertTrue(pss.verify(signature));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testHardwareCapabilities() throws Exception {
+        Map<String, Boolean> capabilities = contexts[0].getHardwareCapabilities().toMap();
+        assertEquals(Set.of("AES_CBC", "AES_GCM", "AES_CCM"), capabilities.keySet());
+        for (OCKContext context : contexts) {
+            assertSame(context.getHardwareCapabilities(), context.getHardwareCapabilities());
+            assertEquals(capabilities, context.getHardwareCapabilities().toMap());
+        }
+    }
+}
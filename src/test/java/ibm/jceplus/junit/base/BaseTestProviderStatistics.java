@@ -0,0 +1,135 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ProviderStatisticsMXBean;
+import java.lang.management.ManagementFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Map;
+import java.util.Set;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BaseTestProviderStatistics extends BaseTestJunit5 {
+
+    @Test
+    public void testRegistered() throws Exception {
+        ProviderStatisticsMXBean bean = getStatistics();
+        assertEquals(getProviderName(), bean.getProviderName());
+        assertTrue(bean.getLiveHandles().containsKey("RSA_KEY"));
+        assertTrue(bean.getCounters().containsKey("GCM_SLOW_PATH"));
+        assertTrue(bean.getDigestCacheIdle() <= bean.getDigestCacheSize());
+    }
+
+    @Test
+    public void testOperationCounts() throws Exception {
+        String key = "Cipher.AES/GCM/NoPadding.doFinal";
+        long operationsBefore = countOperations(key);
+        long pathsBefore = sumGCMPaths();
+
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding", getProviderName());
+        for (int i = 0; i < 5; i++) {
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(new byte[16], "AES"),
+                    new GCMParameterSpec(128, new byte[] {(byte) i, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}));
+            cipher.doFinal(new byte[100]);
+        }
+
+        assertEquals(5, countOperations(key) - operationsBefore, "Operation counts "
+                + getStatistics().getOperationCounts());
+        assertEquals(5, sumGCMPaths() - pathsBefore);
+    }
+
+    @Test
+    public void testHandleCounts() throws Exception {
+        ProviderStatisticsMXBean bean = getStatistics();
+        long digestsBefore = bean.getCreatedHandles().get("DIGEST");
+        long keysBefore = bean.getCreatedHandles().get("EC_KEY");
+
+        MessageDigest.getInstance("SHA-256", getProviderName()).digest(new byte[10]);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", getProviderName());
+        generator.initialize(256);
+        generator.generateKeyPair();
+
+        Map<String, Long> created = bean.getCreatedHandles();
+        assertTrue(created.get("DIGEST") >= digestsBefore);
+        assertTrue(created.get("EC_KEY") > keysBefore);
+        Map<String, Long> highWater = bean.getHandleHighWaterMarks();
+        for (Map.Entry<String, Long> live : bean.getLiveHandles().entrySet()) {
+            assertTrue(live.getValue() >= 0, live.getKey());
+            assertTrue(highWater.get(live.getKey()) >= live.getValue(), live.getKey());
+            assertTrue(highWater.get(live.getKey()) <= created.get(live.getKey()), live.getKey());
+        }
+    }
+
+    @Test
+    public void testRSAPSSContextReturnedAfterSign() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA", getProviderName());
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        // Digests that no other test uses, so that the first signature
+        // creates the only context with them.
+        PSSParameterSpec spec = new PSSParameterSpec("SHA-512", "MGF1",
+                MGF1ParameterSpec.SHA224, 20, 1);
+
+        Signature first = Signature.getInstance("RSASSA-PSS", getProviderName());
+        first.setParameter(spec);
+        first.initSign(keyPair.getPrivate());
+        first.update(new byte[100]);
+        first.sign();
+
+        long hitsBefore = getStatistics().getCounters().get("RSAPSS_CONTEXT_CACHE_HIT");
+        Signature second = Signature.getInstance("RSASSA-PSS", getProviderName());
+        second.setParameter(spec);
+        second.initVerify(keyPair.getPublic());
+
+        // The first signature still exists, but returned its context when
+        // it signed.
+        assertTrue(getStatistics().getCounters().get("RSAPSS_CONTEXT_CACHE_HIT") > hitsBefore);
+        first.update(new byte[100]);
+        second.update(new byte[100]);
+        assertTrue(second.verify(first.sign()));
+    }
+
+    private long countOperations(String key) throws Exception {
+        Long count = getStatistics().getOperationCounts().get(key);
+        return (count == null) ? 0 : count;
+    }
+
+    private long sumGCMPaths() throws Exception {
+        Map<String, Long> counters = getStatistics().getCounters();
+        return counters.get("GCM_HARDWARE_PATH") + counters.get("GCM_FAST_PATH")
+                + counters.get("GCM_SLOW_PATH");
+    }
+
+    // The MBean is registered once per provider name, when the provider
+    // first uses its OCK context, which a digest makes sure of.
+    //
+    private ProviderStatisticsMXBean getStatistics() throws Exception {
+        MessageDigest.getInstance("SHA-256", getProviderName()).digest(new byte[1]);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(new ObjectName(
+                "com.ibm.crypto.plus:type=ProviderStatistics,name=" + getProviderName() + ",*"),
+                null);
+        assertEquals(1, names.size(), names.toString());
+        return JMX.newMXBeanProxy(server, names.iterator().next(),
+                ProviderStatisticsMXBean.class);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ProviderWarmUp;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a provider is warmed up with operations of each kind of
+ * algorithm, and that algorithms and providers it does not support are
+ * rejected.
+ */
+public class BaseTestProviderWarmUp extends BaseTestJunit5 {
+
+    @Test
+    public void testWarmUp() throws Exception {
+        Provider provider = Security.getProvider(getProviderName());
+        Duration time = ProviderWarmUp.warmUp(provider, 10, "SHA-256", "HmacSHA256",
+                "AES/GCM/NoPadding", "AES/CBC/PKCS5Padding", "AES/CCM/NoPadding",
+                "RSA/ECB/PKCS1Padding", "SHA256withECDSA", "RSASSA-PSS", "ECDH");
+        assertFalse(time.isNegative());
+    }
+
+    @Test
+    public void testUnknownAlgorithm() throws Exception {
+        Provider provider = Security.getProvider(getProviderName());
+        assertThrows(NoSuchAlgorithmException.class,
+                () -> ProviderWarmUp.warmUp(provider, 10, "SHA-256", "NoSuchAlgorithm"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProviderWarmUp.warmUp(provider, 0, "SHA-256"));
+    }
+
+    @Test
+    public void testOtherProvider() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> ProviderWarmUp.warmUp(Security.getProvider("SUN"), 10, "SHA-256"));
+    }
+}
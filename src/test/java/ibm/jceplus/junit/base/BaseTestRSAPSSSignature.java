@@ -1634,4 +1634,36 @@ public class BaseTestRSAPSSSignature extends BaseTestJunit5Signature {
             assertTrue(false);
         }
     }
+
+    /**
+     * Signs with new signatures and with parameters that change only the
+     * salt or also the digests, so pooled contexts are reused with other
+     * keys and parameters, and verifies every signature with SunRsaSign.
+     */
+    @Test
+    public void testContextReuse() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA", getProviderName());
+        keyGen.initialize(2048);
+        KeyPair[] keyPairs = {keyGen.generateKeyPair(), keyGen.generateKeyPair()};
+        PSSParameterSpec[] specs = {specSHA256Salt20, specSHA256Salt40,
+                new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA256, 32, 1),
+                specSHA256Salt20};
+
+        for (int i = 0; i < 20; i++) {
+            KeyPair keyPair = keyPairs[i % keyPairs.length];
+            Signature signer = Signature.getInstance("RSASSA-PSS", getProviderName());
+            Signature verifier = Signature.getInstance("RSASSA-PSS", "SunRsaSign");
+            for (PSSParameterSpec spec : specs) {
+                signer.setParameter(spec);
+                signer.initSign(keyPair.getPrivate());
+                signer.update(content1);
+                byte[] signature = signer.sign();
+
+                verifier.setParameter(spec);
+                verifier.initVerify(keyPair.getPublic());
+                verifier.update(content1);
+                assertTrue("Signature " + i + " with " + spec, verifier.verify(signature));
+            }
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import java.security.Provider;
+import java.security.Provider.Service;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that services of a new provider instance, which are put in it when
+ * first looked up, are found by their names and aliases in any case, also
+ * by concurrent threads, and that its properties and set of services hold
+ * all of them.
+ */
+public class BaseTestServiceTable extends BaseTestJunit5 {
+
+    private Provider newProvider() throws Exception {
+        return Security.getProvider(getProviderName()).getClass().getConstructor()
+                .newInstance();
+    }
+
+    @Test
+    public void testLookupByName() throws Exception {
+        Provider reference = newProvider();
+        Provider provider = newProvider();
+        for (Service expected : reference.getServices()) {
+            Service service = provider.getService(expected.getType(),
+                    expected.getAlgorithm().toLowerCase(Locale.ENGLISH));
+            assertNotNull(service, expected.toString());
+            assertEquals(expected.getAlgorithm(), service.getAlgorithm());
+            assertEquals(expected.getClassName(), service.getClassName());
+        }
+    }
+
+    @Test
+    public void testLookupByAlias() throws Exception {
+        Provider reference = newProvider();
+        Provider provider = newProvider();
+        for (Object property : reference.keySet()) {
+            String key = (String) property;
+            if (!key.startsWith("Alg.Alias.")) {
+                continue;
+            }
+            String name = key.substring("Alg.Alias.".length());
+            int dot = name.indexOf('.');
+            Service service = provider.getService(name.substring(0, dot),
+                    name.substring(dot + 1).toUpperCase(Locale.ENGLISH));
+            assertNotNull(service, key);
+            assertEquals(reference.getProperty(key), service.getAlgorithm(), key);
+        }
+    }
+
+    @Test
+    public void testUnknownService() throws Exception {
+        Provider provider = newProvider();
+        assertNull(provider.getService("Cipher", "NoSuchCipher"));
+        assertNull(provider.getService("NoSuchType", "AES"));
+        assertEquals(newProvider().getServices().size(), provider.getServices().size());
+    }
+
+    @Test
+    public void testProperties() throws Exception {
+        Provider reference = newProvider();
+        reference.getServices();
+        Provider provider = newProvider();
+        for (Object key : reference.keySet()) {
+            assertEquals(reference.get(key), provider.getProperty((String) key), (String) key);
+        }
+        assertEquals(reference.keySet(), provider.keySet());
+    }
+
+    @Test
+    public void testConcurrentLookup() throws Exception {
+        List<Service> expected = new ArrayList<>(newProvider().getServices());
+        Provider provider = newProvider();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Service>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    List<Service> found = new ArrayList<>();
+                    for (Service service : expected) {
+                        assertNull(provider.getService(service.getType(), "NoSuchAlgorithm"));
+                        found.add(provider.getService(service.getType(),
+                                service.getAlgorithm()));
+                    }
+                    return found;
+                }));
+            }
+            List<Service> first = results.get(0).get();
+            for (Future<List<Service>> result : results) {
+                List<Service> found = result.get();
+                for (int i = 0; i < expected.size(); i++) {
+                    assertNotNull(found.get(i), expected.get(i).toString());
+                    assertSame(first.get(i), found.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks digests of small messages, which are hashed by a single native call,
+ * against the SUN provider, including messages given in several updates,
+ * clones taken before the message is complete and digests written to a
+ * buffer of the caller.
+ */
+public class BaseTestSmallMessageDigest extends BaseTestJunit5 {
+
+    private static final int[] SIZES = {0, 1, 16, 32, 55, 56, 64, 127, 128, 255, 256, 1024,
+            4095, 4096, 4097, 16384, 65536};
+
+    private final Random random = new Random(4711);
+
+    private byte[] message(int size) {
+        byte[] message = new byte[size];
+        random.nextBytes(message);
+        return message;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"MD5", "SHA-1", "SHA-224", "SHA-256", "SHA-384", "SHA-512",
+            "SHA-512/224", "SHA-512/256", "SHA3-224", "SHA3-256", "SHA3-384", "SHA3-512"})
+    public void testDigest(String algorithm) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algorithm, getProviderName());
+        MessageDigest expected = MessageDigest.getInstance(algorithm, "SUN");
+
+        for (int size : SIZES) {
+            byte[] message = message(size);
+            assertArrayEquals(expected.digest(message), md.digest(message),
+                    algorithm + " of " + size + " bytes");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SHA-256", "SHA-512", "SHA3-256"})
+    public void testUpdates(String algorithm) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algorithm, getProviderName());
+        MessageDigest expected = MessageDigest.getInstance(algorithm, "SUN");
+
+        // Several small updates, then updates growing past the transfer
+        // threshold, so that gathered input is passed on in the middle.
+        for (int size : SIZES) {
+            byte[] message = message(size);
+            int offset = 0;
+            for (int chunk = 1; offset < size; chunk *= 3) {
+                int length = Math.min(chunk, size - offset);
+                md.update(message, offset, length);
+                offset += length;
+            }
+            md.update((byte) 0x5a);
+            expected.update(message);
+            expected.update((byte) 0x5a);
+            assertArrayEquals(expected.digest(), md.digest(), algorithm + " of " + size + " bytes");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SHA-1", "SHA-256", "SHA-512"})
+    public void testCloneAndReset(String algorithm) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algorithm, getProviderName());
+        MessageDigest expected = MessageDigest.getInstance(algorithm, "SUN");
+        byte[] head = message(40);
+        byte[] tail = message(24);
+
+        md.update(head);
+        MessageDigest copy = (MessageDigest) md.clone();
+        md.update(tail);
+        copy.update(head);
+
+        expected.update(head);
+        expected.update(tail);
+        assertArrayEquals(expected.digest(), md.digest());
+        expected.update(head);
+        expected.update(head);
+        assertArrayEquals(expected.digest(), copy.digest());
+
+        md.update(head);
+        md.reset();
+        assertArrayEquals(expected.digest(tail), md.digest(tail));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SHA-256", "SHA-384", "SHA3-512"})
+    public void testDigestIntoBuffer(String algorithm) throws Exception {
+        MessageDigest md = MessageDigest.getInstance(algorithm, getProviderName());
+        MessageDigest expected = MessageDigest.getInstance(algorithm, "SUN");
+        int length = md.getDigestLength();
+
+        for (int size : new int[] {0, 32, 8192}) {
+            byte[] message = message(size);
+            byte[] output = new byte[length + 10];
+            md.update(message);
+            assertTrue(md.digest(output, 5, length + 5) == length);
+
+            byte[] digest = new byte[length];
+            System.arraycopy(output, 5, digest, 0, length);
+            assertArrayEquals(expected.digest(message), digest, algorithm + " of " + size + " bytes");
+            assertTrue(output[0] == 0 && output[length + 9] == 0);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 3000, 20000})
+    public void testSignature(int size) throws Exception {
+        // Signatures pass the native digest context to the signing code, so
+        // the input gathered for the fast path must be in it.
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", getProviderName());
+        generator.initialize(256);
+        KeyPair keyPair = generator.generateKeyPair();
+        byte[] message = message(size);
+
+        Signature signer = Signature.getInstance("SHA256withECDSA", getProviderName());
+        signer.initSign(keyPair.getPrivate());
+        signer.update(message);
+        byte[] signature = signer.sign();
+
+        Signature verifier = Signature.getInstance("SHA256withECDSA", "SunEC");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(message);
+        assertTrue(verifier.verify(signature));
+    }
+}
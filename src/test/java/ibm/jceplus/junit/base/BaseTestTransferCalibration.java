@@ -0,0 +1,107 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base;
+
+import com.ibm.crypto.plus.provider.ock.TransferCalibration;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BaseTestTransferCalibration extends BaseTestJunit5 {
+
+    SecureRandom random = new SecureRandom();
+
+    @Test
+    public void testThresholds() throws Exception {
+        Map<String, Integer> thresholds = TransferCalibration.getThresholds();
+        assertNotNull(TransferCalibration.getSource());
+        for (String algorithm : new String[] {TransferCalibration.GCM, TransferCalibration.CCM,
+                TransferCalibration.CHACHA20_POLY1305, TransferCalibration.DEFAULT}) {
+            Integer threshold = thresholds.get(algorithm);
+            assertNotNull(threshold, algorithm);
+            assertTrue((threshold >= 256) && (threshold <= 16 * 1024),
+                    algorithm + " threshold " + threshold);
+            assertEquals(threshold.intValue(), TransferCalibration.getThreshold(algorithm));
+        }
+        assertEquals(TransferCalibration.getThreshold(TransferCalibration.DEFAULT),
+                TransferCalibration.getThreshold("unknown"));
+    }
+
+    @Test
+    public void testCalibrationOff() throws Exception {
+        // The build turns calibration off, so that every run uses the same
+        // thresholds.
+        Assumptions.assumeTrue(
+                "off".equals(System.getProperty("com.ibm.crypto.provider.TransferCalibration")));
+        Assumptions.assumeTrue(
+                System.getProperty("com.ibm.crypto.provider.TransferThreshold") == null);
+        assertEquals("default", TransferCalibration.getSource());
+        for (Map.Entry<String, Integer> threshold : TransferCalibration.getThresholds()
+                .entrySet()) {
+            if (System.getProperty("com.ibm.crypto.provider.TransferThreshold."
+                    + threshold.getKey()) == null) {
+                assertEquals(4096, threshold.getValue().intValue(), threshold.getKey());
+            }
+        }
+    }
+
+    @Test
+    public void testGCMAroundThreshold() throws Exception {
+        int threshold = TransferCalibration.getThreshold(TransferCalibration.GCM);
+        byte[] iv = randomBytes(12);
+        for (int len : new int[] {threshold - 1, threshold, threshold + 1}) {
+            if (len >= 0) {
+                checkRoundTrip("AES/GCM/NoPadding", "AES", 16, new GCMParameterSpec(128, iv),
+                        len);
+            }
+        }
+    }
+
+    @Test
+    public void testChaCha20Poly1305AroundThreshold() throws Exception {
+        int threshold = TransferCalibration.getThreshold(TransferCalibration.CHACHA20_POLY1305);
+        for (int len : new int[] {threshold - 1, threshold, threshold + 1}) {
+            if (len >= 0) {
+                // A new nonce for every message, the provider rejects reuse.
+                checkRoundTrip("ChaCha20-Poly1305", "ChaCha20", 32,
+                        new IvParameterSpec(randomBytes(12)), len);
+            }
+        }
+    }
+
+    private void checkRoundTrip(String transformation, String keyAlgorithm, int keySize,
+            AlgorithmParameterSpec params, int len) throws Exception {
+        SecretKeySpec key = new SecretKeySpec(randomBytes(keySize), keyAlgorithm);
+        byte[] plainText = randomBytes(len);
+
+        Cipher cipher = Cipher.getInstance(transformation, getProviderName());
+        cipher.init(Cipher.ENCRYPT_MODE, key, params);
+        byte[] cipherText = cipher.doFinal(plainText);
+
+        cipher = Cipher.getInstance(transformation, getProviderName());
+        cipher.init(Cipher.DECRYPT_MODE, key, params);
+        assertArrayEquals(plainText, cipher.doFinal(cipherText), transformation + " " + len);
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
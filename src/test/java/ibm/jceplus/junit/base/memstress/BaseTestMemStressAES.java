@@ -18,8 +18,10 @@ import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.Assert.assertTrue;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressAES extends BaseTestCipher {
 
     Random r = new Random(5);
@@ -17,8 +17,10 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.Assert.assertTrue;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressAESGCM extends BaseTestJunit5 {
 
     // 16 bytes: PASSED
@@ -23,8 +23,10 @@ import javax.crypto.KeyAgreement;
 import javax.crypto.spec.DHParameterSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.Assert.assertTrue;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressDH extends BaseTestJunit5 {
 
 
@@ -19,7 +19,9 @@ import java.security.spec.X509EncodedKeySpec;
 import javax.crypto.spec.DHParameterSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressDHKeyFactory extends BaseTestJunit5 {
 
 
@@ -17,7 +17,9 @@ import javax.crypto.KeyAgreement;
 import javax.crypto.spec.DHParameterSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressDHKeyPair extends BaseTestJunit5 {
 
 
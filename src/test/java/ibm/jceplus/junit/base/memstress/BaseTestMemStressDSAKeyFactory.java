@@ -20,7 +20,9 @@ import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressDSAKeyFactory extends BaseTestJunit5 {
 
 
@@ -21,8 +21,10 @@ import java.security.spec.X509EncodedKeySpec;
 import java.util.Arrays;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.fail;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressDSAKeyPair extends BaseTestJunit5 {
 
 
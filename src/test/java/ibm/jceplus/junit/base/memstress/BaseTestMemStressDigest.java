@@ -14,7 +14,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressDigest extends BaseTestJunit5 {
 
     int numTimes = 100;
@@ -12,7 +12,9 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressECDSASignature extends BaseTestJunit5Signature {
     int numTimes = 100;
     boolean printheapstats = false;
@@ -29,8 +29,10 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.Assert.assertTrue;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressHKDF extends BaseTestJunit5 {
 
     public String testName;
@@ -12,7 +12,9 @@ import ibm.jceplus.junit.base.BaseTestJunit5;
 import java.security.KeyPairGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressRSAKeyPair extends BaseTestJunit5 {
 
 
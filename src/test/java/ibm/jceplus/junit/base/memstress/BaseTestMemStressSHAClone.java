@@ -12,8 +12,10 @@ import ibm.jceplus.junit.base.BaseTestJunit5;
 import java.security.MessageDigest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
+@ExtendWith(NativeHandleGrowthCheck.class)
 public class BaseTestMemStressSHAClone extends BaseTestJunit5 {
 
     /* This test by default tests SHA-256 */
@@ -0,0 +1,74 @@
+/*
+ * Copyright IBM Corp. 2024
+ *
+ * Licensed under the Apache License 2.0 (the "License").  You may not use
+ * this file except in compliance with the License.  You can obtain a copy
+ * in the file LICENSE in the source distribution.
+ */
+
+package ibm.jceplus.junit.base.memstress;
+
+import com.ibm.crypto.plus.provider.ock.NativeHandleTracker;
+import com.ibm.crypto.plus.provider.ock.NativeStatistics;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails a memory stress test that leaves native handles behind. Native
+ * handles are tracked from before the test's setup until it finished, then
+ * objects are collected and finalized until no more than
+ * {@code com.ibm.jceplus.memstress.nativehandlegrowth} handles, 16 unless
+ * set, are live. Contexts added to the digest and RSA-PSS context caches
+ * during the test do not count. The check is skipped if
+ * {@code com.ibm.jceplus.memstress.checknativehandles} is {@code false}.
+ */
+public class NativeHandleGrowthCheck implements BeforeEachCallback, AfterEachCallback {
+
+    private long digestCacheSize;
+    private long rsaPssCacheSize;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (isEnabled()) {
+            digestCacheSize = NativeStatistics.getDigestCacheSizes()[1];
+            rsaPssCacheSize = NativeStatistics.getRSAPSSCacheSizes()[1];
+            NativeHandleTracker.start();
+        }
+    }
+
+    @Override
+    @SuppressWarnings({"removal", "deprecation"})
+    public void afterEach(ExtensionContext context) throws Exception {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long allowed = Long.getLong("com.ibm.jceplus.memstress.nativehandlegrowth", 16);
+        long growth = 0;
+        try {
+            for (int i = 0; i < 20; i++) {
+                System.gc();
+                System.runFinalization();
+                growth = NativeHandleTracker.getLiveTotal()
+                        - (NativeStatistics.getDigestCacheSizes()[1] - digestCacheSize)
+                        - (NativeStatistics.getRSAPSSCacheSizes()[1] - rsaPssCacheSize);
+                if (growth <= allowed) {
+                    break;
+                }
+                Thread.sleep(100);
+            }
+        } finally {
+            NativeHandleTracker.stop();
+        }
+
+        assertTrue(growth <= allowed, context.getDisplayName() + " left " + growth
+                + " native handles behind:\n" + NativeHandleTracker.report());
+    }
+
+    private static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(
+                System.getProperty("com.ibm.jceplus.memstress.checknativehandles"));
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @SelectClasses({
+    TestAEADTagFailure.class,
     TestAES_128.class,
     TestAES_192.class,
     TestAES_256.class,
@@ -38,7 +39,10 @@ import org.junit.platform.suite.api.Suite;
     TestAESGCMUpdate.class,
     TestAESGCMUpdateInteropBC.class,
     TestAESGCMWithByteBuffer.class,
+    TestAESKeyWrapInteropSunJCE.class,
+    TestAESParallel.class,
     TestAliases.class,
+    TestBatchMessageDigest.class,
     TestByteArrayOutputDelay.class,
     TestChaCha20.class,
     TestChaCha20KAT.class,
@@ -46,6 +50,7 @@ import org.junit.platform.suite.api.Suite;
     TestChaCha20Poly1305.class,
     TestChaCha20Poly1305ByteBuffer.class,
     TestChaCha20Poly1305ChunkUpdate.class,
+    TestCryptoOperationEvents.class,
     TestDESede.class,
     TestDH.class,
     TestDHInteropSunJCE.class,
@@ -56,17 +61,20 @@ import org.junit.platform.suite.api.Suite;
     TestDSASignature.class,
     TestDSASignatureInteropBC.class,
     TestDSASignatureInteropSUN.class,
+    TestDigestSnapshot.class,
     TestECDH.class,
     TestECDHInteropBC.class,
     TestECDHInteropSunEC.class,
     TestECDHKeyAgreementParamValidation.class,
     TestECDHMultiParty.class,
+    TestECDSABatchVerifier.class,
     TestECDSASignature.class,
     TestECDSASignatureInteropBC.class,
     TestECDSASignatureInteropSunEC.class,
     TestECKeyImport.class,
     TestECKeyImportInteropSunEC.class,
     TestECKeyPairGenerator.class,
+    TestEdDSABatchVerifier.class,
     TestEdDSASignature.class,
     TestEdDSASignatureInterop.class,
     TestHKDF.class,
@@ -92,7 +100,12 @@ import org.junit.platform.suite.api.Suite;
     TestInvalidArrayIndex.class,
     TestIsAssignableFromOrder.class,
     TestMD5.class,
+    TestMerkleTreeDigest.class,
     TestMiniRSAPSS2.class,
+    TestNativeHandleTracker.class,
+    TestOCKContextShards.class,
+    TestProviderStatistics.class,
+    TestProviderWarmUp.class,
     TestPublicMethodsToMakeNonPublic.class,
     TestResetByteBuffer.class,
     TestRSA_1024.class,
@@ -124,6 +137,9 @@ import org.junit.platform.suite.api.Suite;
     TestSHA512_224.class,
     TestSHA512_256.class,
     TestSHA512.class,
+    TestServiceTable.class,
+    TestSmallMessageDigest.class,
+    TestTransferCalibration.class,
     TestXDH.class,
     TestXDHInterop.class,
     TestXDHInteropBC.class,
@@ -10,6 +10,7 @@ package ibm.jceplus.junit.openjceplus;
 
 import ibm.jceplus.junit.base.BaseTestPublicMethodsToMakeNonPublic;
 import java.lang.reflect.Method;
+import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
@@ -17,6 +18,14 @@ import org.junit.jupiter.api.TestInstance.Lifecycle;
 @TestInstance(Lifecycle.PER_CLASS)
 public class TestPublicMethodsToMakeNonPublic extends BaseTestPublicMethodsToMakeNonPublic {
 
+    // Provider classes that are meant to be used directly by applications.
+    private static final List<String> PUBLIC_API_CLASSES = List.of(
+            "com.ibm.crypto.plus.provider.BatchMessageDigest",
+            "com.ibm.crypto.plus.provider.ECDSABatchVerifier",
+            "com.ibm.crypto.plus.provider.EdDSABatchVerifier",
+            "com.ibm.crypto.plus.provider.MerkleTreeDigest",
+            "com.ibm.crypto.plus.provider.ProviderStatisticsMXBean");
+
     @BeforeAll
     public void beforeAll() {
         Utils.loadProviderTestSuite();
@@ -24,6 +33,6 @@ public class TestPublicMethodsToMakeNonPublic extends BaseTestPublicMethodsToMak
     }
 
     public boolean isMethodMeantToBePublicAndExplicitlyCallableByUsers(Method method) {
-        return false;
+        return PUBLIC_API_CLASSES.contains(method.getDeclaringClass().getName());
     }
 }
@@ -36,6 +36,7 @@ import org.junit.platform.suite.api.Suite;
     TestAESGCMUpdate.class,
     TestAESGCMWithByteBuffer.class,
     TestAliases.class,
+    TestBatchMessageDigest.class,
     TestDH.class,
     TestDHInteropSunJCE.class,
     TestDHKeyFactory.class,
@@ -46,6 +47,7 @@ import org.junit.platform.suite.api.Suite;
     TestECDHInteropSunEC.class,
     TestECDHKeyAgreementParamValidation.class,
     TestECDHMultiParty.class,
+    TestECDSABatchVerifier.class,
     TestECDSASignature.class,
     TestECDSASignatureInteropSunEC.class,
     TestECKeyImport.class,
@@ -69,6 +71,7 @@ import org.junit.platform.suite.api.Suite;
     TestImplementationClassesExist.class,
     TestImplementationClassesFinal.class,
     TestInvalidArrayIndex.class,
+    TestMerkleTreeDigest.class,
     TestMiniRSAPSS2.class,
     TestPublicMethodsToMakeNonPublic.class,
     TestResetByteBuffer.class,